@@ -0,0 +1,93 @@
+package control;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+
+//Overview of a zoomed-in CanvasBoardView: one pixel per cell in an offscreen image (scaled down
+//to the minimap size) plus a frame around the part of the board that is on screen.
+//Only the cells the view reports as changed are rewritten, so an update costs as much as the
+//action that caused it. Clicking or dragging on the minimap moves the viewport there.
+final class BoardMinimap extends Canvas {
+
+    private static final double SIZE = 120.0;
+    private static final Color FRAME = Color.rgb(255, 215, 0, 0.95);
+    private static final Color BACKDROP = Color.rgb(0, 0, 0, 0.55);
+
+    private final CanvasBoardView view;
+    private final int rows;
+    private final int cols;
+
+    private final WritableImage cells;
+    private boolean filled;   // false until every pixel has been written once (or after invalidateAll)
+
+    BoardMinimap(CanvasBoardView view, int rows, int cols) {
+        this.view = view;
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new WritableImage(cols, rows);
+
+        // keep the board's aspect ratio inside a SIZE x SIZE box
+        double scale = SIZE / Math.max(rows, cols);
+        setWidth(Math.max(24, cols * scale));
+        setHeight(Math.max(24, rows * scale));
+
+        getStyleClass().add("board-minimap");
+        setOnMousePressed(e -> jump(e, true));
+        setOnMouseDragged(e -> jump(e, false));
+    }
+
+    //Every pixel is rewritten on the next update (palette change, game over).
+    void invalidateAll() {
+        filled = false;
+    }
+
+    //Called by the view after it flushed: the changed cells, and whether the viewport moved.
+    void update(int[] changed, int changedCount, boolean viewportMoved) {
+        PixelWriter pw = cells.getPixelWriter();
+        if (!filled) {
+            for (int i = 0, n = rows * cols; i < n; i++) {
+                pw.setColor(i % cols, i / cols, view.swatchOf(i));
+            }
+            filled = true;
+        } else if (changedCount == 0 && !viewportMoved) {
+            return;
+        } else {
+            for (int k = 0; k < changedCount; k++) {
+                int i = changed[k];
+                pw.setColor(i % cols, i / cols, view.swatchOf(i));
+            }
+        }
+        redraw();
+    }
+
+    private void redraw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        double w = getWidth();
+        double h = getHeight();
+
+        gc.clearRect(0, 0, w, h);
+        gc.setFill(BACKDROP);
+        gc.fillRect(0, 0, w, h);
+
+        gc.setImageSmoothing(cols > w);   // downscaling: blend; upscaling: keep crisp cells
+        gc.drawImage(cells, 0, 0, w, h);
+
+        double sx = w / cols;
+        double sy = h / rows;
+        gc.setStroke(FRAME);
+        gc.setLineWidth(1.5);
+        gc.strokeRect(view.getViewportCol() * sx, view.getViewportRow() * sy,
+                view.getViewportCols() * sx, view.getViewportRows() * sy);
+    }
+
+    private void jump(MouseEvent e, boolean animate) {
+        double col = e.getX() / getWidth() * cols;
+        double row = e.getY() / getHeight() * rows;
+        view.centerOn(col, row, animate);
+        e.consume();
+    }
+}
@@ -0,0 +1,155 @@
+package control;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.Border;
+import javafx.scene.layout.BorderStroke;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+//Colors for the canvas board, read from the active stylesheets (base.css, board.css and the theme).
+//Each look is probed with a throw-away Button in the same CSS state a tile would be in;
+//after applyCss() its background, border, text fill, font and opacity are copied out. The canvas
+//therefore follows every theme without a second copy of the colors.
+final class BoardPalette {
+
+    private static final PseudoClass HOVER = PseudoClass.getPseudoClass("hover");
+
+    //One entry per way a cell can look; mirrors the CellStyle states used by the tile view.
+    enum Look {
+        HIDDEN(false, false, CellStyle.COVERED),
+        HOVER(true, false, CellStyle.COVERED),
+        HINT(false, false, CellStyle.COVERED, CellStyle.HINT),
+        FLAGGED(false, false, CellStyle.COVERED, CellStyle.FLAGGED),
+        QUESTION(false, false, CellStyle.REVEALED, CellStyle.QUESTION),
+        SURPRISE(false, false, CellStyle.REVEALED, CellStyle.SURPRISE),
+        QUESTION_USED(false, true, CellStyle.REVEALED, CellStyle.QUESTION, CellStyle.ACTIVATED),
+        SURPRISE_USED(false, true, CellStyle.REVEALED, CellStyle.SURPRISE, CellStyle.ACTIVATED),
+        NUMBER(false, true, CellStyle.REVEALED, CellStyle.NUMBER, CellStyle.ACTIVATED),
+        EMPTY(false, true, CellStyle.REVEALED, CellStyle.EMPTY, CellStyle.ACTIVATED),
+        MINE(false, true, CellStyle.REVEALED, CellStyle.MINE, CellStyle.ACTIVATED),
+        MINE_FLAGGED(false, true, CellStyle.REVEALED, CellStyle.MINE, CellStyle.ACTIVATED, CellStyle.MINE_FLAGGED);
+
+        final boolean hover;
+        final boolean disabled;
+        final PseudoClass[] states;
+
+        Look(boolean hover, boolean disabled, PseudoClass... states) {
+            this.hover = hover;
+            this.disabled = disabled;
+            this.states = states;
+        }
+    }
+
+    static final class Style {
+        final Paint background;
+        final Paint border;
+        final double borderWidth;
+        final double radius;
+        final Paint text;
+        final Font font;
+        final double opacity;
+
+        Style(Paint background, Paint border, double borderWidth, double radius, Paint text, Font font, double opacity) {
+            this.background = background;
+            this.border = border;
+            this.borderWidth = borderWidth;
+            this.radius = radius;
+            this.text = text;
+            this.font = font;
+            this.opacity = opacity;
+        }
+    }
+
+    private final Map<Look, Style> styles;
+
+    private BoardPalette(Map<Look, Style> styles) {
+        this.styles = styles;
+    }
+
+    Style style(Look look) {
+        return styles.get(look);
+    }
+
+    //One opaque color per look (first gradient stop), for places too small for the full style.
+    Color swatch(Look look) {
+        Paint bg = styles.get(look).background;
+        Color c;
+        if (bg instanceof Color color) {
+            c = color;
+        } else if (bg instanceof LinearGradient g && !g.getStops().isEmpty()) {
+            c = g.getStops().get(0).getColor();
+        } else if (bg instanceof RadialGradient g && !g.getStops().isEmpty()) {
+            c = g.getStops().get(0).getColor();
+        } else {
+            c = Color.GRAY;
+        }
+        return Color.color(c.getRed(), c.getGreen(), c.getBlue());
+    }
+
+    //host must already be in a scene, so the scene's stylesheets apply to the probes.
+    static BoardPalette read(Pane host, boolean isPlayer1) {
+        Map<Look, Style> styles = new EnumMap<>(Look.class);
+        for (Look look : Look.values()) {
+            styles.put(look, probe(host, isPlayer1, look));
+        }
+        return new BoardPalette(styles);
+    }
+
+    private static Style probe(Pane host, boolean isPlayer1, Look look) {
+        Button probe = new Button("8");
+        probe.getStyleClass().addAll("cell-tile", isPlayer1 ? "p1-cell" : "p2-cell");
+        for (PseudoClass state : look.states) {
+            probe.pseudoClassStateChanged(state, true);
+        }
+        probe.setManaged(false);
+        probe.setMouseTransparent(true);
+        probe.setDisable(look.disabled);
+        if (look.hover) probe.pseudoClassStateChanged(HOVER, true);
+
+        // added and removed within the same pulse, so it is never drawn
+        host.getChildren().add(probe);
+        try {
+            probe.applyCss();
+
+            Paint background = Color.TRANSPARENT;
+            double radius = 0;
+            Background bg = probe.getBackground();
+            if (bg != null && !bg.getFills().isEmpty()) {
+                BackgroundFill top = bg.getFills().get(bg.getFills().size() - 1);
+                background = top.getFill();
+                if (top.getRadii() != null) radius = top.getRadii().getTopLeftHorizontalRadius();
+            }
+
+            Paint border = Color.TRANSPARENT;
+            double borderWidth = 0;
+            Border b = probe.getBorder();
+            if (b != null && !b.getStrokes().isEmpty()) {
+                BorderStroke stroke = b.getStrokes().get(0);
+                border = stroke.getTopStroke();
+                borderWidth = stroke.getWidths().getTop();
+            }
+
+            Paint text = probe.getTextFill();
+            Node textNode = probe.lookup(".text");
+            if (textNode instanceof Text t && t.getFill() != null) {
+                text = t.getFill();
+            }
+
+            return new Style(background, border, borderWidth, radius, text, probe.getFont(), probe.getOpacity());
+        } finally {
+            host.getChildren().remove(probe);
+        }
+    }
+}
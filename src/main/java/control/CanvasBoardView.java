@@ -0,0 +1,608 @@
+package control;
+
+import java.util.BitSet;
+
+import javafx.animation.FadeTransition;
+import javafx.animation.Interpolator;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+
+import engine.GameListener;
+import model.Board;
+import model.BoardMarks;
+import model.CellType;
+import util.ImageCache;
+
+//One board drawn on a single Canvas instead of a Button + StackPane per cell.
+//Clicks are hit-tested by coordinates. Engine events only queue the cells they touch; the dirty
+//list is repainted on the next pulse, one cell rectangle at a time. Everything drawn comes from
+//the Board and BoardMarks, colored by a BoardPalette read from the current theme.
+//
+//The canvas is a viewport: Ctrl + wheel zooms around the mouse, the wheel or a drag pans, and only
+//the cells inside the viewport are painted, so the cost of a frame depends on the window, not on
+//the board size. Large boards open zoomed in and get a minimap (BoardMinimap) for navigation.
+public class CanvasBoardView extends Pane implements GameListener {
+
+    public interface CellClickHandler {
+        void onCellClicked(int row, int col, MouseButton button);
+    }
+
+    private static final double CELL_GAP = 1.0;
+    private static final double MIN_GLYPH_SIZE = 8.0;   // below this, cells are colors only
+    private static final double MIN_PLAYABLE_CELL = 16.0; // large boards open zoomed in to this cell size
+    private static final double MAX_CELL = 64.0;          // zoom limit
+    private static final double ZOOM_STEP = 1.15;         // per wheel notch
+    private static final Duration PAN_ANIMATION = Duration.millis(180);
+
+    private final Board board;
+    private final BoardMarks marks;
+    private final boolean isPlayer1;
+    private final int rows;
+    private final int cols;
+
+    private final Canvas canvas = new Canvas();
+    private final BoardMinimap minimap;
+    private BoardPalette palette;
+
+    private final BitSet foundMines;     // mines revealed by a correct flag (drawn in the "found" look)
+    private final int[] dirty;           // cells to repaint on the next flush, each listed once
+    private final BitSet dirtyBits;
+    private int dirtyCount;
+    private boolean fullRepaint = true;
+    private boolean flushScheduled;
+
+    private int hoverIndex = -1;
+    private int hintIndex = -1;
+    private boolean revealAll;           // game over: every cell shows its content
+
+    private double cellWidth;            // current (zoomed) cell size
+    private double cellHeight;
+    private double baseCellWidth;        // cell size with the whole board in view
+    private double baseCellHeight;
+
+    // viewport: zoom factor and top-left corner in content pixels
+    private double zoom = 1.0;
+    private boolean zoomInitialized;
+    private double panX;
+    private double panY;
+    private boolean viewportMoved;
+
+    private final DoubleProperty animPanX = new SimpleDoubleProperty();
+    private final DoubleProperty animPanY = new SimpleDoubleProperty();
+    private Timeline panAnimation;
+
+    private double dragStartX;
+    private double dragStartY;
+    private double dragStartPanX;
+    private double dragStartPanY;
+
+    private CellClickHandler clickHandler;
+
+    public CanvasBoardView(Board board, BoardMarks marks, boolean isPlayer1) {
+        this.board = board;
+        this.marks = marks;
+        this.isPlayer1 = isPlayer1;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+
+        int n = rows * cols;
+        this.foundMines = new BitSet(n);
+        this.dirty = new int[n];
+        this.dirtyBits = new BitSet(n);
+
+        getStyleClass().add("canvas-board");
+        setMinSize(0, 0);
+
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        minimap = new BoardMinimap(this, rows, cols);
+        minimap.setManaged(false);
+        minimap.setVisible(false);
+        getChildren().addAll(canvas, minimap);
+
+        animPanX.addListener((obs, o, v) -> setPan(v.doubleValue(), panY));
+        animPanY.addListener((obs, o, v) -> setPan(panX, v.doubleValue()));
+
+        // new scene = possibly new stylesheets
+        sceneProperty().addListener((obs, oldScene, newScene) -> {
+            palette = null;
+            requestFullRepaint();
+        });
+
+        canvas.setOnMouseMoved(this::onMouseMoved);
+        canvas.setOnMouseExited(e -> setHover(-1));
+        canvas.setOnMouseClicked(this::onMouseClicked);
+        canvas.setOnMousePressed(this::onMousePressed);
+        canvas.setOnMouseDragged(this::onMouseDragged);
+        canvas.setOnScroll(this::onScroll);
+    }
+
+    public void setOnCellClicked(CellClickHandler handler) {
+        this.clickHandler = handler;
+    }
+
+    public boolean isPlayer1() {
+        return isPlayer1;
+    }
+
+    //Same rule as Button.isDisable() in the tile view: covered cells and revealed,
+    //not yet activated questions/surprises accept clicks; everything else does not.
+    public boolean isCellDisabled(int row, int col) {
+        if (revealAll) return true;
+        if (!marks.isRevealed(row, col)) return false;
+        CellType type = board.getType(row, col);
+        if (type == CellType.QUESTION || type == CellType.SURPRISE) {
+            return marks.isActivated(row, col);
+        }
+        return true;
+    }
+
+    //Highlights a covered cell (idle smart hint) for the given time.
+    public void showHint(int row, int col, Duration duration) {
+        int index = row * cols + col;
+        int previous = hintIndex;
+        hintIndex = index;
+        if (previous >= 0) markDirty(previous);
+        markDirty(index);
+
+        // zoomed in: bring an off-screen hint into view
+        if (cellWidth > 0 && (col < firstVisibleCol() || col > lastVisibleCol()
+                || row < firstVisibleRow() || row > lastVisibleRow())) {
+            centerOn(col + 0.5, row + 0.5, true);
+        }
+
+        PauseTransition pt = new PauseTransition(duration);
+        pt.setOnFinished(e -> {
+            if (hintIndex == index) {
+                hintIndex = -1;
+                markDirty(index);
+            }
+        });
+        pt.play();
+    }
+
+    // =======================
+    // Viewport
+    // =======================
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    //1 = the whole board in view. Keeps the center of the viewport where it is.
+    public void setZoom(double value) {
+        zoomAround(value, canvas.getWidth() / 2, canvas.getHeight() / 2);
+    }
+
+    //Scrolls so that the given cell position (fractional columns/rows) is in the middle of the viewport.
+    public void centerOn(double col, double row, boolean animate) {
+        double targetX = col * cellWidth - canvas.getWidth() / 2;
+        double targetY = row * cellHeight - canvas.getHeight() / 2;
+
+        if (panAnimation != null) panAnimation.stop();
+        if (!animate) {
+            setPan(targetX, targetY);
+            return;
+        }
+        animPanX.set(panX);
+        animPanY.set(panY);
+        panAnimation = new Timeline(new KeyFrame(PAN_ANIMATION,
+                new KeyValue(animPanX, clampPanX(targetX), Interpolator.EASE_BOTH),
+                new KeyValue(animPanY, clampPanY(targetY), Interpolator.EASE_BOTH)));
+        panAnimation.play();
+    }
+
+    //Visible area in cell units (for the minimap).
+    double getViewportCol() {
+        return cellWidth > 0 ? panX / cellWidth : 0;
+    }
+
+    double getViewportRow() {
+        return cellHeight > 0 ? panY / cellHeight : 0;
+    }
+
+    double getViewportCols() {
+        return cellWidth > 0 ? Math.min(cols, canvas.getWidth() / cellWidth) : cols;
+    }
+
+    double getViewportRows() {
+        return cellHeight > 0 ? Math.min(rows, canvas.getHeight() / cellHeight) : rows;
+    }
+
+    private void zoomAround(double value, double px, double py) {
+        if (baseCellWidth <= 0 || baseCellHeight <= 0) return;
+        double maxZoom = Math.max(1.0, MAX_CELL / Math.min(baseCellWidth, baseCellHeight));
+        double newZoom = Math.max(1.0, Math.min(maxZoom, value));
+        if (newZoom == zoom) return;
+
+        // the cell under (px, py) stays under it
+        double col = (panX + px) / cellWidth;
+        double row = (panY + py) / cellHeight;
+
+        zoom = newZoom;
+        cellWidth = baseCellWidth * zoom;
+        cellHeight = baseCellHeight * zoom;
+        showMinimapIfZoomed();
+
+        panX = clampPanX(col * cellWidth - px);
+        panY = clampPanY(row * cellHeight - py);
+        viewportMoved = true;
+        requestFullRepaint();
+    }
+
+    private void showMinimapIfZoomed() {
+        boolean show = zoom > 1.0;
+        if (show && !minimap.isVisible()) minimap.invalidateAll();   // it skipped updates while hidden
+        minimap.setVisible(show);
+    }
+
+    private void setPan(double x, double y) {
+        double nx = clampPanX(x);
+        double ny = clampPanY(y);
+        if (nx == panX && ny == panY) return;
+        panX = nx;
+        panY = ny;
+        viewportMoved = true;
+        requestFullRepaint();
+    }
+
+    private double clampPanX(double x) {
+        return Math.max(0, Math.min(x, cols * cellWidth - canvas.getWidth()));
+    }
+
+    private double clampPanY(double y) {
+        return Math.max(0, Math.min(y, rows * cellHeight - canvas.getHeight()));
+    }
+
+    private int firstVisibleCol() {
+        return Math.max(0, (int) (panX / cellWidth));
+    }
+
+    private int lastVisibleCol() {
+        return Math.min(cols - 1, (int) ((panX + canvas.getWidth()) / cellWidth));
+    }
+
+    private int firstVisibleRow() {
+        return Math.max(0, (int) (panY / cellHeight));
+    }
+
+    private int lastVisibleRow() {
+        return Math.min(rows - 1, (int) ((panY + canvas.getHeight()) / cellHeight));
+    }
+
+    //Re-reads the palette from the stylesheets (after a theme change).
+    public void refreshPalette() {
+        palette = null;
+        requestFullRepaint();
+    }
+
+    // =======================
+    // Engine events
+    // =======================
+
+    @Override
+    public void cellRevealed(boolean isPlayer1, int row, int col, CellType type, int adjacentMines) {
+        if (isPlayer1 == this.isPlayer1) markDirty(row * cols + col);
+    }
+
+    @Override
+    public void flagPlaced(boolean isPlayer1, int row, int col) {
+        if (isPlayer1 == this.isPlayer1) markDirty(row * cols + col);
+    }
+
+    @Override
+    public void flagRemoved(boolean isPlayer1, int row, int col) {
+        if (isPlayer1 == this.isPlayer1) markDirty(row * cols + col);
+    }
+
+    @Override
+    public void mineFlagged(boolean isPlayer1, int row, int col) {
+        if (isPlayer1 != this.isPlayer1) return;
+        foundMines.set(row * cols + col);
+        markDirty(row * cols + col);
+    }
+
+    @Override
+    public void cellActivated(boolean isPlayer1, int row, int col) {
+        if (isPlayer1 == this.isPlayer1) markDirty(row * cols + col);
+    }
+
+    @Override
+    public void mineExploded(boolean isPlayer1, int row, int col) {
+        if (isPlayer1 != this.isPlayer1 || cellWidth <= 0) return;
+
+        Circle flash = new Circle(Math.max(cellWidth, cellHeight), Color.ORANGERED);
+        flash.setManaged(false);
+        flash.setMouseTransparent(true);
+        flash.setOpacity(0.8);
+        flash.setCenterX(canvas.getLayoutX() + (col + 0.5) * cellWidth - panX);
+        flash.setCenterY(canvas.getLayoutY() + (row + 0.5) * cellHeight - panY);
+        getChildren().add(flash);
+
+        FadeTransition fade = new FadeTransition(Duration.millis(400), flash);
+        fade.setFromValue(0.8);
+        fade.setToValue(0);
+        fade.setOnFinished(e -> getChildren().remove(flash));
+        fade.play();
+    }
+
+    @Override
+    public void gameOver(boolean won) {
+        revealAll = true;
+        hoverIndex = -1;
+        hintIndex = -1;
+        minimap.invalidateAll();
+        requestFullRepaint();
+    }
+
+    // =======================
+    // Input
+    // =======================
+
+    private int hit(double x, double y) {
+        if (cellWidth <= 0 || cellHeight <= 0 || x < 0 || y < 0) return -1;
+        int c = (int) ((x + panX) / cellWidth);
+        int r = (int) ((y + panY) / cellHeight);
+        if (r >= rows || c >= cols) return -1;
+        return r * cols + c;
+    }
+
+    private void onMouseMoved(MouseEvent e) {
+        int index = hit(e.getX(), e.getY());
+        // like the tiles: disabled cells do not react to hover
+        if (index >= 0 && isCellDisabled(index / cols, index % cols)) index = -1;
+        setHover(index);
+    }
+
+    private void setHover(int index) {
+        if (index == hoverIndex) return;
+        int previous = hoverIndex;
+        hoverIndex = index;
+        if (previous >= 0) markDirty(previous);
+        if (index >= 0) markDirty(index);
+    }
+
+    private void onMouseClicked(MouseEvent e) {
+        if (!e.isStillSincePress()) return;   // the press started a pan
+        int index = hit(e.getX(), e.getY());
+        if (index < 0 || clickHandler == null) return;
+        clickHandler.onCellClicked(index / cols, index % cols, e.getButton());
+    }
+
+    private void onMousePressed(MouseEvent e) {
+        dragStartX = e.getX();
+        dragStartY = e.getY();
+        dragStartPanX = panX;
+        dragStartPanY = panY;
+        if (panAnimation != null) panAnimation.stop();
+    }
+
+    private void onMouseDragged(MouseEvent e) {
+        if (zoom <= 1.0) return;
+        setHover(-1);
+        setPan(dragStartPanX - (e.getX() - dragStartX), dragStartPanY - (e.getY() - dragStartY));
+    }
+
+    private void onScroll(ScrollEvent e) {
+        if (e.isControlDown() || e.isShortcutDown()) {
+            zoomAround(e.getDeltaY() > 0 ? zoom * ZOOM_STEP : zoom / ZOOM_STEP, e.getX(), e.getY());
+            e.consume();
+            return;
+        }
+        if (zoom > 1.0) {
+            setPan(panX - e.getDeltaX(), panY - e.getDeltaY());
+            e.consume();
+        }
+    }
+
+    // =======================
+    // Painting
+    // =======================
+
+    @Override
+    protected void layoutChildren() {
+        double x = snappedLeftInset();
+        double y = snappedTopInset();
+        double w = Math.max(0, getWidth() - x - snappedRightInset());
+        double h = Math.max(0, getHeight() - y - snappedBottomInset());
+
+        if (w != canvas.getWidth() || h != canvas.getHeight()) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            fullRepaint = true;
+        }
+        canvas.relocate(x, y);
+        baseCellWidth = w / cols;
+        baseCellHeight = h / rows;
+
+        if (!zoomInitialized && baseCellWidth > 0 && baseCellHeight > 0) {
+            zoomInitialized = true;
+            zoom = Math.max(1.0, MIN_PLAYABLE_CELL / Math.min(baseCellWidth, baseCellHeight));
+            showMinimapIfZoomed();
+        }
+        cellWidth = baseCellWidth * zoom;
+        cellHeight = baseCellHeight * zoom;
+        panX = clampPanX(panX);
+        panY = clampPanY(panY);
+
+        minimap.relocate(x + w - minimap.getWidth() - 6, y + h - minimap.getHeight() - 6);
+
+        if (fullRepaint) flush();
+    }
+
+    private void requestFullRepaint() {
+        fullRepaint = true;
+        scheduleFlush();
+    }
+
+    private void markDirty(int index) {
+        if (dirtyBits.get(index)) return;
+        dirtyBits.set(index);
+        dirty[dirtyCount++] = index;
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        Platform.runLater(this::flush);
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        if (getScene() == null || cellWidth <= 0 || cellHeight <= 0) return;
+
+        if (palette == null) {
+            palette = BoardPalette.read(this, isPlayer1);
+            minimap.invalidateAll();
+            fullRepaint = true;
+        }
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        int c0 = firstVisibleCol(), c1 = lastVisibleCol();
+        int r0 = firstVisibleRow(), r1 = lastVisibleRow();
+
+        if (fullRepaint) {
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    paintCell(gc, r * cols + c);
+                }
+            }
+            fullRepaint = false;
+        } else {
+            for (int k = 0; k < dirtyCount; k++) {
+                int i = dirty[k];
+                int r = i / cols, c = i - r * cols;
+                if (r >= r0 && r <= r1 && c >= c0 && c <= c1) paintCell(gc, i);
+            }
+        }
+
+        // the minimap tracks every changed cell, on screen or not
+        if (minimap.isVisible()) {
+            minimap.update(dirty, dirtyCount, viewportMoved);
+        }
+        viewportMoved = false;
+        dirtyBits.clear();
+        dirtyCount = 0;
+    }
+
+    //Flat color of a cell for the minimap.
+    Color swatchOf(int index) {
+        int r = index / cols;
+        return palette.swatch(lookOf(index, r, index - r * cols));
+    }
+
+    private void paintCell(GraphicsContext gc, int index) {
+        int r = index / cols;
+        int c = index - r * cols;
+        double x = c * cellWidth - panX;
+        double y = r * cellHeight - panY;
+        gc.clearRect(x, y, cellWidth, cellHeight);
+
+        BoardPalette.Look look = lookOf(index, r, c);
+        BoardPalette.Style style = palette.style(look);
+
+        double inset = Math.min(CELL_GAP, cellWidth / 8);
+        double w = cellWidth - 2 * inset;
+        double h = cellHeight - 2 * inset;
+        double arc = Math.min(style.radius * 2, Math.min(w, h) / 2);
+
+        gc.save();
+        gc.setGlobalAlpha(style.opacity);
+        gc.setFill(style.background);
+        gc.fillRoundRect(x + inset, y + inset, w, h, arc, arc);
+
+        if (style.borderWidth > 0 && w > 4) {
+            double bw = Math.min(style.borderWidth, w / 6);
+            gc.setStroke(style.border);
+            gc.setLineWidth(bw);
+            gc.strokeRoundRect(x + inset + bw / 2, y + inset + bw / 2, w - bw, h - bw, arc, arc);
+        }
+
+        double size = Math.min(w, h);
+        if (size >= MIN_GLYPH_SIZE) {
+            paintContent(gc, look, style, r, c, x + cellWidth / 2, y + cellHeight / 2, size);
+        }
+        gc.restore();
+    }
+
+    private void paintContent(GraphicsContext gc, BoardPalette.Look look, BoardPalette.Style style,
+                              int r, int c, double cx, double cy, double size) {
+        switch (look) {
+            case FLAGGED -> drawIcon(gc, ImageCache.themed("/Images/red-flag.png", 20), "🚩", style, cx, cy, size);
+            case QUESTION, QUESTION_USED -> drawIcon(gc, ImageCache.themed("/Images/question-mark.png", 20), "?", style, cx, cy, size);
+            case SURPRISE, SURPRISE_USED -> drawIcon(gc, ImageCache.themed("/Images/giftbox.png", 20), "★", style, cx, cy, size);
+            case NUMBER -> drawText(gc, String.valueOf(board.getAdjacentMines(r, c)), style, cx, cy, size);
+            case MINE, MINE_FLAGGED -> drawText(gc, "💣", style, cx, cy, size);
+            default -> { }
+        }
+    }
+
+    private BoardPalette.Look lookOf(int index, int r, int c) {
+        boolean revealed = marks.isRevealed(r, c);
+
+        if (!revealed && !revealAll) {
+            if (marks.isFlagged(r, c)) return BoardPalette.Look.FLAGGED;
+            if (index == hintIndex) return BoardPalette.Look.HINT;
+            if (index == hoverIndex) return BoardPalette.Look.HOVER;
+            return BoardPalette.Look.HIDDEN;
+        }
+
+        // at game over everything is shown as used up, like revealAllCellsOnBoardVisualOnly
+        boolean used = revealAll || marks.isActivated(r, c);
+        return switch (board.getType(r, c)) {
+            case MINE -> foundMines.get(index) ? BoardPalette.Look.MINE_FLAGGED : BoardPalette.Look.MINE;
+            case QUESTION -> used ? BoardPalette.Look.QUESTION_USED : BoardPalette.Look.QUESTION;
+            case SURPRISE -> used ? BoardPalette.Look.SURPRISE_USED : BoardPalette.Look.SURPRISE;
+            case NUMBER -> BoardPalette.Look.NUMBER;
+            case EMPTY -> BoardPalette.Look.EMPTY;
+        };
+    }
+
+    private void drawIcon(GraphicsContext gc, Image icon, String fallback, BoardPalette.Style style,
+                          double cx, double cy, double size) {
+        if (icon == null) {
+            drawText(gc, fallback, style, cx, cy, size);
+            return;
+        }
+        double s = Math.min(20, size * 0.6);
+        double scale = s / Math.max(icon.getWidth(), icon.getHeight());
+        double w = icon.getWidth() * scale;
+        double h = icon.getHeight() * scale;
+        gc.drawImage(icon, cx - w / 2, cy - h / 2, w, h);
+    }
+
+    private void drawText(GraphicsContext gc, String text, BoardPalette.Style style,
+                          double cx, double cy, double size) {
+        Font base = style.font;
+        double fontSize = Math.min(base.getSize(), size * 0.7);
+        gc.setFont(Font.font(base.getFamily(), fontSize));
+        gc.setFill(style.text);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(text, cx, cy);
+    }
+}
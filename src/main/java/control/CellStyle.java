@@ -0,0 +1,89 @@
+package control;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import model.CellType;
+
+//Board cell states as CSS pseudo-classes on ".cell-tile" (e.g. .cell-tile:revealed:number).
+//A state change is a bit flip in the node's pseudo-class set; the style-class list (cell-tile,
+//p1-cell / p2-cell) is fixed when the tile is created and never touched again, so a reveal does
+//not mutate an ObservableList and trigger a full re-match of every selector.
+public final class CellStyle {
+
+    public static final PseudoClass COVERED = PseudoClass.getPseudoClass("covered");
+    public static final PseudoClass REVEALED = PseudoClass.getPseudoClass("revealed");
+    public static final PseudoClass FLAGGED = PseudoClass.getPseudoClass("flagged");
+    public static final PseudoClass ACTIVATED = PseudoClass.getPseudoClass("activated");
+    public static final PseudoClass HINT = PseudoClass.getPseudoClass("hint");
+
+    // what a revealed cell contains (exactly one is on)
+    public static final PseudoClass MINE = PseudoClass.getPseudoClass("mine");
+    public static final PseudoClass MINE_FLAGGED = PseudoClass.getPseudoClass("mine-flagged");
+    public static final PseudoClass QUESTION = PseudoClass.getPseudoClass("question");
+    public static final PseudoClass SURPRISE = PseudoClass.getPseudoClass("surprise");
+    public static final PseudoClass NUMBER = PseudoClass.getPseudoClass("number");
+    public static final PseudoClass EMPTY = PseudoClass.getPseudoClass("empty");
+
+    private static final PseudoClass[] CONTENT = { MINE, MINE_FLAGGED, QUESTION, SURPRISE, NUMBER, EMPTY };
+
+    private CellStyle() {}
+
+    public static PseudoClass of(CellType type) {
+        return switch (type) {
+            case MINE -> MINE;
+            case QUESTION -> QUESTION;
+            case SURPRISE -> SURPRISE;
+            case NUMBER -> NUMBER;
+            case EMPTY -> EMPTY;
+        };
+    }
+
+    //Fresh tile: style classes once, then the covered state.
+    public static void init(Node cell, boolean isPlayer1) {
+        cell.getStyleClass().addAll("cell-tile", isPlayer1 ? "p1-cell" : "p2-cell");
+        setCovered(cell);
+    }
+
+    public static void setCovered(Node cell) {
+        clearContent(cell);
+        cell.pseudoClassStateChanged(REVEALED, false);
+        cell.pseudoClassStateChanged(FLAGGED, false);
+        cell.pseudoClassStateChanged(ACTIVATED, false);
+        cell.pseudoClassStateChanged(COVERED, true);
+    }
+
+    public static void setFlagged(Node cell, boolean flagged) {
+        cell.pseudoClassStateChanged(FLAGGED, flagged);
+    }
+
+    //Covered -> revealed showing the given content; the flag state is dropped.
+    public static void setRevealed(Node cell, PseudoClass content) {
+        clearContent(cell);
+        cell.pseudoClassStateChanged(COVERED, false);
+        cell.pseudoClassStateChanged(FLAGGED, false);
+        cell.pseudoClassStateChanged(REVEALED, true);
+        if (content != null) cell.pseudoClassStateChanged(content, true);
+    }
+
+    public static void setRevealed(Node cell, CellType type) {
+        setRevealed(cell, of(type));
+    }
+
+    public static void setActivated(Node cell) {
+        cell.pseudoClassStateChanged(ACTIVATED, true);
+    }
+
+    public static void setHint(Node cell, boolean on) {
+        cell.pseudoClassStateChanged(HINT, on);
+    }
+
+    public static boolean is(Node cell, PseudoClass state) {
+        return cell.getPseudoClassStates().contains(state);
+    }
+
+    private static void clearContent(Node cell) {
+        for (PseudoClass pc : CONTENT) {
+            cell.pseudoClassStateChanged(pc, false);
+        }
+    }
+}
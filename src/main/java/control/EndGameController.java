@@ -5,7 +5,7 @@ import javafx.scene.control.Button;
 import javafx.scene.layout.StackPane;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
-import model.Difficulty;
+import model.DifficultyProfile;
 import model.GameConfig;
 import util.UIAnimations;
 
@@ -55,9 +55,11 @@ public class EndGameController {
         // Fill the text fields - Populate UI labels with actual game data
         if (config != null) {
             playersName.setText(config.getPlayer1Nickname() + " & " + config.getPlayer2Nickname());
-            Difficulty diff = config.getDifficulty();
-            if (diff != null) {
-                difficultyLevel.setText(diff.name());
+            DifficultyProfile profile = config.getProfile();
+            if (profile != null) {
+                difficultyLevel.setText(profile.isCustom()
+                        ? profile.getDisplayName().toUpperCase()
+                        : profile.getTier().name());
             }
         }
 
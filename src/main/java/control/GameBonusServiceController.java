@@ -1,10 +1,12 @@
 package control;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -14,30 +16,40 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
+import engine.GameDecisions;
+import engine.GameListener;
+import engine.QuestionOutcome;
+import engine.SurpriseOutcome;
 import model.Board;
-import model.Cell;
+import model.BoardMarks;
 import model.CellType;
-import model.Difficulty;
 import model.Question;
 import model.SysData;
 import model.Theme;
+import solver.FrontierSolver;
+import solver.Snapshot;
+import solver.SolverResult;
+import solver.SolverMode;
+import solver.SolverService;
 import util.DialogUtil;
 import util.ThemeManager;
 
-public class GameBonusServiceController {
+public class GameBonusServiceController implements GameListener, GameDecisions {
 
     private final GameStateController s;
-    private final GameUIServiceController ui;
-    private final GamePlayServiceController play;
 
     private PauseTransition idleHintTimer;
     private static final Duration IDLE_HINT_DELAY = Duration.seconds(45);
     private static final Duration IDLE_HINT_GLOW_DURATION = Duration.seconds(5);
+    private static final long IDLE_HINT_SOLVER_BUDGET_MS = 300;
 
-    public GameBonusServiceController(GameStateController s, GameUIServiceController ui, GamePlayServiceController play) {
+    private static final Logger LOG = Logger.getLogger(GameBonusServiceController.class.getName());
+
+    private final Board[] solverBoards = new Board[2];
+    private final FrontierSolver[] solvers = new FrontierSolver[2];
+
+    public GameBonusServiceController(GameStateController s) {
         this.s = s;
-        this.ui = ui;
-        this.play = play;
     }
 
     
@@ -51,7 +63,7 @@ public class GameBonusServiceController {
 
         idleHintTimer = new PauseTransition(IDLE_HINT_DELAY);
         idleHintTimer.setOnFinished(e -> {
-            if (s.gameOver || s.isPaused) return;
+            if (s.isGameOver() || s.isPaused) return;
             showIdleHint();
             resetIdleHintTimer();
         });
@@ -60,130 +72,119 @@ public class GameBonusServiceController {
 
     private void showIdleHint() {
         if (!SysData.isSmartHintsEnabled()) return;
-        if (s.gameOver || s.isPaused) return;
-
-        boolean targetP1 = s.isPlayer1Turn;
-        Board board = targetP1 ? s.board1 : s.board2;
-        StackPane[][] tiles = targetP1 ? s.p1Buttons : s.p2Buttons;
-
-        if (board == null || tiles == null) return;
-
-        List<Button> candidates = new ArrayList<>();
+        if (s.isGameOver() || s.isPaused) return;
+
+        boolean targetP1 = s.isPlayer1Turn();
+        Board board = targetP1 ? s.getBoard1() : s.getBoard2();
+        BoardMarks marks = s.marks(targetP1);
+        if (board == null || marks == null) return;
+
+        // The solver only reads what the player can see, so the hint is a cell the player could
+        // have deduced, never a peek at the layout. When nothing is certain there is no hint.
+        Snapshot snapshot = Snapshot.of(board, marks);
+        SolverService.getInstance().solveAsync(solverFor(targetP1, board), snapshot, IDLE_HINT_SOLVER_BUDGET_MS)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        LOG.log(Level.WARNING, "Idle hint solver failed", ex);
+                        return;
+                    }
+                    Platform.runLater(() -> applyIdleHint(targetP1, board, result));
+                });
+    }
 
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getCols(); c++) {
-                Cell cell = board.getCell(r, c);
-                if (cell == null) continue;
+    //Solvers are incremental per board, so each player keeps one until their board changes.
+    private FrontierSolver solverFor(boolean isPlayer1, Board board) {
+        int slot = isPlayer1 ? 0 : 1;
+        if (solverBoards[slot] != board) {
+            solverBoards[slot] = board;
+            solvers[slot] = new FrontierSolver(board.getRows(), board.getCols(), SolverMode.PARALLEL);
+        }
+        return solvers[slot];
+    }
 
-                if (cell.getType() == CellType.MINE) continue;
+    private void applyIdleHint(boolean targetP1, Board board, SolverResult result) {
+        if (s.isGameOver() || s.isPaused || s.isPlayer1Turn() != targetP1) return;
+        if (board != (targetP1 ? s.getBoard1() : s.getBoard2())) return;
 
-                StackPane tile = tiles[r][c];
-                if (tile == null || tile.getChildren().isEmpty()) continue;
+        // only a certainly safe cell: bestMove() would fall back to a guess, which can be a mine
+        BoardMarks marks = s.marks(targetP1);
+        if (marks == null) return;
+        BitSet safe = result.getSafeCells();
+        int cols = board.getCols();
+        for (int i = safe.nextSetBit(0); i >= 0; i = safe.nextSetBit(i + 1)) {
+            // the player may have moved while the solver was running
+            if (marks.isRevealed(i / cols, i % cols) || marks.isFlagged(i / cols, i % cols)) continue;
+            glowCell(targetP1, i / cols, i % cols);
+            return;
+        }
+    }
 
-                Button btn = (Button) tile.getChildren().get(0);
+    //No-guess boards come with a start cell that is guaranteed safe; point both players at it.
+    //Shown whether or not smart hints are on, since the no-guess promise starts from that cell.
+    public void showStartHints() {
+        for (boolean isPlayer1 : new boolean[] { true, false }) {
+            Board board = isPlayer1 ? s.getBoard1() : s.getBoard2();
+            BoardMarks marks = s.marks(isPlayer1);
+            if (board == null || marks == null || board.getSafeStart() < 0) continue;
+            if (marks.getRevealedCount() > 0) continue;
+
+            int start = board.getSafeStart();
+            glowCell(isPlayer1, start / board.getCols(), start % board.getCols());
+        }
+    }
 
-                if (btn.isDisable()) continue;
-                if (!btn.getStyleClass().contains("cell-hidden")) continue;
-                if (btn.getStyleClass().contains("cell-flagged")) continue;
+    private void glowCell(boolean isPlayer1, int row, int col) {
+        StackPane[][] tiles = isPlayer1 ? s.p1Buttons : s.p2Buttons;
+        CanvasBoardView canvas = isPlayer1 ? s.p1Canvas : s.p2Canvas;
 
-                candidates.add(btn);
-            }
+        if (tiles == null) {
+            if (canvas != null) canvas.showHint(row, col, IDLE_HINT_GLOW_DURATION);
+            return;
         }
 
-        if (candidates.isEmpty()) return;
+        StackPane tile = tiles[row][col];
+        if (tile == null || tile.getChildren().isEmpty()) return;
+        Button pick = (Button) tile.getChildren().get(0);
 
-        Button pick = candidates.get((int) (Math.random() * candidates.size()));
-
-        if (!pick.getStyleClass().contains("idle-hint-glow")) {
-            pick.getStyleClass().add("idle-hint-glow");
-        }
+        CellStyle.setHint(pick, true);
 
         PauseTransition pt = new PauseTransition(IDLE_HINT_GLOW_DURATION);
-        pt.setOnFinished(e -> pick.getStyleClass().remove("idle-hint-glow"));
+        pt.setOnFinished(e -> CellStyle.setHint(pick, false));
         pt.play();
     }
 
     
      // this is called before normal reveal on left click.
      // if user clicked an already-revealed QUESTION/SURPRISE cell, activate it and consume turn.
-     // it returns true if activation happened (meaning caller should switch turn and skip normal reveal).
-    public boolean tryHandleSecondClickActivation(Board board, int row, int col, Button button, StackPane tile, boolean isPlayer1) {
-        Cell cell = board.getCell(row, col);
-        boolean[][] revealedArray = isPlayer1 ? s.revealedCellsP1 : s.revealedCellsP2;
-
-        if (cell.getType() == CellType.SURPRISE &&
-                revealedArray != null &&
-                revealedArray[row][col]) {
-
-            activateSurprise(board, row, col, button, tile, isPlayer1);
-            return true;
-        }
-
-        if (cell.getType() == CellType.QUESTION &&
-                revealedArray != null &&
-                revealedArray[row][col]) {
-
-            activateQuestion(board, row, col, button, tile, isPlayer1);
-            return true;
-        }
-
-        return false;
-    }
+     // it returns true if activation happened (meaning caller should skip normal reveal).
+    public boolean tryHandleSecondClickActivation(int row, int col, boolean isPlayer1) {
+        if (s.engine == null) return false;
+        CellType type = s.engine.getBoard(isPlayer1).getType(row, col);
+        if (type != CellType.SURPRISE && type != CellType.QUESTION) return false;
 
-    private void activateSurprise(Board board, int row, int col, Button button, StackPane tile, boolean isPlayer1) {
         resetIdleHintTimer();
+        return s.engine.activate(isPlayer1, row, col);
+    }
 
-        int livesBefore = s.sharedHearts;
-        int scoreBefore = s.score;
-
-        int activationPoints = getActivationPoints();
-        int surprisePoints = getSurprisePoints();
-
-        int scoreChange;
-
-        boolean good = Math.random() < 0.5;
-
-        if (good) {
-        	  scoreChange = +surprisePoints - activationPoints;
-              if (s.sharedHearts < GameStateController.TOTAL_HEART_SLOTS) {
-                  s.sharedHearts += 1;
-              }
-        }else {
-        	  scoreChange = -surprisePoints - activationPoints;
-        	  s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-        }
-        
-        s.score += scoreChange;
-
-        ui.buildHeartsBar();
-        if (!button.getStyleClass().contains("cell-activated")) {
-            button.getStyleClass().add("cell-activated");
-        }
-        button.setDisable(true);
-
-        ui.updateScoreAndMineLabels();
-
-        if (play.checkLoseAndHandle()) return;
+    // =======================
+    // Engine events / decisions
+    // =======================
 
-        int livesAfter = s.sharedHearts;
-        int netScoreChange = s.score - scoreBefore;
-        showSurprisePopup(good, scoreBefore, netScoreChange, livesBefore, livesAfter, activationPoints, surprisePoints);
+    @Override
+    public void surpriseResolved(SurpriseOutcome o) {
+        showSurprisePopup(o.good, o.scoreBefore, o.netScoreChange, o.livesBefore, o.livesAfter,
+                o.activationPoints, o.surprisePoints);
     }
 
-    private int getActivationPoints() {
-        return switch (s.difficulty) {
-            case EASY -> 5;
-            case MEDIUM -> 8;
-            case HARD -> 12;
-        };
+    @Override
+    public void questionResolved(QuestionOutcome o) {
+        showQuestionResultPopup(o.question, o.scoreBefore, o.correct, o.netScoreChange,
+                o.livesBefore, o.livesAfter, o.activationPoints, o.extraInfo);
     }
 
-    private int getSurprisePoints() {
-        return switch (s.difficulty) {
-            case EASY -> 8;
-            case MEDIUM -> 12;
-            case HARD -> 16;
-        };
+    @Override
+    public int answerQuestion(Question q) {
+        return showQuestionDialog(q);
     }
 
     private void showSurprisePopup(boolean good,  int scoreBefore, int netScoreChange, int livesBefore, int livesAfter, int activationPoints, int surprisePoints) {
@@ -206,8 +207,8 @@ public class GameBonusServiceController {
            .append(" (").append(rewardText).append(" ").append(activationText).append(")\n\n");
 
         msg.append("Lives change: ").append(livesChangeText).append("\n\n");
-        msg.append("New score: ").append(s.score).append("\n");
-        msg.append("New lives: ").append(s.sharedHearts).append("/")
+        msg.append("New score: ").append(s.getScore()).append("\n");
+        msg.append("New lives: ").append(s.getSharedHearts()).append("/")
            .append(GameStateController.TOTAL_HEART_SLOTS);
 
         alert.setHeaderText(typeText);
@@ -236,19 +237,6 @@ public class GameBonusServiceController {
         alert.showAndWait();
     }
 
-    private Question getRandomQuestionFromPool() {
-        //List<Question> all = QuestionsManagerController.loadQuestionsForGame();
-    	List<Question> all = SysData.getInstance().getAllQuestions();
-
-        if (all == null || all.isEmpty()) {
-            System.out.println("No questions found.");
-            return null;
-        }
-
-        int idx = (int) (Math.random() * all.size());
-        return all.get(idx);
-    }
-
     private int showQuestionDialog(Question q) {
         if (q == null) return -1;
 
@@ -301,157 +289,18 @@ public class GameBonusServiceController {
 
 
 
-    private int addLivesWithCap(int livesToAdd, int pointsPerConvertedHeart) {
-        int extraScoreFromConversion = 0;
-
-        for (int i = 0; i < livesToAdd; i++) {
-            if (s.sharedHearts < GameStateController.TOTAL_HEART_SLOTS) {
-                s.sharedHearts++;
-            } else {
-                extraScoreFromConversion += pointsPerConvertedHeart;
-            }
-        }
-
-        return extraScoreFromConversion;
-    }
-
-    private void revealRandomMineReward(Board board, boolean isPlayer1) {
-        StackPane[][] buttons = isPlayer1 ? s.p1Buttons : s.p2Buttons;
-        if (buttons == null) return;
-
-        int rows = board.getRows();
-        int cols = board.getCols();
-
-        List<int[]> candidates = new ArrayList<>();
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Cell cell = board.getCell(r, c);
-                if (cell == null || cell.getType() != CellType.MINE) continue;
-
-                StackPane tile = buttons[r][c];
-                if (tile == null || tile.getChildren().isEmpty()) continue;
-
-                Button btn = (Button) tile.getChildren().get(0);
-                if (!btn.isDisable()) {
-                    candidates.add(new int[]{r, c});
-                }
-            }
-        }
-
-        while (!candidates.isEmpty()) {
-            int idx = (int) (Math.random() * candidates.size());
-            int[] rc = candidates.remove(idx);
-            int r = rc[0], c = rc[1];
-
-            StackPane tile = buttons[r][c];
-            Button btn = (Button) tile.getChildren().get(0);
-
-            if (btn.getStyleClass().contains("cell-flagged")) {
-                if (SysData.isAutoRemoveFlagEnabled()) {
-                    // remove only visuals, not refund flags
-                    // the actual logic is in play service, but here we do the visual change:
-                    btn.setGraphic(null);
-                    btn.setText("");
-                    btn.getStyleClass().remove("cell-flagged");
-                }
-                continue;
-            }
-
-            boolean[][] revealedArray = isPlayer1 ? s.revealedCellsP1 : s.revealedCellsP2;
-            if (revealedArray != null && !revealedArray[r][c]) {
-                revealedArray[r][c] = true;
-                if (isPlayer1) s.revealedCountP1++;
-                else s.revealedCountP2++;
-            }
-
-            btn.setText("💣");
-            btn.getStyleClass().removeAll("cell-hidden");
-            if (!btn.getStyleClass().contains("cell-revealed")) btn.getStyleClass().add("cell-revealed");
-            if (!btn.getStyleClass().contains("cell-activated")) btn.getStyleClass().add("cell-activated");
-            if (!btn.getStyleClass().contains("cell-mine")) btn.getStyleClass().add("cell-mine");
-            btn.setDisable(true);
-
-            if (isPlayer1) s.minesLeft1 = Math.max(0, s.minesLeft1 - 1);
-            else s.minesLeft2 = Math.max(0, s.minesLeft2 - 1);
-
-            ui.updateScoreAndMineLabels();
-
-            if (!s.gameOver && s.sharedHearts > 0 && (s.minesLeft1 == 0 || s.minesLeft2 == 0)) {
-                s.gameWon = true;
-                play.onGameOver();
-            }
-            return;
-        }
-    }
-
-    private void revealArea3x3Reward(Board board, boolean isPlayer1) {
-        StackPane[][] buttons = isPlayer1 ? s.p1Buttons : s.p2Buttons;
-        int rows = board.getRows();
-        int cols = board.getCols();
-
-        List<int[]> centers = new ArrayList<>();
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Cell cell = board.getCell(r, c);
-                if (cell.getType() == CellType.MINE) continue;
-
-                StackPane tile = buttons[r][c];
-                if (tile == null || tile.getChildren().isEmpty()) continue;
-                Button btn = (Button) tile.getChildren().get(0);
-                if (!btn.isDisable()) {
-                    centers.add(new int[]{r, c});
-                }
-            }
-        }
-
-        if (centers.isEmpty()) return;
-
-        int idx = (int) (Math.random() * centers.size());
-        int[] rc = centers.get(idx);
-        int centerRow = rc[0];
-        int centerCol = rc[1];
-
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                int r = centerRow + dr;
-                int c = centerCol + dc;
-                if (r < 0 || c < 0 || r >= rows || c >= cols) continue;
-
-                Cell cell = board.getCell(r, c);
-                if (cell.getType() == CellType.MINE) continue;
-
-                StackPane tile = buttons[r][c];
-                if (tile == null || tile.getChildren().isEmpty()) continue;
-                Button btn = (Button) tile.getChildren().get(0);
-                if (btn.isDisable()) continue;
-
-                if (btn.getStyleClass().contains("cell-flagged")) {
-                    if (SysData.isAutoRemoveFlagEnabled()) {
-                        btn.setGraphic(null);
-                        btn.setText("");
-                        btn.getStyleClass().remove("cell-flagged");
-                    }
-                    continue;
-                }
-
-                play.revealSingleCell(board, r, c, btn, tile, isPlayer1, true);
-            }
-        }
-    }
-
     private void showQuestionResultPopup(Question q,
             int scoreBefore,
             boolean correct,
             int netScoreChange,
             int livesBefore,
             int livesAfter,
+            int activationPoints,
             String extraInfo) {
 
 		Alert alert = new Alert(Alert.AlertType.INFORMATION);
 		alert.setTitle("Question Result");
 		
-		int activationPoints = getActivationPoints();
-		
 		String difficultyText = (q != null && q.getDifficulty() != null) ? q.getDifficulty() : "Unknown";
 		boolean useAn = difficultyText.equalsIgnoreCase("easy") || difficultyText.equalsIgnoreCase("expert");
 		
@@ -477,8 +326,8 @@ public class GameBonusServiceController {
 		msg.append("\n").append(extraInfo).append("\n");
 		}
 		
-		msg.append("\nNew score: ").append(s.score).append("\n");
-		msg.append("New lives: ").append(s.sharedHearts).append("/")
+		msg.append("\nNew score: ").append(s.getScore()).append("\n");
+		msg.append("New lives: ").append(s.getSharedHearts()).append("/")
 		.append(GameStateController.TOTAL_HEART_SLOTS);
 		
 		alert.setHeaderText("You answered " + (useAn ? "an " : "a ") + difficultyText + " question.");		
@@ -506,383 +355,33 @@ public class GameBonusServiceController {
 		}
 
 
-    private void activateQuestion(Board board, int row, int col, Button button, StackPane tile, boolean isPlayer1) {
-        resetIdleHintTimer();
-        
-        
-
-        int activationPoints = getActivationPoints(); // game difficulty based
-        int livesBefore = s.sharedHearts;
-        int scoreBefore = s.score;
-
-        // activation cost happens for every question activation
-        s.score -= activationPoints;
-        
-        int beforeReward = s.score;
-
-        
-
-        Question q = getRandomQuestionFromPool();
-        if (q == null) {
-            button.setDisable(true);
-            ui.updateScoreAndMineLabels();
-            ui.buildHeartsBar();
-            return;
-        }
-
-        int chosenOption = showQuestionDialog(q);
-        if (chosenOption == -1) {
-            button.setDisable(true);
-            ui.updateScoreAndMineLabels();
-            ui.buildHeartsBar();
-            return;
-        }
-
-        boolean correct = (chosenOption == q.getCorrectOption());
-        String qDiff = (q.getDifficulty() != null) ? q.getDifficulty().toLowerCase() : "easy";
-
-        // Always attach activation cost mention to the popup text
-        String activationSuffix = " (-" + activationPoints + " points for activation).";
-        String extraInfo = "";
-
-        if (s.difficulty == Difficulty.EASY) {
-
-            if (qDiff.equals("easy")) {
-                if (correct) {
-                    s.score += 3;
-                    int converted = addLivesWithCap(1, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
-                                    converted + " points" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +3 points" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    if (Math.random() < 0.5) {
-                        s.score -= 3;
-                        extraInfo = "you lost 3 points" + activationSuffix;
-                    } else {
-                        extraInfo = "no additional penalty this time" + activationSuffix;
-                    }
-                }
-
-            } else if (qDiff.equals("medium")) {
-                if (correct) {
-                    revealRandomMineReward(board, isPlayer1);
-                    s.score += 6;
-                    extraInfo = "Correct! One mine was revealed automatically and you gained +6 points" + activationSuffix;
-                } else {
-                    s.mistakeMade = true;
-                    if (Math.random() < 0.5) {
-                        s.score -= 6;
-                        extraInfo = "you lost 6 points" + activationSuffix;
-                    } else {
-                        extraInfo = "no additional penalty this time" + activationSuffix;
-                    }
-                }
-
-            } else if (qDiff.equals("hard")) {
-                if (correct) {
-                    revealArea3x3Reward(board, isPlayer1);
-                    int afterReveal = s.score;
-                    s.score += 10;
-                    int afterReward = s.score;
-
-                    int revealDelta = afterReveal - beforeReward;      
-                    int totalDelta = afterReward - scoreBefore;
-                    extraInfo =
-                            "Correct! Reward: +10" +
-                            ", 3×3 reveal side-score: " + (revealDelta >= 0 ? "+" : "") + revealDelta +
-                            ".\n Net: " + (totalDelta >= 0 ? "+" : "") + totalDelta + activationSuffix;
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 10;
-                    extraInfo = "you lost 10 points" + activationSuffix;
-                }
-
-            } else if (qDiff.equals("expert")) {
-                if (correct) {
-                    s.score += 15;
-                    int converted = addLivesWithCap(2, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
-                                    converted + " points because you were at max lives" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +15 points and 2 lives" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 15;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                    extraInfo = "you lost 15 points and 1 life" + activationSuffix;
-                }
-            }
-
-        } else if (s.difficulty == Difficulty.MEDIUM) {
-
-            if (qDiff.equals("easy")) {
-                if (correct) {
-                    s.score += 8;
-                    int converted = addLivesWithCap(1, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
-                                    converted + " points" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +8 points and 1 life" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 8;
-                    extraInfo = "you lost 8 points" + activationSuffix;
-                }
-
-            } else if (qDiff.equals("medium")) {
-                if (correct) {
-                    s.score += 10;
-                    int converted = addLivesWithCap(1, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
-                                    converted + " points" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +10 points and 1 life" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    if (Math.random() < 0.5) {
-                        s.score -= 10;
-                        s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                        extraInfo = "you lost 10 points and 1 life" + activationSuffix;
-                    } else {
-                        extraInfo = "no additional penalty this time" + activationSuffix;
-                    }
-                }
-
-            } else if (qDiff.equals("hard")) {
-                if (correct) {
-                    s.score += 15;
-                    int converted = addLivesWithCap(1, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
-                                    converted + " points" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +15 points and 1 life" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 15;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                    extraInfo = "you lost 15 points and 1 life" + activationSuffix;
-                }
-
-            } else if (qDiff.equals("expert")) {
-                if (correct) {
-                    s.score += 20;
-                    int converted = addLivesWithCap(2, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
-                                    converted + " points because you were at max lives" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +20 points and 2 lives" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 20;
-                    if (Math.random() < 0.5) {
-                        s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                        extraInfo = "you lost 20 points and 1 life" + activationSuffix;
-                    } else {
-                        s.sharedHearts = Math.max(0, s.sharedHearts - 2);
-                        extraInfo = "you lost 20 points and 2 lives" + activationSuffix;
-                    }
-                }
-            }
-
-        } else if (s.difficulty == Difficulty.HARD) {
-
-            if (qDiff.equals("easy")) {
-                if (correct) {
-                    s.score += 10;
-                    int converted = addLivesWithCap(1, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
-                                    converted + " points" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +10 points and 1 life" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 10;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                    extraInfo = "you lost 10 points and 1 life" + activationSuffix;
-                }
-
-            } else if (qDiff.equals("medium")) {
-                if (correct) {
-                    s.score += 15;
-                    int livesToAdd = (Math.random() < 0.5) ? 1 : 2;
-                    int converted = addLivesWithCap(livesToAdd, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "Correct! You gained " + livesToAdd +
-                                    " lives, but some were converted to +" + converted +
-                                    " points because you were at max lives" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +15 points and " + livesToAdd + " lives" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 15;
-                    int livesLost = (Math.random() < 0.5) ? 1 : 2;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - livesLost);
-                    extraInfo = "you lost 15 points and " + livesLost +
-                                " life" + (livesLost > 1 ? "s" : "") + activationSuffix;
-                }
-
-            } else if (qDiff.equals("hard")) {
-                if (correct) {
-                    s.score += 20;
-                    int converted = addLivesWithCap(2, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
-                                    converted + " points because you were at max lives" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +20 points and 2 lives" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 20;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - 2);
-                    extraInfo = "you lost 20 points and 2 lives" + activationSuffix;
-                }
-
-            } else if (qDiff.equals("expert")) {
-                if (correct) {
-                    s.score += 40;
-                    int converted = addLivesWithCap(3, activationPoints);
-                    s.score += converted;
-
-                    if (converted > 0) {
-                        extraInfo = "Correct! You gained 3 lives, but some were converted to +" +
-                                    converted + " points because you were at max lives" + activationSuffix;
-                    } else {
-                        extraInfo = "Correct! You gained +40 points and 3 lives" + activationSuffix;
-                    }
-                } else {
-                    s.mistakeMade = true;
-                    s.score -= 40;
-                    s.sharedHearts = Math.max(0, s.sharedHearts - 3);
-                    extraInfo = "you lost 40 points and 3 lives" + activationSuffix;
-                }
-            }
-        }
-
-        ui.buildHeartsBar();
-        if (!button.getStyleClass().contains("cell-activated")) {
-            button.getStyleClass().add("cell-activated");
-        }
-        button.setDisable(true);
-        ui.updateScoreAndMineLabels();
-
-        if (play.checkLoseAndHandle()) return;
-
-        int livesAfter = s.sharedHearts;
-        int netScoreChange = s.score - scoreBefore;
-
-        showQuestionResultPopup(q, scoreBefore, correct, netScoreChange, livesBefore, livesAfter, extraInfo);
-    }
-    
     //*********************Buying/Selling hearts logic************************//
-    
-    private int getHeartPrice() {
-        return switch (s.difficulty) {
-            case EASY -> 5;
-            case MEDIUM -> 8;
-            case HARD -> 12;
-        };
-    }
 
-    public int getMinScore() {
-        return switch (s.difficulty) {
-            case EASY -> -10;
-            case MEDIUM -> -16;
-            case HARD -> -24;
-        };
+    @Override
+    public void heartPurchaseUnavailable(int price) {
+        DialogUtil.show(
+                Alert.AlertType.INFORMATION,
+                "Cannot Buy Heart",
+                "Not Enough Score",
+                "You don't have enough score to safely buy a heart."
+            );
     }
-    
-    public boolean tryBuyHeartBeforeGameOver() {
-        int price = getHeartPrice();
-        int minScore = getMinScore();
-
-        if (s.score < price || s.score - price <= minScore) {
-        	DialogUtil.show(
-        	        Alert.AlertType.INFORMATION,
-        	        "Cannot Buy Heart",
-        	        "Not Enough Score",
-        	        "You don't have enough score to safely buy a heart."
-        	    );
-        return false;
-        }
 
-        boolean buy = DialogUtil.confirm(
+    @Override
+    public boolean buyHeart(int price) {
+        return DialogUtil.confirm(
                 "Out of Hearts!",
                 "Buy Heart",
                 "You can buy 1 heart for " + price + " points.\n\nDo you want to continue?"
         );
-
-        if (buy) {
-            s.score -= price;
-            s.sharedHearts = 1;
-            ui.buildHeartsBar();
-            ui.updateScoreAndMineLabels();
-            return true;
-        }
-
-        return false;
     }
-    
-    public boolean trySellHeartToContinue() {
-        if (s.sharedHearts <= 1) return false;
 
-        int minScore = getMinScore();
-        int gain = getHeartPrice();
-
-        if (s.score > minScore) return false;
-
-        boolean sell = DialogUtil.confirm(
+    @Override
+    public boolean sellHeart(int gain) {
+        return DialogUtil.confirm(
                 "Low Score!",
                 "Sell Heart",
                 "You can sell 1 heart for +" + gain + " points.\n\nDo you want to continue?"
         );
-
-        if (sell) {
-            s.sharedHearts--;
-            s.score += gain;
-            ui.buildHeartsBar();
-            ui.updateScoreAndMineLabels();
-            return true;
-        }
-
-        return false;
     }
-
-
-
 }
@@ -67,7 +67,8 @@ public class GameController {
     public void init(GameConfig config) {
         // init state
         state.config = config;
-        state.difficulty = config.getDifficulty();
+        state.profile = config.getProfile();
+        state.difficulty = state.profile.getTier();
         
         UIAnimations.fadeIn(root);
 
@@ -82,7 +83,7 @@ public class GameController {
         uiService.registerAsObserver();
 
         playService = new GamePlayServiceController(state, uiService, historyService, this::showEndGameScreen);
-        bonusService = new GameBonusServiceController(state, uiService, playService);
+        bonusService = new GameBonusServiceController(state);
         playService.setBonusService(bonusService);
 
 
@@ -90,15 +91,25 @@ public class GameController {
         uiService.setBonusService(bonusService);
         uiService.setPlayService(playService);
 
-        // setup boards + counters 
-        playService.initializeNewMatch();
+        initLoadingScreen();
 
+        // setup boards + counters; on a board pool miss the rest waits for the boards off the FX thread
+        playService.initializeNewMatch(this::startMatchScreen);
+    }
+
+    //What can be shown before the boards exist: avatars, difficulty and empty counters.
+    private void initLoadingScreen() {
+        uiService.loadAvatars();
+        uiService.initLabels();
+    }
+
+    //Called once the engine is set up (right away when both boards came from the pool).
+    private void startMatchScreen() {
         // Apply generic animations to buttons/cards
         UIAnimations.applyHoverZoomToAllButtons(root);
         UIAnimations.applyFloatingToCards(root);
 
         // Build UI
-        uiService.loadAvatars();
         uiService.buildHeartsBar();
         uiService.initLabels();
         uiService.initForbiddenCursor();
@@ -127,6 +138,7 @@ public class GameController {
             }
             // start/reset idle smart-hint timer
             bonusService.resetIdleHintTimer();
+            bonusService.showStartHints();
         };
 
         // SYNC ICONS WITH SETTINGS
@@ -189,6 +201,7 @@ public class GameController {
         }
 
         bonusService.resetIdleHintTimer();
+        playService.cancelPendingMatch();
         historyService.saveGiveUpGame(state);
         uiService.stopTimer();
         Platform.exit();
@@ -261,6 +274,7 @@ public class GameController {
         root.setEffect(null);
 
         // Stop match runtime
+        playService.cancelPendingMatch();
         if (uiService != null) {
             uiService.stopTimer();
             uiService.unregisterAsObserver();
@@ -312,7 +326,7 @@ private void showEndGameScreen() {
             uiService.unregisterAsObserver();
         }
 
-        String fxmlPath = state.gameWon ? "/view/win_view.fxml" : "/view/lose_view.fxml";
+        String fxmlPath = state.isGameWon() ? "/view/win_view.fxml" : "/view/lose_view.fxml";
         Stage stage = (Stage) player1Grid.getScene().getWindow();
 
         EndGameController controller =
@@ -320,10 +334,10 @@ private void showEndGameScreen() {
 
         controller.init(
                 state.config,
-                state.score,
+                state.getScore(),
                 state.elapsedSeconds,
-                state.sharedHearts,
-                state.gameWon
+                state.getSharedHearts(),
+                state.isGameWon()
         );
 
         Platform.runLater(playService::showHeartsBonusPopupIfNeeded);
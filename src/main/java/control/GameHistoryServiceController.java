@@ -2,6 +2,8 @@ package control;
 
 import java.time.LocalDate;
 
+import model.BoardMetrics;
+import model.DifficultyProfile;
 import model.Game;
 import model.GameResult;
 import model.Player;
@@ -13,7 +15,7 @@ public class GameHistoryServiceController {
     public void saveCurrentGameToHistory(GameStateController s) {
         if (s.config == null) return;
 
-        GameResult result = s.gameWon ? GameResult.WIN : GameResult.LOSE;
+        GameResult result = s.isGameWon() ? GameResult.WIN : GameResult.LOSE;
 
         Player p1 = SessionManager.getPlayer1();
         Player p2 = SessionManager.getPlayer2();
@@ -24,33 +26,34 @@ public class GameHistoryServiceController {
         String player1Nick = s.config.getPlayer1Nickname();
         String player2Nick = s.config.getPlayer2Nickname();
 
-        boolean winWithoutMistakes = (s.gameWon && !s.mistakeMade);
+        boolean winWithoutMistakes = (s.isGameWon() && !s.isMistakeMade());
 
         Game gameRecord = new Game(
                 player1Official,
                 player2Official,
                 player1Nick,
                 player2Nick,
-                s.difficulty,
-                s.score,
+                (s.profile != null) ? s.profile : DifficultyProfile.of(s.difficulty),
+                s.getScore(),
                 result,
                 LocalDate.now(),
                 s.elapsedSeconds,
                 winWithoutMistakes,
                 s.config.getPlayer1AvatarPath(),
-                s.config.getPlayer2AvatarPath()
+                s.config.getPlayer2AvatarPath(),
+                (s.engine != null) ? s.engine.getMetrics() : BoardMetrics.UNKNOWN,
+                (s.engine != null) ? s.engine.getMetricClicks() : 0
         );
 
         SysData sysData = SysData.getInstance();
-        sysData.addGameToHistory(gameRecord);
-        sysData.saveHistoryToCsv();
+        sysData.appendGameToHistory(gameRecord);
 
         System.out.println("Saved game: " + gameRecord);
     }
 
     public void saveGiveUpGame(GameStateController s) {
         if (s.config == null) return;
-        if (s.gameOver) return;
+        if (s.isGameOver()) return;
 
         GameResult result = GameResult.GIVE_UP;
 
@@ -68,19 +71,20 @@ public class GameHistoryServiceController {
                 player2Official,
                 player1Nick,
                 player2Nick,
-                s.difficulty,
-                s.score,
+                (s.profile != null) ? s.profile : DifficultyProfile.of(s.difficulty),
+                s.getScore(),
                 result,
                 LocalDate.now(),
                 s.elapsedSeconds,
                 false,
                 s.config.getPlayer1AvatarPath(),
-                s.config.getPlayer2AvatarPath()
+                s.config.getPlayer2AvatarPath(),
+                (s.engine != null) ? s.engine.getMetrics() : BoardMetrics.UNKNOWN,
+                (s.engine != null) ? s.engine.getMetricClicks() : 0
         );
 
         SysData sysData = SysData.getInstance();
-        sysData.addGameToHistory(giveUpGame);
-        sysData.saveHistoryToCsv();
+        sysData.appendGameToHistory(giveUpGame);
 
         System.out.println("Saved GIVE_UP game: " + giveUpGame);
     }
@@ -1,10 +1,12 @@
 package control;
 
-import java.util.ArrayDeque;
-
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
@@ -12,6 +14,7 @@ import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.image.Image;
@@ -22,20 +25,32 @@ import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 
+import engine.CellDelta;
+import engine.GameEngine;
+import engine.GameListener;
 import model.Board;
+import model.BoardFactory;
+import model.BoardMarks;
+import model.BoardPool;
 import model.Cell;
-import model.CellRevealResult;
 import model.CellType;
+import model.DifficultyProfile;
 import model.SysData;
+import solver.NoGuessGenerator;
 import util.DialogUtil;
+import util.ImageCache;
+
+public class GamePlayServiceController implements GameListener {
 
-public class GamePlayServiceController {
+    private static final Logger LOG = Logger.getLogger(GamePlayServiceController.class.getName());
 
     private final GameStateController s;
     private final GameUIServiceController ui;
     private final GameHistoryServiceController history;
     private final Runnable showEndGameScreenCallback;
     private GameBonusServiceController bonusService;
+    private UiUpdateBatcher batcher;
+    private CompletableFuture<Void> pendingMatch; // boards still being built, FX thread only
 
 
     
@@ -46,41 +61,73 @@ public class GamePlayServiceController {
         this.showEndGameScreenCallback = showEndGameScreenCallback;
     }
 
-    public void initializeNewMatch() {
-        s.board1 = new Board(s.difficulty);
-        s.board2 = new Board(s.difficulty);
-
-        printBoardDebug("Player 1 Board", s.board1);
-        printBoardDebug("Player 2 Board", s.board2);
+    //Prepares both boards off the FX thread and calls onReady on it once the engine is set up.
+    //Pooled boards start the match right away; on a pool miss the grids show a loading state
+    //while the boards are built, so the window never waits on a generator.
+    public void initializeNewMatch(Runnable onReady) {
+        if (s.profile == null) {
+            s.profile = DifficultyProfile.of(s.difficulty);
+        }
 
-        s.minesLeft1 = s.board1.getMineCount();
-        s.minesLeft2 = s.board2.getMineCount();
+        // Both boards are prepared concurrently (or come straight from the pool)
+        BoardFactory factory = s.config != null && s.config.isNoGuess()
+                ? NoGuessGenerator.getInstance() : BoardPool.RANDOM;
+        CompletableFuture<Board[]> boards = BoardPool.getInstance().preparePair(s.profile, factory);
 
-        s.surprisesLeft1 = countType(s.board1, CellType.SURPRISE);
-        s.surprisesLeft2 = countType(s.board2, CellType.SURPRISE);
+        cancelPendingMatch();
+        if (boards.isDone() && !boards.isCompletedExceptionally()) {
+            startMatch(boards.join());
+            onReady.run();
+            return;
+        }
 
-        s.questionsLeft1 = countType(s.board1, CellType.QUESTION);
-        s.questionsLeft2 = countType(s.board2, CellType.QUESTION);
+        ui.showBoardsLoading(true);
+        CompletableFuture<Void> pending = boards.thenAcceptAsync(ready -> {
+            pendingMatch = null;
+            ui.showBoardsLoading(false);
+            startMatch(ready);
+            onReady.run();
+        }, Platform::runLater);
+        pending.exceptionally(e -> {
+            if (e instanceof CancellationException) return null;
+            LOG.log(Level.WARNING, "Board generation failed", e);
+            Platform.runLater(() -> DialogUtil.show(Alert.AlertType.ERROR, null, "New Game",
+                    "The boards could not be generated: " + e.getMessage()));
+            return null;
+        });
+        pendingMatch = pending;
+    }
 
-        s.revealedCellsP1 = new boolean[s.board1.getRows()][s.board1.getCols()];
-        s.revealedCellsP2 = new boolean[s.board2.getRows()][s.board2.getCols()];
+    //Drops a match whose boards are still being built (e.g. the player left the screen meanwhile).
+    public void cancelPendingMatch() {
+        CompletableFuture<Void> pending = pendingMatch;
+        pendingMatch = null;
+        if (pending != null) pending.cancel(false);
+    }
 
-        s.totalCellsP1 = s.board1.getRows() * s.board1.getCols();
-        s.totalCellsP2 = s.board2.getRows() * s.board2.getCols();
+    //FX thread: wires a fresh engine over the two boards.
+    private void startMatch(Board[] boards) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine(formatBoardDebug("Player 1 Board", boards[0]));
+            LOG.fine(formatBoardDebug("Player 2 Board", boards[1]));
+        }
 
-        s.revealedCountP1 = 0;
-        s.revealedCountP2 = 0;
+        s.engine = new GameEngine(s.profile, boards[0], boards[1]);
+        s.engine.setAutoRemoveFlags(SysData.isAutoRemoveFlagEnabled());
+        s.engine.setQuestionSource(() -> SysData.getInstance().getAllQuestions());
 
-        s.safeCellsRemaining1 = s.totalCellsP1 - s.board1.getMineCount();
-        s.safeCellsRemaining2 = s.totalCellsP2 - s.board2.getMineCount();
+        // The screen only draws what the engine reports; tiles, stats and hearts once per pulse
+        if (batcher != null) batcher.dispose();
+        batcher = new UiUpdateBatcher(this::applyCellDeltas, ui::updateScoreAndMineLabels, ui::buildHeartsBar);
+        s.engine.addListener(batcher);
+        s.engine.addListener(this);
+        s.engine.addListener(ui);
+        if (bonusService != null) {
+            s.engine.addListener(bonusService);
+            s.engine.setDecisions(bonusService);
+        }
 
-        s.sharedHearts = s.difficulty.getInitialLives();
-        s.score = 0;
-        s.isPlayer1Turn = true;
         s.isPaused = false;
-        s.gameOver = false;
-        s.gameWon = false;
-        s.mistakeMade = false;
     }
     
     public void setBonusService(GameBonusServiceController bonusService) {
@@ -104,527 +151,123 @@ public class GamePlayServiceController {
     }
 
     public void switchTurn() {
-        s.isPlayer1Turn = !s.isPlayer1Turn;
-
-        if (s.isPlayer1Turn) {
-            s.wrongFlagsThisTurnP1 = 0;
-            s.flaggingLockedThisTurnP1 = false;
-        } else {
-            s.wrongFlagsThisTurnP2 = 0;
-            s.flaggingLockedThisTurnP2 = false;
-        }
-
-        ui.applyTurnStateToBoards();
-        ui.updateScoreAndMineLabels();
+        s.engine.switchTurn();
     }
     
-    /**
-     * Toggles a flag icon on a covered cell.
-     *  If it's a MINE: right-click reveals instantly and gives +1 score (Option A).
-     *  If it's NOT a mine: placing a flag consumes a non-reusable flag (flagsPlaced = flagsUsed).
-     *  Unflagging removes only the visual marker and does NOT refund a flag.
-     *  Wrong flag is a mistake and costs -3 score.
-     */
-    public void toggleFlag(Board board, int row, int col, Button button, boolean isPlayer1) {
-        if (s.gameOver || s.isPaused) return;
-
-        Cell cell = board.getCell(row, col);
-        if (cell == null) return;
-
-        if (button.isDisable()) return;
-
-        // Unflag: always allowed, does NOT reduce wrong-flag counter (Option 1).
-        if (button.getStyleClass().contains("cell-flagged")) {
-            button.setGraphic(null);
-            button.setText("");
-            button.getStyleClass().remove("cell-flagged");
-
-            ui.updateScoreAndMineLabels();
-            return;
-        }
-
-        // If flagging is locked for this player during this turn, block NEW flags (but unflagging above still works).
-        boolean locked = isPlayer1 ? s.flaggingLockedThisTurnP1 : s.flaggingLockedThisTurnP2;
-        if (locked) {
-            DialogUtil.show(Alert.AlertType.INFORMATION, null, "Flagging Disabled",
-                    "You reached " + GameStateController.WRONG_FLAGS_LIMIT_PER_TURN +
-                            " wrong flags this turn.\nFlagging is disabled until your turn ends.");
-            return;
-        }
-
-     
-
-        // Correct flag on a mine: ALWAYS allowed (even if flagsLeft is 0).
-        if (cell.isMine()) {
-            button.setGraphic(null);
-            button.setText("💣");
-
-            button.getStyleClass().removeAll(
-                "cell-hidden", "cell-flagged",
-                "cell-number", "cell-empty", "cell-question", "cell-surprise"
-            );
-
-            if (!button.getStyleClass().contains("cell-revealed")) button.getStyleClass().add("cell-revealed");
-            if (!button.getStyleClass().contains("cell-activated")) button.getStyleClass().add("cell-activated");
-
-            // Mine base + "correctly flagged" variant
-            if (!button.getStyleClass().contains("cell-mine")) button.getStyleClass().add("cell-mine");
-            if (!button.getStyleClass().contains("cell-mine-flagged")) button.getStyleClass().add("cell-mine-flagged");
-
-            button.setDisable(true);
-
-            s.score += 1;
-            if (isPlayer1) s.minesLeft1 = Math.max(0, s.minesLeft1 - 1);
-            else s.minesLeft2 = Math.max(0, s.minesLeft2 - 1);
-
-            boolean[][] revealedArray = isPlayer1 ? s.revealedCellsP1 : s.revealedCellsP2;
-            if (revealedArray != null && !revealedArray[row][col]) {
-                revealedArray[row][col] = true;
-                if (isPlayer1) s.revealedCountP1++;
-                else s.revealedCountP2++;
-            }
-
-            ui.updateScoreAndMineLabels();
-
-            if (!s.gameOver && s.sharedHearts > 0 && (s.minesLeft1 == 0 || s.minesLeft2 == 0)) {
-                s.gameWon = true;
-                onGameOver();
-            }
-            return;
-        }
-
-        // Wrong flag (non-mine): place visual flag, apply penalty, increment wrong flags this turn.
-        try {
-            Image img = new Image(getClass().getResourceAsStream("/Images/red-flag.png"));
-            ImageView iv = new ImageView(img);
-            iv.setFitWidth(20);
-            iv.setFitHeight(20);
-            iv.setPreserveRatio(true);
-            button.setGraphic(iv);
-        } catch (Exception ex) {
-            button.setText("🚩");
-        }
-
-        if (!button.getStyleClass().contains("cell-flagged")) {
-            button.getStyleClass().add("cell-flagged");
-        }
-
-
-        s.mistakeMade = true;
-        s.score -= 3;
-
-        if (isPlayer1) {
-            s.wrongFlagsThisTurnP1++;
-            if (s.wrongFlagsThisTurnP1 >= GameStateController.WRONG_FLAGS_LIMIT_PER_TURN) {
-                s.flaggingLockedThisTurnP1 = true;
-                DialogUtil.show(Alert.AlertType.WARNING, null, "Flagging Disabled",
-                        "Too many wrong flags this turn.\nFlagging is disabled until your turn ends.");
-            }
-        } else {
-            s.wrongFlagsThisTurnP2++;
-            if (s.wrongFlagsThisTurnP2 >= GameStateController.WRONG_FLAGS_LIMIT_PER_TURN) {
-                s.flaggingLockedThisTurnP2 = true;
-                DialogUtil.show(Alert.AlertType.WARNING, null, "Flagging Disabled",
-                        "Too many wrong flags this turn.\nFlagging is disabled until your turn ends.");
-            }
-        }
-
-        ui.updateScoreAndMineLabels();
-        checkSellHeartCondition();
+    //Right click on a covered cell; the flag rules live in GameEngine.toggleFlag.
+    public void toggleFlag(int row, int col, boolean isPlayer1) {
+        if (s.isGameOver() || s.isPaused) return;
 
+        s.engine.toggleFlag(isPlayer1, row, col);
     }
 
-
-
-
-    private void autoRemoveFlagIfPresent(Board board, int row, int col, Button button, boolean isPlayer1, boolean batchMode) {
-        if (!button.getStyleClass().contains("cell-flagged")) return;
-
-        button.setGraphic(null);
-        button.setText("");
-        button.getStyleClass().remove("cell-flagged");
-
-        if (!batchMode) {
-            ui.updateScoreAndMineLabels();
-        }    }
-
-  
-   
-    public boolean revealAndMaybeActivate(Board board, int row, int col, Button button, StackPane tile, boolean isPlayer1) {
-        Cell cell = board.getCell(row, col);
-
-        if (button.getStyleClass().contains("cell-flagged")) {
-            autoRemoveFlagIfPresent(board, row, col, button, isPlayer1,true);
-        }
-
+    public boolean revealAndMaybeActivate(int row, int col, boolean isPlayer1) {
         // SECOND CLICK cases are handled in GameBonusService (called by UI click handler before this method).
         // Here we do normal reveal.
-        revealSingleCell(board, row, col, button, tile, isPlayer1, false);
-
-        if (cell.getType() == CellType.EMPTY || cell.getAdjacentMines() == 0) {
-            cascadeReveal(board, row, col, isPlayer1);
-        }
-
+        s.engine.reveal(isPlayer1, row, col);
         return true;
     }
 
-    public void revealSingleCell(Board board, int row, int col, Button button, StackPane tile, boolean isPlayer1, boolean batchMode) {
-        Cell cell = board.getCell(row, col);
-
-        if (button.isDisable()) return;
-
-        boolean[][] revealedArray = isPlayer1 ? s.revealedCellsP1 : s.revealedCellsP2;
-        boolean isFirstReveal = false;
-
-        if (revealedArray != null) {
-            if (revealedArray[row][col]) return;
-            revealedArray[row][col] = true;
-            isFirstReveal = true;
+    // =======================
+    // Engine events
+    // =======================
+
+    //Called by the batcher once per pulse with every cell the engine changed since the last frame.
+    private void applyCellDeltas(List<CellDelta> deltas) {
+        for (CellDelta d : deltas) {
+            StackPane[][] tiles = tiles(d.isPlayer1);
+            switch (d.kind) {
+                case REVEALED -> paintRevealed(buttonAt(tiles, d.row, d.col), d.type, d.adjacentMines);
+                case EXPLODED -> {
+                    if (tiles != null && tiles[d.row][d.col] != null) triggerExplosion(tiles[d.row][d.col]);
+                }
+                case FLAG_PLACED -> paintFlagPlaced(buttonAt(tiles, d.row, d.col));
+                case FLAG_REMOVED -> paintFlagRemoved(buttonAt(tiles, d.row, d.col));
+                case MINE_FLAGGED -> paintMineFlagged(buttonAt(tiles, d.row, d.col));
+                case ACTIVATED -> paintActivated(buttonAt(tiles, d.row, d.col));
+            }
         }
+    }
 
-        if (isFirstReveal) {
-            if (isPlayer1) s.revealedCountP1++;
-            else s.revealedCountP2++;
-
-        }
+    private void paintRevealed(Button button, CellType type, int adjacentMines) {
+        if (button == null) return;
 
-        button.getStyleClass().removeAll(
-                "cell-hidden", "cell-revealed",
-                "cell-mine", "cell-question",
-                "cell-surprise", "cell-number", "cell-empty"
-        );
-        //Update this switch command to a better one using Template Pattern:
-//        switch (cell.getType()) {
-//            case MINE -> {
-//                button.setText("💣");
-//                button.setDisable(true);
-//                button.getStyleClass().addAll("cell-revealed", "cell-mine");
-//
-//                int heartsBefore = s.sharedHearts;
-//                s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-//                if (s.sharedHearts < heartsBefore) {
-//                    s.mistakeMade = true;
-//                }
-//
-//                triggerExplosion(tile);
-//
-//                if (isPlayer1) s.minesLeft1 = Math.max(0, s.minesLeft1 - 1);
-//                else s.minesLeft2 = Math.max(0, s.minesLeft2 - 1);
-//
-//                ui.buildHeartsBar();
-//                ui.updateScoreAndMineLabels();
-//
-//                if (!s.gameOver && s.sharedHearts > 0 && (s.minesLeft1 == 0 || s.minesLeft2 == 0)) {
-//                    s.gameWon = true;
-//                    onGameOver();
-//                    return;
-//                }
-//
-//                if (checkLoseAndHandle()) return;
-//            }
-//
-//            case QUESTION -> {
-//                try {
-//                    Image img = new Image(getClass().getResourceAsStream("/Images/question-mark.png"));
-//                    ImageView iv = new ImageView(img);
-//                    iv.setFitWidth(20);
-//                    iv.setFitHeight(20);
-//                    iv.setPreserveRatio(true);
-//                    button.setGraphic(iv);
-//                    button.getStyleClass().addAll("cell-revealed", "cell-question");
-//                    if (isPlayer1) s.questionsLeft1 = Math.max(0, s.questionsLeft1 - 1);
-//                    else s.questionsLeft2 = Math.max(0, s.questionsLeft2 - 1);
-//                } catch (Exception ex) {
-//                    button.setText("?");
-//                    button.getStyleClass().addAll("cell-revealed", "cell-question");
-//                }
-//
-//                if (isFirstReveal) {
-//                    s.score += 1;
-//                }
-//            }
-//
-//            case SURPRISE -> {
-//                try {
-//                    Image img = new Image(getClass().getResourceAsStream("/Images/giftbox.png"));
-//                    ImageView iv = new ImageView(img);
-//                    iv.setFitWidth(20);
-//                    iv.setFitHeight(20);
-//                    iv.setPreserveRatio(true);
-//                    button.setGraphic(iv);
-//                    button.getStyleClass().addAll("cell-revealed", "cell-surprise");
-//                    if (isPlayer1) s.surprisesLeft1 = Math.max(0, s.surprisesLeft1 - 1);
-//                    else s.surprisesLeft2 = Math.max(0, s.surprisesLeft2 - 1);
-//                } catch (Exception ex) {
-//                    button.setText("★");
-//                    button.getStyleClass().addAll("cell-revealed", "cell-surprise");
-//                }
-//
-//                if (isFirstReveal) {
-//                    s.score += 1;
-//                }
-//            }
-//
-//            case NUMBER -> {
-//                int n = cell.getAdjacentMines();
-//                button.setText(String.valueOf(n));
-//                button.setDisable(true);
-//                button.getStyleClass().addAll("cell-revealed", "cell-number");
-//                s.score += 1;
-//            }
-//
-//            case EMPTY -> {
-//                button.setText("");
-//                button.setDisable(true);
-//                button.getStyleClass().addAll("cell-revealed", "cell-empty");
-//                s.score += 1;
-//            }
-//        }
-        
-        CellRevealResult result = cell.reveal(isFirstReveal);
-
-        // clear visuals (same as before)
+        // clear visuals
         button.setGraphic(null);
         button.setText("");
-        button.getStyleClass().removeAll(
-             "cell-hidden", "cell-revealed",
-             "cell-mine", "cell-question",
-             "cell-surprise", "cell-number", "cell-empty"
-        );
-        
-        //COMMON revealed state
-        button.getStyleClass().add("cell-revealed");
-
-        
-        if (result.type == CellType.MINE) {
-
-            button.setText("💣");
-            button.setDisable(true);
-            button.getStyleClass().add("cell-mine");
-            button.getStyleClass().add("cell-activated");
+        CellStyle.setRevealed(button, type);
 
-            int heartsBefore = s.sharedHearts;
-
-            if (result.loseHeart) {
-                s.sharedHearts = Math.max(0, s.sharedHearts - 1);
-                if (s.sharedHearts < heartsBefore) {
-                    s.mistakeMade = true;
-                }
-             // Check if hearts == 0 → try buy → else game over
-                if (checkLoseAndHandle()) {
-                    return;
-                }
-            }
-
-            if (result.triggerExplosion) {
-                triggerExplosion(tile);
-            }
-
-            if (isPlayer1)
-                s.minesLeft1 = Math.max(0, s.minesLeft1 - 1);
-            else
-                s.minesLeft2 = Math.max(0, s.minesLeft2 - 1);
-
-            
-            if (!batchMode) {
-                ui.buildHeartsBar();
-                ui.updateScoreAndMineLabels();
-            }
-            if (!s.gameOver && s.sharedHearts > 0 &&
-                    (s.minesLeft1 == 0 || s.minesLeft2 == 0)) {
-                s.gameWon = true;
-                onGameOver();
-                return;
-            }
-
-            if (checkLoseAndHandle()) return;
-        }
-
-        /* ===================== QUESTION ===================== */
-        else if (result.type == CellType.QUESTION) {
-
-            try {
-                Image img = new Image(getClass().getResourceAsStream("/Images/question-mark.png"));
-                ImageView iv = new ImageView(img);
-                iv.setFitWidth(20);
-                iv.setFitHeight(20);
-                iv.setPreserveRatio(true);
-                button.setGraphic(iv);
-            } catch (Exception ex) {
-                button.setText("?");
+        switch (type) {
+            case MINE -> {
+                button.setText("💣");
+                button.setDisable(true);
+                CellStyle.setActivated(button);
             }
-
-            button.getStyleClass().add("cell-question");
-
-            if (isPlayer1)
-                s.questionsLeft1 = Math.max(0, s.questionsLeft1 - 1);
-            else
-                s.questionsLeft2 = Math.max(0, s.questionsLeft2 - 1);
-        }
-
-        /* ===================== SURPRISE ===================== */
-        else if (result.type == CellType.SURPRISE) {
-
-            try {
-                Image img = new Image(getClass().getResourceAsStream("/Images/giftbox.png"));
-                ImageView iv = new ImageView(img);
-                iv.setFitWidth(20);
-                iv.setFitHeight(20);
-                iv.setPreserveRatio(true);
-                button.setGraphic(iv);
-            } catch (Exception ex) {
-                button.setText("★");
+            case QUESTION -> setIcon(button, "/Images/question-mark.png", "?");
+            case SURPRISE -> setIcon(button, "/Images/giftbox.png", "★");
+            case NUMBER -> {
+                button.setText(String.valueOf(adjacentMines));
+                button.setDisable(true);
+                CellStyle.setActivated(button);
             }
-
-            button.getStyleClass().add("cell-surprise");
-
-            if (isPlayer1)
-                s.surprisesLeft1 = Math.max(0, s.surprisesLeft1 - 1);
-            else
-                s.surprisesLeft2 = Math.max(0, s.surprisesLeft2 - 1);
-        }
-
-        /* ===================== NUMBER ===================== */
-        else if (result.type == CellType.NUMBER) {
-
-            button.setText(String.valueOf(cell.getAdjacentMines()));
-            button.setDisable(true);
-            button.getStyleClass().add("cell-number");
-            button.getStyleClass().add("cell-activated");
-        }
-
-        /* ===================== EMPTY ===================== */
-        else if (result.type == CellType.EMPTY) {
-
-            button.setText("");
-            button.setDisable(true);
-            button.getStyleClass().add("cell-empty");
-            button.getStyleClass().add("cell-activated");
-        }
-
-        /* ===================== SCORE ===================== */
-        if (result.addScore) {
-            s.score += 1;
-        }
-
-        if (cell.getType() != CellType.MINE) {
-            if (isPlayer1) s.safeCellsRemaining1 = Math.max(0, s.safeCellsRemaining1 - 1);
-            else s.safeCellsRemaining2 = Math.max(0, s.safeCellsRemaining2 - 1);
-
-            if (!s.gameOver && s.sharedHearts > 0 &&
-                    (s.safeCellsRemaining1 == 0 || s.safeCellsRemaining2 == 0)) {
-                s.gameWon = true;
-                onGameOver();
+            case EMPTY -> {
+                button.setDisable(true);
+                CellStyle.setActivated(button);
             }
         }
-
-        if (!batchMode) {
-            ui.updateScoreAndMineLabels();
-            checkSellHeartCondition();
-        }
     }
 
-    private void cascadeReveal(Board board, int startRow, int startCol, boolean isPlayer1) {
-        StackPane[][] buttons = isPlayer1 ? s.p1Buttons : s.p2Buttons;
-        int rows = board.getRows();
-        int cols = board.getCols();
+    private void paintFlagPlaced(Button button) {
+        if (button == null) return;
 
-        boolean[][] visited = new boolean[rows][cols];
-        Deque<int[]> stack = new ArrayDeque<>();
-        stack.push(new int[]{startRow, startCol});
+        setIcon(button, "/Images/red-flag.png", "🚩");
+        CellStyle.setFlagged(button, true);
+    }
 
-        while (!stack.isEmpty()) {
-            if (s.gameOver) return;
-            int[] rc = stack.pop();
-            int r = rc[0];
-            int c = rc[1];
+    private void paintFlagRemoved(Button button) {
+        if (button == null) return;
 
-            if (r < 0 || c < 0 || r >= rows || c >= cols) continue;
-            if (visited[r][c]) continue;
-            visited[r][c] = true;
+        button.setGraphic(null);
+        button.setText("");
+        CellStyle.setFlagged(button, false);
+    }
 
-            Cell cell = board.getCell(r, c);
+    private void paintMineFlagged(Button button) {
+        if (button == null) return;
 
-            if (cell.getType() == CellType.MINE) continue;
+        button.setGraphic(null);
+        button.setText("💣");
 
-            StackPane tile = buttons[r][c];
-            if (tile == null || tile.getChildren().isEmpty()) continue;
-            Button btn = (Button) tile.getChildren().get(0);
+        // Mine base + "correctly flagged" variant
+        CellStyle.setRevealed(button, CellStyle.MINE);
+        button.pseudoClassStateChanged(CellStyle.MINE_FLAGGED, true);
+        CellStyle.setActivated(button);
 
-            if (btn.getStyleClass().contains("cell-flagged")) {
-                if (SysData.isAutoRemoveFlagEnabled()) {
-                    autoRemoveFlagIfPresent(board, r, c, btn, isPlayer1,true);
-                }
-                continue;
-            }
-
-            revealSingleCell(board, r, c, btn, tile, isPlayer1, true);
-
-            if (cell.getType() == CellType.EMPTY ||
-                    cell.getType() == CellType.QUESTION ||
-                    cell.getType() == CellType.SURPRISE ||
-                    (cell.getType() == CellType.NUMBER && cell.getAdjacentMines() == 0)) {
-
-                for (int dr = -1; dr <= 1; dr++) {
-                    for (int dc = -1; dc <= 1; dc++) {
-                        if (dr == 0 && dc == 0) continue;
-                        int nr = r + dr;
-                        int nc = c + dc;
-                        if (nr < 0 || nc < 0 || nr >= rows || nc >= cols) continue;
-                        if (!visited[nr][nc]) {
-                            stack.push(new int[]{nr, nc});
-                        }
-                    }
-                }
-            }
-        }
-        ui.updateScoreAndMineLabels();
+        button.setDisable(true);
     }
 
-    public boolean checkLoseAndHandle() {
-        if (s.gameOver) return true;
-        if (s.sharedHearts > 0) return false;
+    private void paintActivated(Button button) {
+        if (button == null) return;
 
-     // Try buying a heart
-        if (bonusService != null && bonusService.tryBuyHeartBeforeGameOver()) {
-            return false;
-        }
-        
-        s.gameWon = false;
-        onGameOver();
-        return true;
+        CellStyle.setActivated(button);
+        button.setDisable(true);
     }
 
-    private int countType(Board board, CellType type) {
-        int count = 0;
-        for (int r = 0; r < board.getRows(); r++) {
-            for (int c = 0; c < board.getCols(); c++) {
-                if (board.getCell(r, c).getType() == type) count++;
-            }
-        }
-        return count;
+    @Override
+    public void flaggingLocked(boolean isPlayer1) {
+        DialogUtil.show(Alert.AlertType.WARNING, null, "Flagging Disabled",
+                "Too many wrong flags this turn.\nFlagging is disabled until your turn ends.");
     }
 
-    public void onGameOver() {
-        if (s.gameOver) return;
-        s.gameOver = true;
-
-        s.endHeartsRemaining = 0;
-        s.endHeartsBonusPoints = 0;
-
-        if (s.gameWon && s.sharedHearts > 0) {
-            int perHeart = switch (s.difficulty) {
-                case EASY -> 5;
-                case MEDIUM -> 8;
-                case HARD -> 12;
-            };
-            s.endScoreBefore = s.score;
-            s.endHeartsRemaining = s.sharedHearts;
-            s.endHeartsBonusPoints = s.sharedHearts * perHeart;
-            s.score += s.endHeartsBonusPoints;
-            ui.updateScoreAndMineLabels();
-        }
+    @Override
+    public void flaggingBlocked(boolean isPlayer1) {
+        DialogUtil.show(Alert.AlertType.INFORMATION, null, "Flagging Disabled",
+                "You reached " + GameStateController.WRONG_FLAGS_LIMIT_PER_TURN +
+                        " wrong flags this turn.\nFlagging is disabled until your turn ends.");
+    }
 
+    @Override
+    public void gameOver(boolean won) {
         ui.stopTimer();
         history.saveCurrentGameToHistory(s);
         revealAllBoardsVisualOnly();
@@ -636,35 +279,63 @@ public class GamePlayServiceController {
         System.out.println("Game over! Saved to history.");
     }
 
+    private StackPane[][] tiles(boolean isPlayer1) {
+        return isPlayer1 ? s.p1Buttons : s.p2Buttons;
+    }
+
+    private static Button buttonAt(StackPane[][] buttons, int r, int c) {
+        if (buttons == null) return null;
+        StackPane tile = buttons[r][c];
+        if (tile == null || tile.getChildren().isEmpty()) return null;
+        return (Button) tile.getChildren().get(0);
+    }
+
+    // Decoded once per theme by ImageCache; cascades over many question/surprise cells only build ImageViews.
+    private void setIcon(Button button, String imagePath, String fallbackText) {
+        Image img = ImageCache.themed(imagePath, 20);
+        if (img == null) {
+            button.setText(fallbackText);
+            return;
+        }
+        ImageView iv = new ImageView(img);
+        iv.setFitWidth(20);
+        iv.setFitHeight(20);
+        iv.setPreserveRatio(true);
+        button.setGraphic(iv);
+    }
+
     public void showHeartsBonusPopupIfNeeded() {
-        if (!s.gameWon) return;
-        if (s.endHeartsRemaining <= 0 || s.endHeartsBonusPoints <= 0) return;
+        if (!s.isGameWon()) return;
+        if (s.getEndHeartsRemaining() <= 0 || s.getEndHeartsBonusPoints() <= 0) return;
 
         DialogUtil.show(Alert.AlertType.INFORMATION,
                 "Bonus added to your final score!",
                 "Hearts Bonus",
-                "Remaining hearts: " + s.endHeartsRemaining + "\n" +
-                        "Score before Addition: " + s.endScoreBefore + "\n" +
-                        "Added points: +" + s.endHeartsBonusPoints + "\n\n" +
-                        "Final score: " + s.score);
+                "Remaining hearts: " + s.getEndHeartsRemaining() + "\n" +
+                        "Score before Addition: " + s.getEndScoreBefore() + "\n" +
+                        "Added points: +" + s.getEndHeartsBonusPoints() + "\n\n" +
+                        "Final score: " + s.getScore());
     }
 
-    // Visual-only reveal at end
-    private void revealAllCellsOnBoardVisualOnly(Board board, StackPane[][] buttons) {
+    // Visual-only reveal at end.
+    // Only still-covered cells are redrawn; revealed ones already show their content and just get dimmed.
+    private void revealAllCellsOnBoardVisualOnly(Board board, StackPane[][] buttons, BoardMarks marks) {
         if (board == null || buttons == null) return;
 
-        int rows = board.getRows();
         int cols = board.getCols();
+        BitSet covered = (marks != null) ? marks.unrevealedCells() : null;
 
-        for (int r = 0; r < rows; r++) {
+        for (int r = 0; r < board.getRows(); r++) {
             for (int c = 0; c < cols; c++) {
-                StackPane tile = buttons[r][c];
-                if (tile == null || tile.getChildren().isEmpty()) continue;
+                Button btn = buttonAt(buttons, r, c);
+                if (btn == null) continue;
 
-                Button btn = (Button) tile.getChildren().get(0);
-                Cell cell = board.getCell(r, c);
-
-                revealButtonVisualOnly(btn, cell);
+                if (covered != null && !covered.get(r * cols + c)) {
+                    CellStyle.setActivated(btn);
+                    btn.setDisable(true);
+                    continue;
+                }
+                revealButtonVisualOnly(btn, board.getCell(r, c));
             }
         }
     }
@@ -675,65 +346,22 @@ public class GamePlayServiceController {
         button.setGraphic(null);
         button.setText("");
 
-        button.getStyleClass().removeAll(
-                "cell-hidden", "cell-flagged",
-                "cell-mine", "cell-question", "cell-surprise",
-                "cell-number", "cell-empty"
-        );
-
-        if (!button.getStyleClass().contains("cell-revealed")) {
-            button.getStyleClass().add("cell-revealed");
-        }
-        if (!button.getStyleClass().contains("cell-activated")) {
-            button.getStyleClass().add("cell-activated");
-        }
+        CellStyle.setRevealed(button, cell.getType());
+        CellStyle.setActivated(button);
         button.setDisable(true);
 
         switch (cell.getType()) {
-            case MINE -> {
-                button.setText("💣");
-                button.getStyleClass().add("cell-mine");
-            }
-            case QUESTION -> {
-                try {
-                    Image img = new Image(getClass().getResourceAsStream("/Images/question-mark.png"));
-                    ImageView iv = new ImageView(img);
-                    iv.setFitWidth(20);
-                    iv.setFitHeight(20);
-                    iv.setPreserveRatio(true);
-                    button.setGraphic(iv);
-                } catch (Exception ex) {
-                    button.setText("?");
-                }
-                button.getStyleClass().add("cell-question");
-            }
-            case SURPRISE -> {
-                try {
-                    Image img = new Image(getClass().getResourceAsStream("/Images/giftbox.png"));
-                    ImageView iv = new ImageView(img);
-                    iv.setFitWidth(20);
-                    iv.setFitHeight(20);
-                    iv.setPreserveRatio(true);
-                    button.setGraphic(iv);
-                } catch (Exception ex) {
-                    button.setText("★");
-                }
-                button.getStyleClass().add("cell-surprise");
-            }
-            case NUMBER -> {
-                button.setText(String.valueOf(cell.getAdjacentMines()));
-                button.getStyleClass().add("cell-number");
-            }
-            case EMPTY -> {
-                button.setText("");
-                button.getStyleClass().add("cell-empty");
-            }
+            case MINE -> button.setText("💣");
+            case QUESTION -> setIcon(button, "/Images/question-mark.png", "?");
+            case SURPRISE -> setIcon(button, "/Images/giftbox.png", "★");
+            case NUMBER -> button.setText(String.valueOf(cell.getAdjacentMines()));
+            case EMPTY -> { }
         }
     }
 
     private void revealAllBoardsVisualOnly() {
-        revealAllCellsOnBoardVisualOnly(s.board1, s.p1Buttons);
-        revealAllCellsOnBoardVisualOnly(s.board2, s.p2Buttons);
+        revealAllCellsOnBoardVisualOnly(s.getBoard1(), s.p1Buttons, s.getMarksP1());
+        revealAllCellsOnBoardVisualOnly(s.getBoard2(), s.p2Buttons, s.getMarksP2());
     }
 
     // Explosion animation unchanged
@@ -793,35 +421,35 @@ public class GamePlayServiceController {
         });
     }
 
-    private void printBoardDebug(String title, Board board) {
-        System.out.println("========== " + title + " ==========");
+    //Text dump of a board for debugging; only built when FINE logging is enabled.
+    private String formatBoardDebug(String title, Board board) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("========== ").append(title).append(" ==========\n");
         int rows = board.getRows();
         int cols = board.getCols();
 
-        System.out.print("    ");
+        sb.append("    ");
         for (int c = 0; c < cols; c++) {
-            System.out.printf("%3d", c);
+            sb.append(String.format("%3d", c));
         }
-        System.out.println();
-        System.out.print("    ");
+        sb.append('\n').append("    ");
         for (int c = 0; c < cols; c++) {
-            System.out.print("---");
+            sb.append("---");
         }
-        System.out.println();
+        sb.append('\n');
 
         for (int r = 0; r < rows; r++) {
-            System.out.printf("%3d|", r);
+            sb.append(String.format("%3d|", r));
 
             for (int c = 0; c < cols; c++) {
-                Cell cell = board.getCell(r, c);
                 char ch;
 
-                switch (cell.getType()) {
+                switch (board.getType(r, c)) {
                     case MINE -> ch = 'M';
                     case QUESTION -> ch = 'Q';
                     case SURPRISE -> ch = 'S';
                     case NUMBER -> {
-                        int n = cell.getAdjacentMines();
+                        int n = board.getAdjacentMines(r, c);
                         if (n >= 0 && n <= 9) ch = (char) ('0' + n);
                         else ch = 'N';
                     }
@@ -829,27 +457,11 @@ public class GamePlayServiceController {
                     default -> ch = '?';
                 }
 
-                System.out.printf("%3c", ch);
+                sb.append("  ").append(ch);
             }
-            System.out.println();
-        }
-        System.out.println();
-    }
-    
-    
-    /************Buying/Selling hearts logic***********/
-    private void checkSellHeartCondition() {
-        if (bonusService == null) return;
-
-        if (bonusService.trySellHeartToContinue()) {
-            return;
-        }
-
-        // If player refused, game ends
-        if (s.score <= bonusService.getMinScore()) {
-            s.gameWon = false;
-            onGameOver();
+            sb.append('\n');
         }
+        return sb.toString();
     }
 
 }
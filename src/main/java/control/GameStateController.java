@@ -3,75 +3,43 @@ package control;
 import javafx.animation.Timeline;
 import javafx.scene.ImageCursor;
 import javafx.scene.layout.StackPane;
+
+import engine.GameEngine;
 import model.Board;
+import model.BoardMarks;
 import model.Difficulty;
+import model.DifficultyProfile;
 import model.GameConfig;
 
 public class GameStateController {
 
    GameConfig config;
-   Difficulty difficulty;
+   Difficulty difficulty;      // scoring tier
+   DifficultyProfile profile;  // board size and special-cell counts
 
-    Board board1;
-    Board board2;
+    // Rules and match state (boards, hearts, score, counters, turn); the fields below are screen-only
+    GameEngine engine;
 
     StackPane[][] p1Buttons;
     StackPane[][] p2Buttons;
 
-    int sharedHearts;
-    int score;
-
-    int minesLeft1;
-    int minesLeft2;
-
-    int surprisesLeft1;
-    int surprisesLeft2;
-
-    int questionsLeft1;
-    int questionsLeft2;
-
-    int revealedCountP1;
-    int revealedCountP2;
-
-    int totalCellsP1;
-    int totalCellsP2;
-
-    int safeCellsRemaining1;
-    int safeCellsRemaining2;
-
-    int endScoreBefore;
+    // set instead of the button arrays when the match uses BoardRendering.CANVAS
+    CanvasBoardView p1Canvas;
+    CanvasBoardView p2Canvas;
 
     String player1OfficialName;
     String player2OfficialName;
 
-    boolean isPlayer1Turn = true;
     boolean isPaused = false;
-    boolean gameOver = false;
-    boolean gameWon = false;
-    
-    int wrongFlagsThisTurnP1 = 0;
-    int wrongFlagsThisTurnP2 = 0;
 
-    boolean flaggingLockedThisTurnP1 = false;
-    boolean flaggingLockedThisTurnP2 = false;
-    
-    static final int WRONG_FLAGS_LIMIT_PER_TURN = 3;
-
-
-    boolean mistakeMade = false;
+    static final int WRONG_FLAGS_LIMIT_PER_TURN = GameEngine.WRONG_FLAGS_LIMIT_PER_TURN;
 
     ImageCursor forbiddenCursor;
 
     Timeline timer;
     int elapsedSeconds = 0;
 
-    int endHeartsRemaining = 0;
-    int endHeartsBonusPoints = 0;
-
-    boolean[][] revealedCellsP1;
-    boolean[][] revealedCellsP2;
-
-    static final int TOTAL_HEART_SLOTS = 10;
+    static final int TOTAL_HEART_SLOTS = GameEngine.TOTAL_HEART_SLOTS;
 
 	public GameConfig getConfig() {
 		return config;
@@ -89,20 +57,30 @@ public class GameStateController {
 		this.difficulty = difficulty;
 	}
 
-	public Board getBoard1() {
-		return board1;
+	public DifficultyProfile getProfile() {
+		return profile;
 	}
 
-	public void setBoard1(Board board1) {
-		this.board1 = board1;
+	public void setProfile(DifficultyProfile profile) {
+		this.profile = profile;
 	}
 
-	public Board getBoard2() {
-		return board2;
+	public GameEngine getEngine() {
+		return engine;
+	}
+
+	public void setEngine(GameEngine engine) {
+		this.engine = engine;
 	}
 
-	public void setBoard2(Board board2) {
-		this.board2 = board2;
+	// Match state is read through the engine; zeros/nulls before a match is set up
+
+	public Board getBoard1() {
+		return (engine == null) ? null : engine.getBoard(true);
+	}
+
+	public Board getBoard2() {
+		return (engine == null) ? null : engine.getBoard(false);
 	}
 
 	public StackPane[][] getP1Buttons() {
@@ -121,124 +99,82 @@ public class GameStateController {
 		this.p2Buttons = p2Buttons;
 	}
 
-	public int getSharedHearts() {
-		return sharedHearts;
+	public CanvasBoardView getP1Canvas() {
+		return p1Canvas;
 	}
 
-	public void setSharedHearts(int sharedHearts) {
-		this.sharedHearts = sharedHearts;
+	public CanvasBoardView getP2Canvas() {
+		return p2Canvas;
 	}
 
-	public int getScore() {
-		return score;
+	public int getSharedHearts() {
+		return (engine == null) ? 0 : engine.getHearts();
 	}
 
-	public void setScore(int score) {
-		this.score = score;
+	public int getScore() {
+		return (engine == null) ? 0 : engine.getScore();
 	}
 
 	public int getMinesLeft1() {
-		return minesLeft1;
-	}
-
-	public void setMinesLeft1(int minesLeft1) {
-		this.minesLeft1 = minesLeft1;
+		return (engine == null) ? 0 : engine.getMinesLeft(true);
 	}
 
 	public int getMinesLeft2() {
-		return minesLeft2;
-	}
-
-	public void setMinesLeft2(int minesLeft2) {
-		this.minesLeft2 = minesLeft2;
+		return (engine == null) ? 0 : engine.getMinesLeft(false);
 	}
 
 	public int getSurprisesLeft1() {
-		return surprisesLeft1;
-	}
-
-	public void setSurprisesLeft1(int surprisesLeft1) {
-		this.surprisesLeft1 = surprisesLeft1;
+		return (engine == null) ? 0 : engine.getSurprisesLeft(true);
 	}
 
 	public int getSurprisesLeft2() {
-		return surprisesLeft2;
-	}
-
-	public void setSurprisesLeft2(int surprisesLeft2) {
-		this.surprisesLeft2 = surprisesLeft2;
+		return (engine == null) ? 0 : engine.getSurprisesLeft(false);
 	}
 
 	public int getQuestionsLeft1() {
-		return questionsLeft1;
-	}
-
-	public void setQuestionsLeft1(int questionsLeft1) {
-		this.questionsLeft1 = questionsLeft1;
+		return (engine == null) ? 0 : engine.getQuestionsLeft(true);
 	}
 
 	public int getQuestionsLeft2() {
-		return questionsLeft2;
+		return (engine == null) ? 0 : engine.getQuestionsLeft(false);
 	}
 
-	public void setQuestionsLeft2(int questionsLeft2) {
-		this.questionsLeft2 = questionsLeft2;
+	public int getWrongFlagsThisTurnP1() {
+		return (engine == null) ? 0 : engine.getWrongFlagsThisTurn(true);
 	}
 
-	public int getRevealedCountP1() {
-		return revealedCountP1;
+	public int getWrongFlagsThisTurnP2() {
+		return (engine == null) ? 0 : engine.getWrongFlagsThisTurn(false);
 	}
 
-	public void setRevealedCountP1(int revealedCountP1) {
-		this.revealedCountP1 = revealedCountP1;
+	public int getRevealedCountP1() {
+		return (engine == null) ? 0 : engine.getMarks(true).getRevealedCount();
 	}
 
 	public int getRevealedCountP2() {
-		return revealedCountP2;
-	}
-
-	public void setRevealedCountP2(int revealedCountP2) {
-		this.revealedCountP2 = revealedCountP2;
+		return (engine == null) ? 0 : engine.getMarks(false).getRevealedCount();
 	}
 
 	public int getTotalCellsP1() {
-		return totalCellsP1;
-	}
-
-	public void setTotalCellsP1(int totalCellsP1) {
-		this.totalCellsP1 = totalCellsP1;
+		Board board = getBoard1();
+		return (board == null) ? 0 : board.getRows() * board.getCols();
 	}
 
 	public int getTotalCellsP2() {
-		return totalCellsP2;
-	}
-
-	public void setTotalCellsP2(int totalCellsP2) {
-		this.totalCellsP2 = totalCellsP2;
+		Board board = getBoard2();
+		return (board == null) ? 0 : board.getRows() * board.getCols();
 	}
 
 	public int getSafeCellsRemaining1() {
-		return safeCellsRemaining1;
-	}
-
-	public void setSafeCellsRemaining1(int safeCellsRemaining1) {
-		this.safeCellsRemaining1 = safeCellsRemaining1;
+		return (engine == null) ? 0 : engine.getSafeCellsRemaining(true);
 	}
 
 	public int getSafeCellsRemaining2() {
-		return safeCellsRemaining2;
-	}
-
-	public void setSafeCellsRemaining2(int safeCellsRemaining2) {
-		this.safeCellsRemaining2 = safeCellsRemaining2;
+		return (engine == null) ? 0 : engine.getSafeCellsRemaining(false);
 	}
 
 	public int getEndScoreBefore() {
-		return endScoreBefore;
-	}
-
-	public void setEndScoreBefore(int endScoreBefore) {
-		this.endScoreBefore = endScoreBefore;
+		return (engine == null) ? 0 : engine.getEndScoreBefore();
 	}
 
 	public String getPlayer1OfficialName() {
@@ -258,11 +194,7 @@ public class GameStateController {
 	}
 
 	public boolean isPlayer1Turn() {
-		return isPlayer1Turn;
-	}
-
-	public void setPlayer1Turn(boolean isPlayer1Turn) {
-		this.isPlayer1Turn = isPlayer1Turn;
+		return engine == null || engine.isPlayer1Turn();
 	}
 
 	public boolean isPaused() {
@@ -274,27 +206,15 @@ public class GameStateController {
 	}
 
 	public boolean isGameOver() {
-		return gameOver;
-	}
-
-	public void setGameOver(boolean gameOver) {
-		this.gameOver = gameOver;
+		return engine != null && engine.isGameOver();
 	}
 
 	public boolean isGameWon() {
-		return gameWon;
-	}
-
-	public void setGameWon(boolean gameWon) {
-		this.gameWon = gameWon;
+		return engine != null && engine.isGameWon();
 	}
 
 	public boolean isMistakeMade() {
-		return mistakeMade;
-	}
-
-	public void setMistakeMade(boolean mistakeMade) {
-		this.mistakeMade = mistakeMade;
+		return engine != null && engine.isMistakeMade();
 	}
 
 	public ImageCursor getForbiddenCursor() {
@@ -322,35 +242,23 @@ public class GameStateController {
 	}
 
 	public int getEndHeartsRemaining() {
-		return endHeartsRemaining;
-	}
-
-	public void setEndHeartsRemaining(int endHeartsRemaining) {
-		this.endHeartsRemaining = endHeartsRemaining;
+		return (engine == null) ? 0 : engine.getEndHeartsRemaining();
 	}
 
 	public int getEndHeartsBonusPoints() {
-		return endHeartsBonusPoints;
-	}
-
-	public void setEndHeartsBonusPoints(int endHeartsBonusPoints) {
-		this.endHeartsBonusPoints = endHeartsBonusPoints;
-	}
-
-	public boolean[][] getRevealedCellsP1() {
-		return revealedCellsP1;
+		return (engine == null) ? 0 : engine.getEndHeartsBonusPoints();
 	}
 
-	public void setRevealedCellsP1(boolean[][] revealedCellsP1) {
-		this.revealedCellsP1 = revealedCellsP1;
+	BoardMarks marks(boolean isPlayer1) {
+		return (engine == null) ? null : engine.getMarks(isPlayer1);
 	}
 
-	public boolean[][] getRevealedCellsP2() {
-		return revealedCellsP2;
+	public BoardMarks getMarksP1() {
+		return marks(true);
 	}
 
-	public void setRevealedCellsP2(boolean[][] revealedCellsP2) {
-		this.revealedCellsP2 = revealedCellsP2;
+	public BoardMarks getMarksP2() {
+		return marks(false);
 	}
 
 	public static int getTotalHeartSlots() {
@@ -22,10 +22,13 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
 import javafx.util.Duration;
+import engine.GameListener;
+import model.BoardRendering;
 import model.SysData;
+import util.ImageCache;
 import util.SoundManager;
 
-public class GameUIServiceController implements util.SettingObserver {
+public class GameUIServiceController implements util.SettingObserver, GameListener {
 
     private final GameStateController s;
 
@@ -105,12 +108,9 @@ public class GameUIServiceController implements util.SettingObserver {
     // Icons-based stats bar
     // =======================
     private ImageView icon(String path, double size) {
-        var stream = getClass().getResourceAsStream(path);
-        if (stream == null) {
-            System.err.println("Missing resource: " + path);
-            return new ImageView();
-        }
-        ImageView iv = new ImageView(new Image(stream));
+        Image img = ImageCache.themed(path, size);
+        if (img == null) return new ImageView();
+        ImageView iv = new ImageView(img);
         iv.setFitWidth(size);
         iv.setFitHeight(size);
         iv.setPreserveRatio(true);
@@ -239,16 +239,12 @@ public class GameUIServiceController implements util.SettingObserver {
         heartsBox.getChildren().clear();
 
         for (int i = 0; i < GameStateController.TOTAL_HEART_SLOTS; i++) {
-            boolean isFull = i < s.sharedHearts;
+            boolean isFull = i < s.getSharedHearts();
             String imgPath = isFull ? "/Images/heart.png" : "/Images/favorite.png";
 
-            var stream = getClass().getResourceAsStream(imgPath);
-            if (stream == null) {
-                System.err.println("Missing resource: " + imgPath);
-                return;
-            }
+            Image img = ImageCache.themed(imgPath, 50);
+            if (img == null) return;
 
-            Image img = new Image(stream);
             ImageView iv = new ImageView(img);
             iv.setFitHeight(50);
             iv.setFitWidth(50);
@@ -265,11 +261,7 @@ public class GameUIServiceController implements util.SettingObserver {
     }
 
     public void initLabels() {
-        difficultyLabel.setText(
-                "Difficulty: " +
-                        s.difficulty.name().charAt(0) +
-                        s.difficulty.name().substring(1).toLowerCase()
-        );
+        difficultyLabel.setText("Difficulty: " + s.profile.getDisplayName());
 
         if (SysData.isTimerEnabled()) {
             timeLabel.setText("Time: 00:00");
@@ -281,26 +273,26 @@ public class GameUIServiceController implements util.SettingObserver {
     }
 
    public void updateScoreAndMineLabels() {
-    scoreLabel.setText("Score: " + s.score);
+    scoreLabel.setText("Score: " + s.getScore());
 
     buildPlayerStats(
             player1StatsBox,
             s.config.getPlayer1Nickname(),
-            s.minesLeft1,
-            s.wrongFlagsThisTurnP1,
+            s.getMinesLeft1(),
+            s.getWrongFlagsThisTurnP1(),
             GameStateController.WRONG_FLAGS_LIMIT_PER_TURN,
-            s.surprisesLeft1,
-            s.questionsLeft1
+            s.getSurprisesLeft1(),
+            s.getQuestionsLeft1()
     );
 
     buildPlayerStats(
             player2StatsBox,
             s.config.getPlayer2Nickname(),
-            s.minesLeft2,
-            s.wrongFlagsThisTurnP2,
+            s.getMinesLeft2(),
+            s.getWrongFlagsThisTurnP2(),
             GameStateController.WRONG_FLAGS_LIMIT_PER_TURN,
-            s.surprisesLeft2,
-            s.questionsLeft2
+            s.getSurprisesLeft2(),
+            s.getQuestionsLeft2()
     );
 }
 
@@ -357,10 +349,19 @@ public class GameUIServiceController implements util.SettingObserver {
     // Grids
     // =======================
     public void buildGrids() {
-        buildGridForPlayer(player1Grid, s.board1, true);
-        buildGridForPlayer(player2Grid, s.board2, false);
+        // GameConfig already maps boards too large for tiles to the canvas (BoardRendering.MAX_TILE_SIDE)
+        boolean canvas = s.config != null && s.config.getBoardRendering() == BoardRendering.CANVAS;
+        if (canvas) {
+            s.p1Canvas = buildCanvasForPlayer(player1Grid, s.getBoard1(), true);
+            s.p2Canvas = buildCanvasForPlayer(player2Grid, s.getBoard2(), false);
+            return;
+        }
+        s.p1Canvas = null;
+        s.p2Canvas = null;
+        buildGridForPlayer(player1Grid, s.getBoard1(), true);
+        buildGridForPlayer(player2Grid, s.getBoard2(), false);
     }
-    
+
     private StackPane createBoardBlocker(Cursor cursor) {
         StackPane blocker = new StackPane();
         blocker.setPickOnBounds(true);
@@ -375,7 +376,7 @@ public class GameUIServiceController implements util.SettingObserver {
         if (player1Grid == null || player2Grid == null) return;
 
         // keep your styling / labels logic
-        if (s.isPlayer1Turn) {
+        if (s.isPlayer1Turn()) {
             setBoardActive(player1Grid, player1StatsBox);
             setBoardInactive(player2Grid, player2StatsBox);
         } else {
@@ -385,8 +386,8 @@ public class GameUIServiceController implements util.SettingObserver {
 
         // overlay logic (only if initialized)
         if (p1Blocker != null && p2Blocker != null) {
-            p1Blocker.setVisible(!s.isPlayer1Turn);
-            p2Blocker.setVisible(s.isPlayer1Turn);
+            p1Blocker.setVisible(!s.isPlayer1Turn());
+            p2Blocker.setVisible(s.isPlayer1Turn());
         }
     }
 
@@ -430,15 +431,41 @@ public class GameUIServiceController implements util.SettingObserver {
         else s.p2Buttons = buttons;
     }
 
+    //Canvas rendering: the whole board is one node filling the grid, so the grid keeps
+    //its size, padding, styling and the blocker overlay exactly as with tiles.
+    private CanvasBoardView buildCanvasForPlayer(GridPane grid, model.Board board, boolean isPlayer1) {
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+
+        ColumnConstraints cc = new ColumnConstraints();
+        cc.setPercentWidth(100);
+        grid.getColumnConstraints().add(cc);
+        RowConstraints rc = new RowConstraints();
+        rc.setPercentHeight(100);
+        grid.getRowConstraints().add(rc);
+
+        CanvasBoardView view = new CanvasBoardView(board, s.marks(isPlayer1), isPlayer1);
+        view.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        GridPane.setHgrow(view, Priority.ALWAYS);
+        GridPane.setVgrow(view, Priority.ALWAYS);
+        view.setOnCellClicked((r, c, mouseButton) ->
+                onCellClicked(isPlayer1, r, c, mouseButton, view.isCellDisabled(r, c)));
+        grid.add(view, 0, 0);
+
+        if (s.engine != null) s.engine.addListener(view);
+
+        if (isPlayer1) s.p1Buttons = null;
+        else s.p2Buttons = null;
+        return view;
+    }
+
     private StackPane createCellTile(model.Board board, int row, int col, boolean isPlayer1) {
         Button button = new Button();
         button.setMinSize(0, 0);
         button.setPrefSize(Region.USE_COMPUTED_SIZE, Region.USE_COMPUTED_SIZE);
         button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
-        button.getStyleClass().addAll("cell-tile", "cell-hidden");
-
-        if (isPlayer1) button.getStyleClass().add("p1-cell");
-        else button.getStyleClass().add("p2-cell");
+        CellStyle.init(button, isPlayer1);
 
         StackPane tile = new StackPane(button);
         tile.setMinSize(0, 0);
@@ -452,38 +479,40 @@ public class GameUIServiceController implements util.SettingObserver {
         final int c = col;
         final boolean tileIsPlayer1 = isPlayer1;
 
-        button.setOnMouseClicked(e -> {
-            if (s.gameOver) return;
-            if (s.isPaused) return;
+        button.setOnMouseClicked(e -> onCellClicked(tileIsPlayer1, r, c, e.getButton(), button.isDisable()));
 
-            if ((tileIsPlayer1 && !s.isPlayer1Turn) || (!tileIsPlayer1 && s.isPlayer1Turn)) {
-                return;
-            }
+        return tile;
+    }
 
-            if (button.isDisable()) return;
+    //Shared by the tile buttons and the canvas hit-test.
+    private void onCellClicked(boolean tileIsPlayer1, int r, int c, MouseButton mouseButton, boolean disabled) {
+        if (s.isGameOver()) return;
+        if (s.isPaused) return;
 
-            if (bonusService != null) bonusService.resetIdleHintTimer();
+        if ((tileIsPlayer1 && !s.isPlayer1Turn()) || (!tileIsPlayer1 && s.isPlayer1Turn())) {
+            return;
+        }
 
-            if (e.getButton() == MouseButton.SECONDARY) {
-                if (!button.getStyleClass().contains("cell-hidden")) return;
-                playService.toggleFlag(board, r, c, button, tileIsPlayer1);
-                return;
-            }
+        if (disabled) return;
 
-            if (e.getButton() == MouseButton.PRIMARY) {
-                boolean activated = bonusService.tryHandleSecondClickActivation(board, r, c, button, tile, tileIsPlayer1);
-                if (activated) {
-                    //playService.switchTurn();
-                    return;
-                }
+        if (bonusService != null) bonusService.resetIdleHintTimer();
+
+        if (mouseButton == MouseButton.SECONDARY) {
+            if (s.marks(tileIsPlayer1).isRevealed(r, c)) return;
+            playService.toggleFlag(r, c, tileIsPlayer1);
+            return;
+        }
 
-                boolean consumedAction = playService.revealAndMaybeActivate(board, r, c, button, tile, tileIsPlayer1);
-                if (consumedAction) playService.switchTurn();
+        if (mouseButton == MouseButton.PRIMARY) {
+            boolean activated = bonusService.tryHandleSecondClickActivation(r, c, tileIsPlayer1);
+            if (activated) {
+                //playService.switchTurn();
                 return;
             }
-        });
 
-        return tile;
+            boolean consumedAction = playService.revealAndMaybeActivate(r, c, tileIsPlayer1);
+            if (consumedAction) playService.switchTurn();
+        }
     }
 
     // =======================
@@ -494,7 +523,7 @@ public class GameUIServiceController implements util.SettingObserver {
 
         s.timer = new Timeline(
                 new KeyFrame(Duration.seconds(1), e -> {
-                    if (!s.isPaused && !s.gameOver) {
+                    if (!s.isPaused && !s.isGameOver()) {
                         s.elapsedSeconds++;
                         updateTimeLabel();
                     }
@@ -540,7 +569,8 @@ public class GameUIServiceController implements util.SettingObserver {
         String iconPath = enabled ? "/Images/music.png" : "/Images/music_mute.png";
         double size = 40;
 
-        Image img = new Image(getClass().getResourceAsStream(iconPath));
+        Image img = ImageCache.themed(iconPath);
+        if (img == null) return;
         iv.setImage(img);
         iv.setFitWidth(size);
         iv.setFitHeight(size);
@@ -553,7 +583,8 @@ public class GameUIServiceController implements util.SettingObserver {
         boolean enabled = SysData.isSoundEnabled();
         String iconPath = enabled ? "/Images/volume.png" : "/Images/mute.png";
 
-        Image img = new Image(getClass().getResourceAsStream(iconPath));
+        Image img = ImageCache.themed(iconPath);
+        if (img == null) return;
         iv.setImage(img);
     }
 
@@ -562,18 +593,43 @@ public class GameUIServiceController implements util.SettingObserver {
         if (!(pauseBtn.getGraphic() instanceof ImageView iv)) return;
 
         String iconPath = s.isPaused ? "/Images/play-button.png" : "/Images/pause.png";
-        var stream = getClass().getResourceAsStream(iconPath);
-        if (stream == null) {
-            System.err.println("Missing resource: " + iconPath);
-            return;
-        }
-        Image img = new Image(stream);
+        Image img = ImageCache.themed(iconPath);
+        if (img == null) return;
         iv.setImage(img);
     }
 
     // =======================
     // Misc
     // =======================
+    //Shown in both grids while the match boards are still being generated (a board pool miss);
+    //pause stays disabled until there is a match to pause. buildGrids replaces the placeholder.
+    public void showBoardsLoading(boolean loading) {
+        if (pauseBtn != null) pauseBtn.setDisable(loading);
+        showLoadingPlaceholder(player1Grid, loading);
+        showLoadingPlaceholder(player2Grid, loading);
+    }
+
+    private void showLoadingPlaceholder(GridPane grid, boolean loading) {
+        if (grid == null) return;
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+        if (!loading) return;
+
+        ColumnConstraints cc = new ColumnConstraints();
+        cc.setPercentWidth(100);
+        cc.setHalignment(HPos.CENTER);
+        grid.getColumnConstraints().add(cc);
+        RowConstraints rc = new RowConstraints();
+        rc.setPercentHeight(100);
+        rc.setValignment(VPos.CENTER);
+        grid.getRowConstraints().add(rc);
+
+        Label label = new Label("Preparing board...");
+        label.getStyleClass().add("stats-value");
+        grid.add(label, 0, 0);
+    }
+
     public void setBoardsOpacity(double opacity) {
         if (player1Grid != null) player1Grid.setOpacity(opacity);
         if (player2Grid != null) player2Grid.setOpacity(opacity);
@@ -602,8 +658,20 @@ public class GameUIServiceController implements util.SettingObserver {
             case "timerEnabled" -> {
                 initLabels(); 
             }
+
+            case "autoRemoveFlagEnabled" -> {
+                if (s.engine != null) s.engine.setAutoRemoveFlags((Boolean) newValue);
+            }
         }
     }
 
+    // =======================
+    // Engine events
+    // =======================
+    @Override
+    public void turnChanged(boolean isPlayer1Turn) {
+        applyTurnStateToBoards();   // the stats bar follows on the next pulse (UiUpdateBatcher)
+    }
+
 
 }
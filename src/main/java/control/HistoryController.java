@@ -20,6 +20,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import model.Game;
+import model.HistoryStore;
 import model.GameResult;
 import model.SysData;
 import util.DialogUtil;
@@ -49,7 +50,8 @@ public class HistoryController {
     @FXML private DatePicker dateFilterPicker;
 
 
-    private final List<Game> allGames = new ArrayList<>();
+    //Columns of the whole history; only the rows on screen become Game objects.
+    private HistoryStore allGames = new HistoryStore().snapshot();
     
     private List<Game> currentView = new ArrayList<>();
 
@@ -65,8 +67,7 @@ public class HistoryController {
     	SysData.getInstance().ensureHistoryLoaded();
     	UIAnimations.fadeIn(root);
     	
-        allGames.clear();
-        allGames.addAll(SysData.getInstance().getHistory().getGames());
+        allGames = SysData.getInstance().getHistory().columns();
 
         // defaults
         selectDefault(filterTypeCombo, HistoryFilterService.OPT_ALL);
@@ -108,7 +109,7 @@ public class HistoryController {
 
         onFilterTypeChanged();
 
-        if (allGames.isEmpty()) {
+        if (allGames.size() == 0) {
          	DialogUtil.show(AlertType.INFORMATION, "", "No history yet", "There are no games in the history yet.\nPlay some games first, then come back to this screen.");                  
         }
 
@@ -195,8 +196,13 @@ public class HistoryController {
 	    LocalDate selectedDate = (dateFilterPicker != null) ? dateFilterPicker.getValue() : null;
 	    String sortLabel = (sortTypeCombo != null) ? sortTypeCombo.getValue() : HistoryFilterService.SORT_NONE;
 
-	    List<Game> filtered = service.filter(allGames, effectiveType, typed, selectedDate);
-	    List<Game> sorted = service.sort(filtered, sortLabel);
+	    int[] filtered = service.filter(allGames, effectiveType, typed, selectedDate);
+	    int[] rows = service.sort(allGames, filtered, sortLabel);
+
+	    List<Game> sorted = new ArrayList<>(rows.length);
+	    for (int row : rows) {
+	        sorted.add(allGames.game(row));
+	    }
 
 	    currentView = sorted;           // <-- add this line
 	    populateHistory(sorted);
@@ -240,10 +246,13 @@ public class HistoryController {
         header.getStyleClass().add("history-card-header");
         header.setSpacing(10);
 
-        String diffText = prettifyEnumName(game.getDifficulty().name());
+        String diffText = game.isCustomBoard()
+                ? game.getBoardProfile().getDisplayName()
+                : prettifyEnumName(game.getDifficulty().name());
         Label difficultyLabel = new Label(diffText);
         difficultyLabel.getStyleClass().addAll("pill-label", "difficulty-pill");
         
+        // Custom boards keep the colour of the tier they are scored with
         switch (game.getDifficulty()) {
         case EASY -> difficultyLabel.getStyleClass().add("difficulty-easy");
         case MEDIUM -> difficultyLabel.getStyleClass().add("difficulty-medium");
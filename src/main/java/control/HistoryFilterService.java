@@ -2,12 +2,12 @@ package control;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+import model.GameResult;
+import model.HistoryStore;
 
 
  //Pure filtering/sorting/validation logic for History.
@@ -140,14 +140,14 @@ public final class HistoryFilterService {
             if (diffWords > 1) {
                 return ValidationResult.error(
                         "Too many difficulties",
-                        "Please filter by one difficulty at a time.\nValid values are: Easy, Medium, Hard."
+                        "Please filter by one difficulty at a time.\nValid values are: Easy, Medium, Hard, Custom."
                 );
             }
 
             if (canonicalDifficultyToken(text) == null) {
                 return ValidationResult.error(
                         "Invalid difficulty",
-                        "Unknown difficulty \"" + text + "\".\nValid values are: Easy, Medium, Hard."
+                        "Unknown difficulty \"" + text + "\".\nValid values are: Easy, Medium, Hard, Custom."
                 );
             }
             return ValidationResult.ok();
@@ -157,7 +157,7 @@ public final class HistoryFilterService {
             if (isDifficultyWord(text)) {
                 return ValidationResult.error(
                         "Filter mismatch",
-                        "You typed a difficulty (\"" + text + "\").\nUse \"Difficulty\" filter for Easy / Medium / Hard."
+                        "You typed a difficulty (\"" + text + "\").\nUse \"Difficulty\" filter for Easy / Medium / Hard / Custom."
                 );
             }
 
@@ -176,109 +176,122 @@ public final class HistoryFilterService {
         return ValidationResult.ok();
     }
 
-    //Filters games based on effective type and provided inputs,Assumes validation has already passed; still defensive.
-    public List<model.Game> filter(List<model.Game> source, String effectiveType, String typedText, LocalDate selectedDate) {
-        if (source == null) return List.of();
+    //Filters the history rows based on effective type and provided inputs, scanning the columns; returns the
+    //matching row numbers in history order. Assumes validation has already passed; still defensive.
+    public int[] filter(HistoryStore games, String effectiveType, String typedText, LocalDate selectedDate) {
+        if (games == null) return new int[0];
 
         String type = safeTrim(effectiveType);
         if (type.isEmpty() || OPT_ALL.equals(type)) {
-            return new ArrayList<>(source);
+            return allRows(games);
         }
 
+        int[] out = new int[games.size()];
+        int n = 0;
+
         if (OPT_DATE.equals(type)) {
-            if (selectedDate == null) return new ArrayList<>(source);
-
-            List<model.Game> out = new ArrayList<>();
-            for (model.Game g : source) {
-                if (g == null) continue;
-                Optional<LocalDate> gd = safeParseGameDate(g.getDateAsString());
-                if (gd.isPresent() && gd.get().equals(selectedDate)) {
-                    out.add(g);
-                }
+            if (selectedDate == null) return allRows(games);
+
+            int selectedDay = (int) selectedDate.toEpochDay();
+            for (int row = 0; row < games.size(); row++) {
+                if (games.getEpochDay(row) == selectedDay) out[n++] = row;
             }
-            return out;
+            return Arrays.copyOf(out, n);
         }
 
         String qRaw = safeTrim(typedText);
-        if (qRaw.isEmpty()) return new ArrayList<>(source);
-
-        String qLower = qRaw.toLowerCase();
-        List<model.Game> out = new ArrayList<>();
-
-        for (model.Game g : source) {
-            if (g == null) continue;
-
-            switch (type) {
-                case OPT_PLAYER_NAME -> {
-                    String p1 = safeLower(g.getPlayer1Nickname());
-                    String p2 = safeLower(g.getPlayer2Nickname());
-                    if (p1.contains(qLower) || p2.contains(qLower)) out.add(g);
+        if (qRaw.isEmpty()) return allRows(games);
+
+        switch (type) {
+            case OPT_PLAYER_NAME -> {
+                // each distinct nickname is checked once, then rows only compare ids
+                String qLower = qRaw.toLowerCase();
+                boolean[] matches = new boolean[games.getDictionarySize()];
+                for (int id = 0; id < matches.length; id++) {
+                    matches[id] = safeLower(games.getText(id)).contains(qLower);
                 }
+                for (int row = 0; row < games.size(); row++) {
+                    int p1 = games.getPlayer1Nickname(row);
+                    int p2 = games.getPlayer2Nickname(row);
+                    if ((p1 != HistoryStore.NONE && matches[p1]) || (p2 != HistoryStore.NONE && matches[p2])) {
+                        out[n++] = row;
+                    }
+                }
+            }
 
-                case OPT_DIFFICULTY -> {
-                    String canon = canonicalDifficultyToken(qRaw);
-                    if (canon == null) break;
+            case OPT_DIFFICULTY -> {
+                String canon = canonicalDifficultyToken(qRaw);
+                if (canon == null) break;
 
-                    String diff = safeLower(g.getDifficulty().name()); // easy/medium/hard
-                    if (diff.equals(canon)) out.add(g);
+                for (int row = 0; row < games.size(); row++) {
+                    String diff = games.isCustomBoard(row)
+                            ? "custom"
+                            : safeLower(games.getDifficulty(row).name()); // easy/medium/hard
+                    if (diff.equals(canon)) out[n++] = row;
                 }
+            }
 
-                case OPT_RESULT -> {
-                    String canonQuery = canonicalResultToken(qRaw);
-                    if (canonQuery == null) break;
-
-                    String res = safeLower(g.getResult().name()); // e.g., GIVE_UP
-                    String canonRes = canonicalResultToken(res);  // handles give_up via normalization
+            case OPT_RESULT -> {
+                String canonQuery = canonicalResultToken(qRaw);
+                if (canonQuery == null) break;
 
-                    if (canonQuery.equals(canonRes)) out.add(g);
+                boolean[] wanted = new boolean[GameResult.values().length];
+                for (GameResult res : GameResult.values()) {
+                    // handles give_up via normalization
+                    wanted[res.ordinal()] = canonQuery.equals(canonicalResultToken(safeLower(res.name())));
                 }
+                for (int row = 0; row < games.size(); row++) {
+                    GameResult res = games.getResult(row);
+                    if (res != null && wanted[res.ordinal()]) out[n++] = row;
+                }
+            }
 
-                default -> out.add(g);
+            default -> {
+                return allRows(games);
             }
         }
 
-        return out;
+        return Arrays.copyOf(out, n);
     }
 
-    //Sorts a list according to the selected sort option label.
-    public List<model.Game> sort(List<model.Game> source, String sortLabel) {
-        if (source == null) return List.of();
+    //Sorts history rows according to the selected sort option label (stable, like List.sort).
+    public int[] sort(HistoryStore games, int[] rows, String sortLabel) {
+        if (games == null || rows == null) return new int[0];
 
         String sort = safeTrim(sortLabel);
-        if (sort.isEmpty() || SORT_NONE.equals(sort)) {
-            return new ArrayList<>(source);
-        }
-
-        List<model.Game> list = new ArrayList<>(source);
-
-        switch (sort) {
-            case SORT_SCORE_HIGH_TO_LOW ->
-                    list.sort(Comparator.comparingInt(model.Game::getFinalScore).reversed());
-
-            case SORT_SCORE_LOW_TO_HIGH ->
-                    list.sort(Comparator.comparingInt(model.Game::getFinalScore));
 
-            case SORT_DATE_NEWEST ->
-                    list.sort(Comparator.<model.Game, LocalDate>comparing(
-                            g -> safeParseGameDate(g.getDateAsString()).orElse(LocalDate.MIN)
-                    ).reversed());
-
-            case SORT_DATE_OLDEST ->
-                    list.sort(Comparator.<model.Game, LocalDate>comparing(
-                            g -> safeParseGameDate(g.getDateAsString()).orElse(LocalDate.MIN)
-                    ));
-
-            case SORT_DURATION_SHORT_TO_LONG ->
-                    list.sort(Comparator.comparingInt(model.Game::getDurationSeconds));
+        return switch (sort) {
+            case SORT_SCORE_HIGH_TO_LOW -> sortBy(rows, games::getScore, true);
+            case SORT_SCORE_LOW_TO_HIGH -> sortBy(rows, games::getScore, false);
+            // games without a date (DateDecoder.INVALID) come last when newest first, first otherwise
+            case SORT_DATE_NEWEST -> sortBy(rows, games::getEpochDay, true);
+            case SORT_DATE_OLDEST -> sortBy(rows, games::getEpochDay, false);
+            case SORT_DURATION_SHORT_TO_LONG -> sortBy(rows, games::getDurationSeconds, false);
+            case SORT_DURATION_LONG_TO_SHORT -> sortBy(rows, games::getDurationSeconds, true);
+            default -> rows.clone();
+        };
+    }
 
-            case SORT_DURATION_LONG_TO_SHORT ->
-                    list.sort(Comparator.comparingInt(model.Game::getDurationSeconds).reversed());
+    private static int[] allRows(HistoryStore games) {
+        int[] rows = new int[games.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = i;
+        return rows;
+    }
 
-            default -> {
-            }
+    //Sorts packed (value, position) longs: primitive sort, and equal values keep their order.
+    private static int[] sortBy(int[] rows, IntUnaryOperator column, boolean descending) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int value = column.applyAsInt(rows[i]);
+            keys[i] = ((long) (descending ? ~value : value) << 32) | i;
         }
+        Arrays.sort(keys);
 
-        return list;
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = rows[(int) keys[i]];
+        }
+        return sorted;
     }
 
     
@@ -295,20 +308,12 @@ public final class HistoryFilterService {
         return (s == null) ? "" : s.toLowerCase();
     }
 
-    private static Optional<LocalDate> safeParseGameDate(String dateStr) {
-        if (dateStr == null || dateStr.isBlank()) return Optional.empty();
-        try {
-            return Optional.of(LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-        } catch (DateTimeParseException e) {
-            return Optional.empty();
-        }
-    }
-
     public boolean isDifficultyWord(String text) {
         String t = normalizeToken(text);
         return t.equals("easy")
                 || t.equals("medium") || t.equals("med") || t.equals("meduim")
-                || t.equals("hard");
+                || t.equals("hard")
+                || t.equals("custom");
     }
 
     private int countDifficultyWords(String text) {
@@ -317,6 +322,7 @@ public final class HistoryFilterService {
         if (t.contains("easy")) count++;
         if (t.contains("medium") || t.contains("med") || t.contains("meduim")) count++;
         if (t.contains("hard")) count++;
+        if (t.contains("custom")) count++;
         return count;
     }
 
@@ -325,6 +331,7 @@ public final class HistoryFilterService {
         if (t.equals("easy")) return "easy";
         if (t.equals("hard")) return "hard";
         if (t.equals("medium") || t.equals("med") || t.equals("meduim")) return "medium";
+        if (t.equals("custom")) return "custom";
         return null;
     }
 
@@ -99,8 +99,8 @@ public class HowToPlayBoardBuilder {
      * - Allows placing overlays above the button later (highlights, "used" overlay, etc.)
      *
      * Styling:
-     * - Adds "cell-tile" and "cell-hidden" by default.
-     * - Adds "p1-cell" OR "p2-cell" for player-specific styling.
+     * - Adds "cell-tile" and "p1-cell" OR "p2-cell" (player-specific styling),
+     *   and starts in the :covered state (see CellStyle).
      *
      * Resizing:
      * - Button and tile can grow to fill the GridPane cell.
@@ -113,11 +113,8 @@ public class HowToPlayBoardBuilder {
         button.setPrefSize(Region.USE_COMPUTED_SIZE, Region.USE_COMPUTED_SIZE);
         button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
 
-        // Default CSS classes (hidden state)
-        button.getStyleClass().addAll("cell-tile", "cell-hidden");
-
-        // Player-specific CSS class
-        button.getStyleClass().add(isPlayer1 ? "p1-cell" : "p2-cell");
+        // CSS classes + covered state
+        CellStyle.init(button, isPlayer1);
 
         StackPane tile = new StackPane(button);
 
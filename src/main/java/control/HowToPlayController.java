@@ -32,6 +32,7 @@ import javafx.stage.Stage;
 import javafx.stage.Window;
 import javafx.util.Duration;
 import model.Theme;
+import util.ImageCache;
 import util.SoundManager;
 import util.ThemeManager;
 import util.ViewNavigator;
@@ -887,17 +888,13 @@ public class HowToPlayController {
             b.setGraphic(null);
             b.setDisable(false);
 
-            b.getStyleClass().removeAll(
-                    "cell-hidden", "cell-revealed", "cell-flagged", "cell-mine",
-                    "cell-number", "cell-question", "cell-surprise", "cell-used"
-            );
+            CellStyle.setCovered(b);
         }
 
         private void setIcon(Button b, String resourcePath, double size) {
             try {
-                var stream = getClass().getResourceAsStream(resourcePath);
-                if (stream == null) return;
-                Image img = new Image(stream);
+                Image img = ImageCache.themed(resourcePath, size);
+                if (img == null) return;
                 ImageView iv = new ImageView(img);
                 iv.setFitWidth(size);
                 iv.setFitHeight(size);
@@ -910,7 +907,6 @@ public class HowToPlayController {
             removeUsedOverlay(tile);
             Button b = btn(tile);
             clearCellState(b);
-            b.getStyleClass().add("cell-hidden");
         }
 
         private void setRevealedNumber(StackPane tile, int n) {
@@ -918,7 +914,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             b.setText(String.valueOf(n));
-            b.getStyleClass().addAll("cell-revealed", "cell-number");
+            CellStyle.setRevealed(b, CellStyle.NUMBER);
         }
 
         private void setEmptyRevealed(StackPane tile) {
@@ -926,7 +922,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             b.setText("");
-            b.getStyleClass().add("cell-revealed");
+            CellStyle.setRevealed(b, CellStyle.EMPTY);
         }
 
         private void setFlag(StackPane tile) {
@@ -934,7 +930,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             setIcon(b, "/Images/red-flag.png", TILE_ICON_SIZE);
-            b.getStyleClass().add("cell-flagged");
+            CellStyle.setFlagged(b, true);
         }
 
         private void setQuestion(StackPane tile) {
@@ -942,7 +938,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             setIcon(b, "/Images/question-mark.png", TILE_ICON_SIZE);
-            b.getStyleClass().addAll("cell-revealed", "cell-question");
+            CellStyle.setRevealed(b, CellStyle.QUESTION);
         }
 
         private void setSurprise(StackPane tile) {
@@ -950,7 +946,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             setIcon(b, "/Images/giftbox.png", TILE_ICON_SIZE);
-            b.getStyleClass().addAll("cell-revealed", "cell-surprise");
+            CellStyle.setRevealed(b, CellStyle.SURPRISE);
         }
 
         private void setMine(StackPane tile) {
@@ -958,7 +954,7 @@ public class HowToPlayController {
             Button b = btn(tile);
             clearCellState(b);
             setIcon(b, "/Images/bomb.png", TILE_ICON_SIZE);
-            b.getStyleClass().addAll("cell-revealed", "cell-mine");
+            CellStyle.setRevealed(b, CellStyle.MINE);
         }
 
         // ----------------- USED OVERLAY -----------------
@@ -988,10 +984,6 @@ public class HowToPlayController {
             Button b = btn(tile);
             b.setDisable(true);
 
-            if (!b.getStyleClass().contains("cell-used")) {
-                b.getStyleClass().add("cell-used");
-            }
-
             applyUsedOverlay(tile);
 
             if (b.getGraphic() != null) {
@@ -16,8 +16,9 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
-import model.Game;
+import model.DateDecoder;
 import model.GameResult;
+import model.HistoryStore;
 import model.Player;
 import model.SysData;
 import util.OnboardingManager;
@@ -30,7 +31,7 @@ import java.util.stream.Collectors;
 
 public class LeaderboardController {
 
-    public enum Metric { WINS, WIN_RATE, AVG_SCORE, AVG_WIN_TIME }
+    public enum Metric { WINS, WIN_RATE, AVG_SCORE, AVG_WIN_TIME, BBBV_PER_SECOND, EFFICIENCY }
     public enum TimeWindow { ALL_TIME, LAST_7_DAYS, LAST_30_DAYS, THIS_MONTH }
 
     @FXML private StackPane root;
@@ -96,18 +97,30 @@ public class LeaderboardController {
         int totalWinTimeSeconds;
         int winTimeCount;
 
+        // wins with recorded board metrics: 3BV/s ranks speed independent of how easy the layout was
+        double total3BVPerSecond;
+        double totalEfficiency;
+        int metricWins;
+
         void addGame(int score) {
             games++;
             int safe = Math.max(0, score);
             totalScore += safe;
         }
 
-        void addWin(int durationSeconds) {
+        void addWin(HistoryStore games, int row) {
             wins++;
+            int durationSeconds = games.getDurationSeconds(row);
             if (durationSeconds > 0) {
                 totalWinTimeSeconds += durationSeconds;
                 winTimeCount++;
             }
+            double bbbvPerSecond = games.get3BVPerSecond(row);
+            if (bbbvPerSecond > 0) {
+                total3BVPerSecond += bbbvPerSecond;
+                totalEfficiency += games.getEfficiency(row);
+                metricWins++;
+            }
         }
 
         double winRate() {
@@ -121,6 +134,14 @@ public class LeaderboardController {
         double avgWinTimeSeconds() {
             return (winTimeCount <= 0) ? 0.0 : totalWinTimeSeconds / (double) winTimeCount;
         }
+
+        double avg3BVPerSecond() {
+            return (metricWins <= 0) ? 0.0 : total3BVPerSecond / metricWins;
+        }
+
+        double avgEfficiency() {
+            return (metricWins <= 0) ? 0.0 : totalEfficiency / metricWins;
+        }
     }
 
     // ------------------------------- Init -------------------------------
@@ -303,6 +324,8 @@ public class LeaderboardController {
             case WIN_RATE -> "Win Rate";
             case AVG_SCORE -> "Avg Score";
             case AVG_WIN_TIME -> "Avg Time";
+            case BBBV_PER_SECOND -> "3BV/s";
+            case EFFICIENCY -> "Efficiency";
         };
     }
 
@@ -312,6 +335,8 @@ public class LeaderboardController {
             case WIN_RATE -> String.format(Locale.US, "%.1f%%", r.getWinRate());
             case AVG_SCORE -> String.format(Locale.US, "%.1f", r.getAvgScore());
             case AVG_WIN_TIME -> r.getAvgWinTimeText();
+            case BBBV_PER_SECOND -> r.getAvg3BVPerSecondText();
+            case EFFICIENCY -> r.getAvgEfficiencyText();
         };
     }
 
@@ -321,6 +346,8 @@ public class LeaderboardController {
             case WIN_RATE -> String.format(Locale.US, "Win Rate: %.1f%%", r.getWinRate());
             case AVG_SCORE -> String.format(Locale.US, "Avg Score: %.1f", r.getAvgScore());
             case AVG_WIN_TIME -> "Avg Time: " + r.getAvgWinTimeText();
+            case BBBV_PER_SECOND -> "3BV/s: " + r.getAvg3BVPerSecondText();
+            case EFFICIENCY -> "Efficiency: " + r.getAvgEfficiencyText();
         };
         return metricText + "   |   Games: " + r.getGames();
     }
@@ -355,11 +382,16 @@ public class LeaderboardController {
 
         Map<String, Player> regByName = buildRegisteredPlayersMap();
 
-        List<Game> games = registeredVsRegisteredGames(regByName);
-        games = applyWindow(games, window);
+        SysData sys = SysData.getInstance();
+        sys.ensureHistoryLoaded();
+        HistoryStore games = sys.getHistory().columns();
+
+        List<String> keys = new ArrayList<>();
+        int[] keyOf = registeredKeys(games, regByName, keys);
+        int[] rows = registeredVsRegisteredRows(games, keyOf, window);
 
-        List<LeaderboardRow> allPlayers = buildPlayerRows(games, metric, regByName);
-        List<LeaderboardRow> allTeams   = buildTeamRows(games, metric, regByName);
+        List<LeaderboardRow> allPlayers = buildPlayerRows(games, rows, keyOf, keys, metric, regByName);
+        List<LeaderboardRow> allTeams   = buildTeamRows(games, rows, keyOf, keys, metric, regByName);
 
         updatePlayersPodium(allPlayers, metric);
         updateTeamsPodium(allTeams, metric);
@@ -494,71 +526,84 @@ public class LeaderboardController {
 
 
 
-    private List<Game> registeredVsRegisteredGames(Map<String, Player> regByName) {
-        SysData sys = SysData.getInstance();
-        sys.ensureHistoryLoaded();
-
-        List<Game> out = new ArrayList<>();
-        for (Game g : sys.getHistory().getGames()) {
-            if (g == null) continue;
+    //Leaderboard key (index into keys, the lower-cased official name) of every dictionary id of the
+    //history, or -1 for texts that are not a registered player's name. Done once per distinct text.
+    private static int[] registeredKeys(HistoryStore games, Map<String, Player> regByName, List<String> keys) {
+        Map<String, Integer> index = new HashMap<>();
+        int[] keyOf = new int[games.getDictionarySize()];
+        for (int id = 0; id < keyOf.length; id++) {
+            String key = games.getText(id).trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty() || !regByName.containsKey(key)) {
+                keyOf[id] = -1;
+                continue;
+            }
+            keyOf[id] = index.computeIfAbsent(key, k -> {
+                keys.add(k);
+                return keys.size() - 1;
+            });
+        }
+        return keyOf;
+    }
 
-            String o1 = g.getPlayer1OfficialName();
-            String o2 = g.getPlayer2OfficialName();
-            if (o1 == null || o1.isBlank() || o2 == null || o2.isBlank()) continue;
+    //Rows where both official names are registered players, within the time window.
+    private static int[] registeredVsRegisteredRows(HistoryStore games, int[] keyOf, TimeWindow window) {
+        int startDay = windowStartDay(window);
+        int[] rows = new int[games.size()];
+        int n = 0;
+        for (int row = 0; row < games.size(); row++) {
+            if (key(keyOf, games.getPlayer1Official(row)) < 0) continue;
+            if (key(keyOf, games.getPlayer2Official(row)) < 0) continue;
 
-            if (!regByName.containsKey(o1.trim().toLowerCase(Locale.ROOT))) continue;
-            if (!regByName.containsKey(o2.trim().toLowerCase(Locale.ROOT))) continue;
+            int day = games.getEpochDay(row);
+            if (day != DateDecoder.INVALID && day < startDay) continue; // games without a date always count
 
-            out.add(g);
+            rows[n++] = row;
         }
-        return out;
+        return Arrays.copyOf(rows, n);
     }
 
-    private List<Game> applyWindow(List<Game> games, TimeWindow window) {
-        if (window == TimeWindow.ALL_TIME) return games;
+    private static int key(int[] keyOf, int id) {
+        return (id == HistoryStore.NONE) ? -1 : keyOf[id];
+    }
 
+    private static int windowStartDay(TimeWindow window) {
         LocalDate today = LocalDate.now();
         LocalDate start = switch (window) {
             case LAST_7_DAYS -> today.minusDays(7);
             case LAST_30_DAYS -> today.minusDays(30);
             case THIS_MONTH -> today.withDayOfMonth(1);
-            default -> LocalDate.MIN;
+            default -> null;
         };
-
-        return games.stream()
-                .filter(g -> g.getDate() == null || !g.getDate().isBefore(start))
-                .collect(Collectors.toList());
+        return (start == null) ? Integer.MIN_VALUE : (int) start.toEpochDay();
     }
 
-    private List<LeaderboardRow> buildPlayerRows(List<Game> games, Metric metric, Map<String, Player> regByName) {
-        Map<String, Stats> stats = new HashMap<>();
-        Map<String, String> canonicalName = new HashMap<>(); // <-- remember original casing
-
-        for (Game g : games) {
-            String o1 = g.getPlayer1OfficialName().trim();
-            String o2 = g.getPlayer2OfficialName().trim();
-
-            String k1 = o1.toLowerCase();
-            String k2 = o2.toLowerCase();
+    private List<LeaderboardRow> buildPlayerRows(HistoryStore games, int[] rowsInWindow, int[] keyOf,
+                                                 List<String> keys, Metric metric, Map<String, Player> regByName) {
+        Stats[] byKey = new Stats[keys.size()];
 
-            canonicalName.putIfAbsent(k1, o1);
-            canonicalName.putIfAbsent(k2, o2);
+        for (int row : rowsInWindow) {
+            int k1 = key(keyOf, games.getPlayer1Official(row));
+            int k2 = key(keyOf, games.getPlayer2Official(row));
 
-            Stats s1 = stats.computeIfAbsent(k1, kk -> new Stats());
-            Stats s2 = stats.computeIfAbsent(k2, kk -> new Stats());
+            Stats s1 = (byKey[k1] != null) ? byKey[k1] : (byKey[k1] = new Stats());
+            Stats s2 = (byKey[k2] != null) ? byKey[k2] : (byKey[k2] = new Stats());
 
-            int score = g.getFinalScore();
-            int durSec = g.getDurationSeconds();
+            int score = games.getScore(row);
 
             s1.addGame(score);
             s2.addGame(score);
 
-            if (g.getResult() == GameResult.WIN) {
-                s1.addWin(durSec);
-                s2.addWin(durSec);
+            if (games.getResult(row) == GameResult.WIN) {
+                s1.addWin(games, row);
+                s2.addWin(games, row);
             }
         }
 
+        Map<String, Stats> stats = new HashMap<>();
+        for (int k = 0; k < byKey.length; k++) {
+            if (byKey[k] != null) stats.put(keys.get(k), byKey[k]);
+        }
+
         List<Map.Entry<String, Stats>> sorted = sort(stats, metric);
 
         List<LeaderboardRow> rows = new ArrayList<>();
@@ -570,10 +615,8 @@ public class LeaderboardController {
 
             Player p = regByName.get(key);
 
-            // prefer Player official name, otherwise use canonical from history (not lowercase key)
-            String displayName = (p != null)
-                    ? p.getOfficialName()
-                    : canonicalName.getOrDefault(key, key);
+            // prefer Player official name (only registered players are ranked)
+            String displayName = (p != null) ? p.getOfficialName() : key;
 
             LeaderboardRow r = new LeaderboardRow(LeaderboardRow.Type.PLAYER, rank++, displayName);
             r.setGames(s.games);
@@ -581,6 +624,8 @@ public class LeaderboardController {
             r.setWinRate(s.winRate());
             r.setAvgScore(s.avgScore());
             r.setAvgWinTimeSeconds(s.avgWinTimeSeconds());
+            r.setAvg3BVPerSecond(s.avg3BVPerSecond());
+            r.setAvgEfficiency(s.avgEfficiency());
 
             // avatar: if Player was found -> use it; else keep null (will show default)
             r.setAvatar1Id((p != null) ? p.getAvatarId() : null);
@@ -590,22 +635,30 @@ public class LeaderboardController {
         return rows;
     }
 
-    private List<LeaderboardRow> buildTeamRows(List<Game> games, Metric metric, Map<String, Player> regByName) {
-        Map<String, Stats> stats = new HashMap<>();
+    private List<LeaderboardRow> buildTeamRows(HistoryStore games, int[] rowsInWindow, int[] keyOf,
+                                               List<String> keys, Metric metric, Map<String, Player> regByName) {
+        Map<Long, Stats> byPair = new HashMap<>();
 
-        for (Game g : games) {
-            String o1 = g.getPlayer1OfficialName().trim();
-            String o2 = g.getPlayer2OfficialName().trim();
+        for (int row : rowsInWindow) {
+            int k1 = key(keyOf, games.getPlayer1Official(row));
+            int k2 = key(keyOf, games.getPlayer2Official(row));
 
-            String key = teamKey(o1, o2);
-            Stats s = stats.computeIfAbsent(key, kk -> new Stats());
+            long pair = ((long) Math.min(k1, k2) << 32) | Math.max(k1, k2);
+            Stats s = byPair.computeIfAbsent(pair, kk -> new Stats());
 
-            s.addGame(g.getFinalScore());
-            if (g.getResult() == GameResult.WIN) {
-                s.addWin(g.getDurationSeconds());
+            s.addGame(games.getScore(row));
+            if (games.getResult(row) == GameResult.WIN) {
+                s.addWin(games, row);
             }
         }
 
+        Map<String, Stats> stats = new HashMap<>();
+        for (var e : byPair.entrySet()) {
+            int k1 = (int) (e.getKey() >>> 32);
+            int k2 = (int) (long) e.getKey();
+            stats.put(teamKey(keys.get(k1), keys.get(k2)), e.getValue());
+        }
+
         List<Map.Entry<String, Stats>> sorted = sort(stats, metric);
 
         List<LeaderboardRow> rows = new ArrayList<>();
@@ -634,6 +687,8 @@ public class LeaderboardController {
             r.setWinRate(s.winRate());
             r.setAvgScore(s.avgScore());
             r.setAvgWinTimeSeconds(s.avgWinTimeSeconds());
+            r.setAvg3BVPerSecond(s.avg3BVPerSecond());
+            r.setAvgEfficiency(s.avgEfficiency());
 
             r.setAvatar1Id((p1 != null) ? p1.getAvatarId() : null);
             r.setAvatar2Id((p2 != null) ? p2.getAvatarId() : null);
@@ -659,6 +714,8 @@ public class LeaderboardController {
                 double t = e.getValue().avgWinTimeSeconds();
                 return (t <= 0) ? Double.POSITIVE_INFINITY : t; // smaller is better; no wins => bottom
             });
+            case BBBV_PER_SECOND -> Comparator.<Map.Entry<String, Stats>>comparingDouble(e -> e.getValue().avg3BVPerSecond()).reversed();
+            case EFFICIENCY -> Comparator.<Map.Entry<String, Stats>>comparingDouble(e -> e.getValue().avgEfficiency()).reversed();
         };
 
         cmp = cmp.thenComparing(e -> e.getValue().wins, Comparator.reverseOrder())
@@ -1,5 +1,7 @@
 package control;
 
+import java.util.Locale;
+
 import javafx.beans.property.*;
 
 public class LeaderboardRow {
@@ -26,6 +28,10 @@ public class LeaderboardRow {
 
     private final DoubleProperty avgWinTimeSeconds = new SimpleDoubleProperty(0.0);
 
+    // 3BV per second and efficiency (percent), averaged over wins with board metrics
+    private final DoubleProperty avg3BVPerSecond = new SimpleDoubleProperty(0.0);
+    private final DoubleProperty avgEfficiency = new SimpleDoubleProperty(0.0);
+
     // Avatars (IDs like "S5.png")
     private final StringProperty avatar1Id = new SimpleStringProperty(null);
     private final StringProperty avatar2Id = new SimpleStringProperty(null);
@@ -87,6 +93,16 @@ public class LeaderboardRow {
     public DoubleProperty avgWinTimeSecondsProperty() { return avgWinTimeSeconds; }
     public void setAvgWinTimeSeconds(double avgWinTimeSeconds) { this.avgWinTimeSeconds.set(avgWinTimeSeconds); }
 
+    // --- Avg 3BV/s
+    public double getAvg3BVPerSecond() { return avg3BVPerSecond.get(); }
+    public DoubleProperty avg3BVPerSecondProperty() { return avg3BVPerSecond; }
+    public void setAvg3BVPerSecond(double value) { this.avg3BVPerSecond.set(value); }
+
+    // --- Avg efficiency (percent)
+    public double getAvgEfficiency() { return avgEfficiency.get(); }
+    public DoubleProperty avgEfficiencyProperty() { return avgEfficiency; }
+    public void setAvgEfficiency(double value) { this.avgEfficiency.set(value); }
+
     // --- Avatars
     public String getAvatar1Id() { return avatar1Id.get(); }
     public StringProperty avatar1IdProperty() { return avatar1Id; }
@@ -102,6 +118,16 @@ public class LeaderboardRow {
         return formatSeconds((int) Math.round(getAvgWinTimeSeconds()));
     }
 
+    public String getAvg3BVPerSecondText() {
+        if (getAvg3BVPerSecond() <= 0) return "—";
+        return String.format(Locale.US, "%.2f", getAvg3BVPerSecond());
+    }
+
+    public String getAvgEfficiencyText() {
+        if (getAvgEfficiency() <= 0) return "—";
+        return String.format(Locale.US, "%.0f%%", getAvgEfficiency());
+    }
+
     private static String formatSeconds(int totalSeconds) {
         if (totalSeconds <= 0) return "—";
         int m = totalSeconds / 60;
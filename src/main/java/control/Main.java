@@ -1,12 +1,22 @@
 package control;
 
+import java.util.logging.Logger;
+
 import javafx.application.Application;
 import javafx.stage.Stage;
+import model.BoardPool;
+import model.PersistenceQueue;
 import model.SysData;
+import util.ImageCache;
 import util.SoundManager;
 import util.ViewNavigator; // Import the helper we created
 
 public class Main extends Application {
+
+    private static final Logger LOG = Logger.getLogger(Main.class.getName());
+
+    private static final long EXIT_FLUSH_TIMEOUT_MS = 5000;
+    private static final String SAVING_SUFFIX = " (saving\u2026)";
     
     //Entry point of the application.
     @Override
@@ -16,6 +26,16 @@ public class Main extends Application {
         SysData.getInstance().ensurePlayersLoaded();
         SysData.getInstance().ensureQuestionsLoaded();
 
+        // Start generating boards in the background so New Game opens instantly
+        BoardPool.getInstance().prefillAll();
+
+        // Decode the game icons in the background too (cells, hearts, toolbar)
+        ImageCache.preloadAsync();
+
+        // Saving indicator: the window title says so while queued writes are pending
+        PersistenceQueue.getInstance().pendingWritesProperty().addListener(
+                (obs, was, now) -> showSaving(primaryStage, now.intValue() > 0));
+
         // Launch the First Screen using ViewNavigator
         // This triggers the logic to GET screen size, MAXIMIZE window, and LOCK it.
         ViewNavigator.switchTo(primaryStage, "/view/players_login_view.fxml");
@@ -25,6 +45,23 @@ public class Main extends Application {
         SoundManager.startMusic();
     }
     
+    //Adds or removes the saving suffix; screens set their own titles, so the title is not bound.
+    private static void showSaving(Stage stage, boolean saving) {
+        String title = (stage.getTitle() == null) ? "" : stage.getTitle();
+        if (title.endsWith(SAVING_SUFFIX)) {
+            title = title.substring(0, title.length() - SAVING_SUFFIX.length());
+        }
+        stage.setTitle(saving ? title + SAVING_SUFFIX : title);
+    }
+
+    //Called by JavaFX when the last window closes: let queued saves reach the disk before exiting.
+    @Override
+    public void stop() {
+        if (!SysData.getInstance().flushPendingWrites(EXIT_FLUSH_TIMEOUT_MS)) {
+            LOG.warning("Some data may not have been saved before exit: the final flush failed or timed out");
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -3,7 +3,9 @@ package control;
 import java.util.List;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleButton;
@@ -14,9 +16,13 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
+import model.BoardPool;
+import model.BoardRendering;
 import model.Difficulty;
+import model.DifficultyProfile;
 import model.GameConfig;
 import model.SysData;
+import solver.NoGuessGenerator;
 import util.AvatarManager;
 import util.DialogUtil;
 import util.OnboardingManager;
@@ -38,6 +44,10 @@ public class NewGameController {
     @FXML private ToggleButton easyToggle;
     @FXML private ToggleButton medToggle;
     @FXML private ToggleButton hardToggle;
+    @FXML private Button customBoardBtn;
+    @FXML private Label customBoardLabel;
+    @FXML private CheckBox canvasBoardCheck;
+    @FXML private CheckBox noGuessCheck;
     @FXML private Rectangle recP1;
     @FXML private Rectangle recP2;
     @FXML private ImageView player1avatar;
@@ -59,6 +69,8 @@ public class NewGameController {
     @FXML private Button setUpMusicButton;
 
     private AvatarManager avatarManager;
+    private DifficultyProfile customProfile; // set when a custom board replaces the three cards
+    private boolean canvasChoice; // the player's own canvas choice while a large board forces it on
     private static final int MAX_NAME_LEN = 15;
 
     /**
@@ -114,6 +126,23 @@ public class NewGameController {
         limitTextLength(player1Nickname,MAX_NAME_LEN);
         limitTextLength(player2Nickname,MAX_NAME_LEN);
 
+        // Picking one of the built-in cards drops any custom board. A cleared toggle means a custom
+        // board is being set, and setCustomProfile warms for that one.
+        difficultyGroup.selectedToggleProperty().addListener((obs, oldT, newT) -> {
+            if (newT == null) return;
+            setCustomProfile(null);
+            warmNoGuessBoards();
+        });
+
+        // No-guess boards cost CPU; start building them while the players fill in the form
+        if (noGuessCheck != null) {
+            noGuessCheck.selectedProperty().addListener((obs, was, on) -> warmNoGuessBoards());
+        }
+    }
+
+    private void warmNoGuessBoards() {
+        if (noGuessCheck == null || !noGuessCheck.isSelected()) return;
+        BoardPool.getInstance().prefill(resolveProfile(), NoGuessGenerator.getInstance());
     }
     
     void limitTextLength(TextField tf, int max) {
@@ -133,10 +162,23 @@ public class NewGameController {
         player2Nickname.setText(config.getPlayer2Nickname());
 
         // Difficulty (ensure ToggleGroup is updated)
-        switch (config.getDifficulty()) {
-            case EASY -> difficultyGroup.selectToggle(easyToggle);
-            case MEDIUM -> difficultyGroup.selectToggle(medToggle);
-            case HARD -> difficultyGroup.selectToggle(hardToggle);
+        if (config.getProfile().isCustom()) {
+            setCustomProfile(config.getProfile());
+            difficultyGroup.selectToggle(null);
+        } else {
+            switch (config.getDifficulty()) {
+                case EASY -> difficultyGroup.selectToggle(easyToggle);
+                case MEDIUM -> difficultyGroup.selectToggle(medToggle);
+                case HARD -> difficultyGroup.selectToggle(hardToggle);
+            }
+        }
+
+        // Board rendering
+        if (canvasBoardCheck != null) {
+            canvasBoardCheck.setSelected(config.getBoardRendering() == BoardRendering.CANVAS);
+        }
+        if (noGuessCheck != null) {
+            noGuessCheck.setSelected(config.isNoGuess());
         }
 
         // Avatars
@@ -232,6 +274,47 @@ public class NewGameController {
         difficultyGroup.selectToggle(hardToggle);
     }
 
+    @FXML
+    private void onCustomBoardClicked() {
+        playClickSound();
+        DialogUtil.promptForCustomBoard(customProfile).ifPresent(profile -> {
+            setCustomProfile(profile);
+            difficultyGroup.selectToggle(null);
+        });
+    }
+
+    private void setCustomProfile(DifficultyProfile profile) {
+        customProfile = profile;
+        syncCanvasBoardCheck();
+        if (profile != null) warmNoGuessBoards();
+        if (customBoardLabel == null) return;
+        customBoardLabel.setText(profile == null ? "" : profile.getDisplayName()
+                + "  ·  " + profile.getMines() + " mines, "
+                + profile.getQuestions() + " questions, "
+                + profile.getSurprises() + " surprises (scored as "
+                + DifficultyProfile.of(profile.getTier()).getDisplayName() + ")");
+    }
+
+
+    //Boards past BoardRendering.MAX_TILE_SIDE are always drawn on the canvas (tiles are not
+    //virtualized), so the check box is forced on and says why; the player's choice comes back
+    //when a smaller board is picked.
+    private void syncCanvasBoardCheck() {
+        if (canvasBoardCheck == null) return;
+        boolean forced = !BoardRendering.supportsTiles(resolveProfile());
+        if (forced == canvasBoardCheck.isDisabled()) return;
+
+        if (forced) {
+            canvasChoice = canvasBoardCheck.isSelected();
+            canvasBoardCheck.setSelected(true);
+            canvasBoardCheck.setText("Fast canvas board (required above "
+                    + BoardRendering.MAX_TILE_SIDE + "x" + BoardRendering.MAX_TILE_SIDE + ")");
+        } else {
+            canvasBoardCheck.setSelected(canvasChoice);
+            canvasBoardCheck.setText("Fast canvas board");
+        }
+        canvasBoardCheck.setDisable(forced);
+    }
 
     /**
      * Handles the "Start Game" button and validates:
@@ -248,9 +331,12 @@ public class NewGameController {
         GameConfig config = new GameConfig(
                 player1Nickname.getText().trim(),
                 player2Nickname.getText().trim(),
-                resolveDifficulty(),
+                resolveProfile(),
                 avatarManager.getSelectedAvatarIdForPlayer1(),
-                avatarManager.getSelectedAvatarIdForPlayer2()
+                avatarManager.getSelectedAvatarIdForPlayer2(),
+                canvasBoardCheck != null && canvasBoardCheck.isSelected()
+                        ? BoardRendering.CANVAS : BoardRendering.TILES,
+                noGuessCheck != null && noGuessCheck.isSelected()
         );
 
         try {
@@ -393,7 +479,7 @@ public class NewGameController {
             return false;
         }
 
-        if (difficultyGroup.getSelectedToggle() == null) {
+        if (difficultyGroup.getSelectedToggle() == null && customProfile == null) {
             DialogUtil.show(AlertType.ERROR, null,
                     "Input error", "Please select a difficulty level.");
             return false;
@@ -409,11 +495,12 @@ public class NewGameController {
         return true;
     }
     
-    private Difficulty resolveDifficulty() {
+    private DifficultyProfile resolveProfile() {
+        if (customProfile != null) return customProfile;
         Toggle t = difficultyGroup.getSelectedToggle();
-        if (t == easyToggle) return Difficulty.EASY;
-        if (t == medToggle) return Difficulty.MEDIUM;
-        return Difficulty.HARD;
+        if (t == easyToggle) return DifficultyProfile.of(Difficulty.EASY);
+        if (t == medToggle) return DifficultyProfile.of(Difficulty.MEDIUM);
+        return DifficultyProfile.of(Difficulty.HARD);
     }
 
 
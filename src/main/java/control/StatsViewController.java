@@ -1,5 +1,6 @@
 package control;
 
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -81,6 +82,9 @@ public class StatsViewController {
     @FXML private Label p2BestTimeLabel;
     @FXML private Label p2BestTimeWithLabel;
 
+    @FXML private Label p1SpeedLabel;
+    @FXML private Label p2SpeedLabel;
+
     @FXML private LineChart<Number, Number> p1ProgressChart;
     @FXML private LineChart<Number, Number> p2ProgressChart;
     
@@ -116,6 +120,10 @@ public class StatsViewController {
         public final int[] easyScores;
         public final int[] mediumScores;
         public final int[] hardScores;
+        public final int[] customScores;
+
+        public final double best3BVPerSecond;
+        public final double avgEfficiency;
 
         public PlayerStatsData(String playerName,
                                String avatarImagePath,
@@ -130,7 +138,10 @@ public class StatsViewController {
                                String bestTimeOpponent,
                                int[] easyScores,
                                int[] mediumScores,
-                               int[] hardScores) {
+                               int[] hardScores,
+                               int[] customScores,
+                               double best3BVPerSecond,
+                               double avgEfficiency) {
 
             this.playerName = (playerName == null || playerName.isBlank()) ? "-" : playerName;
             this.avatarImagePath = avatarImagePath;
@@ -152,11 +163,15 @@ public class StatsViewController {
             this.easyScores   = (easyScores   != null) ? easyScores   : new int[0];
             this.mediumScores = (mediumScores != null) ? mediumScores : new int[0];
             this.hardScores   = (hardScores   != null) ? hardScores   : new int[0];
+            this.customScores = (customScores != null) ? customScores : new int[0];
+
+            this.best3BVPerSecond = Math.max(0, best3BVPerSecond);
+            this.avgEfficiency = Math.max(0, avgEfficiency);
         }
 
         public static PlayerStatsData from(PlayerStats s) {
         	  if (s == null) {
-        	        return new PlayerStatsData("-", null, 0,0,0,0,0, 0,"-", 0,"-", null,null,null);
+        	        return new PlayerStatsData("-", null, 0,0,0,0,0, 0,"-", 0,"-", null,null,null,null, 0, 0);
         	    }
             return new PlayerStatsData(
                     s.playerName,
@@ -172,7 +187,10 @@ public class StatsViewController {
                     s.bestTimeOpponent,
                     s.easyScores,
                     s.mediumScores,
-                    s.hardScores
+                    s.hardScores,
+                    s.customScores,
+                    s.best3BVPerSecond,
+                    s.avgEfficiency
             );
         }
     }
@@ -192,13 +210,13 @@ private void initialize() {
         renderPlayerStats(
                 SessionManager.getPlayer1(),  p1OfficialNameText, p1avatar, numOfWins, /*losses*/ numOfLosses, /*giveups*/ numOfGiveUps, p1winsChart, p1winsLabel,
                 p1lossesChart, p1lossesLabel, p1giveUpsChart, p1giveUpsLabel,  p1winsWithNoMistakesChart, p1winsWithNoMistakesLabel, p1TotalGamesLabel,
-                p1BestScoreLabel, p1BestScoreWithLabel, p1BestTimeLabel, p1BestTimeWithLabel, p1ProgressChart
+                p1BestScoreLabel, p1BestScoreWithLabel, p1BestTimeLabel, p1BestTimeWithLabel, p1SpeedLabel, p1ProgressChart
         );
 
         renderPlayerStats(
                 SessionManager.getPlayer2(), p2OfficialNameText, p2avatar, numOfWins2, /*losses*/ numOfLosses2, /*giveups*/ numOfGiveUps2, p2winsChart, p2winsLabel,
                 p2lossesChart, p2lossesLabel, p2giveUpsChart, p2giveUpsLabel, p2winsWithNoMistakesChart, p2winsWithNoMistakesLabel, p2TotalGamesLabel,
-                p2BestScoreLabel, p2BestScoreWithLabel, p2BestTimeLabel, p2BestTimeWithLabel, p2ProgressChart
+                p2BestScoreLabel, p2BestScoreWithLabel, p2BestTimeLabel, p2BestTimeWithLabel, p2SpeedLabel, p2ProgressChart
         );
 
     } catch (Exception e) {
@@ -223,6 +241,7 @@ private void initialize() {
                                    Label totalGamesLabel,
                                    Label bestScoreLabel, Label bestScoreWithLabel,
                                    Label bestTimeLabel, Label bestTimeWithLabel,
+                                   Label speedLabel,
                                    LineChart<Number, Number> progressChart) {
 
         // If player is missing (for example, single player mode or not selected), show safe defaults.
@@ -237,6 +256,7 @@ private void initialize() {
                     totalGamesLabel,
                     bestScoreLabel, bestScoreWithLabel,
                     bestTimeLabel, bestTimeWithLabel,
+                    speedLabel,
                     progressChart
             );
             return;
@@ -266,7 +286,8 @@ private void initialize() {
                 winsNoMistakesChart, winsNoMistakesLabel,
                 totalGamesLabel,
                 bestScoreLabel, bestScoreWithLabel,
-                bestTimeLabel, bestTimeWithLabel
+                bestTimeLabel, bestTimeWithLabel,
+                speedLabel
         );
 
         if (progressChart != null) {
@@ -286,6 +307,7 @@ private void initialize() {
                                  Label totalGamesLabel,
                                  Label bestScoreLabel, Label bestScoreWithLabel,
                                  Label bestTimeLabel, Label bestTimeWithLabel,
+                                 Label speedLabel,
                                  LineChart<Number, Number> progressChart) {
 
         if (officialNameText != null) officialNameText.setText("-");
@@ -312,6 +334,7 @@ private void initialize() {
 
         if (bestTimeLabel != null) bestTimeLabel.setText("best time:  0:00");
         if (bestTimeWithLabel != null) bestTimeWithLabel.setText("With:      -");
+        if (speedLabel != null) speedLabel.setText(formatSpeed(0, 0));
 
         if (progressChart != null) progressChart.getData().clear();
     }
@@ -323,7 +346,8 @@ private void initialize() {
                                 PieChart winsNoMistakesChart, Label winsNoMistakesLabel,
                                 Label totalGamesLabel,
                                 Label bestScoreLabel, Label bestScoreWithLabel,
-                                Label bestTimeLabel, Label bestTimeWithLabel) {
+                                Label bestTimeLabel, Label bestTimeWithLabel,
+                                Label speedLabel) {
 
         if (stats == null) return;
 
@@ -352,6 +376,13 @@ private void initialize() {
 
         if (bestTimeLabel != null) bestTimeLabel.setText("best time:  " + formatDuration(stats.bestTimeSeconds));
         if (bestTimeWithLabel != null) bestTimeWithLabel.setText("With:      " + safe(stats.bestTimeOpponent));
+        if (speedLabel != null) speedLabel.setText(formatSpeed(stats.best3BVPerSecond, stats.avgEfficiency));
+    }
+
+    // Best 3BV/s and average efficiency over wins; "-" until a win with board metrics exists
+    private String formatSpeed(double best3BVPerSecond, double avgEfficiency) {
+        if (best3BVPerSecond <= 0) return "best 3BV/s:  -      efficiency:  -";
+        return String.format(Locale.US, "best 3BV/s:  %.2f      efficiency:  %.0f%%", best3BVPerSecond, avgEfficiency);
     }
 
     private void updateProgressChart(LineChart<Number, Number> chart, PlayerStatsData stats) {
@@ -373,6 +404,14 @@ private void initialize() {
         chart.getData().add(medSeries);
         chart.getData().add(hardSeries);
 
+        // Custom boards only get a line once the player has actually played one
+        if (stats.customScores.length > 0) {
+            XYChart.Series<Number, Number> customSeries = new XYChart.Series<>();
+            customSeries.setName("Custom");
+            addSeriesData(customSeries, stats.customScores);
+            chart.getData().add(customSeries);
+        }
+
     }
 
     private void addSeriesData(XYChart.Series<Number, Number> series, int[] scores) {
@@ -0,0 +1,102 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javafx.animation.AnimationTimer;
+import engine.CellDelta;
+import engine.GameListener;
+
+//Collects what the engine changed and applies it once per animation pulse.
+//A big opening or a 3x3 reward arrives as one cellsChanged list; stats, hearts and turn refreshes
+//only raise a flag. On the next pulse (before CSS and layout run) the tiles are updated in one go
+//and each label bar is rebuilt at most once, however many events came in since the last frame.
+public class UiUpdateBatcher implements GameListener {
+
+    private final Consumer<List<CellDelta>> cellPainter;
+    private final Runnable statsRefresh;
+    private final Runnable heartsRefresh;
+
+    private final List<CellDelta> pendingCells = new ArrayList<>();
+    private boolean statsDirty;
+    private boolean heartsDirty;
+    private boolean scheduled;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flushNow();
+        }
+    };
+
+    public UiUpdateBatcher(Consumer<List<CellDelta>> cellPainter, Runnable statsRefresh, Runnable heartsRefresh) {
+        this.cellPainter = cellPainter;
+        this.statsRefresh = statsRefresh;
+        this.heartsRefresh = heartsRefresh;
+    }
+
+    @Override
+    public void cellsChanged(List<CellDelta> deltas) {
+        pendingCells.addAll(deltas);
+        schedule();
+    }
+
+    @Override
+    public void statsChanged() {
+        statsDirty = true;
+        schedule();
+    }
+
+    @Override
+    public void heartsChanged(int hearts) {
+        heartsDirty = true;
+        schedule();
+    }
+
+    @Override
+    public void turnChanged(boolean isPlayer1Turn) {
+        statsDirty = true;   // wrong-flag counters reset with the turn
+        schedule();
+    }
+
+    //The end-of-game reveal draws over the tiles directly, so everything queued must be on screen first.
+    @Override
+    public void gameOver(boolean won) {
+        flushNow();
+    }
+
+    //Applies everything queued right away (also used by tests and the end-of-game reveal).
+    public void flushNow() {
+        pulse.stop();
+        scheduled = false;
+
+        if (!pendingCells.isEmpty()) {
+            List<CellDelta> cells = new ArrayList<>(pendingCells);
+            pendingCells.clear();
+            cellPainter.accept(cells);
+        }
+        if (heartsDirty) {
+            heartsDirty = false;
+            heartsRefresh.run();
+        }
+        if (statsDirty) {
+            statsDirty = false;
+            statsRefresh.run();
+        }
+    }
+
+    public void dispose() {
+        pulse.stop();
+        scheduled = false;
+        pendingCells.clear();
+        statsDirty = false;
+        heartsDirty = false;
+    }
+
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        pulse.start();
+    }
+}
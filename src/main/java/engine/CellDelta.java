@@ -0,0 +1,37 @@
+package engine;
+
+import model.CellType;
+
+//One cell change inside an action; GameListener.cellsChanged delivers them as a list,
+//in the same order as the matching per-cell events.
+public class CellDelta {
+
+    public enum Kind {
+        REVEALED,       // type and adjacentMines are set
+        EXPLODED,       // a revealed mine that cost a heart
+        FLAG_PLACED,
+        FLAG_REMOVED,
+        MINE_FLAGGED,
+        ACTIVATED
+    }
+
+    public final boolean isPlayer1;
+    public final int row;
+    public final int col;
+    public final Kind kind;
+    public final CellType type;          // only for REVEALED, otherwise null
+    public final int adjacentMines;      // only for REVEALED
+
+    public CellDelta(boolean isPlayer1, int row, int col, Kind kind, CellType type, int adjacentMines) {
+        this.isPlayer1 = isPlayer1;
+        this.row = row;
+        this.col = col;
+        this.kind = kind;
+        this.type = type;
+        this.adjacentMines = adjacentMines;
+    }
+
+    public CellDelta(boolean isPlayer1, int row, int col, Kind kind) {
+        this(isPlayer1, row, col, kind, null, 0);
+    }
+}
@@ -0,0 +1,23 @@
+package engine;
+
+import model.Question;
+
+//Choices the rules leave to the players. The screens answer with dialogs; simulations and bots
+//plug in their own policy. The defaults decline every offer and skip every question.
+public interface GameDecisions {
+
+    //Hearts ran out: spend price points for one heart?
+    default boolean buyHeart(int price) {
+        return false;
+    }
+
+    //Score fell to the minimum: trade one heart for gain points?
+    default boolean sellHeart(int gain) {
+        return false;
+    }
+
+    //Chosen option (1-4), or -1 to leave the question unanswered.
+    default int answerQuestion(Question question) {
+        return -1;
+    }
+}
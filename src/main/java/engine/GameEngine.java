@@ -0,0 +1,1033 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import model.Board;
+import model.BoardMarks;
+import model.BoardMetrics;
+import model.CascadeEngine;
+import model.CellRevealResult;
+import model.CellType;
+import model.Difficulty;
+import model.DifficultyProfile;
+import model.Question;
+
+//The rules of one match, without any JavaFX: reveals and cascades, flags, shared hearts,
+//surprises, questions, buying/selling hearts and the win/lose checks.
+//Moves change the state and are reported to GameListeners; choices that belong to the players
+//go through GameDecisions. The game screen drives one engine per match and only draws what it
+//hears, so simulations, bots and benchmarks can run matches without starting the FX toolkit.
+public final class GameEngine {
+
+    public static final int TOTAL_HEART_SLOTS = 10;
+    public static final int WRONG_FLAGS_LIMIT_PER_TURN = 3;
+
+    private final DifficultyProfile profile;
+    private final Difficulty difficulty;   // scoring tier
+    private final Board[] boards;          // [0] = player 1, [1] = player 2
+    private final BoardMarks[] marks;
+    private final Random random;
+
+    private final int[] minesLeft = new int[2];
+    private final int[] surprisesLeft = new int[2];
+    private final int[] questionsLeft = new int[2];
+    private final int[] safeCellsRemaining = new int[2];
+    private final int[] wrongFlagsThisTurn = new int[2];
+    private final boolean[] flaggingLocked = new boolean[2];
+
+    private int hearts;
+    private int score;
+    private boolean player1Turn = true;
+    private boolean gameOver;
+    private boolean gameWon;
+    private boolean mistakeMade;
+    private final int[] clicks = new int[2]; // player actions per board, for the efficiency metric
+
+    private int endScoreBefore;
+    private int endHeartsRemaining;
+    private int endHeartsBonusPoints;
+
+    private final List<GameListener> listeners = new ArrayList<>();
+    private final List<CellDelta> pendingDeltas = new ArrayList<>();   // cell changes of the current action
+    private GameDecisions decisions = new GameDecisions() {};
+    private Supplier<List<Question>> questionSource = List::of;
+    private boolean autoRemoveFlags = true;
+
+    public GameEngine(DifficultyProfile profile, Board board1, Board board2) {
+        this(profile, board1, board2, new Random());
+    }
+
+    //Pass a seeded Random to replay the same surprises, questions and rewards.
+    public GameEngine(DifficultyProfile profile, Board board1, Board board2, Random random) {
+        if (profile == null || board1 == null || board2 == null || random == null) {
+            throw new IllegalArgumentException("Profile, boards and random source are required");
+        }
+        this.profile = profile;
+        this.difficulty = profile.getTier();
+        this.boards = new Board[] { board1, board2 };
+        this.marks = new BoardMarks[] { new BoardMarks(board1), new BoardMarks(board2) };
+        this.random = random;
+
+        // All counters below were computed once while the boards were generated
+        for (int p = 0; p < 2; p++) {
+            Board board = boards[p];
+            minesLeft[p] = board.getMineCount();
+            surprisesLeft[p] = board.countCellsOfType(CellType.SURPRISE);
+            questionsLeft[p] = board.countCellsOfType(CellType.QUESTION);
+            safeCellsRemaining[p] = board.getSafeCellCount();
+        }
+        hearts = profile.getInitialLives();
+    }
+
+    // ---------------- wiring ----------------
+
+    public void addListener(GameListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setDecisions(GameDecisions decisions) {
+        this.decisions = (decisions != null) ? decisions : new GameDecisions() {};
+    }
+
+    //Where questions are drawn from when a question cell is activated.
+    public void setQuestionSource(Supplier<List<Question>> questionSource) {
+        this.questionSource = (questionSource != null) ? questionSource : List::of;
+    }
+
+    //Whether reveals and rewards clear flags they run into (the "auto remove flag" setting).
+    public void setAutoRemoveFlags(boolean autoRemoveFlags) {
+        this.autoRemoveFlags = autoRemoveFlags;
+    }
+
+    // ---------------- moves ----------------
+
+    //Left click on a covered cell: clears a flag there, reveals the cell and,
+    //when it has no adjacent mines, opens the area around it.
+    //The first reveal on a first-click-safe board settles its layout around the click.
+    public void reveal(boolean isPlayer1, int row, int col) {
+        if (gameOver) return;
+        Board board = boards[slot(isPlayer1)];
+
+        clicks[slot(isPlayer1)]++;
+        try {
+            board.settleFirstReveal(row, col);
+            removeFlag(isPlayer1, row, col);
+            revealCell(isPlayer1, row, col, false);
+
+            if (board.getType(row, col) == CellType.EMPTY || board.getAdjacentMines(row, col) == 0) {
+                cascade(isPlayer1, row, col);
+            }
+        } finally {
+            flushCellChanges();
+        }
+    }
+
+    /**
+     * Toggles a flag on a covered cell.
+     *  If it's a MINE: the mine is revealed as found and gives +1 score.
+     *  If it's NOT a mine: the flag stays, it is a mistake and costs -3 score.
+     *  Unflagging is always allowed and does not undo the penalty.
+     *  After WRONG_FLAGS_LIMIT_PER_TURN wrong flags, new flags are blocked until the turn ends.
+     */
+    public void toggleFlag(boolean isPlayer1, int row, int col) {
+        if (gameOver) return;
+        clicks[slot(isPlayer1)]++;
+        try {
+            applyToggleFlag(isPlayer1, row, col);
+        } finally {
+            flushCellChanges();
+        }
+    }
+
+    private void applyToggleFlag(boolean isPlayer1, int row, int col) {
+        int p = slot(isPlayer1);
+        BoardMarks m = marks[p];
+        if (m.isRevealed(row, col)) return;
+
+        if (m.isFlagged(row, col)) {
+            removeFlag(isPlayer1, row, col);
+            fireStatsChanged();
+            return;
+        }
+
+        if (flaggingLocked[p]) {
+            fireAfterCells(l -> l.flaggingBlocked(isPlayer1));
+            return;
+        }
+
+        // A flag before any reveal fixes the layout: the mine it may find must not move later
+        boards[p].settle();
+
+        // Correct flag on a mine: always allowed
+        if (boards[p].isMine(row, col)) {
+            m.reveal(row, col);
+            score += 1;
+            minesLeft[p] = Math.max(0, minesLeft[p] - 1);
+            cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.MINE_FLAGGED),
+                    l -> l.mineFlagged(isPlayer1, row, col));
+            fireStatsChanged();
+
+            if (!gameOver && hearts > 0 && anyBoardCleared(minesLeft)) {
+                endGame(true);
+            }
+            return;
+        }
+
+        m.setFlagged(row, col, true);
+        cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.FLAG_PLACED),
+                l -> l.flagPlaced(isPlayer1, row, col));
+
+        mistakeMade = true;
+        score -= 3;
+
+        wrongFlagsThisTurn[p]++;
+        if (wrongFlagsThisTurn[p] >= WRONG_FLAGS_LIMIT_PER_TURN) {
+            flaggingLocked[p] = true;
+            fireAfterCells(l -> l.flaggingLocked(isPlayer1));
+        }
+
+        fireStatsChanged();
+        checkLowScore();
+    }
+
+    //Second click on a revealed question or surprise cell.
+    //Returns false when the cell has nothing to activate (the caller then treats it as a normal click).
+    public boolean activate(boolean isPlayer1, int row, int col) {
+        if (gameOver) return false;
+        int p = slot(isPlayer1);
+        if (!marks[p].isRevealed(row, col) || marks[p].isActivated(row, col)) return false;
+
+        CellType type = boards[p].getType(row, col);
+        if (type != CellType.SURPRISE && type != CellType.QUESTION) return false;
+
+        clicks[p]++;
+        try {
+            if (type == CellType.SURPRISE) {
+                activateSurprise(isPlayer1, row, col);
+            } else {
+                activateQuestion(isPlayer1, row, col);
+            }
+        } finally {
+            flushCellChanges();
+        }
+        return true;
+    }
+
+    public void switchTurn() {
+        player1Turn = !player1Turn;
+        int p = slot(player1Turn);
+        wrongFlagsThisTurn[p] = 0;
+        flaggingLocked[p] = false;
+        fire(l -> l.turnChanged(player1Turn));
+    }
+
+    // ---------------- reveal ----------------
+
+    //In batch mode (cascades, rewards) the stats refresh and the low-score check are left to the caller.
+    private void revealCell(boolean isPlayer1, int row, int col, boolean batchMode) {
+        int p = slot(isPlayer1);
+        Board board = boards[p];
+        if (!marks[p].reveal(row, col)) return;
+
+        CellRevealResult result = board.getCell(row, col).reveal(true);
+        int adjacent = board.getAdjacentMines(row, col);
+        cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.REVEALED, result.type, adjacent),
+                l -> l.cellRevealed(isPlayer1, row, col, result.type, adjacent));
+
+        if (result.type == CellType.MINE) {
+            if (result.loseHeart) {
+                int heartsBefore = hearts;
+                setHearts(Math.max(0, hearts - 1));
+                if (hearts < heartsBefore) {
+                    mistakeMade = true;
+                }
+                // hearts == 0 -> offer to buy one -> else game over
+                if (checkLose()) return;
+            }
+
+            if (result.triggerExplosion) {
+                cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.EXPLODED),
+                        l -> l.mineExploded(isPlayer1, row, col));
+            }
+
+            minesLeft[p] = Math.max(0, minesLeft[p] - 1);
+
+            if (!batchMode) {
+                fireStatsChanged();
+            }
+            if (!gameOver && hearts > 0 && anyBoardCleared(minesLeft)) {
+                endGame(true);
+                return;
+            }
+            if (checkLose()) return;
+        } else if (result.type == CellType.QUESTION) {
+            questionsLeft[p] = Math.max(0, questionsLeft[p] - 1);
+        } else if (result.type == CellType.SURPRISE) {
+            surprisesLeft[p] = Math.max(0, surprisesLeft[p] - 1);
+        }
+
+        if (result.addScore) {
+            score += 1;
+        }
+
+        if (result.type != CellType.MINE) {
+            safeCellsRemaining[p] = Math.max(0, safeCellsRemaining[p] - 1);
+
+            if (!gameOver && hearts > 0 && anyBoardCleared(safeCellsRemaining)) {
+                endGame(true);
+            }
+        }
+
+        if (!batchMode) {
+            fireStatsChanged();
+            checkLowScore();
+        }
+    }
+
+    //The fill itself runs in the model (no allocation per click); here we only apply its result.
+    private void cascade(boolean isPlayer1, int startRow, int startCol) {
+        int p = slot(isPlayer1);
+        Board board = boards[p];
+        int cols = board.getCols();
+
+        CascadeEngine fill = board.cascadeFrom(startRow, startCol, marks[p].flaggedBits());
+
+        if (autoRemoveFlags) {
+            for (int k = 0; k < fill.getFlaggedCount(); k++) {
+                int i = fill.getFlagged(k);
+                removeFlag(isPlayer1, i / cols, i % cols);
+            }
+        }
+
+        for (int k = 0; k < fill.getOpenedCount(); k++) {
+            if (gameOver) return;
+            int i = fill.getOpened(k);
+            revealCell(isPlayer1, i / cols, i % cols, true);
+        }
+        fireStatsChanged();
+    }
+
+    private void removeFlag(boolean isPlayer1, int row, int col) {
+        BoardMarks m = marks[slot(isPlayer1)];
+        if (!m.isFlagged(row, col)) return;
+
+        m.setFlagged(row, col, false);
+        cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.FLAG_REMOVED),
+                l -> l.flagRemoved(isPlayer1, row, col));
+    }
+
+    // ---------------- surprise ----------------
+
+    private void activateSurprise(boolean isPlayer1, int row, int col) {
+        int livesBefore = hearts;
+        int scoreBefore = score;
+
+        int activationPoints = getActivationPoints();
+        int surprisePoints = getSurprisePoints();
+
+        boolean good = random.nextDouble() < 0.5;
+
+        if (good) {
+            score += surprisePoints - activationPoints;
+            if (hearts < TOTAL_HEART_SLOTS) {
+                setHearts(hearts + 1);
+            }
+        } else {
+            score += -surprisePoints - activationPoints;
+            setHearts(Math.max(0, hearts - 1));
+        }
+
+        markActivated(isPlayer1, row, col);
+        fireStatsChanged();
+
+        if (checkLose()) return;
+
+        SurpriseOutcome outcome = new SurpriseOutcome(good, scoreBefore, score - scoreBefore,
+                livesBefore, hearts, activationPoints, surprisePoints);
+        fireAfterCells(l -> l.surpriseResolved(outcome));
+    }
+
+    // ---------------- question ----------------
+
+    private void activateQuestion(boolean isPlayer1, int row, int col) {
+        int activationPoints = getActivationPoints(); // game difficulty based
+        int livesBefore = hearts;
+        int scoreBefore = score;
+
+        // activation cost happens for every question activation
+        score -= activationPoints;
+
+        int beforeReward = score;
+
+        Question q = drawQuestion();
+        flushCellChanges();
+        int chosenOption = (q != null) ? decisions.answerQuestion(q) : -1;
+        if (chosenOption == -1) {
+            markActivated(isPlayer1, row, col);
+            fireStatsChanged();
+            return;
+        }
+
+        boolean correct = (chosenOption == q.getCorrectOption());
+        String qDiff = (q.getDifficulty() != null) ? q.getDifficulty().toLowerCase() : "easy";
+
+        // Always attach activation cost mention to the popup text
+        String activationSuffix = " (-" + activationPoints + " points for activation).";
+        String extraInfo = "";
+
+        if (difficulty == Difficulty.EASY) {
+
+            if (qDiff.equals("easy")) {
+                if (correct) {
+                    score += 3;
+                    int converted = addLivesWithCap(1, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
+                                    converted + " points" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +3 points" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    if (random.nextDouble() < 0.5) {
+                        score -= 3;
+                        extraInfo = "you lost 3 points" + activationSuffix;
+                    } else {
+                        extraInfo = "no additional penalty this time" + activationSuffix;
+                    }
+                }
+
+            } else if (qDiff.equals("medium")) {
+                if (correct) {
+                    revealRandomMineReward(isPlayer1);
+                    score += 6;
+                    extraInfo = "Correct! One mine was revealed automatically and you gained +6 points" + activationSuffix;
+                } else {
+                    mistakeMade = true;
+                    if (random.nextDouble() < 0.5) {
+                        score -= 6;
+                        extraInfo = "you lost 6 points" + activationSuffix;
+                    } else {
+                        extraInfo = "no additional penalty this time" + activationSuffix;
+                    }
+                }
+
+            } else if (qDiff.equals("hard")) {
+                if (correct) {
+                    revealArea3x3Reward(isPlayer1);
+                    int afterReveal = score;
+                    score += 10;
+                    int afterReward = score;
+
+                    int revealDelta = afterReveal - beforeReward;
+                    int totalDelta = afterReward - scoreBefore;
+                    extraInfo =
+                            "Correct! Reward: +10" +
+                            ", 3×3 reveal side-score: " + (revealDelta >= 0 ? "+" : "") + revealDelta +
+                            ".\n Net: " + (totalDelta >= 0 ? "+" : "") + totalDelta + activationSuffix;
+                } else {
+                    mistakeMade = true;
+                    score -= 10;
+                    extraInfo = "you lost 10 points" + activationSuffix;
+                }
+
+            } else if (qDiff.equals("expert")) {
+                if (correct) {
+                    score += 15;
+                    int converted = addLivesWithCap(2, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
+                                    converted + " points because you were at max lives" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +15 points and 2 lives" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 15;
+                    loseHearts(1);
+                    extraInfo = "you lost 15 points and 1 life" + activationSuffix;
+                }
+            }
+
+        } else if (difficulty == Difficulty.MEDIUM) {
+
+            if (qDiff.equals("easy")) {
+                if (correct) {
+                    score += 8;
+                    int converted = addLivesWithCap(1, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
+                                    converted + " points" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +8 points and 1 life" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 8;
+                    extraInfo = "you lost 8 points" + activationSuffix;
+                }
+
+            } else if (qDiff.equals("medium")) {
+                if (correct) {
+                    score += 10;
+                    int converted = addLivesWithCap(1, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
+                                    converted + " points" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +10 points and 1 life" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    if (random.nextDouble() < 0.5) {
+                        score -= 10;
+                        loseHearts(1);
+                        extraInfo = "you lost 10 points and 1 life" + activationSuffix;
+                    } else {
+                        extraInfo = "no additional penalty this time" + activationSuffix;
+                    }
+                }
+
+            } else if (qDiff.equals("hard")) {
+                if (correct) {
+                    score += 15;
+                    int converted = addLivesWithCap(1, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
+                                    converted + " points" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +15 points and 1 life" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 15;
+                    loseHearts(1);
+                    extraInfo = "you lost 15 points and 1 life" + activationSuffix;
+                }
+
+            } else if (qDiff.equals("expert")) {
+                if (correct) {
+                    score += 20;
+                    int converted = addLivesWithCap(2, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
+                                    converted + " points because you were at max lives" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +20 points and 2 lives" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 20;
+                    if (random.nextDouble() < 0.5) {
+                        loseHearts(1);
+                        extraInfo = "you lost 20 points and 1 life" + activationSuffix;
+                    } else {
+                        loseHearts(2);
+                        extraInfo = "you lost 20 points and 2 lives" + activationSuffix;
+                    }
+                }
+            }
+
+        } else if (difficulty == Difficulty.HARD) {
+
+            if (qDiff.equals("easy")) {
+                if (correct) {
+                    score += 10;
+                    int converted = addLivesWithCap(1, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "You were already at max lives, so the extra life was converted to +" +
+                                    converted + " points" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +10 points and 1 life" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 10;
+                    loseHearts(1);
+                    extraInfo = "you lost 10 points and 1 life" + activationSuffix;
+                }
+
+            } else if (qDiff.equals("medium")) {
+                if (correct) {
+                    score += 15;
+                    int livesToAdd = (random.nextDouble() < 0.5) ? 1 : 2;
+                    int converted = addLivesWithCap(livesToAdd, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "Correct! You gained " + livesToAdd +
+                                    " lives, but some were converted to +" + converted +
+                                    " points because you were at max lives" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +15 points and " + livesToAdd + " lives" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 15;
+                    int livesLost = (random.nextDouble() < 0.5) ? 1 : 2;
+                    loseHearts(livesLost);
+                    extraInfo = "you lost 15 points and " + livesLost +
+                                " life" + (livesLost > 1 ? "s" : "") + activationSuffix;
+                }
+
+            } else if (qDiff.equals("hard")) {
+                if (correct) {
+                    score += 20;
+                    int converted = addLivesWithCap(2, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "Correct! You gained 2 lives, but some were converted to +" +
+                                    converted + " points because you were at max lives" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +20 points and 2 lives" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 20;
+                    loseHearts(2);
+                    extraInfo = "you lost 20 points and 2 lives" + activationSuffix;
+                }
+
+            } else if (qDiff.equals("expert")) {
+                if (correct) {
+                    score += 40;
+                    int converted = addLivesWithCap(3, activationPoints);
+                    score += converted;
+
+                    if (converted > 0) {
+                        extraInfo = "Correct! You gained 3 lives, but some were converted to +" +
+                                    converted + " points because you were at max lives" + activationSuffix;
+                    } else {
+                        extraInfo = "Correct! You gained +40 points and 3 lives" + activationSuffix;
+                    }
+                } else {
+                    mistakeMade = true;
+                    score -= 40;
+                    loseHearts(3);
+                    extraInfo = "you lost 40 points and 3 lives" + activationSuffix;
+                }
+            }
+        }
+
+        markActivated(isPlayer1, row, col);
+        fireStatsChanged();
+
+        if (checkLose()) return;
+
+        QuestionOutcome outcome = new QuestionOutcome(q, correct, scoreBefore, score - scoreBefore,
+                livesBefore, hearts, activationPoints, extraInfo);
+        fireAfterCells(l -> l.questionResolved(outcome));
+    }
+
+    private Question drawQuestion() {
+        List<Question> all = questionSource.get();
+        if (all == null || all.isEmpty()) return null;
+        return all.get(random.nextInt(all.size()));
+    }
+
+    private int addLivesWithCap(int livesToAdd, int pointsPerConvertedHeart) {
+        int extraScoreFromConversion = 0;
+
+        for (int i = 0; i < livesToAdd; i++) {
+            if (hearts < TOTAL_HEART_SLOTS) {
+                setHearts(hearts + 1);
+            } else {
+                extraScoreFromConversion += pointsPerConvertedHeart;
+            }
+        }
+
+        return extraScoreFromConversion;
+    }
+
+    private void revealRandomMineReward(boolean isPlayer1) {
+        int p = slot(isPlayer1);
+        Board board = boards[p];
+        BoardMarks m = marks[p];
+        int cols = board.getCols();
+
+        // Mines nobody has revealed or flagged yet, picked at random until one can be shown
+        BitSet candidates = m.hiddenMines(board);
+
+        while (!candidates.isEmpty()) {
+            int index = randomSetBit(candidates);
+            candidates.clear(index);
+            int r = index / cols, c = index % cols;
+
+            if (m.isFlagged(r, c)) {
+                if (autoRemoveFlags) removeFlag(isPlayer1, r, c);
+                continue;
+            }
+
+            m.reveal(r, c);
+            int adjacent = board.getAdjacentMines(r, c);
+            cellChanged(new CellDelta(isPlayer1, r, c, CellDelta.Kind.REVEALED, CellType.MINE, adjacent),
+                    l -> l.cellRevealed(isPlayer1, r, c, CellType.MINE, adjacent));
+
+            minesLeft[p] = Math.max(0, minesLeft[p] - 1);
+            fireStatsChanged();
+
+            if (!gameOver && hearts > 0 && anyBoardCleared(minesLeft)) {
+                endGame(true);
+            }
+            return;
+        }
+    }
+
+    private void revealArea3x3Reward(boolean isPlayer1) {
+        int p = slot(isPlayer1);
+        Board board = boards[p];
+        BoardMarks m = marks[p];
+        int rows = board.getRows();
+        int cols = board.getCols();
+
+        // Any covered non-mine cell can be the center (flagged ones included)
+        BitSet centers = m.unrevealedCells();
+        centers.andNot(board.getMineMask());
+
+        int center = randomSetBit(centers);
+        if (center < 0) return;
+
+        int centerRow = center / cols;
+        int centerCol = center % cols;
+
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int r = centerRow + dr;
+                int c = centerCol + dc;
+                if (r < 0 || c < 0 || r >= rows || c >= cols) continue;
+
+                if (board.isMine(r, c) || m.isRevealed(r, c)) continue;
+
+                if (m.isFlagged(r, c)) {
+                    if (autoRemoveFlags) removeFlag(isPlayer1, r, c);
+                    continue;
+                }
+
+                revealCell(isPlayer1, r, c, true);
+            }
+        }
+    }
+
+    private int randomSetBit(BitSet bits) {
+        int count = bits.cardinality();
+        if (count == 0) return -1;
+        return BoardMarks.nthSetBit(bits, random.nextInt(count));
+    }
+
+    // ---------------- hearts, win / lose ----------------
+
+    private void setHearts(int value) {
+        if (value == hearts) return;
+        hearts = value;
+        fire(l -> l.heartsChanged(value));
+    }
+
+    private void loseHearts(int count) {
+        setHearts(Math.max(0, hearts - count));
+    }
+
+    private void markActivated(boolean isPlayer1, int row, int col) {
+        marks[slot(isPlayer1)].activate(row, col);
+        cellChanged(new CellDelta(isPlayer1, row, col, CellDelta.Kind.ACTIVATED),
+                l -> l.cellActivated(isPlayer1, row, col));
+    }
+
+    //True when the game is (now) over. Out of hearts: offer to buy one before losing.
+    private boolean checkLose() {
+        if (gameOver) return true;
+        if (hearts > 0) return false;
+
+        if (tryBuyHeart()) {
+            return false;
+        }
+
+        endGame(false);
+        return true;
+    }
+
+    //Low score: offer to sell a heart, otherwise the match is lost once the minimum is reached.
+    private void checkLowScore() {
+        if (gameOver) return;
+
+        if (trySellHeart()) {
+            return;
+        }
+
+        if (score <= getMinScore()) {
+            endGame(false);
+        }
+    }
+
+    private boolean tryBuyHeart() {
+        int price = getHeartPrice();
+        int minScore = getMinScore();
+
+        if (score < price || score - price <= minScore) {
+            fireAfterCells(l -> l.heartPurchaseUnavailable(price));
+            return false;
+        }
+
+        flushCellChanges();
+        if (!decisions.buyHeart(price)) {
+            return false;
+        }
+
+        score -= price;
+        setHearts(1);
+        fireStatsChanged();
+        return true;
+    }
+
+    private boolean trySellHeart() {
+        if (hearts <= 1) return false;
+
+        int gain = getHeartPrice();
+        if (score > getMinScore()) return false;
+
+        flushCellChanges();
+        if (!decisions.sellHeart(gain)) {
+            return false;
+        }
+
+        setHearts(hearts - 1);
+        score += gain;
+        fireStatsChanged();
+        return true;
+    }
+
+    private void endGame(boolean won) {
+        if (gameOver) return;
+        gameOver = true;
+        gameWon = won;
+
+        endHeartsRemaining = 0;
+        endHeartsBonusPoints = 0;
+
+        if (won && hearts > 0) {
+            endScoreBefore = score;
+            endHeartsRemaining = hearts;
+            endHeartsBonusPoints = hearts * getHeartBonusPoints();
+            score += endHeartsBonusPoints;
+            fireStatsChanged();
+        }
+
+        fireAfterCells(l -> l.gameOver(won));
+    }
+
+    private static boolean anyBoardCleared(int[] remaining) {
+        return remaining[0] == 0 || remaining[1] == 0;
+    }
+
+    private static int slot(boolean isPlayer1) {
+        return isPlayer1 ? 0 : 1;
+    }
+
+    private void fireStatsChanged() {
+        fire(GameListener::statsChanged);
+    }
+
+    private void cellChanged(CellDelta delta, Consumer<GameListener> event) {
+        pendingDeltas.add(delta);
+        fire(event);
+    }
+
+    //Hands the cell changes collected so far to cellsChanged, as one list.
+    private void flushCellChanges() {
+        if (pendingDeltas.isEmpty()) return;
+        List<CellDelta> deltas = List.copyOf(pendingDeltas);
+        pendingDeltas.clear();
+        fire(l -> l.cellsChanged(deltas));
+    }
+
+    //Events that may open a dialog: the board must already show what led to them.
+    private void fireAfterCells(Consumer<GameListener> event) {
+        flushCellChanges();
+        fire(event);
+    }
+
+    private void fire(Consumer<GameListener> event) {
+        for (int i = 0; i < listeners.size(); i++) {
+            event.accept(listeners.get(i));
+        }
+    }
+
+    // ---------------- scoring tables ----------------
+
+    public int getActivationPoints() {
+        return switch (difficulty) {
+            case EASY -> 5;
+            case MEDIUM -> 8;
+            case HARD -> 12;
+        };
+    }
+
+    public int getSurprisePoints() {
+        return switch (difficulty) {
+            case EASY -> 8;
+            case MEDIUM -> 12;
+            case HARD -> 16;
+        };
+    }
+
+    public int getHeartPrice() {
+        return switch (difficulty) {
+            case EASY -> 5;
+            case MEDIUM -> 8;
+            case HARD -> 12;
+        };
+    }
+
+    public int getMinScore() {
+        return switch (difficulty) {
+            case EASY -> -10;
+            case MEDIUM -> -16;
+            case HARD -> -24;
+        };
+    }
+
+    //Points per heart left when the match is won.
+    public int getHeartBonusPoints() {
+        return switch (difficulty) {
+            case EASY -> 5;
+            case MEDIUM -> 8;
+            case HARD -> 12;
+        };
+    }
+
+    // ---------------- state ----------------
+
+    public DifficultyProfile getProfile() {
+        return profile;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public Board getBoard(boolean isPlayer1) {
+        return boards[slot(isPlayer1)];
+    }
+
+    public BoardMarks getMarks(boolean isPlayer1) {
+        return marks[slot(isPlayer1)];
+    }
+
+    public int getHearts() {
+        return hearts;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMinesLeft(boolean isPlayer1) {
+        return minesLeft[slot(isPlayer1)];
+    }
+
+    public int getSurprisesLeft(boolean isPlayer1) {
+        return surprisesLeft[slot(isPlayer1)];
+    }
+
+    public int getQuestionsLeft(boolean isPlayer1) {
+        return questionsLeft[slot(isPlayer1)];
+    }
+
+    public int getSafeCellsRemaining(boolean isPlayer1) {
+        return safeCellsRemaining[slot(isPlayer1)];
+    }
+
+    public int getWrongFlagsThisTurn(boolean isPlayer1) {
+        return wrongFlagsThisTurn[slot(isPlayer1)];
+    }
+
+    public boolean isFlaggingLocked(boolean isPlayer1) {
+        return flaggingLocked[slot(isPlayer1)];
+    }
+
+    public boolean isPlayer1Turn() {
+        return player1Turn;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isGameWon() {
+        return gameWon;
+    }
+
+    public boolean isMistakeMade() {
+        return mistakeMade;
+    }
+
+    //Reveals, flag toggles and activations made by both players so far.
+    public int getClicks() {
+        return clicks[0] + clicks[1];
+    }
+
+    //Reveals, flag toggles and activations on one player's board.
+    public int getClicks(boolean isPlayer1) {
+        return clicks[slot(isPlayer1)];
+    }
+
+    //Metrics recorded for the match: those of the board(s) cleared to win it (see BoardMetrics).
+    //The other board was never finished, so its 3BV is left out; UNKNOWN unless the match was won.
+    public BoardMetrics getMetrics() {
+        BoardMetrics metrics = BoardMetrics.UNKNOWN;
+        for (int p = 0; p < 2; p++) {
+            if (isCleared(p)) metrics = metrics.plus(boards[p].getMetrics());
+        }
+        return metrics;
+    }
+
+    //The clicks to set against getMetrics(): those made on the cleared board(s).
+    public int getMetricClicks() {
+        int total = 0;
+        for (int p = 0; p < 2; p++) {
+            if (isCleared(p)) total += clicks[p];
+        }
+        return total;
+    }
+
+    private boolean isCleared(int p) {
+        return gameWon && (minesLeft[p] == 0 || safeCellsRemaining[p] == 0);
+    }
+
+    public int getEndScoreBefore() {
+        return endScoreBefore;
+    }
+
+    public int getEndHeartsRemaining() {
+        return endHeartsRemaining;
+    }
+
+    public int getEndHeartsBonusPoints() {
+        return endHeartsBonusPoints;
+    }
+}
@@ -0,0 +1,56 @@
+package engine;
+
+import java.util.List;
+
+import model.CellType;
+
+//Receives everything a GameEngine does, in the order it happens.
+//All methods are no-ops by default, so a listener only overrides what it draws or records.
+//Events are delivered synchronously on the thread that applied the move.
+public interface GameListener {
+
+    //A cell was uncovered (by a click, a cascade or a reward).
+    default void cellRevealed(boolean isPlayer1, int row, int col, CellType type, int adjacentMines) {}
+
+    //A revealed mine cost a heart and should blow up on screen.
+    default void mineExploded(boolean isPlayer1, int row, int col) {}
+
+    //A flag was put on a cell that is not a mine.
+    default void flagPlaced(boolean isPlayer1, int row, int col) {}
+
+    //A flag was taken off (by the player or automatically).
+    default void flagRemoved(boolean isPlayer1, int row, int col) {}
+
+    //A flag was put on a mine: the mine is revealed as found.
+    default void mineFlagged(boolean isPlayer1, int row, int col) {}
+
+    //A question or surprise cell was used up.
+    default void cellActivated(boolean isPlayer1, int row, int col) {}
+
+    //All cell changes of one action (a click, a cascade, a reward), fired once after their per-cell
+    //events and before any dialog-worthy event (results, locks, game over). Views that redraw many
+    //cells should listen here instead of per cell.
+    default void cellsChanged(List<CellDelta> deltas) {}
+
+    //The player hit the wrong-flag limit this turn.
+    default void flaggingLocked(boolean isPlayer1) {}
+
+    //The player tried to flag while flagging is locked.
+    default void flaggingBlocked(boolean isPlayer1) {}
+
+    //Hearts ran out but the score is too low to buy one back.
+    default void heartPurchaseUnavailable(int price) {}
+
+    default void heartsChanged(int hearts) {}
+
+    //Score or per-board counters changed; fired once per move, not per cell.
+    default void statsChanged() {}
+
+    default void turnChanged(boolean isPlayer1Turn) {}
+
+    default void surpriseResolved(SurpriseOutcome outcome) {}
+
+    default void questionResolved(QuestionOutcome outcome) {}
+
+    default void gameOver(boolean won) {}
+}
@@ -0,0 +1,28 @@
+package engine;
+
+import model.Question;
+
+//What one answered question did, for the result popup.
+public class QuestionOutcome {
+
+    public final Question question;
+    public final boolean correct;
+    public final int scoreBefore;
+    public final int netScoreChange;
+    public final int livesBefore;
+    public final int livesAfter;
+    public final int activationPoints;
+    public final String extraInfo;
+
+    public QuestionOutcome(Question question, boolean correct, int scoreBefore, int netScoreChange,
+                           int livesBefore, int livesAfter, int activationPoints, String extraInfo) {
+        this.question = question;
+        this.correct = correct;
+        this.scoreBefore = scoreBefore;
+        this.netScoreChange = netScoreChange;
+        this.livesBefore = livesBefore;
+        this.livesAfter = livesAfter;
+        this.activationPoints = activationPoints;
+        this.extraInfo = extraInfo;
+    }
+}
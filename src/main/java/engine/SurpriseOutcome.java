@@ -0,0 +1,24 @@
+package engine;
+
+//What one surprise activation did, for the result popup.
+public class SurpriseOutcome {
+
+    public final boolean good;
+    public final int scoreBefore;
+    public final int netScoreChange;
+    public final int livesBefore;
+    public final int livesAfter;
+    public final int activationPoints;
+    public final int surprisePoints;
+
+    public SurpriseOutcome(boolean good, int scoreBefore, int netScoreChange, int livesBefore, int livesAfter,
+                           int activationPoints, int surprisePoints) {
+        this.good = good;
+        this.scoreBefore = scoreBefore;
+        this.netScoreChange = netScoreChange;
+        this.livesBefore = livesBefore;
+        this.livesAfter = livesAfter;
+        this.activationPoints = activationPoints;
+        this.surprisePoints = surprisePoints;
+    }
+}
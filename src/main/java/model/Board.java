@@ -1,180 +1,258 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
 
 //Represents the Minesweeper board for a single game.
+//Cells are stored packed, one byte per cell, in a flat row-major array:
+//  bits 0-2 : CellType ordinal
+//  bits 3-6 : adjacent mines (0-8)
+//  bit  7   : reserved
+//Cell objects are only created on demand by getCell(), as read-only views of that byte.
 public class Board {
 
-    private final Difficulty difficulty;
+    private static final CellType[] TYPES = CellType.values();
+
+    private static final int TYPE_MASK = 0x07;
+    private static final int ADJ_SHIFT = 3;
+    private static final int ADJ_MASK = 0x0F;
+
+    private final DifficultyProfile profile;
     private final int rows;
     private final int cols;
     private final int mineCount;
     private final int questionCount;
     private final int surpriseCount;
-    private final Cell[][] cells;
+    private final byte[] cells;
+    private final int[] typeCounts = new int[TYPES.length]; // filled during generation, adjusted if mines move
+    private final BitSet mineMask;
+    private OpeningIndex openings;  // rebuilt once if the first reveal moves mines
+    private CascadeEngine cascade; // created on the first zero-cell click, then reused
+    private int safeStart = -1;    // row-major index a generator vouches for, -1 if none
+    private BoardGenerator pendingFirstReveal; // first-click-safe boards: draws relocation targets, null once settled
 
     public Board(Difficulty difficulty) {
-        this.difficulty = difficulty;
-        this.rows = difficulty.getRows();
-        this.cols = difficulty.getCols();
-        this.mineCount = difficulty.getMines();
-        this.questionCount = difficulty.getQuestions();
-        this.surpriseCount = difficulty.getSurprises();
-        this.cells = new Cell[rows][cols];
-
-        initEmpty();
-        placeRandomSpecialCells();
-        computeNeighborNumbers();
-    }
-    // Creates an EMPTY board 
-    private void initEmpty() {
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                //cells[r][c] = new EmptyCell(r, c);
-            	cells[r][c] = CellFactory.createEmpty(r, c);
-            }
-        }
+        this(difficulty, new RandomBoardGenerator());
     }
-    //Randomly places all special cells - Ensures special cells never overlap
-//    private void placeRandomSpecialCells() {
-//        List<int[]> positions = new ArrayList<>();
-//        for (int r = 0; r < rows; r++) {
-//            for (int c = 0; c < cols; c++) {
-//                positions.add(new int[]{r, c});
-//            }
-//        }
-//
-//        Collections.shuffle(positions);
-//        int index = 0;
-//
-//        for (int i = 0; i < mineCount; i++, index++) {
-//            int[] pos = positions.get(index);
-//            int r = pos[0];
-//            int c = pos[1];
-//            cells[r][c] = new MineCell(r, c);
-//        }
-//
-//        int placedQuestions = 0;
-//        while (placedQuestions < questionCount && index < positions.size()) {
-//            int[] pos = positions.get(index++);
-//            int r = pos[0];
-//            int c = pos[1];
-//            if (!cells[r][c].isMine()) {
-//                cells[r][c] = new QuestionCell(r, c);
-//                placedQuestions++;
-//            }
-//        }
-//
-//        int placedSurprises = 0;
-//        while (placedSurprises < surpriseCount && index < positions.size()) {
-//            int[] pos = positions.get(index++);
-//            int r = pos[0];
-//            int c = pos[1];
-//            if (!cells[r][c].isMine() && cells[r][c].getType() != CellType.QUESTION) {
-//                cells[r][c] = new SurpriseCell(r, c);
-//                placedSurprises++;
-//            }
-//        }
-//    }
-    
-    private void placeRandomSpecialCells() {
-        List<int[]> positions = new ArrayList<>();
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                positions.add(new int[]{r, c});
-            }
+
+    //Reproducible board: the same difficulty and seed always give the same layout.
+    public Board(Difficulty difficulty, long seed) {
+        this(difficulty, new RandomBoardGenerator(seed));
+    }
+
+    public Board(Difficulty difficulty, BoardGenerator generator) {
+        this(DifficultyProfile.of(difficulty), generator);
+    }
+
+    public Board(DifficultyProfile profile) {
+        this(profile, new RandomBoardGenerator());
+    }
+
+    public Board(DifficultyProfile profile, BoardGenerator generator) {
+        this(profile, generator, false);
+    }
+
+    //With firstClickSafe the layout is provisional until settleFirstReveal(): the whole board is
+    //still generated up front (so pooled boards carry their numbers and openings), and the first
+    //reveal only moves the few mines that sit around the clicked cell.
+    public Board(DifficultyProfile profile, BoardGenerator generator, boolean firstClickSafe) {
+        if (profile == null || generator == null) {
+            throw new IllegalArgumentException("profile and generator cannot be null");
         }
+        this.profile = profile;
+        this.rows = profile.getRows();
+        this.cols = profile.getCols();
+        this.mineCount = profile.getMines();
+        this.questionCount = profile.getQuestions();
+        this.surpriseCount = profile.getSurprises();
+        this.cells = new byte[rows * cols]; // all zero == EMPTY with 0 adjacent mines
+
+        int specials = Math.min(mineCount + questionCount + surpriseCount, cells.length);
+        int[] positions = generator.drawDistinct(cells.length, specials);
+        int placedMines = placeRandomSpecialCells(positions, specials);
+        mineMask = new BitSet(cells.length);
+        for (int m = 0; m < placedMines; m++) {
+            mineMask.set(positions[m]);
+        }
+        computeNeighborNumbers(positions, placedMines);
+        countTypes();
+        openings = OpeningIndex.build(this); // pooled boards carry it, so it is off the click path
+        pendingFirstReveal = firstClickSafe ? generator : null;
+    }
 
-        Collections.shuffle(positions);
+    //Randomly places all special cells - Ensures special cells never overlap.
+    //Positions are distinct draws, taken in order: mines, then questions, then surprises.
+    //Returns how many mines were placed (they occupy positions[0..n)).
+    private int placeRandomSpecialCells(int[] positions, int total) {
         int index = 0;
+        for (int i = 0; i < mineCount && index < total; i++) {
+            cells[positions[index++]] = pack(CellType.MINE, 0);
+        }
+        int placedMines = index;
+        for (int i = 0; i < questionCount && index < total; i++) {
+            cells[positions[index++]] = pack(CellType.QUESTION, 0);
+        }
+        for (int i = 0; i < surpriseCount && index < total; i++) {
+            cells[positions[index++]] = pack(CellType.SURPRISE, 0);
+        }
+        return placedMines;
+    }
+
+    //Converts empty cells into NUMBER cells if they have mine neighbors.
+    //Counts are pushed outward from each mine into a grid padded by one cell on every side,
+    //so the 8 increments need no bounds checks; then one pass materializes NUMBER/EMPTY.
+    private void computeNeighborNumbers(int[] minePositions, int placedMines) {
+        int stride = cols + 2;
+        int[] counts = new int[(rows + 2) * stride];
+
+        for (int m = 0; m < placedMines; m++) {
+            int i = minePositions[m];
+            int p = (i / cols + 1) * stride + (i % cols + 1);
 
-        // Mines
-        for (int i = 0; i < mineCount; i++, index++) {
-            int[] pos = positions.get(index);
-            cells[pos[0]][pos[1]] = CellFactory.createMine(pos[0], pos[1]);
-        }
-
-        // Questions
-        int placedQuestions = 0;
-        while (placedQuestions < questionCount && index < positions.size()) {
-            int[] pos = positions.get(index++);
-            int r = pos[0];
-            int c = pos[1];
-            if (!cells[r][c].isMine()) {
-                cells[r][c] = CellFactory.createQuestion(r, c);
-                placedQuestions++;
+            counts[p - stride - 1]++;
+            counts[p - stride]++;
+            counts[p - stride + 1]++;
+            counts[p - 1]++;
+            counts[p + 1]++;
+            counts[p + stride - 1]++;
+            counts[p + stride]++;
+            counts[p + stride + 1]++;
+        }
+
+        byte emptyCode = pack(CellType.EMPTY, 0);
+        for (int r = 0; r < rows; r++) {
+            int rowBase = r * cols;
+            int padBase = (r + 1) * stride + 1;
+            for (int c = 0; c < cols; c++) {
+                int count = counts[padBase + c];
+                if (count > 0 && cells[rowBase + c] == emptyCode) {
+                    cells[rowBase + c] = pack(CellType.NUMBER, count);
+                }
             }
         }
+    }
 
-        // Surprises
-        int placedSurprises = 0;
-        while (placedSurprises < surpriseCount && index < positions.size()) {
-            int[] pos = positions.get(index++);
-            int r = pos[0];
-            int c = pos[1];
-            if (!cells[r][c].isMine() &&
-                cells[r][c].getType() != CellType.QUESTION) {
+    //Moves the mines found in keepClear to plain (EMPTY/NUMBER) cells outside it, so question and
+    //surprise cells stay where placeRandomSpecialCells put them and specials still never overlap.
+    //Targets are drawn as ranks among the plain cells and found in one scan, so nothing the size of
+    //the board is allocated; only the 3x3 blocks around the old and new mine spots are recounted.
+    //Returns the number of mines moved, or -1 if there are not enough plain cells to take them.
+    private int relocateMines(BoardGenerator generator, int[] keepClear) {
+        int[] from = new int[keepClear.length];
+        int moving = 0;
+        int freeCount = typeCounts[CellType.EMPTY.ordinal()] + typeCounts[CellType.NUMBER.ordinal()];
+        for (int i : keepClear) {
+            if (mineMask.get(i)) from[moving++] = i;
+            else if (isPlain(i)) freeCount--;
+        }
+        if (moving == 0) return 0;
+        if (freeCount < moving) return -1;
 
-                cells[r][c] = CellFactory.createSurprise(r, c);
-                placedSurprises++;
-            }
+        int[] picks = Arrays.copyOf(generator.drawDistinct(freeCount, moving), moving);
+        Arrays.sort(picks);
+        int[] to = new int[moving];
+        int rank = 0;
+        for (int i = 0, k = 0; k < moving; i++) {
+            if (!isPlain(i) || contains(keepClear, i)) continue;
+            if (rank++ == picks[k]) to[k++] = i;
+        }
+        for (int k = 0; k < moving; k++) {
+            mineMask.clear(from[k]);
+            mineMask.set(to[k]);
         }
+        for (int k = 0; k < moving; k++) {
+            recountAround(from[k]);
+            recountAround(to[k]);
+        }
+        return moving;
     }
-    
-    
-    //Converts empty cells into NumberCell if they have mine neighbors.
-    private void computeNeighborNumbers() {
-        int[] dr = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dc = {-1, 0, 1, -1, 1, -1, 0, 1};
 
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Cell cell = cells[r][c];
+    private boolean isPlain(int index) {
+        CellType type = typeAt(index);
+        return type == CellType.EMPTY || type == CellType.NUMBER;
+    }
 
-                if (cell.isMine()
-                        || cell.getType() == CellType.QUESTION
-                        || cell.getType() == CellType.SURPRISE) {
-                    continue;
-                }
+    private static boolean contains(int[] indices, int index) {
+        for (int i : indices) {
+            if (i == index) return true;
+        }
+        return false;
+    }
 
-                int count = 0;
-                for (int i = 0; i < 8; i++) {
-                    int nr = r + dr[i];
-                    int nc = c + dc[i];
-                    if (inBounds(nr, nc) && cells[nr][nc].isMine()) {
-                        count++;
-                    }
-                }
+    //Re-derives the cells of the 3x3 block around index from mineMask, keeping typeCounts in step.
+    private void recountAround(int index) {
+        int row = index / cols;
+        int col = index % cols;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                int i = index(r, c);
+                CellType old = typeAt(i);
+                if (old == CellType.QUESTION || old == CellType.SURPRISE) continue;
 
-//                if (count == 0) {
-//                    cell.setType(CellType.EMPTY);
-//                    cell.setAdjacentMines(0);
-//
-//                } else {
-//                	NumberCell numberCell = new NumberCell(r, c);
-//                    numberCell.setAdjacentMines(count);
-//                    cells[r][c] = numberCell;
-//                    cell.setType(CellType.NUMBER);
-//                }
-                if (count == 0) {
-                    cells[r][c] = CellFactory.createEmpty(r, c);
+                byte code;
+                if (mineMask.get(i)) {
+                    code = pack(CellType.MINE, 0);
                 } else {
-                    cells[r][c] = CellFactory.createNumber(r, c, count);
+                    int count = minesAround(r, c);
+                    code = pack(count > 0 ? CellType.NUMBER : CellType.EMPTY, count);
                 }
-                
+                typeCounts[old.ordinal()]--;
+                typeCounts[code & TYPE_MASK]++;
+                cells[i] = code;
             }
         }
     }
 
+    private int minesAround(int row, int col) {
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if ((r != row || c != col) && mineMask.get(index(r, c))) count++;
+            }
+        }
+        return count;
+    }
+
+    private void countTypes() {
+        for (byte b : cells) {
+            typeCounts[b & TYPE_MASK]++;
+        }
+    }
+
+    private static byte pack(CellType type, int adjacentMines) {
+        return (byte) (type.ordinal() | (adjacentMines << ADJ_SHIFT));
+    }
+
+    CellType typeAt(int index) {
+        return TYPES[cells[index] & TYPE_MASK];
+    }
+
+    int adjacentAt(int index) {
+        return (cells[index] >>> ADJ_SHIFT) & ADJ_MASK;
+    }
+
+    private int index(int r, int c) {
+        return r * cols + c;
+    }
+
     private boolean inBounds(int r, int c) {
         return r >= 0 && r < rows && c >= 0 && c < cols;
     }
 
+    private void checkBounds(int row, int col) {
+        if (!inBounds(row, col)) {
+            throw new IllegalArgumentException("Row/col out of range");
+        }
+    }
 
+
+    //Scoring tier; for custom boards this is the closest built-in difficulty.
     public Difficulty getDifficulty() {
-        return difficulty;
+        return profile.getTier();
+    }
+
+    public DifficultyProfile getProfile() {
+        return profile;
     }
 
     public int getRows() {
@@ -197,22 +275,115 @@ public class Board {
         return surpriseCount;
     }
 
+    //Returns a fresh Cell view of the packed cell. Prefer getType/isMine/getAdjacentMines in loops.
     public Cell getCell(int row, int col) {
-        if (!inBounds(row, col)) {
-            throw new IllegalArgumentException("Row/col out of range");
+        checkBounds(row, col);
+        int i = index(row, col);
+
+        return switch (typeAt(i)) {
+            case MINE -> CellFactory.createMine(row, col);
+            case QUESTION -> CellFactory.createQuestion(row, col);
+            case SURPRISE -> CellFactory.createSurprise(row, col);
+            case NUMBER -> CellFactory.createNumber(row, col, adjacentAt(i));
+            case EMPTY -> CellFactory.createEmpty(row, col);
+        };
+    }
+
+    public CellType getType(int row, int col) {
+        checkBounds(row, col);
+        return typeAt(index(row, col));
+    }
+
+    public boolean isMine(int row, int col) {
+        return getType(row, col) == CellType.MINE;
+    }
+
+    public int getAdjacentMines(int row, int col) {
+        checkBounds(row, col);
+        return adjacentAt(index(row, col));
+    }
+
+    //Cells a player must reveal to clear this board (everything except mines).
+    public int getSafeCellCount() {
+        return cells.length - typeCounts[CellType.MINE.ordinal()];
+    }
+
+    //Row-major mine layer; a fresh copy the caller may modify.
+    public BitSet getMineMask() {
+        return (BitSet) mineMask.clone();
+    }
+
+    public OpeningIndex getOpenings() {
+        return openings;
+    }
+
+    //3BV, openings and islands of the current layout (re-taken if the first reveal moved mines).
+    public BoardMetrics getMetrics() {
+        return openings.getMetrics();
+    }
+
+    //First click a generator guarantees to be safe (e.g. the no-guess generator), or -1 if none was chosen.
+    public int getSafeStart() {
+        return safeStart;
+    }
+
+    //Set by a generator before the board is handed out; the cell must not be a mine.
+    public void setSafeStart(int index) {
+        if (index < 0 || index >= cells.length || typeAt(index) == CellType.MINE) {
+            throw new IllegalArgumentException("Safe start must be a non-mine cell on the board: " + index);
         }
-        return cells[row][col];
+        safeStart = index;
     }
 
-    public int countCellsOfType(CellType type) {
-        int count = 0;
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (cells[r][c].getType() == type) {
-                    count++;
-                }
+    //True while a first-click-safe board still waits for its first reveal (its mines may still move).
+    public boolean isAwaitingFirstReveal() {
+        return pendingFirstReveal != null;
+    }
+
+    //Finalizes a first-click-safe board at its first reveal: mines on the clicked cell and its
+    //neighbours move elsewhere, so the click always opens an area. If the board is too crowded
+    //for that, only the clicked cell is kept clear. Returns true if the layout changed.
+    //Does nothing on boards generated without firstClickSafe or already settled.
+    public boolean settleFirstReveal(int row, int col) {
+        checkBounds(row, col);
+        BoardGenerator generator = pendingFirstReveal;
+        if (generator == null) return false;
+        pendingFirstReveal = null;
+
+        int[] block = new int[9];
+        int size = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                block[size++] = index(r, c);
             }
         }
-        return count;
+        int moved = relocateMines(generator, Arrays.copyOf(block, size));
+        if (moved < 0) {
+            moved = relocateMines(generator, new int[] { index(row, col) });
+        }
+        if (moved <= 0) return false;
+
+        openings = OpeningIndex.build(this);
+        return true;
+    }
+
+    //Fixes the provisional layout as it is, for a first move that is not a reveal (e.g. a flag).
+    public void settle() {
+        pendingFirstReveal = null;
+    }
+
+    //Flood-fills from (row, col) with this board's reusable engine. One thread at a time: a generator
+    //may use it before handing the board out, after that the FX thread.
+    //flagged holds row-major indices of flagged cells; see CascadeEngine for reading the result.
+    public CascadeEngine cascadeFrom(int row, int col, BitSet flagged) {
+        if (cascade == null) {
+            cascade = new CascadeEngine(this);
+        }
+        return cascade.run(row, col, flagged);
+    }
+
+    //O(1): counts are taken during generation and kept up to date if the first reveal moves mines.
+    public int countCellsOfType(CellType type) {
+        return typeCounts[type.ordinal()];
     }
 }
@@ -0,0 +1,8 @@
+package model;
+
+//Strategy used by BoardPool to build the boards it keeps ready for a profile.
+//Implementations are called from background threads and must be thread-safe.
+public interface BoardFactory {
+
+    Board create(DifficultyProfile profile);
+}
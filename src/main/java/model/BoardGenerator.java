@@ -0,0 +1,13 @@
+package model;
+
+//Strategy used by Board to decide where its special cells (mines, questions, surprises) go.
+//Implementations must be deterministic for a given internal state, so boards can be replayed.
+public interface BoardGenerator {
+
+    /**
+     * Draws {@code count} distinct linear cell indices in {@code [0, cellCount)}.
+     * Only the first {@code count} entries of the returned array are meaningful;
+     * the array may be longer so implementations can reuse their working buffer.
+     */
+    int[] drawDistinct(int cellCount, int count);
+}
@@ -0,0 +1,131 @@
+package model;
+
+import java.util.BitSet;
+
+//What one player has done to one board: revealed, flagged and activated cells,
+//each kept as a bit layer indexed row-major (row * cols + col).
+//Updates are O(1); counts and "which cells are still covered" queries run a 64-bit word
+//at a time, so hints, rewards and the game-over reveal never have to walk the scene graph.
+public final class BoardMarks {
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+
+    private final BitSet revealed;
+    private final BitSet flagged;
+    private final BitSet activated;
+
+    public BoardMarks(Board board) {
+        this(board.getRows(), board.getCols());
+    }
+
+    public BoardMarks(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Board size must be positive");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        this.revealed = new BitSet(size);
+        this.flagged = new BitSet(size);
+        this.activated = new BitSet(size);
+    }
+
+    public int index(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Row/col out of range");
+        }
+        return row * cols + col;
+    }
+
+    // ---------------- revealed ----------------
+
+    public boolean isRevealed(int row, int col) {
+        return revealed.get(index(row, col));
+    }
+
+    //Returns true only the first time the cell is revealed.
+    public boolean reveal(int row, int col) {
+        int i = index(row, col);
+        if (revealed.get(i)) return false;
+        revealed.set(i);
+        return true;
+    }
+
+    public int getRevealedCount() {
+        return revealed.cardinality();
+    }
+
+    // ---------------- flagged ----------------
+
+    public boolean isFlagged(int row, int col) {
+        return flagged.get(index(row, col));
+    }
+
+    public void setFlagged(int row, int col, boolean value) {
+        flagged.set(index(row, col), value);
+    }
+
+    public int getFlaggedCount() {
+        return flagged.cardinality();
+    }
+
+    //Live flag layer, for read-only consumers such as Board.cascadeFrom.
+    public BitSet flaggedBits() {
+        return flagged;
+    }
+
+    // ---------------- activated ----------------
+
+    public boolean isActivated(int row, int col) {
+        return activated.get(index(row, col));
+    }
+
+    public void activate(int row, int col) {
+        activated.set(index(row, col));
+    }
+
+    // ---------------- queries ----------------
+
+    //Covered, unflagged cells that are not mines.
+    public BitSet hiddenSafeCells(Board board) {
+        BitSet out = new BitSet(size);
+        out.set(0, size);
+        out.andNot(board.getMineMask());
+        out.andNot(revealed);
+        out.andNot(flagged);
+        return out;
+    }
+
+    //Mines nobody has revealed or correctly flagged yet.
+    public BitSet hiddenMines(Board board) {
+        BitSet out = board.getMineMask();
+        out.andNot(revealed);
+        return out;
+    }
+
+    //Every cell not revealed yet (flagged ones included).
+    public BitSet unrevealedCells() {
+        BitSet out = new BitSet(size);
+        out.set(0, size);
+        out.andNot(revealed);
+        return out;
+    }
+
+    //Index of the n-th set bit (0-based), or -1 if there are not that many.
+    public static int nthSetBit(BitSet bits, int n) {
+        int i = bits.nextSetBit(0);
+        while (i >= 0 && n-- > 0) {
+            i = bits.nextSetBit(i + 1);
+        }
+        return i;
+    }
+
+    //Uniformly random set bit, or -1 if none.
+    public static int randomSetBit(BitSet bits) {
+        int count = bits.cardinality();
+        if (count == 0) return -1;
+        return nthSetBit(bits, (int) (Math.random() * count));
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.util.Locale;
+
+//Layout complexity of a board, taken from the opening labeling at generation time.
+//3BV (Bechtel's Board Benchmark Value) is the fewest clicks that clear the board: one per opening
+//plus one per safe cell that no opening reaches. Islands are the 8-connected groups of those cells.
+//A match record holds the metrics of the board that was cleared to win it (both, if both were),
+//next to the clicks made on that board, so 3BV/s and efficiency measure the board actually
+//finished. UNKNOWN marks matches that were not won and records from before 3BV was kept.
+public final class BoardMetrics {
+
+    public static final BoardMetrics UNKNOWN = new BoardMetrics(0, 0, 0);
+
+    private final int bbbv;
+    private final int openings;
+    private final int islands;
+
+    private BoardMetrics(int bbbv, int openings, int islands) {
+        this.bbbv = bbbv;
+        this.openings = openings;
+        this.islands = islands;
+    }
+
+    public static BoardMetrics of(int bbbv, int openings, int islands) {
+        if (bbbv < 0 || openings < 0 || islands < 0 || openings > bbbv) {
+            throw new IllegalArgumentException("Invalid board metrics: 3BV=" + bbbv
+                    + ", openings=" + openings + ", islands=" + islands);
+        }
+        return (bbbv == 0) ? UNKNOWN : new BoardMetrics(bbbv, openings, islands);
+    }
+
+    //Metrics of two boards cleared in one match.
+    public BoardMetrics plus(BoardMetrics other) {
+        if (other == null || !other.isKnown()) return this;
+        if (!isKnown()) return other;
+        return new BoardMetrics(bbbv + other.bbbv, openings + other.openings, islands + other.islands);
+    }
+
+    public boolean isKnown() {
+        return bbbv > 0;
+    }
+
+    public int get3BV() {
+        return bbbv;
+    }
+
+    public int getOpenings() {
+        return openings;
+    }
+
+    public int getIslands() {
+        return islands;
+    }
+
+    //Board value cleared per second; 0 when unknown or no time was recorded.
+    public double perSecond(int durationSeconds) {
+        return (isKnown() && durationSeconds > 0) ? (double) bbbv / durationSeconds : 0.0;
+    }
+
+    //Share of the clicks that were needed, in percent. Can exceed 100: 3BV already counts
+    //cascades, but flags and rewards also clear cells without a click on them.
+    public double efficiency(int clicks) {
+        return (isKnown() && clicks > 0) ? bbbv * 100.0 / clicks : 0.0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardMetrics)) return false;
+        BoardMetrics m = (BoardMetrics) o;
+        return bbbv == m.bbbv && openings == m.openings && islands == m.islands;
+    }
+
+    @Override
+    public int hashCode() {
+        return (bbbv * 31 + openings) * 31 + islands;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "BoardMetrics [3BV=%d, openings=%d, islands=%d]", bbbv, openings, islands);
+    }
+}
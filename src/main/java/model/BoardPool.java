@@ -0,0 +1,191 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a few ready-made boards per difficulty profile so a new match can start instantly.
+ * Boards are generated on a single background daemon thread and refilled after every take.
+ * If the pool is empty (e.g. two matches started back to back) the missing boards are built in parallel.
+ * Built-in profiles are prefilled at startup; a custom profile gets its own smaller queue the first
+ * time it is played, so a rematch with the same settings starts instantly too.
+ * Queues are kept per profile and {@link BoardFactory}: plain random boards come from {@link #RANDOM},
+ * other factories (such as the no-guess generator) get their own small queues on first use.
+ * Only the most recently used custom or non-random queue is kept; using another one drops it, so
+ * trying many custom sizes (up to 500x500) does not pile up boards nobody will play.
+ */
+public final class BoardPool {
+
+    /** Singleton instance of BoardPool. */
+    private static final BoardPool INSTANCE = new BoardPool();
+
+    private static final Logger LOG = Logger.getLogger(BoardPool.class.getName());
+
+    /** Boards kept per built-in difficulty (two matches worth). */
+    private static final int BOARDS_PER_DIFFICULTY = 4;
+
+    /** Boards kept per custom profile or non-random factory (one match worth); they are costlier to build. */
+    private static final int BOARDS_PER_CUSTOM_PROFILE = 2;
+
+    /**
+     * Uniformly random layouts; the default factory. Boards are first-click safe: their layout is
+     * generated here, off the click path, and only settled around the first reveal.
+     */
+    public static final BoardFactory RANDOM = profile -> new Board(profile, new RandomBoardGenerator(), true);
+
+    private final Map<PoolKey, BlockingQueue<Board>> ready = new ConcurrentHashMap<>();
+    private final Map<PoolKey, AtomicBoolean> refillScheduled = new ConcurrentHashMap<>();
+
+    /** The one custom or non-random key whose queue is kept; guarded by this. */
+    private PoolKey onDemandKey;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "board-pool");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private BoardPool() {
+    }
+
+    public static BoardPool getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts filling the pool for every difficulty. Safe to call more than once. */
+    public void prefillAll() {
+        for (Difficulty d : Difficulty.values()) {
+            scheduleRefill(new PoolKey(DifficultyProfile.of(d), RANDOM));
+        }
+    }
+
+    /** Starts filling the queue for one profile and factory, e.g. as soon as a player picks a board option. */
+    public void prefill(DifficultyProfile profile, BoardFactory factory) {
+        scheduleRefill(new PoolKey(profile, factory));
+    }
+
+    /** Returns one board for each player, waiting for {@link #preparePair} if the pool is empty. */
+    public Board[] takePair(Difficulty difficulty) {
+        return takePair(DifficultyProfile.of(difficulty));
+    }
+
+    public Board[] takePair(DifficultyProfile profile) {
+        return preparePair(profile).join();
+    }
+
+    public CompletableFuture<Board[]> preparePair(Difficulty difficulty) {
+        return preparePair(DifficultyProfile.of(difficulty));
+    }
+
+    /**
+     * Match-setup pipeline: pooled boards complete immediately, missing boards are generated
+     * concurrently (one task per player) and never queue behind the refill thread.
+     */
+    public CompletableFuture<Board[]> preparePair(DifficultyProfile profile) {
+        return preparePair(profile, RANDOM);
+    }
+
+    /** Same pipeline for boards built by the given factory. */
+    public CompletableFuture<Board[]> preparePair(DifficultyProfile profile, BoardFactory factory) {
+        PoolKey key = new PoolKey(profile, factory);
+        CompletableFuture<Board> first = takeAsync(key);
+        CompletableFuture<Board> second = takeAsync(key);
+        scheduleRefill(key);
+        return first.thenCombine(second, (b1, b2) -> new Board[] { b1, b2 });
+    }
+
+    public int available(Difficulty difficulty) {
+        return available(DifficultyProfile.of(difficulty));
+    }
+
+    public int available(DifficultyProfile profile) {
+        return available(profile, RANDOM);
+    }
+
+    public int available(DifficultyProfile profile, BoardFactory factory) {
+        BlockingQueue<Board> queue = ready.get(new PoolKey(profile, factory));
+        return (queue == null) ? 0 : queue.size();
+    }
+
+    private BlockingQueue<Board> queueFor(PoolKey key) {
+        if (!key.isOnDemand()) {
+            return ready.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(BOARDS_PER_DIFFICULTY));
+        }
+        synchronized (this) {
+            if (!key.equals(onDemandKey)) {
+                if (onDemandKey != null) {
+                    ready.remove(onDemandKey);
+                    refillScheduled.remove(onDemandKey);
+                }
+                onDemandKey = key;
+            }
+            return ready.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(BOARDS_PER_CUSTOM_PROFILE));
+        }
+    }
+
+    private CompletableFuture<Board> takeAsync(PoolKey key) {
+        Board board = queueFor(key).poll();
+        if (board != null) {
+            return CompletableFuture.completedFuture(board);
+        }
+        return CompletableFuture.supplyAsync(() -> key.factory.create(key.profile));
+    }
+
+    private void scheduleRefill(PoolKey key) {
+        AtomicBoolean scheduled = refillScheduled.computeIfAbsent(key, k -> new AtomicBoolean(false));
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        BlockingQueue<Board> queue = queueFor(key);
+        executor.execute(() -> {
+            try {
+                // stops early if a newer custom queue replaced this one meanwhile
+                while (queue.remainingCapacity() > 0 && ready.get(key) == queue) {
+                    queue.offer(key.factory.create(key.profile));
+                }
+            } catch (RuntimeException e) {
+                LOG.warning("Board pool refill failed for " + key.profile + ": " + e.getMessage());
+            } finally {
+                scheduled.set(false);
+            }
+        });
+    }
+
+    /** A queue per profile and factory; factories compare by identity. */
+    private static final class PoolKey {
+        private final DifficultyProfile profile;
+        private final BoardFactory factory;
+
+        private PoolKey(DifficultyProfile profile, BoardFactory factory) {
+            if (profile == null || factory == null) {
+                throw new IllegalArgumentException("profile and factory cannot be null");
+            }
+            this.profile = profile;
+            this.factory = factory;
+        }
+
+        //Custom profiles and non-random factories are built when first asked for, not at startup.
+        private boolean isOnDemand() {
+            return profile.isCustom() || factory != RANDOM;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PoolKey other && profile.equals(other.profile) && factory == other.factory;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * profile.hashCode() + System.identityHashCode(factory);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package model;
+
+//How the game screen draws the two boards; chosen per match on the New Game screen.
+public enum BoardRendering {
+    TILES("Tiles"),      // one Button per cell, styled by the theme CSS
+    CANVAS("Canvas");    // one Canvas per board, colors read from the same CSS
+
+    //Tiles are not virtualized: every cell is a laid-out node, all of the time. Past this side
+    //only the canvas viewport (which paints just the visible cells) stays responsive, so larger
+    //boards always use it; the New Game screen shows this instead of overriding it at match start.
+    public static final int MAX_TILE_SIDE = 40;
+
+    private final String displayName;
+
+    BoardRendering(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static boolean supportsTiles(DifficultyProfile profile) {
+        return profile == null || Math.max(profile.getRows(), profile.getCols()) <= MAX_TILE_SIDE;
+    }
+
+    //What a match on this profile is drawn with when the players asked for `requested`.
+    public static BoardRendering effectiveFor(BoardRendering requested, DifficultyProfile profile) {
+        if (requested == null) requested = TILES;
+        return supportsTiles(profile) ? requested : CANVAS;
+    }
+}
@@ -0,0 +1,145 @@
+package model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+//Flood fill used when a zero cell is opened.
+//Normally the answer is read straight from the board's OpeningIndex; the search below only
+//runs when a flag sits inside the opening and cuts it. One engine belongs to one Board and
+//reuses all of its buffers between clicks:
+//  - cells are queued as flat row-major ints, never as int[]{r, c} pairs
+//  - "visited" is a stamp array; bumping the generation clears it in O(1)
+//Results stay valid until the next run() on the same board.
+public final class CascadeEngine {
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+
+    private final int[] queue;     // every cell is queued at most once per run
+    private final int[] stamps;    // stamps[i] == generation  <=>  visited this run
+    private int generation;
+
+    private final int[] opened;    // non-mine, non-flagged cells reached by the fill
+    private int openedCount;
+    private final int[] flaggedHits; // flagged cells the fill stopped at
+    private int flaggedCount;
+
+    CascadeEngine(Board board) {
+        this.board = board;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        int n = rows * cols;
+        this.queue = new int[n];
+        this.stamps = new int[n];
+        this.opened = new int[n];
+        this.flaggedHits = new int[n];
+    }
+
+    //Runs the fill from (row, col). Flagged cells (bits in flagged, may be null) are reported
+    //but neither opened nor expanded; mines stop the fill. Returns this engine for reading results.
+    public CascadeEngine run(int row, int col, BitSet flagged) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Row/col out of range");
+        }
+        openedCount = 0;
+        flaggedCount = 0;
+        int start = row * cols + col;
+
+        if (readOpening(start, flagged)) {
+            return this;
+        }
+        openedCount = 0;
+        flaggedCount = 0;
+        nextGeneration();
+
+        int head = 0;
+        int tail = 0;
+        stamps[start] = generation;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int i = queue[head++];
+            CellType type = board.typeAt(i);
+
+            if (type == CellType.MINE) continue;
+            if (flagged != null && flagged.get(i)) {
+                flaggedHits[flaggedCount++] = i;
+                continue;
+            }
+
+            opened[openedCount++] = i;
+
+            if (!OpeningIndex.isInterior(board, i)) continue;
+
+            int r = i / cols;
+            int c = i - r * cols;
+            int rFrom = (r > 0) ? r - 1 : r;
+            int rTo = (r < rows - 1) ? r + 1 : r;
+            int cFrom = (c > 0) ? c - 1 : c;
+            int cTo = (c < cols - 1) ? c + 1 : c;
+
+            for (int nr = rFrom; nr <= rTo; nr++) {
+                int base = nr * cols;
+                for (int nc = cFrom; nc <= cTo; nc++) {
+                    int n = base + nc;
+                    if (stamps[n] != generation) {
+                        stamps[n] = generation;
+                        queue[tail++] = n;
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    //Copies the precomputed opening of start, filtering flagged border cells.
+    //Returns false when start does not cascade or a flag inside the opening changes its shape.
+    private boolean readOpening(int start, BitSet flagged) {
+        OpeningIndex openings = board.getOpenings();
+        int region = openings.regionOf(start);
+        if (region < 0) {
+            return false;
+        }
+        for (int k = openings.start(region), end = openings.end(region); k < end; k++) {
+            int i = openings.member(k);
+            if (flagged != null && flagged.get(i)) {
+                if (openings.regionOf(i) == region) return false; // interior flag: search instead
+                flaggedHits[flaggedCount++] = i;
+            } else {
+                opened[openedCount++] = i;
+            }
+        }
+        return true;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == 0) { // wrapped after 2^32 runs: start over with a clean array
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    public int getOpenedCount() {
+        return openedCount;
+    }
+
+    //Flat index (row * cols + col) of the i-th opened cell, in fill order.
+    public int getOpened(int i) {
+        return opened[i];
+    }
+
+    public int getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    public int getFlagged(int i) {
+        return flaggedHits[i];
+    }
+
+    //Copy of the opened indices, for callers that keep them past the next run.
+    public int[] openedIndices() {
+        return Arrays.copyOf(opened, openedCount);
+    }
+}
@@ -0,0 +1,429 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming CSV reader shared by the history, players and questions loaders.
+ * It walks a char array row by row and only records where each field starts and ends; a String
+ * is created only when a caller asks for one with {@link #getString}. Ints and enum constants
+ * are read straight from the chars.
+ * Fields are trimmed. A field that starts with a double quote may contain the delimiter, line
+ * breaks and doubled quotes ({@code ""}), as written by SysData's escapeCsv.
+ * Bad values do not throw: the getters return a placeholder and mark the row, which the caller
+ * checks with {@link #hasError()} before using it.
+ * Large inputs can be mapped in parallel with {@link #mapRemaining}, split at row boundaries.
+ */
+final class CsvTokenizer {
+
+    /** Inputs at least this long (in chars) are parsed in parallel chunks. */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private final char[] buf;
+    private final int end;
+    private final char delimiter;
+
+    private int pos;
+    private int line;          // physical line at pos, 1-based
+    private int rowLine;       // line the current row starts on
+
+    private int fields;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];   // quoted field holding "" pairs
+
+    private String error;
+    private CharBuffer view;   // buf as a CharSequence, for DateDecoder
+
+    CsvTokenizer(CharBuffer text, char delimiter) {
+        if (text == null) {
+            throw new IllegalArgumentException("text cannot be null");
+        }
+        if (text.hasArray()) {
+            this.buf = text.array();
+            this.pos = text.arrayOffset() + text.position();
+            this.end = text.arrayOffset() + text.limit();
+        } else {
+            this.buf = text.toString().toCharArray();
+            this.pos = 0;
+            this.end = buf.length;
+        }
+        this.delimiter = delimiter;
+        this.line = 1;
+        if (pos < end && buf[pos] == '\uFEFF') pos++;   // UTF-8 byte order mark
+    }
+
+    private CsvTokenizer(char[] buf, int from, int to, int line, char delimiter) {
+        this.buf = buf;
+        this.pos = from;
+        this.end = to;
+        this.line = line;
+        this.delimiter = delimiter;
+    }
+
+    /** Reads {@code file} and decodes it as UTF-8 in one pass. */
+    static CharBuffer read(Path file) throws IOException {
+        return decode(readBytes(file));
+    }
+
+    /**
+     * Reads {@code file} into a heap buffer (an empty buffer for an empty file).
+     * The files read here are later replaced by SysData's saves; a mapping could not be released
+     * before GC and, on Windows, would keep those replaces from going through.
+     */
+    static ByteBuffer readBytes(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to load");
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) break;   // file shrank since size(): keep what was read
+            }
+            return bytes.flip();
+        }
+    }
+
+    /** Decodes the remaining bytes as UTF-8, for example the part of a file not read before. */
+    static CharBuffer decode(ByteBuffer bytes) {
+        return StandardCharsets.UTF_8.decode(bytes);
+    }
+
+    // ---------------- rows ----------------
+
+    /** Moves to the next row that is not blank. Returns false at the end of the input. */
+    boolean nextRow() {
+        while (pos < end) {
+            scanRow();
+            if (fields > 1 || starts[0] < ends[0]) {
+                return true;
+            }
+        }
+        fields = 0;
+        return false;
+    }
+
+    //Reads one row starting at pos, leaving pos after its line break.
+    private void scanRow() {
+        fields = 0;
+        error = null;
+        rowLine = line;
+        while (true) {
+            while (pos < end && (buf[pos] == ' ' || buf[pos] == '\t')) pos++;
+            int start;
+            int stop;
+            boolean doubled = false;
+            if (pos < end && buf[pos] == '"') {
+                start = ++pos;
+                while (true) {
+                    if (pos >= end) {
+                        stop = pos;
+                        markError("unterminated quoted field");
+                        break;
+                    }
+                    char c = buf[pos];
+                    if (c == '"') {
+                        if (pos + 1 < end && buf[pos + 1] == '"') {
+                            doubled = true;
+                            pos += 2;
+                            continue;
+                        }
+                        stop = pos++;
+                        break;
+                    }
+                    if (c == '\n') line++;
+                    pos++;
+                }
+                // anything between the closing quote and the delimiter is dropped
+                while (pos < end && buf[pos] != delimiter && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+            } else {
+                start = pos;
+                while (pos < end && buf[pos] != delimiter && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+                stop = pos;
+                while (stop > start && (buf[stop - 1] == ' ' || buf[stop - 1] == '\t')) stop--;
+            }
+            addField(start, stop, doubled);
+
+            if (pos < end && buf[pos] == delimiter) {
+                pos++;
+                continue;
+            }
+            if (pos < end && buf[pos] == '\r') pos++;
+            if (pos < end && buf[pos] == '\n') pos++;
+            line++;
+            return;
+        }
+    }
+
+    private void addField(int start, int stop, boolean doubled) {
+        if (fields == starts.length) {
+            int n = fields * 2;
+            starts = Arrays.copyOf(starts, n);
+            ends = Arrays.copyOf(ends, n);
+            escaped = Arrays.copyOf(escaped, n);
+        }
+        starts[fields] = start;
+        ends[fields] = stop;
+        escaped[fields] = doubled;
+        fields++;
+    }
+
+    int fieldCount() {
+        return fields;
+    }
+
+    /** Line of the input the current row starts on (1 is the first line). */
+    int getLineNumber() {
+        return rowLine;
+    }
+
+    /** The current row as it appears in the input, for log messages. */
+    String rowText() {
+        if (fields == 0) return "";
+        int from = starts[0];
+        while (from > 0 && buf[from - 1] != '\n') from--;
+        int to = ends[fields - 1];
+        while (to < end && buf[to] != '\n' && buf[to] != '\r') to++;
+        return new String(buf, from, to - from);
+    }
+
+    // ---------------- errors ----------------
+
+    boolean hasError() {
+        return error != null;
+    }
+
+    /** First problem found in the current row, or null. */
+    String getError() {
+        return error;
+    }
+
+    /** Marks the current row as bad; only the first reason is kept. */
+    void markError(String reason) {
+        if (error == null) {
+            error = reason;
+        }
+    }
+
+    // ---------------- fields ----------------
+
+    /** Length of the field after trimming; 0 for a missing field. */
+    int length(int field) {
+        return (field < fields) ? ends[field] - starts[field] : 0;
+    }
+
+    boolean isBlank(int field) {
+        return length(field) == 0;
+    }
+
+    char charAt(int field, int index) {
+        return buf[starts[field] + index];
+    }
+
+    /** Position of {@code c} inside the field, or -1. */
+    int indexOf(int field, char c) {
+        for (int i = 0, n = length(field); i < n; i++) {
+            if (buf[starts[field] + i] == c) return i;
+        }
+        return -1;
+    }
+
+    /** Whether the field is exactly {@code text}. */
+    boolean matches(int field, String text, boolean ignoreCase) {
+        int n = length(field);
+        if (n != text.length() || escaped[field]) return false;
+        int s = starts[field];
+        for (int i = 0; i < n; i++) {
+            char a = buf[s + i];
+            char b = text.charAt(i);
+            if (a != b && !(ignoreCase && Character.toUpperCase(a) == Character.toUpperCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The field's text, unquoted; "" for a missing field. */
+    String getString(int field) {
+        int n = length(field);
+        if (n == 0) return "";
+        int s = starts[field];
+        if (!escaped[field]) {
+            return new String(buf, s, n);
+        }
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = s, e = s + n; i < e; i++) {
+            sb.append(buf[i]);
+            if (buf[i] == '"') i++;   // "" stands for one quote
+        }
+        return sb.toString();
+    }
+
+    /** Like {@link #getString} but null for a blank field. */
+    String getStringOrNull(int field) {
+        return isBlank(field) ? null : getString(field);
+    }
+
+    /** Whole field as an int; marks the row and returns 0 if it is not one. */
+    int getInt(int field) {
+        return getInt(field, 0, length(field));
+    }
+
+    /** The chars {@code [from, to)} of the field as an int; marks the row and returns 0 if they are not one. */
+    int getInt(int field, int from, int to) {
+        if (from >= to || to > length(field)) {
+            markError("field " + field + " is not a number");
+            return 0;
+        }
+        int i = starts[field] + from;
+        int e = starts[field] + to;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') {
+            i++;
+            if (i == e) {
+                markError("field " + field + " is not a number");
+                return 0;
+            }
+        }
+        long value = 0;
+        for (; i < e; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9 || (value = value * 10 + d) > Integer.MAX_VALUE + 1L) {
+                markError("field " + field + " is not a number");
+                return 0;
+            }
+        }
+        if (!negative && value > Integer.MAX_VALUE) {
+            markError("field " + field + " is out of range");
+            return 0;
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /** The field as an epoch day, or {@link DateDecoder#INVALID}; the row is not marked. */
+    int getEpochDay(int field, DateDecoder decoder) {
+        if (isBlank(field)) return DateDecoder.INVALID;
+        if (view == null) view = CharBuffer.wrap(buf);
+        return decoder.decode(view, starts[field], ends[field]);
+    }
+
+    /** Whether the field is one or more digits and nothing else. */
+    boolean isDigits(int field) {
+        int n = length(field);
+        if (n == 0) return false;
+        for (int i = starts[field], e = i + n; i < e; i++) {
+            if (buf[i] < '0' || buf[i] > '9') return false;
+        }
+        return true;
+    }
+
+    /** Same rule as Boolean.parseBoolean: true only for "true" in any case. */
+    boolean getBoolean(int field) {
+        return matches(field, "true", true);
+    }
+
+    /** The constant whose name is the field, or null; the row is not marked. */
+    <E extends Enum<E>> E matchEnum(int field, E[] constants, boolean ignoreCase) {
+        for (E constant : constants) {
+            if (matches(field, constant.name(), ignoreCase)) return constant;
+        }
+        return null;
+    }
+
+    /** The constant whose name is exactly the field; marks the row and returns null if there is none. */
+    <E extends Enum<E>> E getEnum(int field, E[] constants) {
+        E constant = matchEnum(field, constants, false);
+        if (constant == null) {
+            markError("field " + field + " is not one of the expected values");
+        }
+        return constant;
+    }
+
+    // ---------------- bulk ----------------
+
+    /**
+     * Applies {@code mapper} to every remaining row and returns the non-null results in input order.
+     * Long inputs are cut at row boundaries into one chunk per core and mapped in parallel, each with
+     * its own tokenizer, so the mapper must not share mutable state between rows.
+     */
+    <T> List<T> mapRemaining(Function<CsvTokenizer, T> mapper) {
+        int[] cuts = chunkBounds(Runtime.getRuntime().availableProcessors());
+        int chunks = cuts.length / 2;
+        List<List<T>> parts = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(k -> new CsvTokenizer(buf, cuts[2 * k], (k + 1 < chunks) ? cuts[2 * k + 2] : end,
+                        cuts[2 * k + 1], delimiter).mapAll(mapper))
+                .toList();
+        pos = end;
+        fields = 0;
+
+        List<T> out = new ArrayList<>();
+        for (List<T> part : parts) {
+            out.addAll(part);
+        }
+        return out;
+    }
+
+    private <T> List<T> mapAll(Function<CsvTokenizer, T> mapper) {
+        List<T> out = new ArrayList<>();
+        while (nextRow()) {
+            T value = mapper.apply(this);
+            if (value != null) out.add(value);
+        }
+        return out;
+    }
+
+    //Pairs of (chunk start, line number at that start). Only a line break outside quotes ends a row,
+    //so the scan tracks quote parity; it is a single cheap pass over the chars.
+    private int[] chunkBounds(int parts) {
+        int length = end - pos;
+        if (parts <= 1 || length < PARALLEL_THRESHOLD) {
+            return new int[] { pos, line };
+        }
+        int target = length / parts;
+        int[] cuts = new int[2 * parts];
+        int n = 0;
+        cuts[n++] = pos;
+        cuts[n++] = line;
+        int lineAt = line;
+        int next = pos + target;
+        boolean quoted = false;
+        for (int i = pos; i < end && n < cuts.length; i++) {
+            char c = buf[i];
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < end && buf[i + 1] == '"') i++;
+                    else quoted = false;
+                } else if (c == '\n') {
+                    lineAt++;
+                }
+            } else if (c == '"') {
+                quoted = i == pos || isFieldStart(buf[i - 1]);
+            } else if (c == '\n') {
+                lineAt++;
+                if (!quoted && i + 1 >= next && i + 1 < end) {
+                    cuts[n++] = i + 1;
+                    cuts[n++] = lineAt;
+                    next = i + 1 + target;
+                }
+            }
+        }
+        return Arrays.copyOf(cuts, n);
+    }
+
+    //A quote opens a quoted field only at the start of a field, as in scanRow.
+    private boolean isFieldStart(char previous) {
+        return previous == delimiter || previous == '\n' || previous == '\r' || previous == ' ' || previous == '\t';
+    }
+}
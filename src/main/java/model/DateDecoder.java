@@ -0,0 +1,133 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Reads the dates found in the history CSV straight into an epoch day, without exceptions.
+ * Accepted layouts are the ones SysData has always read: ISO {@code yyyy-MM-dd} (what it writes)
+ * and month-first {@code M/d/yyyy} or {@code M-d-yyyy} (older and hand-edited files).
+ * The layout is told apart by where the first separator is: after four digits it is ISO, after
+ * one or two it is month-first. One decoder is used per file and remembers the last layout it saw,
+ * so a file written in one layout costs a single check per row.
+ * Month-first dates past the end of the month (e.g. 2/30/2025) are moved to its last day, as
+ * SysData's month-first formatter did; ISO dates must be exact.
+ */
+public final class DateDecoder {
+
+    /** Returned for text that is not a date in any accepted layout. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private enum Layout { ISO, MONTH_FIRST }
+
+    //Shared between the chunks of one parallel load; a stale read only costs a re-sniff.
+    private Layout last = Layout.ISO;
+
+    /** Epoch day of {@code text} (trimmed), or {@link #INVALID}. */
+    public int decode(CharSequence text) {
+        if (text == null) return INVALID;
+        int from = 0;
+        int to = text.length();
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        return decode(text, from, to);
+    }
+
+    /** Epoch day of the chars {@code [from, to)} of {@code text}, or {@link #INVALID}. */
+    public int decode(CharSequence text, int from, int to) {
+        Layout layout = last;
+        int day = decode(text, from, to, layout);
+        if (day != INVALID) return day;
+
+        Layout sniffed = sniff(text, from, to);
+        if (sniffed == null || sniffed == layout) return INVALID;
+        day = decode(text, from, to, sniffed);
+        if (day != INVALID) last = sniffed;
+        return day;
+    }
+
+    /** Like {@link #decode(CharSequence)} but as a LocalDate; null when invalid. */
+    public LocalDate toLocalDate(CharSequence text) {
+        int day = decode(text);
+        return (day == INVALID) ? null : LocalDate.ofEpochDay(day);
+    }
+
+    //Where the first separator sits decides the layout; null if it fits neither.
+    private static Layout sniff(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '-' || c == '/') {
+                int digits = i - from;
+                if (digits == 4) return Layout.ISO;
+                if (digits == 1 || digits == 2) return Layout.MONTH_FIRST;
+                return null;
+            }
+            if (c < '0' || c > '9') return null;
+        }
+        return null;
+    }
+
+    private static int decode(CharSequence s, int from, int to, Layout layout) {
+        if (layout == Layout.ISO) {
+            // yyyy-MM-dd, fixed width
+            if (to - from != 10 || s.charAt(from + 4) != '-' || s.charAt(from + 7) != '-') return INVALID;
+            int year = digits(s, from, from + 4);
+            int month = digits(s, from + 5, from + 7);
+            int day = digits(s, from + 8, from + 10);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) return INVALID;
+            return epochDay(year, month, day);
+        }
+
+        // M/d/yyyy or M-d-yyyy: one or two digits each for month and day, one separator kind
+        int sep1 = from + 1;
+        if (sep1 < to && isDigit(s.charAt(sep1))) sep1++;
+        if (sep1 >= to) return INVALID;
+        char sep = s.charAt(sep1);
+        if (sep != '/' && sep != '-') return INVALID;
+        int sep2 = sep1 + 2;
+        if (sep2 < to && isDigit(s.charAt(sep2))) sep2++;
+        if (sep2 >= to || s.charAt(sep2) != sep || to - sep2 - 1 != 4) return INVALID;
+
+        int month = digits(s, from, sep1);
+        int day = digits(s, sep1 + 1, sep2);
+        int year = digits(s, sep2 + 1, to);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return INVALID;
+        return epochDay(year, month, Math.min(day, lengthOfMonth(year, month)));
+    }
+
+    //Value of the decimal digits in [from, to), or -1 if any char is not a digit.
+    private static int digits(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    //Same arithmetic as LocalDate.toEpochDay, for years 0..9999.
+    static int epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (lengthOfMonth(year, 2) == 28) total--;
+        }
+        return (int) (total - 719_528);
+    }
+}
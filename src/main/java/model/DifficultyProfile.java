@@ -0,0 +1,186 @@
+package model;
+
+import java.util.Objects;
+
+//Board size and special-cell counts for a single match.
+//The three built-in profiles mirror the Difficulty enum one to one. Custom profiles choose
+//their own size (up to MAX_SIZE x MAX_SIZE) and are scored with the built-in tier whose
+//mine density is closest, so hearts, bonuses and penalties keep working unchanged.
+public final class DifficultyProfile {
+
+    public static final int MIN_SIZE = 5;
+    public static final int MAX_SIZE = 500;
+
+    //Keeps room for the 3x3 neighbourhood of the first click on the densest board allowed.
+    private static final double MAX_SPECIAL_DENSITY = 0.85;
+
+    private static final String CUSTOM_PREFIX = "CUSTOM:";
+
+    private static final DifficultyProfile[] BUILT_IN = new DifficultyProfile[Difficulty.values().length];
+    static {
+        for (Difficulty d : Difficulty.values()) {
+            BUILT_IN[d.ordinal()] = new DifficultyProfile(d, false, d.getRows(), d.getCols(),
+                    d.getMines(), d.getQuestions(), d.getSurprises());
+        }
+    }
+
+    private final Difficulty tier;
+    private final boolean custom;
+    private final int rows;
+    private final int cols;
+    private final int mines;
+    private final int questions;
+    private final int surprises;
+
+    private DifficultyProfile(Difficulty tier, boolean custom, int rows, int cols,
+                              int mines, int questions, int surprises) {
+        this.tier = tier;
+        this.custom = custom;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.questions = questions;
+        this.surprises = surprises;
+    }
+
+    public static DifficultyProfile of(Difficulty difficulty) {
+        if (difficulty == null) {
+            throw new IllegalArgumentException("difficulty cannot be null");
+        }
+        return BUILT_IN[difficulty.ordinal()];
+    }
+
+    //Custom board from exact counts.
+    public static DifficultyProfile custom(int rows, int cols, int mines, int questions, int surprises) {
+        if (rows < MIN_SIZE || rows > MAX_SIZE || cols < MIN_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Board size must be between " + MIN_SIZE + " and " + MAX_SIZE + " on each side");
+        }
+        if (mines < 1 || questions < 0 || surprises < 0) {
+            throw new IllegalArgumentException("Board needs at least one mine and no negative counts");
+        }
+        int cells = rows * cols;
+        if (mines + questions + surprises > (int) (cells * MAX_SPECIAL_DENSITY)) {
+            throw new IllegalArgumentException("Too many special cells for a " + rows + "x" + cols + " board");
+        }
+        return new DifficultyProfile(tierFor((double) mines / cells), true, rows, cols, mines, questions, surprises);
+    }
+
+    //Custom board from densities (fractions of the cell count, e.g. 0.15 for 15%).
+    public static DifficultyProfile fromDensities(int rows, int cols, double mineDensity,
+                                                  double questionDensity, double surpriseDensity) {
+        if (rows < MIN_SIZE || rows > MAX_SIZE || cols < MIN_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Board size must be between " + MIN_SIZE + " and " + MAX_SIZE + " on each side");
+        }
+        int cells = rows * cols;
+        return custom(rows, cols,
+                Math.max(1, (int) Math.round(cells * mineDensity)),
+                (int) Math.round(cells * questionDensity),
+                (int) Math.round(cells * surpriseDensity));
+    }
+
+    //Built-in tier with the closest mine density.
+    private static Difficulty tierFor(double mineDensity) {
+        Difficulty best = Difficulty.EASY;
+        double bestDistance = Double.MAX_VALUE;
+        for (Difficulty d : Difficulty.values()) {
+            double density = (double) d.getMines() / (d.getRows() * d.getCols());
+            double distance = Math.abs(density - mineDensity);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    //Built-in profiles encode as the enum name, custom ones as CUSTOM:RxC:mines:questions:surprises.
+    public String encode() {
+        if (!custom) {
+            return tier.name();
+        }
+        return CUSTOM_PREFIX + rows + "x" + cols + ":" + mines + ":" + questions + ":" + surprises;
+    }
+
+    public static DifficultyProfile decode(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Empty difficulty profile");
+        }
+        String t = text.trim();
+        if (!t.startsWith(CUSTOM_PREFIX)) {
+            return of(Difficulty.valueOf(t));
+        }
+        String[] parts = t.substring(CUSTOM_PREFIX.length()).split(":");
+        String[] size = (parts.length == 4) ? parts[0].split("x") : new String[0];
+        if (size.length != 2) {
+            throw new IllegalArgumentException("Malformed difficulty profile: " + text);
+        }
+        try {
+            return custom(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed difficulty profile: " + text, e);
+        }
+    }
+
+    //"Easy", "Medium", "Hard" or "Custom 40x60".
+    public String getDisplayName() {
+        if (custom) {
+            return "Custom " + rows + "x" + cols;
+        }
+        String n = tier.name();
+        return n.charAt(0) + n.substring(1).toLowerCase();
+    }
+
+    public Difficulty getTier() {
+        return tier;
+    }
+
+    public boolean isCustom() {
+        return custom;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public int getQuestions() {
+        return questions;
+    }
+
+    public int getSurprises() {
+        return surprises;
+    }
+
+    public int getInitialLives() {
+        return tier.getInitialLives();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DifficultyProfile other)) return false;
+        return custom == other.custom && tier == other.tier
+                && rows == other.rows && cols == other.cols
+                && mines == other.mines && questions == other.questions && surprises == other.surprises;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tier, custom, rows, cols, mines, questions, surprises);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
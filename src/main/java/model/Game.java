@@ -11,6 +11,7 @@ public class Game {
     private final String player1Nickname;
     private final String player2Nickname;
     private final Difficulty difficulty;
+    private final DifficultyProfile boardProfile; //exact board the match was played on
     private final int finalScore;
     private final GameResult result;
     private final LocalDate date;       
@@ -18,6 +19,8 @@ public class Game {
     private final boolean winWithoutMistakes;
     private final String player1AvatarPath;
     private final String player2AvatarPath;
+    private final BoardMetrics metrics; //3BV etc. of both boards, UNKNOWN for older records
+    private final int clicks;           //player actions in the match, 0 if not recorded
 
 
 
@@ -37,12 +40,49 @@ public class Game {
             boolean winWithoutMistakes,
             String player1AvatarPath,
             String player2AvatarPath) {
+        this(player1OfficialName, player2OfficialName, player1Nickname, player2Nickname,
+                DifficultyProfile.of(difficulty), score, result, date, durationSeconds,
+                winWithoutMistakes, player1AvatarPath, player2AvatarPath);
+    }
+
+    public Game(String player1OfficialName,
+            String player2OfficialName,
+            String player1Nickname,
+            String player2Nickname,
+            DifficultyProfile boardProfile,
+            int score,
+            GameResult result,
+            LocalDate date,
+            int durationSeconds,
+            boolean winWithoutMistakes,
+            String player1AvatarPath,
+            String player2AvatarPath) {
+        this(player1OfficialName, player2OfficialName, player1Nickname, player2Nickname,
+                boardProfile, score, result, date, durationSeconds,
+                winWithoutMistakes, player1AvatarPath, player2AvatarPath, BoardMetrics.UNKNOWN, 0);
+    }
+
+    public Game(String player1OfficialName,
+            String player2OfficialName,
+            String player1Nickname,
+            String player2Nickname,
+            DifficultyProfile boardProfile,
+            int score,
+            GameResult result,
+            LocalDate date,
+            int durationSeconds,
+            boolean winWithoutMistakes,
+            String player1AvatarPath,
+            String player2AvatarPath,
+            BoardMetrics metrics,
+            int clicks) {
 
     this.player1OfficialName = player1OfficialName;
     this.player2OfficialName = player2OfficialName;
     this.player1Nickname = player1Nickname;
     this.player2Nickname = player2Nickname;
-    this.difficulty = difficulty;
+    this.boardProfile = boardProfile;
+    this.difficulty = boardProfile.getTier();
     this.finalScore = score;
     this.result = result;
     this.date = date;
@@ -50,6 +90,8 @@ public class Game {
     this.winWithoutMistakes = winWithoutMistakes;
     this.player1AvatarPath = player1AvatarPath;
     this.player2AvatarPath = player2AvatarPath;
+    this.metrics = (metrics != null) ? metrics : BoardMetrics.UNKNOWN;
+    this.clicks = Math.max(0, clicks);
 }
     
     public boolean isWinWithoutMistakes() {
@@ -98,6 +140,14 @@ public class Game {
 		return difficulty;
 	}
 
+	public DifficultyProfile getBoardProfile() {
+		return boardProfile;
+	}
+
+	public boolean isCustomBoard() {
+		return boardProfile.isCustom();
+	}
+
 	public int getFinalScore() {
 		return finalScore;
 	}
@@ -122,6 +172,24 @@ public class Game {
 		return player2AvatarPath;
 	}
 
+	public BoardMetrics getMetrics() {
+		return metrics;
+	}
+
+	public int getClicks() {
+		return clicks;
+	}
+
+	//3BV per second: speed normalized by how hard the layout was. 0 when unknown.
+	public double get3BVPerSecond() {
+		return metrics.perSecond(durationSeconds);
+	}
+
+	//3BV / clicks in percent. 0 when unknown.
+	public double getEfficiency() {
+		return metrics.efficiency(clicks);
+	}
+
 	public static DateTimeFormatter getTimeFormatter() {
 		return TIME_FORMATTER;
 	}
@@ -130,9 +198,10 @@ public class Game {
 	public String toString() {
 		return "Game [player1OfficialName=" + player1OfficialName + ", player2OfficialName=" + player2OfficialName
 				+ ", player1Nickname=" + player1Nickname + ", player2Nickname=" + player2Nickname + ", difficulty="
-				+ difficulty + ", finalScore=" + finalScore + ", result=" + result + ", date=" + date
+				+ difficulty + ", boardProfile=" + boardProfile + ", finalScore=" + finalScore + ", result=" + result + ", date=" + date
 				+ ", durationSeconds=" + durationSeconds + ", winWithoutMistakes=" + winWithoutMistakes
-				+ ", player1AvatarPath=" + player1AvatarPath + ", player2AvatarPath=" + player2AvatarPath + "]";
+				+ ", player1AvatarPath=" + player1AvatarPath + ", player2AvatarPath=" + player2AvatarPath
+				+ ", metrics=" + metrics + ", clicks=" + clicks + "]";
 	}
 
    
@@ -4,16 +4,36 @@ public class GameConfig {
 
     public GameConfig(String player1Nickname, String player2Nickname, Difficulty difficulty, String player1AvatarPath,
 			String player2AvatarPath) {
+		this(player1Nickname, player2Nickname, DifficultyProfile.of(difficulty), player1AvatarPath, player2AvatarPath);
+	}
+
+    public GameConfig(String player1Nickname, String player2Nickname, DifficultyProfile profile, String player1AvatarPath,
+			String player2AvatarPath) {
+		this(player1Nickname, player2Nickname, profile, player1AvatarPath, player2AvatarPath, BoardRendering.TILES);
+	}
+
+    public GameConfig(String player1Nickname, String player2Nickname, DifficultyProfile profile, String player1AvatarPath,
+			String player2AvatarPath, BoardRendering boardRendering) {
+		this(player1Nickname, player2Nickname, profile, player1AvatarPath, player2AvatarPath, boardRendering, false);
+	}
+
+    //noGuess: both boards come from the no-guess generator (solvable from their safe start without guessing).
+    public GameConfig(String player1Nickname, String player2Nickname, DifficultyProfile profile, String player1AvatarPath,
+			String player2AvatarPath, BoardRendering boardRendering, boolean noGuess) {
 		super();
 		this.player1Nickname = player1Nickname;
 		this.player2Nickname = player2Nickname;
-		this.difficulty = difficulty;
+		this.profile = profile;
 		this.player1AvatarPath = player1AvatarPath;
 		this.player2AvatarPath = player2AvatarPath;
+		this.boardRendering = BoardRendering.effectiveFor(boardRendering, profile); // boards past MAX_TILE_SIDE use the canvas
+		this.noGuess = noGuess;
 	}
 	private final String player1Nickname;
     private final String player2Nickname;
-    private final Difficulty difficulty;
+    private final DifficultyProfile profile;
+    private final BoardRendering boardRendering;
+    private final boolean noGuess;
     
  // avatar paths (classpath or file: URL)
     private final String player1AvatarPath;
@@ -24,8 +44,18 @@ public class GameConfig {
 	public String getPlayer2Nickname() {
 		return player2Nickname;
 	}
+	//Scoring tier (closest built-in difficulty for custom boards).
 	public Difficulty getDifficulty() {
-		return difficulty;
+		return profile.getTier();
+	}
+	public DifficultyProfile getProfile() {
+		return profile;
+	}
+	public BoardRendering getBoardRendering() {
+		return boardRendering;
+	}
+	public boolean isNoGuess() {
+		return noGuess;
 	}
 	public String getPlayer1AvatarPath() {
 		return player1AvatarPath;
@@ -36,7 +66,7 @@ public class GameConfig {
 	@Override
 	public String toString() {
 		return "GameConfig [player1Nickname=" + player1Nickname + ", player2Nickname=" + player2Nickname
-				+ ", difficulty=" + difficulty + ", player1AvatarPath=" + player1AvatarPath + ", player2AvatarPath="
+				+ ", profile=" + profile + ", boardRendering=" + boardRendering + ", noGuess=" + noGuess + ", player1AvatarPath=" + player1AvatarPath + ", player2AvatarPath="
 				+ player2AvatarPath + "]";
 	}
 
@@ -1,39 +1,64 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-//Holds the list of all past games and it acts as an in-memory "history" that the History screen will display.
+//Holds all past games and it acts as an in-memory "history" that the History screen will display.
+//Games are kept column by column in a HistoryStore, not as Game objects; columns() hands out a
+//read-only snapshot for scans, getGames() one that builds Game objects as they are read.
+//Writes happen on the FX thread (and the loader); snapshots can be read from any thread.
 
 public class History {
 
-    private final List<Game> games = new ArrayList<>();
+    private HistoryStore store = new HistoryStore();
 
 
     //Add a finished game to the history.
-    public void addGame(Game game) {
+    public synchronized void addGame(Game game) {
         if (game == null) {
             throw new IllegalArgumentException("game cannot be null");
         }
-        games.add(game);
+        store.add(game);
     }
 
-    //return an unmodifiable list of all games (to avoid external modification).
+    //Add games loaded from disk, in order, under one lock.
+    public synchronized void addAll(List<Game> loaded) {
+        for (Game game : loaded) {
+            addGame(game);
+        }
+    }
+
+    //Replace the contents with columns read back from a history segment.
+    public synchronized void load(HistoryStore loaded) {
+        if (loaded == null) {
+            throw new IllegalArgumentException("loaded cannot be null");
+        }
+        store = loaded;
+    }
+
+    //Read-only list of all games as of now (later games do not show up in it).
     public List<Game> getGames() {
-        return Collections.unmodifiableList(games);
+        return columns().asGames();
+    }
+
+    //Point-in-time copy of all games, safe to read from another thread.
+    public synchronized List<Game> snapshot() {
+        return store.asGames();
     }
 
+    //Point-in-time columns, for scanning without building Game objects.
+    public synchronized HistoryStore columns() {
+        return store.snapshot();
+    }
 
-    public void clear() {
-        games.clear();
+    public synchronized void clear() {
+        store = new HistoryStore();
     }
 
-    public int size() {
-        return games.size();
+    public synchronized int size() {
+        return store.size();
     }
 
-    public boolean isEmpty() {
-        return games.isEmpty();
+    public synchronized boolean isEmpty() {
+        return store.size() == 0;
     }
 }
@@ -0,0 +1,190 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only writer for the history CSV.
+ * A finished game costs one appended line, however long the history already is.
+ * The whole file is rewritten ("compacted") after {@link #COMPACT_AFTER_APPENDS} appends, and
+ * periodically while appends are pending: this drops legacy or malformed rows and refreshes the
+ * header. Compaction writes a temp file next to the history and renames it over the original, so
+ * a crash leaves either the old or the new file.
+ * All file IO runs in order on the given writer (the persistence queue in the application), so an
+ * append queued before a compaction is written before it, and one queued after lands after it.
+ * After a compaction the listener gets the records and the exact bytes written (SysData refreshes
+ * the history segment from them).
+ * The periodic check runs on one daemon thread shared by all logs; {@link #close} stops a log's check.
+ */
+final class HistoryLog {
+
+    /** Appends after which a compaction is queued. */
+    static final int COMPACT_AFTER_APPENDS = 64;
+
+    /** How often pending appends are compacted even below the threshold. */
+    private static final long COMPACT_INTERVAL_MINUTES = 10;
+
+    private static final Logger LOG = Logger.getLogger(HistoryLog.class.getName());
+
+    private final Path file;
+    private final String header;
+    private final Supplier<List<Game>> snapshot;
+    private final Function<Game, String> format;
+    private final Executor writer;
+    private final BiConsumer<List<Game>, byte[]> compacted;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "history-compactor");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final Object lock = new Object();
+    private int appendsSinceCompaction;
+    private final ScheduledFuture<?> periodicCompaction;
+
+    /**
+     * @param snapshot copy of every record that belongs in the file; it is taken under the same lock
+     *                 as {@link #append}, so each record is either in a compaction or appended after it
+     * @param format   one CSV line per record, without a line break
+     * @param writer   runs the file IO, in submission order
+     */
+    HistoryLog(Path file, String header, Supplier<List<Game>> snapshot, Function<Game, String> format,
+               Executor writer) {
+        this(file, header, snapshot, format, writer, (records, bytes) -> { });
+    }
+
+    /**
+     * @param compacted called on the writer after each successful compaction, with the records
+     *                  and the file contents written for them
+     */
+    HistoryLog(Path file, String header, Supplier<List<Game>> snapshot, Function<Game, String> format,
+               Executor writer, BiConsumer<List<Game>, byte[]> compacted) {
+        if (file == null || header == null || snapshot == null || format == null || writer == null
+                || compacted == null) {
+            throw new IllegalArgumentException("file, header, snapshot, format, writer and listener are required");
+        }
+        this.file = file;
+        this.header = header;
+        this.snapshot = snapshot;
+        this.format = format;
+        this.writer = writer;
+        this.compacted = compacted;
+        periodicCompaction = TIMER.scheduleWithFixedDelay(this::compactIfPending,
+                COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Runs {@code update} (adding the record to memory) and queues the append of the record's line,
+     * as one step with respect to compaction. Only the new line is written.
+     */
+    void append(Runnable update, Game game) {
+        synchronized (lock) {
+            update.run();
+            String line = format.apply(game);
+            writer.execute(() -> {
+                try {
+                    appendLine(line);
+                } catch (IOException e) {
+                    // the next compaction writes the record again from memory
+                    LOG.log(Level.WARNING, "Could not append to " + file, e);
+                }
+            });
+            if (++appendsSinceCompaction >= COMPACT_AFTER_APPENDS) {
+                queueCompaction();
+            }
+        }
+    }
+
+    /** Queues a full rewrite of the file from the current snapshot. */
+    void compact() {
+        synchronized (lock) {
+            queueCompaction();
+        }
+    }
+
+    /** Stops the periodic compaction check; queued writes still run. */
+    void close() {
+        periodicCompaction.cancel(false);
+    }
+
+    /** Appends not yet folded into a compaction. */
+    int getPendingAppends() {
+        synchronized (lock) {
+            return appendsSinceCompaction;
+        }
+    }
+
+    private void compactIfPending() {
+        synchronized (lock) {
+            if (appendsSinceCompaction > 0) {
+                queueCompaction();
+            }
+        }
+    }
+
+    //Caller holds the lock; records are immutable, so they are formatted on the writer.
+    private void queueCompaction() {
+        List<Game> records = snapshot.get();
+        appendsSinceCompaction = 0;
+        writer.execute(() -> {
+            StringBuilder sb = new StringBuilder(header).append(System.lineSeparator());
+            for (Game game : records) {
+                sb.append(format.apply(game)).append(System.lineSeparator());
+            }
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                PersistenceQueue.writeAtomically(file, ByteBuffer.wrap(bytes));
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "History compaction failed; appended rows are kept", e);
+                return;
+            }
+            compacted.accept(records, bytes);
+        });
+    }
+
+    //A new or empty file gets the header first; a last row without a line break (hand-edited
+    //file) gets one, so the new row does not run into it.
+    private void appendLine(String line) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        boolean needsBreak = !fresh && !endsWithLineBreak();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (fresh) {
+                out.write(header);
+                out.newLine();
+            } else if (needsBreak) {
+                out.newLine();
+            }
+            out.write(line);
+            out.newLine();
+        }
+    }
+
+    private boolean endsWithLineBreak() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            return last == '\n' || last == '\r';
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Column-per-field storage of the game history: one primitive array per field instead of one
+ * Game object (six Strings and a LocalDate) per match. Names, nicknames, avatars and custom board
+ * profiles are dictionary-encoded, so each distinct text is held once and rows keep an int id
+ * ({@link #NONE} for a missing value). Dates are epoch days ({@link DateDecoder#INVALID} if missing).
+ * Leaderboard, stats and filtering scan the columns; {@link #game(int)} and {@link #asGames()}
+ * build Game objects only for rows that are actually shown.
+ *
+ * Rows are only ever appended, so {@link #snapshot()} is cheap: the frozen copy shares the arrays
+ * and just remembers how many rows it covers; arrays are replaced, never changed, when they grow.
+ *
+ * The columns can be saved as a segment file ({@link #writeSegment}) and read back
+ * ({@link #readSegment}). A segment records how many bytes of the history CSV it holds and their
+ * CRC-32, so a loader can take the segment and parse only the rows appended to the CSV since.
+ */
+public final class HistoryStore {
+
+    /** Dictionary id of a missing (null) text. */
+    public static final int NONE = -1;
+
+    private static final Logger LOG = Logger.getLogger(HistoryStore.class.getName());
+
+    private static final int MAGIC = 0x48535431;   // "HST1"
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final GameResult[] RESULTS = GameResult.values();
+    private static final byte FLAG_NO_MISTAKES = 1;
+
+    private final boolean frozen;
+    private int size;
+
+    private int[] day;
+    private int[] duration;
+    private int[] score;
+    private byte[] difficulty;
+    private byte[] result;       // ordinal, or -1 if missing
+    private byte[] flags;
+    private int[] nick1;
+    private int[] nick2;
+    private int[] official1;
+    private int[] official2;
+    private int[] avatar1;
+    private int[] avatar2;
+    private int[] profile;       // encoded custom profile, NONE for the built-in difficulties
+    private int[] bbbv;
+    private int[] openings;
+    private int[] islands;
+    private int[] clicks;
+
+    private String[] names;
+    private int nameCount;
+    private final Map<String, Integer> ids;   // writer side only; null when frozen
+
+    public HistoryStore() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    private HistoryStore(int rows, int dictionary) {
+        this.frozen = false;
+        this.ids = new HashMap<>();
+        allocate(rows);
+        this.names = new String[dictionary];
+    }
+
+    private HistoryStore(HistoryStore source) {
+        this.frozen = true;
+        this.ids = null;
+        this.size = source.size;
+        this.day = source.day;
+        this.duration = source.duration;
+        this.score = source.score;
+        this.difficulty = source.difficulty;
+        this.result = source.result;
+        this.flags = source.flags;
+        this.nick1 = source.nick1;
+        this.nick2 = source.nick2;
+        this.official1 = source.official1;
+        this.official2 = source.official2;
+        this.avatar1 = source.avatar1;
+        this.avatar2 = source.avatar2;
+        this.profile = source.profile;
+        this.bbbv = source.bbbv;
+        this.openings = source.openings;
+        this.islands = source.islands;
+        this.clicks = source.clicks;
+        this.names = source.names;
+        this.nameCount = source.nameCount;
+    }
+
+    /** The rows of {@code games} as columns; a list from {@link #asGames()} is unwrapped, not copied. */
+    public static HistoryStore of(List<Game> games) {
+        if (games instanceof GameList) {
+            return ((GameList) games).store;
+        }
+        HistoryStore store = new HistoryStore(Math.max(INITIAL_CAPACITY, games.size()), INITIAL_CAPACITY);
+        for (Game game : games) {
+            store.add(game);
+        }
+        return store.snapshot();
+    }
+
+    // ---------------- writing ----------------
+
+    public void add(Game game) {
+        if (game == null) {
+            throw new IllegalArgumentException("game cannot be null");
+        }
+        if (frozen) {
+            throw new IllegalStateException("history snapshot is read-only");
+        }
+        if (size == day.length) {
+            grow(size * 2);
+        }
+        int i = size;
+        day[i] = (game.getDate() == null) ? DateDecoder.INVALID : (int) game.getDate().toEpochDay();
+        duration[i] = game.getDurationSeconds();
+        score[i] = game.getFinalScore();
+        difficulty[i] = (byte) game.getDifficulty().ordinal();
+        result[i] = (byte) ((game.getResult() == null) ? -1 : game.getResult().ordinal());
+        flags[i] = game.isWinWithoutMistakes() ? FLAG_NO_MISTAKES : 0;
+        nick1[i] = idOf(game.getPlayer1Nickname());
+        nick2[i] = idOf(game.getPlayer2Nickname());
+        official1[i] = idOf(game.getPlayer1OfficialName());
+        official2[i] = idOf(game.getPlayer2OfficialName());
+        avatar1[i] = idOf(game.getPlayer1AvatarPath());
+        avatar2[i] = idOf(game.getPlayer2AvatarPath());
+        profile[i] = game.isCustomBoard() ? idOf(game.getBoardProfile().encode()) : NONE;
+        BoardMetrics m = game.getMetrics();
+        bbbv[i] = m.get3BV();
+        openings[i] = m.getOpenings();
+        islands[i] = m.getIslands();
+        clicks[i] = game.getClicks();
+        size = i + 1;
+    }
+
+    /** Read-only copy of the rows added so far; later adds do not show up in it. */
+    public HistoryStore snapshot() {
+        return frozen ? this : new HistoryStore(this);
+    }
+
+    private int idOf(String text) {
+        if (text == null) return NONE;
+        Integer id = ids.get(text);
+        if (id != null) return id;
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+        }
+        names[nameCount] = text;
+        ids.put(text, nameCount);
+        return nameCount++;
+    }
+
+    private void allocate(int rows) {
+        day = new int[rows];
+        duration = new int[rows];
+        score = new int[rows];
+        difficulty = new byte[rows];
+        result = new byte[rows];
+        flags = new byte[rows];
+        nick1 = new int[rows];
+        nick2 = new int[rows];
+        official1 = new int[rows];
+        official2 = new int[rows];
+        avatar1 = new int[rows];
+        avatar2 = new int[rows];
+        profile = new int[rows];
+        bbbv = new int[rows];
+        openings = new int[rows];
+        islands = new int[rows];
+        clicks = new int[rows];
+    }
+
+    //New arrays rather than in-place growth, so snapshots keep theirs.
+    private void grow(int rows) {
+        day = Arrays.copyOf(day, rows);
+        duration = Arrays.copyOf(duration, rows);
+        score = Arrays.copyOf(score, rows);
+        difficulty = Arrays.copyOf(difficulty, rows);
+        result = Arrays.copyOf(result, rows);
+        flags = Arrays.copyOf(flags, rows);
+        nick1 = Arrays.copyOf(nick1, rows);
+        nick2 = Arrays.copyOf(nick2, rows);
+        official1 = Arrays.copyOf(official1, rows);
+        official2 = Arrays.copyOf(official2, rows);
+        avatar1 = Arrays.copyOf(avatar1, rows);
+        avatar2 = Arrays.copyOf(avatar2, rows);
+        profile = Arrays.copyOf(profile, rows);
+        bbbv = Arrays.copyOf(bbbv, rows);
+        openings = Arrays.copyOf(openings, rows);
+        islands = Arrays.copyOf(islands, rows);
+        clicks = Arrays.copyOf(clicks, rows);
+    }
+
+    // ---------------- columns ----------------
+
+    public int size() {
+        return size;
+    }
+
+    public int getEpochDay(int row) {
+        return day[check(row)];
+    }
+
+    public int getDurationSeconds(int row) {
+        return duration[check(row)];
+    }
+
+    public int getScore(int row) {
+        return score[check(row)];
+    }
+
+    public Difficulty getDifficulty(int row) {
+        return DIFFICULTIES[difficulty[check(row)]];
+    }
+
+    public boolean isCustomBoard(int row) {
+        return profile[check(row)] != NONE;
+    }
+
+    /** Null if the record had no result. */
+    public GameResult getResult(int row) {
+        int r = result[check(row)];
+        return (r < 0) ? null : RESULTS[r];
+    }
+
+    public boolean isWinWithoutMistakes(int row) {
+        return (flags[check(row)] & FLAG_NO_MISTAKES) != 0;
+    }
+
+    public int getPlayer1Nickname(int row) {
+        return nick1[check(row)];
+    }
+
+    public int getPlayer2Nickname(int row) {
+        return nick2[check(row)];
+    }
+
+    public int getPlayer1Official(int row) {
+        return official1[check(row)];
+    }
+
+    public int getPlayer2Official(int row) {
+        return official2[check(row)];
+    }
+
+    /** Same as Game.get3BVPerSecond, from the columns. */
+    public double get3BVPerSecond(int row) {
+        int d = duration[check(row)];
+        return (bbbv[row] > 0 && d > 0) ? (double) bbbv[row] / d : 0.0;
+    }
+
+    /** Same as Game.getEfficiency, from the columns. */
+    public double getEfficiency(int row) {
+        int c = clicks[check(row)];
+        return (bbbv[row] > 0 && c > 0) ? bbbv[row] * 100.0 / c : 0.0;
+    }
+
+    /** Number of distinct texts; ids run from 0 to this value (exclusive). */
+    public int getDictionarySize() {
+        return nameCount;
+    }
+
+    /** The text with dictionary id {@code id}, or null for {@link #NONE}. */
+    public String getText(int id) {
+        if (id == NONE) return null;
+        if (id < 0 || id >= nameCount) {
+            throw new IllegalArgumentException("Unknown dictionary id: " + id);
+        }
+        return names[id];
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IllegalArgumentException("Row out of range: " + row);
+        }
+        return row;
+    }
+
+    // ---------------- rows as games ----------------
+
+    /** Builds the Game stored in {@code row}. */
+    public Game game(int row) {
+        check(row);
+        int epochDay = day[row];
+        return new Game(
+                getText(official1[row]),
+                getText(official2[row]),
+                getText(nick1[row]),
+                getText(nick2[row]),
+                profileOf(row),
+                score[row],
+                getResult(row),
+                (epochDay == DateDecoder.INVALID) ? null : LocalDate.ofEpochDay(epochDay),
+                duration[row],
+                isWinWithoutMistakes(row),
+                getText(avatar1[row]),
+                getText(avatar2[row]),
+                (bbbv[row] > 0) ? BoardMetrics.of(bbbv[row], openings[row], islands[row]) : BoardMetrics.UNKNOWN,
+                clicks[row]);
+    }
+
+    private DifficultyProfile profileOf(int row) {
+        Difficulty tier = getDifficulty(row);
+        if (profile[row] == NONE) {
+            return DifficultyProfile.of(tier);
+        }
+        try {
+            return DifficultyProfile.decode(names[profile[row]]);
+        } catch (IllegalArgumentException e) {
+            return DifficultyProfile.of(tier);
+        }
+    }
+
+    /** Read-only list over a snapshot of the rows; each get builds its Game on demand. */
+    public List<Game> asGames() {
+        return new GameList(snapshot());
+    }
+
+    private static final class GameList extends AbstractList<Game> implements RandomAccess {
+        private final HistoryStore store;
+
+        GameList(HistoryStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public Game get(int index) {
+            return store.game(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size;
+        }
+    }
+
+    // ---------------- segment file ----------------
+
+    /** A segment read back from disk, with the part of the CSV it was built from. */
+    public static final class Segment {
+        private final HistoryStore store;
+        private final long csvBytes;
+        private final long csvCrc;
+
+        private Segment(HistoryStore store, long csvBytes, long csvCrc) {
+            this.store = store;
+            this.csvBytes = csvBytes;
+            this.csvCrc = csvCrc;
+        }
+
+        public HistoryStore getStore() {
+            return store;
+        }
+
+        /** Length of the CSV prefix whose rows the segment holds. */
+        public long getCsvBytes() {
+            return csvBytes;
+        }
+
+        /** CRC-32 of that prefix. */
+        public long getCsvCrc() {
+            return csvCrc;
+        }
+    }
+
+    /**
+     * Writes the columns to {@code file} (through a temp file and a rename), tagged with the CSV
+     * prefix they were built from. Layout: header, dictionary, then each column as one block.
+     */
+    public void writeSegment(Path file, long csvBytes, long csvCrc) throws IOException {
+        byte[][] encoded = new byte[nameCount][];
+        long length = 4 + 4 + 8 + 8 + 4 + 4;
+        for (int i = 0; i < nameCount; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            length += 4 + encoded[i].length;
+        }
+        length += (long) size * (14 * 4 + 3);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("History too large for one segment: " + size + " rows");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) length);
+        out.putInt(MAGIC).putInt(size).putLong(csvBytes).putLong(csvCrc);
+        out.putInt(nameCount);
+        for (byte[] text : encoded) {
+            out.putInt(text.length).put(text);
+        }
+        out.putInt(0);   // reserved
+        for (int[] column : intColumns()) {
+            out.asIntBuffer().put(column, 0, size);
+            out.position(out.position() + size * 4);
+        }
+        out.put(difficulty, 0, size).put(result, 0, size).put(flags, 0, size);
+        out.flip();
+        PersistenceQueue.writeAtomically(file, out);
+    }
+
+    /**
+     * Reads {@code file} into a heap buffer and copies its columns into a new store. The file is
+     * not mapped: SysData replaces it on later saves, which a live mapping would block on Windows. Returns null, after logging why,
+     * if the file is missing, truncated or not a segment.
+     */
+    public static Segment readSegment(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                LOG.warning("Ignoring " + file + ": too large for a history segment");
+                return null;
+            }
+            ByteBuffer in = ByteBuffer.allocate((int) size);
+            while (in.hasRemaining()) {
+                if (channel.read(in) < 0) break;   // a short file fails the size checks below
+            }
+            in.flip();
+            if (in.remaining() < 28 || in.getInt() != MAGIC) {
+                LOG.warning("Ignoring " + file + ": not a history segment");
+                return null;
+            }
+            int rows = in.getInt();
+            long csvBytes = in.getLong();
+            long csvCrc = in.getLong();
+            int dictionary = in.getInt();
+            if (rows < 0 || dictionary < 0 || csvBytes < 0) {
+                LOG.warning("Ignoring " + file + ": bad segment header");
+                return null;
+            }
+
+            HistoryStore store = new HistoryStore(Math.max(INITIAL_CAPACITY, rows), Math.max(INITIAL_CAPACITY, dictionary));
+            for (int i = 0; i < dictionary; i++) {
+                int n = in.getInt();
+                byte[] text = new byte[n];
+                in.get(text);
+                store.idOf(new String(text, StandardCharsets.UTF_8));
+            }
+            in.getInt();   // reserved
+            if (store.nameCount != dictionary || in.remaining() != (long) rows * (14 * 4 + 3)) {
+                LOG.warning("Ignoring " + file + ": segment size does not match its header");
+                return null;
+            }
+            for (int[] column : store.intColumns()) {
+                IntBuffer ints = in.asIntBuffer();
+                ints.get(column, 0, rows);
+                in.position(in.position() + rows * 4);
+            }
+            in.get(store.difficulty, 0, rows).get(store.result, 0, rows).get(store.flags, 0, rows);
+            store.size = rows;
+            return store.validate() ? new Segment(store, csvBytes, csvCrc) : null;
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Ignoring unreadable history segment " + file, e);
+            return null;
+        }
+    }
+
+    //Fixed order of the int columns in a segment.
+    private int[][] intColumns() {
+        return new int[][] { day, duration, score, nick1, nick2, official1, official2,
+                avatar1, avatar2, profile, bbbv, openings, islands, clicks };
+    }
+
+    //Rejects a segment whose enum ordinals or dictionary ids point nowhere.
+    private boolean validate() {
+        for (int i = 0; i < size; i++) {
+            if (difficulty[i] < 0 || difficulty[i] >= DIFFICULTIES.length || result[i] >= RESULTS.length
+                    || !validId(nick1[i]) || !validId(nick2[i]) || !validId(official1[i]) || !validId(official2[i])
+                    || !validId(avatar1[i]) || !validId(avatar2[i]) || !validId(profile[i])) {
+                LOG.warning("Ignoring history segment: row " + i + " is corrupt");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean validId(int id) {
+        return id >= NONE && id < nameCount;
+    }
+}
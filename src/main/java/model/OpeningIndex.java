@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+
+//Precomputed "openings" of a board, built once at generation time.
+//An opening is a connected (8-neighbour) group of cells that keep a cascade going
+//(EMPTY, QUESTION, SURPRISE) plus the non-mine cells bordering it. Clicking any cell of the
+//group reveals exactly that opening, so the cascade becomes a lookup instead of a search.
+//Storage is compressed: members of opening k are members[starts[k] .. starts[k + 1]).
+//The same labeling yields the board's BoardMetrics (3BV, openings, islands).
+public final class OpeningIndex {
+
+    private final int[] regionOf;   // opening id of each interior cell, -1 for every other cell
+    private final int[] starts;     // length = openings + 1
+    private final int[] members;    // interior cells first (fill order), then the border
+    private final BoardMetrics metrics;
+
+    private OpeningIndex(int[] regionOf, int[] starts, int[] members, BoardMetrics metrics) {
+        this.regionOf = regionOf;
+        this.starts = starts;
+        this.members = members;
+        this.metrics = metrics;
+    }
+
+    //Labeling pass: one BFS per unlabeled interior cell, border cells de-duplicated per opening.
+    //Safe cells left unlabeled after that are grouped into islands by the same BFS, so every cell
+    //is labeled once and the whole build stays linear in the board size.
+    static OpeningIndex build(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int n = rows * cols;
+
+        int[] regionOf = new int[n];
+        Arrays.fill(regionOf, -1);
+        int[] borderStamp = new int[n]; // opening id + 1 that last took this border cell
+        int[] queue = new int[n];
+        int[] border = new int[n];
+
+        int[] starts = new int[16];
+        int[] members = new int[Math.max(16, n / 2)];
+        int size = 0;
+        int regions = 0;
+
+        for (int seed = 0; seed < n; seed++) {
+            if (regionOf[seed] >= 0 || !isInterior(board, seed)) continue;
+
+            int head = 0;
+            int tail = 0;
+            int borderCount = 0;
+            regionOf[seed] = regions;
+            queue[tail++] = seed;
+
+            while (head < tail) {
+                int i = queue[head++];
+                int r = i / cols;
+                int c = i - r * cols;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        int j = nr * cols + nc;
+                        if (isInterior(board, j)) {
+                            if (regionOf[j] < 0) {
+                                regionOf[j] = regions;
+                                queue[tail++] = j;
+                            }
+                        } else if (board.typeAt(j) != CellType.MINE && borderStamp[j] != regions + 1) {
+                            borderStamp[j] = regions + 1;
+                            border[borderCount++] = j;
+                        }
+                    }
+                }
+            }
+
+            // the queue now holds the interior in fill order
+            if (regions + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+            if (size + tail + borderCount > members.length) {
+                members = Arrays.copyOf(members, Math.max(members.length * 2, size + tail + borderCount));
+            }
+            starts[regions] = size;
+            System.arraycopy(queue, 0, members, size, tail);
+            size += tail;
+            System.arraycopy(border, 0, members, size, borderCount);
+            size += borderCount;
+            regions++;
+        }
+
+        starts[regions] = size;
+
+        // safe cells no opening reaches: one click each, 8-connected groups of them are islands
+        int loose = 0;
+        int islands = 0;
+        for (int seed = 0; seed < n; seed++) {
+            if (!isLoose(board, seed, regionOf, borderStamp)) continue;
+
+            int head = 0;
+            int tail = 0;
+            borderStamp[seed] = -1; // labeled as part of an island
+            queue[tail++] = seed;
+            while (head < tail) {
+                int i = queue[head++];
+                int r = i / cols;
+                int c = i - r * cols;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        int j = nr * cols + nc;
+                        if (isLoose(board, j, regionOf, borderStamp)) {
+                            borderStamp[j] = -1;
+                            queue[tail++] = j;
+                        }
+                    }
+                }
+            }
+            loose += tail;
+            islands++;
+        }
+
+        return new OpeningIndex(regionOf,
+                Arrays.copyOf(starts, regions + 1),
+                Arrays.copyOf(members, size),
+                BoardMetrics.of(regions + loose, regions, islands));
+    }
+
+    //Safe cell that is neither inside nor on the border of an opening, and not yet in an island.
+    private static boolean isLoose(Board board, int index, int[] regionOf, int[] borderStamp) {
+        return regionOf[index] < 0 && borderStamp[index] == 0 && board.typeAt(index) != CellType.MINE;
+    }
+
+    //Cells that keep a cascade going (same rule as CascadeEngine).
+    static boolean isInterior(Board board, int index) {
+        CellType type = board.typeAt(index);
+        return type == CellType.EMPTY
+                || type == CellType.QUESTION
+                || type == CellType.SURPRISE
+                || (type == CellType.NUMBER && board.adjacentAt(index) == 0);
+    }
+
+    //Opening that a click on this cell reveals, or -1 if the cell does not cascade.
+    public int regionOf(int index) {
+        return regionOf[index];
+    }
+
+    public int getOpeningCount() {
+        return starts.length - 1;
+    }
+
+    public BoardMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int start(int region) {
+        return starts[region];
+    }
+
+    public int end(int region) {
+        return starts[region + 1];
+    }
+
+    public int member(int k) {
+        return members[k];
+    }
+}
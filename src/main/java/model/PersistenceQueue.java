@@ -0,0 +1,181 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * Write-behind persistence for SysData: file writes leave the calling (usually FX) thread and run
+ * in order on a single background daemon thread.
+ * {@link #saveFile} coalesces: while a save of a file is still waiting, a newer save only replaces
+ * its contents, so a burst of edits ends in one write of the latest state. Whole files are written
+ * to a temp file and renamed over the original. Other IO (such as history appends) goes through
+ * {@link #execute} and keeps its order.
+ * The number of pending writes can be observed on the FX thread through
+ * {@link #pendingWritesProperty}; call {@link #flush} before the application exits.
+ */
+public final class PersistenceQueue implements Executor {
+
+    /** Singleton instance of PersistenceQueue. */
+    private static final PersistenceQueue INSTANCE = new PersistenceQueue();
+
+    private static final Logger LOG = Logger.getLogger(PersistenceQueue.class.getName());
+
+    /** Latest not-yet-written contents per file. */
+    private final Map<Path, String> pendingContents = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // created by the first pendingWritesProperty() call; until then no update is posted to the FX thread
+    private volatile ReadOnlyIntegerWrapper pendingProperty;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "persistence-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PersistenceQueue() {
+    }
+
+    public static PersistenceQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues {@code contents} as the new full contents of {@code file}. If an earlier save of the
+     * same file has not started yet, it is replaced instead of queueing a second write.
+     */
+    public void saveFile(Path file, String contents) {
+        if (file == null || contents == null) {
+            throw new IllegalArgumentException("file and contents are required");
+        }
+        Path key = file.toAbsolutePath().normalize();
+        if (pendingContents.put(key, contents) != null) {
+            return; // the queued write picks up these contents
+        }
+        execute(() -> {
+            String latest = pendingContents.remove(key);
+            if (latest == null) return;
+            try {
+                writeAtomically(key, latest);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Could not save " + key, e);
+            }
+        });
+    }
+
+    /** Runs an IO task on the writer thread, after everything queued before it. */
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task cannot be null");
+        }
+        changePending(1);
+        writer.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Background write failed", e);
+            } finally {
+                changePending(-1);
+            }
+        });
+    }
+
+    /**
+     * Waits until every write queued so far has finished.
+     * Returns false if that did not happen within the timeout.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        try {
+            writer.submit(() -> { }).get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            LOG.warning("Pending writes not finished after " + timeout + " " + unit);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /** Writes queued or running right now. */
+    public int getPendingWrites() {
+        return pending.get();
+    }
+
+    public boolean hasPendingWrites() {
+        return pending.get() > 0;
+    }
+
+    /**
+     * Writes queued or running, for binding a saving indicator. Changes arrive through
+     * Platform.runLater, so the property must be read and observed on the FX thread.
+     */
+    public ReadOnlyIntegerProperty pendingWritesProperty() {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("pendingWritesProperty must be used on the FX thread");
+        }
+        if (pendingProperty == null) {
+            pendingProperty = new ReadOnlyIntegerWrapper(this, "pendingWrites", pending.get());
+        }
+        return pendingProperty.getReadOnlyProperty();
+    }
+
+    /** Replaces {@code file} with {@code contents} through a temp file in the same directory. */
+    static void writeAtomically(Path file, String contents) throws IOException {
+        writeAtomically(file, ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** Same for binary contents: the buffer's remaining bytes become the file. */
+    static void writeAtomically(Path file, ByteBuffer contents) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (contents.hasRemaining()) {
+                    out.write(contents);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void changePending(int delta) {
+        pending.addAndGet(delta);
+        ReadOnlyIntegerWrapper property = pendingProperty;
+        if (property != null) {
+            // reads the count when it runs, so a burst of changes settles on the latest value
+            Platform.runLater(() -> property.set(pending.get()));
+        }
+    }
+}
@@ -20,6 +20,11 @@ public class PlayerStats {
     public final int[] easyScores;
     public final int[] mediumScores;
     public final int[] hardScores;
+    public final int[] customScores;
+
+    // 3BV-based speed over wins that recorded board metrics (0 when there are none)
+    public final double best3BVPerSecond;
+    public final double avgEfficiency;      // percent
 
     public PlayerStats(String playerName,
                        String avatarId,
@@ -34,7 +39,30 @@ public class PlayerStats {
                        String bestTimeOpponent,
                        int[] easyScores,
                        int[] mediumScores,
-                       int[] hardScores) {
+                       int[] hardScores,
+                       int[] customScores) {
+        this(playerName, avatarId, totalGames, wins, losses, giveUps, winsWithNoMistakes,
+                bestScore, bestScoreOpponent, bestTimeSeconds, bestTimeOpponent,
+                easyScores, mediumScores, hardScores, customScores, 0, 0);
+    }
+
+    public PlayerStats(String playerName,
+                       String avatarId,
+                       int totalGames,
+                       int wins,
+                       int losses,
+                       int giveUps,
+                       int winsWithNoMistakes,
+                       int bestScore,
+                       String bestScoreOpponent,
+                       int bestTimeSeconds,
+                       String bestTimeOpponent,
+                       int[] easyScores,
+                       int[] mediumScores,
+                       int[] hardScores,
+                       int[] customScores,
+                       double best3BVPerSecond,
+                       double avgEfficiency) {
 
         this.playerName = (playerName == null || playerName.isBlank()) ? "-" : playerName;
         this.avatarId   = avatarId;
@@ -56,5 +84,9 @@ public class PlayerStats {
         this.easyScores   = easyScores   != null ? easyScores   : new int[0];
         this.mediumScores = mediumScores != null ? mediumScores : new int[0];
         this.hardScores   = hardScores   != null ? hardScores   : new int[0];
+        this.customScores = customScores != null ? customScores : new int[0];
+
+        this.best3BVPerSecond = Math.max(0, best3BVPerSecond);
+        this.avgEfficiency    = Math.max(0, avgEfficiency);
     }
 }
@@ -0,0 +1,72 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Default BoardGenerator: a partial Fisher-Yates shuffle driven by a seeded SplittableRandom.
+//Same seed + same board size => same layout, which is what replays and daily challenges rely on.
+//Small draws from a large range (e.g. the first-click relocation) are taken by rejection instead,
+//so they cost O(count) memory rather than an array the size of the board.
+public class RandomBoardGenerator implements BoardGenerator {
+
+    //Rejection checks each draw against the earlier ones, so it is kept to short, sparse draws.
+    private static final int SPARSE_MAX_COUNT = 64;
+    private static final int SPARSE_MIN_RATIO = 16;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    //Unseeded generator; a fresh seed is picked so the board can still be replayed via getSeed().
+    public RandomBoardGenerator() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    public RandomBoardGenerator(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public int[] drawDistinct(int cellCount, int count) {
+        if (count < 0 || count > cellCount) {
+            throw new IllegalArgumentException("Cannot draw " + count + " cells out of " + cellCount);
+        }
+
+        if (count <= SPARSE_MAX_COUNT && (long) count * SPARSE_MIN_RATIO <= cellCount) {
+            return drawSparse(cellCount, count);
+        }
+
+        int[] pool = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            pool[i] = i;
+        }
+
+        // Only the first `count` slots are shuffled; the rest of the board is never touched.
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(cellCount - i);
+            int tmp = pool[i];
+            pool[i] = pool[j];
+            pool[j] = tmp;
+        }
+        return pool;
+    }
+
+    //At most 1 in 16 of the range is taken, so a draw is rejected less than 1 time in 16.
+    private int[] drawSparse(int cellCount, int count) {
+        int[] picks = new int[count];
+        int drawn = 0;
+        while (drawn < count) {
+            int candidate = random.nextInt(cellCount);
+            boolean taken = false;
+            for (int k = 0; k < drawn && !taken; k++) {
+                taken = picks[k] == candidate;
+            }
+            if (!taken) picks[drawn++] = candidate;
+        }
+        return picks;
+    }
+}
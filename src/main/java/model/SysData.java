@@ -1,17 +1,9 @@
 package model;
 
-import java.io.BufferedReader;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.util.Locale;
-import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -21,8 +13,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 public class SysData {
 
@@ -32,17 +28,6 @@ public class SysData {
     /** Observer Pattern**/
     private static final java.util.List<util.SettingObserver> observers = new java.util.ArrayList<>();
 
-    private static final List<DateTimeFormatter> CSV_DATE_FMT = List.of(
-            // Primary: handles 12/7/2025 or 12-7-2025 (M/d/yyyy or M-d-yyyy)
-            new DateTimeFormatterBuilder()
-                    .parseCaseInsensitive()
-                    .appendPattern("[M/d/uuuu][M-d-uuuu]")
-                    .toFormatter(Locale.US),
-
-            // Fallback: ISO (yyyy-MM-dd) if anyone saved via LocalDate.toString()
-            DateTimeFormatter.ISO_LOCAL_DATE
-    );
-
 
 
     public static SysData getInstance() {
@@ -126,12 +111,67 @@ public class SysData {
 
     // ============================ HISTORY ============================
 
+    private static final String HISTORY_SEGMENT_NAME = "history.seg";
+
+    private static final String HISTORY_HEADER = "date,duration,difficulty,score,result,player1Nickname,player2Nickname,player1Official,player2Official,winWithoutMistakes,player1Avatar,player2Avatar,boardProfile,bbbv,openings,islands,clicks";
+
+    /** Append-only writer for the history file, created on first use. */
+    private HistoryLog historyLog;
+
     /** Adds a single Game record to the history. */
     public void addGameToHistory(Game game) {
         history.addGame(game);
     }
 
-    /** Loads all game history from the history CSV file into memory. */
+    /**
+     * Adds a finished game to the history and appends its row to the CSV file.
+     * Only the new row is written, so the cost does not grow with the history;
+     * the file is compacted in the background from time to time.
+     */
+    public void appendGameToHistory(Game game) {
+        if (game == null) {
+            throw new IllegalArgumentException("game cannot be null");
+        }
+        ensureHistoryLoaded(); // compaction rewrites the file from memory, so memory must hold all of it
+        historyLog().append(() -> history.addGame(game), game);
+    }
+
+    private synchronized HistoryLog historyLog() {
+        if (historyLog == null) {
+            historyLog = new HistoryLog(Paths.get(getHistoryCsvPath()), HISTORY_HEADER,
+                    history::snapshot, this::formatGameAsCsvLine, PersistenceQueue.getInstance(),
+                    this::saveHistorySegment);
+        }
+        return historyLog;
+    }
+
+    /** Binary columnar copy of history.csv, kept next to it (see HistoryStore). */
+    private static Path getHistorySegmentPath() {
+        return Paths.get(getHistoryCsvPath()).resolveSibling(HISTORY_SEGMENT_NAME);
+    }
+
+    /** After a compaction: the segment now covers exactly the rewritten CSV. */
+    private void saveHistorySegment(List<Game> records, byte[] csv) {
+        CRC32 crc = new CRC32();
+        crc.update(csv);
+        writeHistorySegment(HistoryStore.of(records), csv.length, crc.getValue());
+    }
+
+    private void writeHistorySegment(HistoryStore columns, long csvBytes, long csvCrc) {
+        try {
+            columns.writeSegment(getHistorySegmentPath(), csvBytes, csvCrc);
+        } catch (IOException e) {
+            // only costs a full CSV parse on the next start
+            LOG.log(Level.WARNING, "Could not save the history segment", e);
+        }
+    }
+
+    /**
+     * Loads all game history into memory. The segment file is used for the part of the CSV it was
+     * built from (same length prefix, same CRC-32); only rows appended after that are parsed. A fresh
+     * segment is queued on the persistence queue only when the old one was missing or did not match;
+     * a matching one is brought up to date by the next compaction (see HistoryLog).
+     */
     private void loadHistoryFromCsvInternal() {
         history.clear();
 
@@ -144,140 +184,177 @@ public class SysData {
             return;
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine();
+        try {
+            ByteBuffer bytes = CsvTokenizer.readBytes(path);
+            CRC32 crc = new CRC32();
+            int from = 0;
+            boolean segmentMatched = false;
+
+            HistoryStore.Segment segment = HistoryStore.readSegment(getHistorySegmentPath());
+            if (segment != null && segment.getCsvBytes() <= bytes.limit()) {
+                crc.update(bytes.slice(0, (int) segment.getCsvBytes()));
+                if (crc.getValue() == segment.getCsvCrc()) {
+                    history.load(segment.getStore());
+                    from = (int) segment.getCsvBytes();
+                    segmentMatched = true;
+                } else {
+                    LOG.info("History segment does not match the CSV; reading the whole file");
+                    crc.reset();
+                }
+            }
 
-            // Skip header if present
-            if (line != null && line.startsWith("date,")) {
-                line = reader.readLine();
+            ByteBuffer rest = bytes.slice(from, bytes.limit() - from);
+            if (!rest.hasRemaining() && segmentMatched) {
+                return; // the segment holds every row
+            }
+            if (!segmentMatched) {
+                crc.update(rest.duplicate());
             }
 
-            while (line != null) {
-                Game game = parseGameFromCsvLine(line);
-                if (game != null) {
-                    history.addGame(game);
-                }
-                line = reader.readLine();
+            CsvTokenizer csv = new CsvTokenizer(CsvTokenizer.decode(rest), ',');
+            if (csv.nextRow()) {
+                // one decoder per file: it remembers the file's date layout
+                DateDecoder dates = new DateDecoder();
+                Function<CsvTokenizer, Game> parser = row -> parseGameFromCsvRow(row, dates);
+                // first row is the header unless an old file was written without one
+                List<Game> games = csv.matches(0, "date", false)
+                        ? csv.mapRemaining(parser)
+                        : withFirstRow(csv, parser);
+                history.addAll(games);
             }
 
+            if (!segmentMatched) {
+                HistoryStore columns = history.columns();
+                long csvBytes = bytes.limit();
+                long csvCrc = crc.getValue();
+                PersistenceQueue.getInstance().execute(() -> writeHistorySegment(columns, csvBytes, csvCrc));
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private LocalDate parseCsvDate(String raw) {
-        if (raw == null) return null;
-
-        String s = raw.trim();
-        if (s.isEmpty()) return null;
-
-        for (DateTimeFormatter fmt : CSV_DATE_FMT) {
-            try {
-                return LocalDate.parse(s, fmt);
-            } catch (Exception ignored) {
-                // Do nothing: we intentionally try multiple formats with no noise.
-            }
+    //Parses the row the tokenizer is on, then all rows after it.
+    private static <T> List<T> withFirstRow(CsvTokenizer csv, Function<CsvTokenizer, T> mapper) {
+        T first = mapper.apply(csv);
+        List<T> rest = csv.mapRemaining(mapper);
+        if (first == null) {
+            return rest;
         }
-        return null; // caller decides how to handle
+        List<T> all = new ArrayList<>(rest.size() + 1);
+        all.add(first);
+        all.addAll(rest);
+        return all;
     }
 
     
-    /** Parses a single CSV line into a Game object. */
-    private Game parseGameFromCsvLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
+    /**
+     * Parses the tokenizer's current row into a Game object, or returns null for a row to skip.
+     * Runs on several threads for large files, so it only reads the row and shared constants.
+     */
+    private Game parseGameFromCsvRow(CsvTokenizer row, DateDecoder dates) {
+        if (row.fieldCount() < 10) {
             return null;
         }
 
-        String[] parts = line.split(",", -1);  // keep empty columns
-        if (parts.length < 10) {
+        int epochDay = row.getEpochDay(0, dates);   // yyyy-MM-dd, M/d/yyyy or M-d-yyyy
+        if (epochDay == DateDecoder.INVALID) {
+            LOG.fine("Skipping row due to invalid date: '" + row.getString(0) + "'");
+            return null; // invalid date row; quietly skip (no warning)
+        }
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int durationSeconds = parseDuration(row, 1);    // "21:15" or "1275"
+        Difficulty difficulty = row.getEnum(2, Difficulty.values());
+        int score = row.getInt(3);
+        GameResult result = row.getEnum(4, GameResult.values()); // WIN / LOSE / GIVE_UP
+        if (row.hasError()) {
+            LOG.warning("Skipping bad history row " + row.getLineNumber() + ": " + row.rowText()
+                    + " | reason: " + row.getError());
             return null;
         }
+        String nick_player1 = row.getString(5);
+        String nick_player2 = row.getString(6);
+        String off_player1 = row.getStringOrNull(7);
+        String off_player2 = row.getStringOrNull(8);
+        boolean winWithoutMistakes = row.getBoolean(9);
+
+        // optional avatar columns (missing columns read as blank)
+        String avatar1 = row.getStringOrNull(10);
+        String avatar2 = row.getStringOrNull(11);
+
+        // optional board profile column (empty for the built-in difficulties)
+        DifficultyProfile profile = DifficultyProfile.of(difficulty);
+        String profileStr = row.getStringOrNull(12);
+        if (profileStr != null) {
+            try {
+                profile = DifficultyProfile.decode(profileStr);
+            } catch (IllegalArgumentException e) {
+                LOG.fine("Unknown board profile '" + profileStr + "', using " + difficulty);
+            }
+        }
 
-        try {
-        	LocalDate date = parseCsvDate(parts[0]);
-        	if (date == null) {
-        	    LOG.fine("Skipping row due to invalid date: '" + parts[0] + "'");
-        	    return null; // invalid date row; quietly skip (no warning)
-        	}
-            int durationSeconds = parseDuration(parts[1]);    // "21:15" or "1275"
-            Difficulty difficulty = Difficulty.valueOf(parts[2]);
-            int score = Integer.parseInt(parts[3]);
-            GameResult result = GameResult.valueOf(parts[4]); // WIN / LOSE / GIVE_UP
-            String nick_player1 = parts[5];
-            String nick_player2 = parts[6];
-            String off_player1 = toNullIfBlank(parts[7]);
-            String off_player2 = toNullIfBlank(parts[8]);
-            boolean winWithoutMistakes = Boolean.parseBoolean(parts[9].trim());
-
-            // optional avatar columns
-            String avatar1 = (parts.length > 10) ? toNullIfBlank(parts[10]) : null;
-            String avatar2 = (parts.length > 11) ? toNullIfBlank(parts[11]) : null;
+        // optional complexity columns (empty for games recorded before 3BV was kept)
+        BoardMetrics metrics = BoardMetrics.UNKNOWN;
+        int clicks = 0;
+        if (row.fieldCount() > 16 && !row.isBlank(13)) {
+            int bbbv = row.getInt(13);
+            int openings = row.getInt(14);
+            int islands = row.getInt(15);
+            int rowClicks = row.getInt(16);
+            if (row.hasError() || bbbv < 0 || openings < 0 || islands < 0 || openings > bbbv) {
+                LOG.fine("Ignoring bad board metrics in row " + row.getLineNumber());
+            } else {
+                metrics = BoardMetrics.of(bbbv, openings, islands);
+                clicks = rowClicks;
+            }
+        }
 
+        try {
             return new Game(
                     off_player1,
                     off_player2,
                     nick_player1,
                     nick_player2,
-                    difficulty,
+                    profile,
                     score,
                     result,
                     date,
                     durationSeconds,
                     winWithoutMistakes,
                     avatar1,
-                    avatar2
+                    avatar2,
+                    metrics,
+                    clicks
             );
-
-        } catch (Exception e) {
-            LOG.warning("Skipping bad history row: " + line + " | reason: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            LOG.warning("Skipping bad history row " + row.getLineNumber() + ": " + row.rowText()
+                    + " | reason: " + e.getMessage());
             return null;
         }
-
     }
 
-    /** Converts empty strings to null. */
-    private String toNullIfBlank(String s) {
-        return (s == null || s.trim().isEmpty()) ? null : s.trim();
-    }
-
-    /** Parses "mm:ss" or raw seconds into an int duration in seconds. */
-    private int parseDuration(String text) {
-        if (text == null || text.isBlank()) {
+    /** Parses "mm:ss" or raw seconds into an int duration in seconds; a blank field is 0. */
+    private static int parseDuration(CsvTokenizer row, int field) {
+        int length = row.length(field);
+        if (length == 0) {
             return 0;
         }
-
-        text = text.trim();
-
-        if (text.contains(":")) {
-            String[] parts = text.split(":");
-            int minutes = Integer.parseInt(parts[0]);
-            int seconds = Integer.parseInt(parts[1]);
-            return minutes * 60 + seconds;
-        } else {
-            return Integer.parseInt(text);
+        int colon = row.indexOf(field, ':');
+        if (colon < 0) {
+            return row.getInt(field);
         }
+        int minutes = row.getInt(field, 0, colon);
+        int seconds = row.getInt(field, colon + 1, length);
+        return minutes * 60 + seconds;
     }
 
-    /** Saves the current in-memory history list to the CSV file. */
+    /**
+     * Queues a rewrite of the history CSV from the in-memory list, done atomically (temp file + rename)
+     * on the persistence queue. Finished games should use {@link #appendGameToHistory(Game)} instead.
+     */
     public void saveHistoryToCsv() {
-        String csvPath = getHistoryCsvPath();
-        System.out.println("Saving history to: " + csvPath);
-
-        Path path = Paths.get(csvPath);
-        var games = history.getGames();
-
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-            writer.write("date,duration,difficulty,score,result,player1Nickname,player2Nickname,player1Official,player2Official,winWithoutMistakes,player1Avatar,player2Avatar");
-            writer.newLine();
-
-            for (Game game : games) {
-                writer.write(formatGameAsCsvLine(game));
-                writer.newLine();
-            }
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        LOG.info("Saving history to: " + getHistoryCsvPath());
+        historyLog().compact();
     }
 
     /** Converts a Game object into a CSV line string. */
@@ -294,6 +371,12 @@ public class SysData {
         String noMistakesStr = Boolean.toString(game.isWinWithoutMistakes());
         String p1Avatar = sanitizeForCsvOrEmpty(game.getPlayer1AvatarPath());
         String p2Avatar = sanitizeForCsvOrEmpty(game.getPlayer2AvatarPath());
+        String profileStr = game.isCustomBoard() ? game.getBoardProfile().encode() : "";
+        BoardMetrics metrics = game.getMetrics();
+        String bbbvStr = metrics.isKnown() ? Integer.toString(metrics.get3BV()) : "";
+        String openingsStr = metrics.isKnown() ? Integer.toString(metrics.getOpenings()) : "";
+        String islandsStr = metrics.isKnown() ? Integer.toString(metrics.getIslands()) : "";
+        String clicksStr = metrics.isKnown() ? Integer.toString(game.getClicks()) : "";
 
         return String.join(",",
                 dateStr,
@@ -307,7 +390,12 @@ public class SysData {
                 p2Off,
                 noMistakesStr,
                 p1Avatar,
-                p2Avatar
+                p2Avatar,
+                profileStr,
+                bbbvStr,
+                openingsStr,
+                islandsStr,
+                clicksStr
         );
     }
 
@@ -327,18 +415,15 @@ public class SysData {
             return;
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-            reader.readLine(); // header
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Player p = parsePlayerFromCsvLine(line);
-                if (p != null) {
-                    String keyEmail = p.getEmail().toLowerCase();
-                    String keyName = p.getOfficialName().toLowerCase();
-                    playersByEmail.put(keyEmail, p);
-                    playersByName.put(keyName, p);
-                }
+        try {
+            CsvTokenizer csv = new CsvTokenizer(CsvTokenizer.read(path), ',');
+            csv.nextRow(); // header
+
+            for (Player p : csv.mapRemaining(this::parsePlayerFromCsvRow)) {
+                String keyEmail = p.getEmail().toLowerCase();
+                String keyName = p.getOfficialName().toLowerCase();
+                playersByEmail.put(keyEmail, p);
+                playersByName.put(keyName, p);
             }
 
         } catch (IOException e) {
@@ -346,28 +431,20 @@ public class SysData {
         }
     }
 
-    /** Parses a single CSV line into a Player object. */
-    private Player parsePlayerFromCsvLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return null;
-        }
-
-        String[] parts = line.split(",", -1);
-        if (parts.length < 4) {
+    /** Parses the tokenizer's current row into a Player object, or returns null for a row to skip. */
+    private Player parsePlayerFromCsvRow(CsvTokenizer row) {
+        if (row.fieldCount() < 4) {
             return null;
         }
 
-        String officialName = parts[0].trim();
-        String email = parts[1].trim();
-        String password = parts[2].trim();
-        String roleStr = parts[3].trim();
-        String avatarId = (parts.length >= 5) ? parts[4].trim() : null;
+        String officialName = row.getString(0);
+        String email = row.getString(1);
+        String password = row.getString(2);
+        String avatarId = (row.fieldCount() >= 5) ? row.getString(4) : null;
 
-        Role role;
-        try {
-            role = Role.valueOf(roleStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            System.err.println("Unknown role '" + roleStr + "', defaulting to PLAYER");
+        Role role = row.matchEnum(3, Role.values(), true);
+        if (role == null) {
+            System.err.println("Unknown role '" + row.getString(3) + "', defaulting to PLAYER");
             role = Role.PLAYER;
         }
 
@@ -379,25 +456,20 @@ public class SysData {
         }
     }
 
-    /** Saves the current in-memory players list to the CSV file. */
+    /**
+     * Saves the current in-memory players list to the CSV file.
+     * The file contents are built here; the write itself is queued on the persistence queue,
+     * where back-to-back saves collapse into one.
+     */
     public void savePlayersToCsv() {
         String csvPath = getPlayersCsvPath();
-        System.out.println("Saving players to: " + csvPath);
+        LOG.fine("Saving players to: " + csvPath);
 
-        Path path = Paths.get(csvPath);
-
-        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
-            writer.write("officialName,email,password,Role,Avatar");
-            writer.newLine();
-
-            for (Player p : playersByEmail.values()) {
-                writer.write(formatPlayerAsCsvLine(p));
-                writer.newLine();
-            }
-
-        } catch (IOException e) {
-            e.printStackTrace();
+        StringBuilder sb = new StringBuilder("officialName,email,password,Role,Avatar").append(System.lineSeparator());
+        for (Player p : playersByEmail.values()) {
+            sb.append(formatPlayerAsCsvLine(p)).append(System.lineSeparator());
         }
+        PersistenceQueue.getInstance().saveFile(Paths.get(csvPath), sb.toString());
     }
 
     /** Converts a Player object into a CSV line string. */
@@ -620,7 +692,7 @@ public class SysData {
                     0, 0, 0, 0, 0,
                     0, "-",
                     0, "-",
-                    new int[0], new int[0], new int[0]
+                    new int[0], new int[0], new int[0], new int[0]
             );
         }
         return computeStatsForOfficialName(player.getOfficialName(), player.getAvatarId());
@@ -633,7 +705,7 @@ public class SysData {
                     0, 0, 0, 0, 0,
                     0, "-",
                     0, "-",
-                    new int[0], new int[0], new int[0]
+                    new int[0], new int[0], new int[0], new int[0]
             );
         }
 
@@ -654,19 +726,33 @@ public class SysData {
         var easyScoresList = new ArrayList<Integer>();
         var medScoresList = new ArrayList<Integer>();
         var hardScoresList = new ArrayList<Integer>();
+        var customScoresList = new ArrayList<Integer>();
 
-        for (Game game : history.getGames()) {
+        double best3BVPerSecond = 0;
+        double efficiencySum = 0;
+        int efficiencyCount = 0;
 
-            if (!isPlayerInGame(game, targetName)) {
+        // scan the history columns; the name is matched once per distinct text, not once per game
+        HistoryStore games = history.columns();
+        boolean[] isTarget = new boolean[games.getDictionarySize()];
+        for (int id = 0; id < isTarget.length; id++) {
+            isTarget[id] = games.getText(id).trim().equalsIgnoreCase(targetName);
+        }
+
+        for (int row = 0; row < games.size(); row++) {
+
+            if (!isPlayerInGame(games, row, isTarget)) {
                 continue;
             }
 
             totalGames++;
 
-            Difficulty diff = game.getDifficulty();
-            int score = game.getFinalScore();
+            Difficulty diff = games.getDifficulty(row);
+            int score = games.getScore(row);
 
-            if (diff == Difficulty.EASY) {
+            if (games.isCustomBoard(row)) {
+                customScoresList.add(score);
+            } else if (diff == Difficulty.EASY) {
                 easyScoresList.add(score);
             } else if (diff == Difficulty.MEDIUM) {
                 medScoresList.add(score);
@@ -674,36 +760,42 @@ public class SysData {
                 hardScoresList.add(score);
             }
 
-            GameResult res = game.getResult();
-            switch (res) {
-                case WIN:
-                    wins++;
-                    if (game.isWinWithoutMistakes()) {
-                        winsWithNoMistakes++;
-                    }
-                    break;
-                case LOSE:
-                    losses++;
-                    break;
-                case GIVE_UP:
-                    giveUps++;
-                    break;
-                default:
-                    break;
+            GameResult res = games.getResult(row);
+            if (res != null) {
+                switch (res) {
+                    case WIN:
+                        wins++;
+                        if (games.isWinWithoutMistakes(row)) {
+                            winsWithNoMistakes++;
+                        }
+                        break;
+                    case LOSE:
+                        losses++;
+                        break;
+                    case GIVE_UP:
+                        giveUps++;
+                        break;
+                    default:
+                        break;
+                }
             }
 
-            String opponent = getOpponentName(game, targetName);
-
             if (score > bestScore) {
                 bestScore = score;
-                bestScoreOpponent = opponent;
+                bestScoreOpponent = getOpponentName(games, row, isTarget);
             }
 
             if (res == GameResult.WIN) {
-                int durationSeconds = game.getDurationSeconds();
+                int durationSeconds = games.getDurationSeconds(row);
                 if (durationSeconds > 0 && durationSeconds < bestTimeSeconds) {
                     bestTimeSeconds = durationSeconds;
-                    bestTimeOpponent = opponent;
+                    bestTimeOpponent = getOpponentName(games, row, isTarget);
+                }
+                best3BVPerSecond = Math.max(best3BVPerSecond, games.get3BVPerSecond(row));
+                double efficiency = games.getEfficiency(row);
+                if (efficiency > 0) {
+                    efficiencySum += efficiency;
+                    efficiencyCount++;
                 }
             }
         }
@@ -731,6 +823,7 @@ public class SysData {
         int[] easyScores = easyScoresList.stream().mapToInt(Integer::intValue).toArray();
         int[] medScores = medScoresList.stream().mapToInt(Integer::intValue).toArray();
         int[] hardScores = hardScoresList.stream().mapToInt(Integer::intValue).toArray();
+        int[] customScores = customScoresList.stream().mapToInt(Integer::intValue).toArray();
 
         return new PlayerStats(
                 targetName,
@@ -746,73 +839,72 @@ public class SysData {
                 bestTimeOpponent,
                 easyScores,
                 medScores,
-                hardScores
+                hardScores,
+                customScores,
+                best3BVPerSecond,
+                (efficiencyCount == 0) ? 0 : efficiencySum / efficiencyCount
         );
     }
 
-    private boolean isPlayerInGame(Game game, String officialName) {
-        if (officialName == null || officialName.isBlank()) {
-            return false;
-        }
-        String target = officialName.trim();
+    //Whether the player is in the row, by official name or nickname; isTarget is indexed by dictionary id.
+    private static boolean isPlayerInGame(HistoryStore games, int row, boolean[] isTarget) {
+        return is(isTarget, games.getPlayer1Official(row))
+                || is(isTarget, games.getPlayer2Official(row))
+                || is(isTarget, games.getPlayer1Nickname(row))
+                || is(isTarget, games.getPlayer2Nickname(row));
+    }
 
-        String p1Off = game.getPlayer1OfficialName();
-        String p2Off = game.getPlayer2OfficialName();
+    private static String getOpponentName(HistoryStore games, int row, boolean[] isTarget) {
+        int p1Off = games.getPlayer1Official(row);
+        int p2Off = games.getPlayer2Official(row);
+        int p1Nick = games.getPlayer1Nickname(row);
+        int p2Nick = games.getPlayer2Nickname(row);
 
-        if (p1Off != null && p1Off.trim().equalsIgnoreCase(target)) {
-            return true;
-        }
-        if (p2Off != null && p2Off.trim().equalsIgnoreCase(target)) {
-            return true;
+        if (is(isTarget, p1Off)) {
+            return firstNonBlank(games, p2Off, p2Nick, "-");
         }
 
-        String p1Nick = game.getPlayer1Nickname();
-        String p2Nick = game.getPlayer2Nickname();
-
-        if (p1Nick != null && p1Nick.trim().equalsIgnoreCase(target)) {
-            return true;
-        }
-        if (p2Nick != null && p2Nick.trim().equalsIgnoreCase(target)) {
-            return true;
+        if (is(isTarget, p2Off)) {
+            return firstNonBlank(games, p1Off, p1Nick, "-");
         }
 
-        return false;
-    }
+        if (is(isTarget, p1Nick)) {
+            String opponent = firstNonBlank(games, p2Off, p2Nick, null);
+            if (opponent != null) return opponent;
+        }
 
-    private String getOpponentName(Game game, String officialName) {
-        if (officialName == null) {
-            return "-";
+        if (is(isTarget, p2Nick)) {
+            return firstNonBlank(games, p1Off, p1Nick, "-");
         }
-        String target = officialName.trim();
 
-        String p1Off = game.getPlayer1OfficialName();
-        String p2Off = game.getPlayer2OfficialName();
-        String p1Nick = game.getPlayer1Nickname();
-        String p2Nick = game.getPlayer2Nickname();
+        return "-";
+    }
 
-        if (p1Off != null && p1Off.trim().equalsIgnoreCase(target)) {
-            if (p2Off != null && !p2Off.isBlank()) return p2Off;
-            if (p2Nick != null && !p2Nick.isBlank()) return p2Nick;
-            return "-";
-        }
+    private static boolean is(boolean[] isTarget, int id) {
+        return id != HistoryStore.NONE && isTarget[id];
+    }
 
-        if (p2Off != null && p2Off.trim().equalsIgnoreCase(target)) {
-            if (p1Off != null && !p1Off.isBlank()) return p1Off;
-            if (p1Nick != null && !p1Nick.isBlank()) return p1Nick;
-            return "-";
-        }
+    private static String firstNonBlank(HistoryStore games, int first, int second, String fallback) {
+        String a = games.getText(first);
+        if (a != null && !a.isBlank()) return a;
+        String b = games.getText(second);
+        if (b != null && !b.isBlank()) return b;
+        return fallback;
+    }
 
-        if (p1Nick != null && p1Nick.trim().equalsIgnoreCase(target)) {
-            if (p2Off != null && !p2Off.isBlank()) return p2Off;
-            if (p2Nick != null && !p2Nick.isBlank()) return p2Nick;
-        }
+    // ============================ PERSISTENCE ============================
 
-        if (p2Nick != null && p2Nick.trim().equalsIgnoreCase(target)) {
-            if (p1Off != null && !p1Off.isBlank()) return p1Off;
-            if (p1Nick != null && !p1Nick.isBlank()) return p1Nick;
-        }
+    /** Queue that performs every file write of SysData in the background. */
+    public PersistenceQueue getPersistenceQueue() {
+        return PersistenceQueue.getInstance();
+    }
 
-        return "-";
+    /**
+     * Blocks until queued saves are on disk (or the timeout passes). Called on exit;
+     * returns false if some writes may not have finished.
+     */
+    public boolean flushPendingWrites(long timeoutMillis) {
+        return PersistenceQueue.getInstance().flush(timeoutMillis, TimeUnit.MILLISECONDS);
     }
 
     // ============================ ENSURE LOADED ============================
@@ -885,21 +977,16 @@ public class SysData {
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(csvPath), StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
+        try {
+            CharBuffer text = CsvTokenizer.read(p);
+            CsvTokenizer csv = new CsvTokenizer(text, sniffDelimiter(text));
+            if (!csv.nextRow()) {
                 return;
             }
 
-            String delimiter = headerLine.contains(";") ? ";" : ",";
-
-            String[] headers = headerLine.split(delimiter, -1);
             Map<String, Integer> col = new HashMap<>();
-
-            for (int i = 0; i < headers.length; i++) {
-                String h = headers[i].trim().replace("\uFEFF", "");
+            for (int i = 0; i < csv.fieldCount(); i++) {
+                String h = csv.getString(i).replace("\uFEFF", "");
                 col.put(h, i);
             }
 
@@ -926,105 +1013,102 @@ public class SysData {
                                     Math.max(iQuestion, iCorrect)))))
             );
 
-            String line;
-            int rowNumber = 1;
-
-            while ((line = reader.readLine()) != null) {
-                rowNumber++;
-                if (line.trim().isEmpty()) continue;
-
-                String[] cells = line.split(delimiter, -1);
-                if (cells.length <= maxIndex) {
+            questions.addAll(csv.mapRemaining(row -> {
+                int rowNumber = row.getLineNumber();
+                if (row.fieldCount() <= maxIndex) {
                     System.err.println("Skipping row " + rowNumber + " – not enough columns");
-                    continue;
+                    return null;
                 }
 
-                String optA = cells[iA].trim();
-                String optB = cells[iB].trim();
-                String optC = cells[iC].trim();
-                String optD = cells[iD].trim();
-                String difficultyRaw = cells[iDifficulty].trim();
-                String idStr = cells[iId].trim();
-                String questionText = cells[iQuestion].trim();
-                String correctLetter = cells[iCorrect].trim();
-
-                if (!idStr.matches("\\d+")) {
+                if (!row.isDigits(iId)) {
                     System.err.println("Skipping row " + rowNumber + " – invalid ID");
-                    continue;
+                    return null;
                 }
 
-                String difficultyNum = difficultyRaw.matches("[1-4]")
-                        ? difficultyRaw
-                        : mapDifficultyToNumber(difficultyRaw);
+                String difficultyNum = (row.length(iDifficulty) == 1
+                        && row.charAt(iDifficulty, 0) >= '1' && row.charAt(iDifficulty, 0) <= '4')
+                        ? String.valueOf(row.charAt(iDifficulty, 0))
+                        : mapDifficultyToNumber(row.getString(iDifficulty));
 
                 if (difficultyNum == null) {
                     System.err.println("Skipping row " + rowNumber + " – invalid difficulty");
-                    continue;
+                    return null;
                 }
 
-                if (!correctLetter.matches("[A-Da-d]")) {
+                char correctLetter = (row.length(iCorrect) == 1)
+                        ? Character.toUpperCase(row.charAt(iCorrect, 0)) : '?';
+                if (correctLetter < 'A' || correctLetter > 'D') {
                     System.err.println("Skipping row " + rowNumber + " – invalid correct answer");
-                    continue;
+                    return null;
                 }
 
-                if (questionText.isEmpty()) {
+                if (row.isBlank(iQuestion)) {
                     System.err.println("Skipping row " + rowNumber + " – empty question");
-                    continue;
+                    return null;
                 }
 
-                Question q = new Question(
-                        Integer.parseInt(idStr),
+                int id = row.getInt(iId);
+                if (row.hasError()) {
+                    System.err.println("Skipping row " + rowNumber + " – invalid ID");
+                    return null;
+                }
+
+                return new Question(
+                        id,
                         mapDifficulty(difficultyNum),
-                        questionText,
-                        optA,
-                        optB,
-                        optC,
-                        optD,
-                        mapCorrectLetter(correctLetter)
+                        row.getString(iQuestion),
+                        row.getString(iA),
+                        row.getString(iB),
+                        row.getString(iC),
+                        row.getString(iD),
+                        correctLetter - 'A' + 1
                 );
-
-                questions.add(q);
-            }
+            }));
 
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    //The questions file may use ';' (spreadsheet export) or ','; the header line decides.
+    private static char sniffDelimiter(CharBuffer text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == ';') return ';';
+            if (c == '\n') break;
+        }
+        return ',';
+    }
+
     /**
-     * Saves the internal questions list back to the CSV file.
+     * Saves the internal questions list back to the CSV file (queued, see savePlayersToCsv).
      * Question IDs are renumbered sequentially before saving.
      */
     public void saveQuestionsToCsv() {
         String filePath = getQuestionsCsvPath();
-        System.out.println("Saving questions to: " + filePath);
-
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8))) {
-
-            pw.println("ID,Question,Difficulty,A,B,C,D,Correct Answer");
-
-            int newId = 1;
-            for (Question q : questions) {
-                q.setId(newId++);
-
-                String line = String.join(",",
-                        String.valueOf(q.getId()),
-                        escapeCsv(q.getText()),
-                        mapDifficultyToNumber(q.getDifficulty()),
-                        escapeCsv(q.getOptA()),
-                        escapeCsv(q.getOptB()),
-                        escapeCsv(q.getOptC()),
-                        escapeCsv(q.getOptD()),
-                        mapCorrectNumberToLetter(q.getCorrectOption())
-                );
+        LOG.fine("Saving questions to: " + filePath);
 
-                pw.println(line);
-            }
+        StringBuilder sb = new StringBuilder("ID,Question,Difficulty,A,B,C,D,Correct Answer").append(System.lineSeparator());
 
-        } catch (IOException e) {
-            e.printStackTrace();
+        int newId = 1;
+        for (Question q : questions) {
+            q.setId(newId++);
+
+            String line = String.join(",",
+                    String.valueOf(q.getId()),
+                    escapeCsv(q.getText()),
+                    mapDifficultyToNumber(q.getDifficulty()),
+                    escapeCsv(q.getOptA()),
+                    escapeCsv(q.getOptB()),
+                    escapeCsv(q.getOptC()),
+                    escapeCsv(q.getOptD()),
+                    mapCorrectNumberToLetter(q.getCorrectOption())
+            );
+
+            sb.append(line).append(System.lineSeparator());
         }
+
+        PersistenceQueue.getInstance().saveFile(Paths.get(filePath), sb.toString());
     }
 
     /** Escapes values that contain commas/quotes/newlines for CSV. */
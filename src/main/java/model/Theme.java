@@ -1,17 +1,19 @@
 package model;
 
 public enum Theme {
-    COLORFUL("Colorful theme", "/css/theme.css"),
-    WOLF("Wolf theme", "/css/wolf.css"),
-	CYBER_BLUE("Cyber theme", "/css/Cyber.css"),
-	GREENWOLF("Forest Wolf theme", "/css/GreenWolf.css");
+    COLORFUL("Colorful theme", "/css/theme.css", ""),
+    WOLF("Wolf theme", "/css/wolf.css", "-wolf"),
+	CYBER_BLUE("Cyber theme", "/css/Cyber.css", "-cyber"),
+	GREENWOLF("Forest Wolf theme", "/css/GreenWolf.css", "-green");
 
     private final String displayName;
     private final String cssPath;
+    private final String imageSuffix;   // themed image variants, e.g. switch-on-wolf.png
 
-    Theme(String displayName, String cssPath) {
+    Theme(String displayName, String cssPath, String imageSuffix) {
         this.displayName = displayName;
         this.cssPath = cssPath;
+        this.imageSuffix = imageSuffix;
     }
 
     public String getDisplayName() {
@@ -21,4 +23,8 @@ public enum Theme {
     public String getCssPath() {
         return cssPath;
     }
+
+    public String getImageSuffix() {
+        return imageSuffix;
+    }
 }
@@ -0,0 +1,117 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+//Backtracking over a component of at most 64 cells with the assignment held in one long:
+//bit p set means the cell at position p is a mine. Constraints are masks over the same bits, so
+//"mines placed" and "cells still open" for a constraint are two bit counts.
+//In parallel mode the top levels of the search tree are forked as separate tasks (each branch
+//fixes one more cell), which lets a single large component use every core.
+final class BitsetEnumerator extends RecursiveTask<double[][]> {
+
+    static final int MAX_CELLS = 64;
+
+    private static final int SPLIT_DEPTH = 6;           // up to 64 leaf tasks
+    private static final int SPLIT_MIN_REMAINING = 12;  // below this a branch is not worth a task
+    private static final int BUDGET_CHECK_MASK = 0xFFF;
+
+    private final Component comp;
+    private final long[] masks;
+    private final Budget budget;
+    private final int position;
+    private final long assignment;
+    private final int placed;
+    private final int splitsLeft;
+
+    private long steps;
+
+    private BitsetEnumerator(Component comp, long[] masks, Budget budget, int position, long assignment,
+                             int placed, int splitsLeft) {
+        this.comp = comp;
+        this.masks = masks;
+        this.budget = budget;
+        this.position = position;
+        this.assignment = assignment;
+        this.placed = placed;
+        this.splitsLeft = splitsLeft;
+    }
+
+    //Fills the component's counts; false if the budget ran out first.
+    //Parallel mode must be called from a ForkJoinPool task (it forks).
+    static boolean enumerate(Component comp, Budget budget, boolean parallel) {
+        int m = comp.size();
+        if (m > MAX_CELLS) {
+            throw new IllegalArgumentException("Component has " + m + " cells, at most " + MAX_CELLS + " fit a long");
+        }
+        long[] masks = new long[comp.members.length];
+        for (int c = 0; c < masks.length; c++) {
+            for (int p : comp.members[c]) masks[c] |= 1L << p;
+        }
+
+        double[][] counts = new BitsetEnumerator(comp, masks, budget, 0, 0L, 0, parallel ? SPLIT_DEPTH : 0).compute();
+        if (counts == null || budget.isExpired()) return false;
+
+        double[][] mineByMines = new double[m][];
+        System.arraycopy(counts, 0, mineByMines, 0, m);
+        comp.setCounts(counts[m], mineByMines);
+        return true;
+    }
+
+    //Rows 0..m-1: per cell, solutions by mine count where the cell is a mine; row m: solutions by mine count.
+    @Override
+    protected double[][] compute() {
+        int m = comp.size();
+        if (splitsLeft > 0 && m - position > SPLIT_MIN_REMAINING) {
+            List<BitsetEnumerator> branches = new ArrayList<>(2);
+            for (int value = 0; value <= 1; value++) {
+                long next = assignment | ((long) value << position);
+                if (fits(position, next)) {
+                    branches.add(new BitsetEnumerator(comp, masks, budget, position + 1, next,
+                            placed + value, splitsLeft - 1));
+                }
+            }
+            double[][] sum = new double[m + 1][m + 1];
+            for (BitsetEnumerator branch : invokeAll(branches)) {
+                double[][] part = branch.join();
+                if (part == null) return null;
+                for (int i = 0; i <= m; i++) {
+                    for (int k = 0; k <= m; k++) sum[i][k] += part[i][k];
+                }
+            }
+            return sum;
+        }
+
+        double[][] acc = new double[m + 1][m + 1];
+        search(position, assignment, placed, acc);
+        return budget.isExpired() ? null : acc;
+    }
+
+    private void search(int p, long a, int mines, double[][] acc) {
+        if ((++steps & BUDGET_CHECK_MASK) == 0 && budget.expired()) return;
+        int m = comp.size();
+        if (p == m) {
+            acc[m][mines]++;
+            for (long bits = a; bits != 0; bits &= bits - 1) {
+                acc[Long.numberOfTrailingZeros(bits)][mines]++;
+            }
+            return;
+        }
+        if (fits(p, a)) search(p + 1, a, mines, acc);
+        long withMine = a | (1L << p);
+        if (fits(p, withMine)) search(p + 1, withMine, mines + 1, acc);
+    }
+
+    //After deciding position p: every constraint on p can still reach its count with the open cells.
+    private boolean fits(int p, long a) {
+        long decided = p == 63 ? -1L : (1L << (p + 1)) - 1;
+        for (int c : comp.constraintsOf[p]) {
+            int mines = Long.bitCount(a & masks[c]);
+            int open = Long.bitCount(masks[c] & ~decided);
+            int need = comp.need[c];
+            if (mines > need || mines + open < need) return false;
+        }
+        return true;
+    }
+}
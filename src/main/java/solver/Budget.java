@@ -0,0 +1,25 @@
+package solver;
+
+//Deadline shared by every task of one solve. Tasks poll it every few thousand steps; once one of
+//them sees the deadline pass, all of them stop at their next poll.
+final class Budget {
+
+    private final long deadline;
+    private volatile boolean expired;
+
+    Budget(long deadlineNanos) {
+        this.deadline = deadlineNanos;
+    }
+
+    boolean expired() {
+        if (expired) return true;
+        if (System.nanoTime() > deadline) {
+            expired = true;
+        }
+        return expired;
+    }
+
+    boolean isExpired() {
+        return expired;
+    }
+}
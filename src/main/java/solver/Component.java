@@ -0,0 +1,179 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//One independent part of the frontier: its covered cells, the number constraints between them and,
+//once enumerated, how many solutions place k mines in it (byMines) and how many of those put a mine
+//on each cell (mineByMines). Cells are addressed by position 0..size-1 in enumeration order.
+final class Component {
+
+    final int[] cells;          // board indices, in enumeration order
+    final int[][] members;      // per constraint: positions of its cells, ascending
+    final int[] need;           // per constraint: mines among its cells
+    final int[][] constraintsOf; // per position: indices of the constraints it belongs to
+
+    boolean exact;
+    double[] byMines;
+    double[][] mineByMines;
+    double[] estimate;          // per-position probability when not exact
+    int estimatedMines;
+
+    //constraintCells holds board indices; every cell must belong to at least one constraint.
+    Component(int[] cellSet, List<int[]> constraintCells, int[] needs, int boardCols) {
+        this.cells = chooseOrder(cellSet, constraintCells, boardCols);
+        this.need = needs.clone();
+
+        Map<Integer, Integer> pos = new HashMap<>();
+        for (int k = 0; k < cells.length; k++) pos.put(cells[k], k);
+
+        members = new int[constraintCells.size()][];
+        List<List<Integer>> byPos = new ArrayList<>();
+        for (int k = 0; k < cells.length; k++) byPos.add(new ArrayList<>(4));
+        for (int c = 0; c < members.length; c++) {
+            int[] raw = constraintCells.get(c);
+            int[] p = new int[raw.length];
+            for (int k = 0; k < raw.length; k++) p[k] = pos.get(raw[k]);
+            Arrays.sort(p);
+            members[c] = p;
+            for (int x : p) byPos.get(x).add(c);
+        }
+        constraintsOf = new int[cells.length][];
+        for (int k = 0; k < cells.length; k++) {
+            constraintsOf[k] = byPos.get(k).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    int size() {
+        return cells.length;
+    }
+
+    //Largest number of constraints that are partly assigned at any point of the enumeration order.
+    int cutWidth() {
+        return cutWidth(members, cells.length);
+    }
+
+    void setCounts(double[] byMines, double[][] mineByMines) {
+        this.byMines = byMines;
+        this.mineByMines = mineByMines;
+        this.exact = true;
+    }
+
+    boolean hasSolutions() {
+        for (double count : byMines) {
+            if (count > 0) return true;
+        }
+        return false;
+    }
+
+    //Local estimate: the average density of the constraints a cell belongs to.
+    void estimate() {
+        int m = cells.length;
+        double[] sum = new double[m];
+        for (int c = 0; c < members.length; c++) {
+            double density = (double) need[c] / members[c].length;
+            for (int p : members[c]) sum[p] += density;
+        }
+        estimate = new double[m];
+        double total = 0;
+        for (int p = 0; p < m; p++) {
+            estimate[p] = sum[p] / constraintsOf[p].length;
+            total += estimate[p];
+        }
+        exact = false;
+        estimatedMines = (int) Math.round(total);
+    }
+
+    // ---------------- enumeration order ----------------
+
+    //Tries a breadth-first walk along the constraints, row-major and column-major order, and keeps
+    //the one with the narrowest cut: the memoized enumeration keys its sub-results on the open
+    //constraints, and backtracking prunes earlier when constraints close soon after they open.
+    private static int[] chooseOrder(int[] cellSet, List<int[]> constraintCells, int boardCols) {
+        int[] rowMajor = cellSet.clone();
+        Arrays.sort(rowMajor);
+        int[] best = breadthFirst(rowMajor, constraintCells);
+        int bestWidth = widthOf(best, constraintCells);
+
+        int width = widthOf(rowMajor, constraintCells);
+        if (width < bestWidth) {
+            best = rowMajor;
+            bestWidth = width;
+        }
+        int[] colMajor = columnMajor(rowMajor, boardCols);
+        if (widthOf(colMajor, constraintCells) < bestWidth) {
+            best = colMajor;
+        }
+        return best;
+    }
+
+    private static int[] breadthFirst(int[] cells, List<int[]> constraintCells) {
+        Map<Integer, List<int[]>> byCell = new HashMap<>();
+        for (int[] con : constraintCells) {
+            for (int v : con) byCell.computeIfAbsent(v, key -> new ArrayList<>(4)).add(con);
+        }
+        int[] order = new int[cells.length];
+        int head = 0;
+        int tail = 0;
+        BitSet seen = new BitSet();
+        order[tail++] = cells[0];
+        seen.set(cells[0]);
+        while (head < tail) {
+            for (int[] con : byCell.get(order[head++])) {
+                for (int w : con) {
+                    if (!seen.get(w)) {
+                        seen.set(w);
+                        order[tail++] = w;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] columnMajor(int[] rowMajor, int boardCols) {
+        return Arrays.stream(rowMajor).boxed()
+                .sorted((a, b) -> a % boardCols != b % boardCols
+                        ? Integer.compare(a % boardCols, b % boardCols) : Integer.compare(a, b))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int widthOf(int[] order, List<int[]> constraintCells) {
+        Map<Integer, Integer> pos = new HashMap<>();
+        for (int k = 0; k < order.length; k++) pos.put(order[k], k);
+        int[][] members = new int[constraintCells.size()][];
+        for (int c = 0; c < members.length; c++) {
+            int[] raw = constraintCells.get(c);
+            members[c] = new int[raw.length];
+            for (int k = 0; k < raw.length; k++) members[c][k] = pos.get(raw[k]);
+        }
+        return cutWidth(members, order.length);
+    }
+
+    private static int cutWidth(int[][] members, int size) {
+        int[] delta = new int[size + 2];
+        for (int[] m : members) {
+            int first = Integer.MAX_VALUE;
+            int last = -1;
+            for (int p : m) {
+                first = Math.min(first, p);
+                last = Math.max(last, p);
+            }
+            if (first < last) {
+                delta[first + 1]++;
+                delta[last + 1]--;
+            }
+        }
+        int open = 0;
+        int max = 0;
+        for (int p = 0; p <= size; p++) {
+            open += delta[p];
+            max = Math.max(max, open);
+        }
+        return max;
+    }
+}
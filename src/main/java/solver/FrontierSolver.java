@@ -0,0 +1,576 @@
+package solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+//Constraint solver over the visible state of one board.
+//Every revealed number gives one constraint: "these covered neighbours hold exactly k mines".
+//Solving runs in stages, each cheaper than the next:
+//  1. single-point rules (k == 0 -> all safe, k == size -> all mines), driven by a work queue
+//  2. subset / superset rules between overlapping constraints (the 1-2-1 style patterns)
+//  3. the rest of the frontier is split into independent components and each one is counted
+//     exactly per mine count: small ones by bitset backtracking (BitsetEnumerator), long ones by
+//     layer-wise counting with memoized sub-results (MemoEnumerator)
+//  4. the component counts are weighted globally by how many ways the leftover mines fit in the
+//     covered cells that touch no number (log-space binomials), which gives a mine probability for
+//     every covered cell
+//Stage 3 stops at the time budget; components it could not finish get a local estimate instead
+//and the result is marked inexact. An estimate is only a rounded guess of a component's mines, so
+//then the global count in stage 4 is a probability weight only and gives no SAFE/MINE verdicts.
+//In PARALLEL mode stages 3 and 4 run on the common ForkJoinPool.
+//
+//One solver belongs to one board. It is incremental: deductions from earlier calls stay valid
+//(the visible state only grows), so they seed the next call and the work queue starts from them.
+//Only proven deductions are kept: those of propagation, or all of them when the result is exact.
+public final class FrontierSolver {
+
+    //Components up to this size go straight to bitset backtracking; larger ones try the memo first.
+    static final int SMALL_COMPONENT = 24;
+
+    private static final int BUDGET_CHECK_MASK = 0x3FF;
+
+    private static final byte SAFE_CELL = 1;
+    private static final byte MINE_CELL = 2;
+    private static final byte CONTRADICTION = 3;
+
+    private final int rows;
+    private final int cols;
+    private final SolverMode mode;
+    private final BitSet knownMines = new BitSet();
+    private final BitSet knownSafe = new BitSet();
+
+    public FrontierSolver(int rows, int cols) {
+        this(rows, cols, SolverMode.SEQUENTIAL);
+    }
+
+    public FrontierSolver(int rows, int cols, SolverMode mode) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("rows and cols must be positive");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("mode cannot be null");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mode = mode;
+    }
+
+    //Convenience for a single, non-incremental solve.
+    public static SolverResult solveOnce(Snapshot snapshot, long budgetMillis) {
+        return solveOnce(snapshot, budgetMillis, SolverMode.SEQUENTIAL);
+    }
+
+    public static SolverResult solveOnce(Snapshot snapshot, long budgetMillis, SolverMode mode) {
+        return new FrontierSolver(snapshot.rows, snapshot.cols, mode).solve(snapshot, budgetMillis);
+    }
+
+    public SolverMode getMode() {
+        return mode;
+    }
+
+    public synchronized SolverResult solve(Snapshot snapshot, long budgetMillis) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("snapshot cannot be null");
+        }
+        if (snapshot.rows != rows || snapshot.cols != cols) {
+            throw new IllegalArgumentException("Snapshot is " + snapshot.rows + "x" + snapshot.cols
+                    + " but this solver is for " + rows + "x" + cols);
+        }
+        long start = System.nanoTime();
+        Budget budget = new Budget(start + Math.max(0, budgetMillis) * 1_000_000L);
+
+        Run run = new Run(snapshot, budget);
+        SolverResult result = mode == SolverMode.PARALLEL
+                ? ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> run.solve(start)))
+                : run.solve(start);
+        if (result.isExact()) {
+            knownMines.or(result.getMineCells());
+            knownSafe.or(result.getSafeCells());
+        } else if (result.isConsistent()) {
+            knownMines.or(run.provenMines);
+            knownSafe.or(run.provenSafe);
+        }
+        return result;
+    }
+
+    //Forgets the deductions of earlier calls (e.g. after the board was replaced).
+    public synchronized void reset() {
+        knownMines.clear();
+        knownSafe.clear();
+    }
+
+    // ---------------- one solve ----------------
+
+    private static final class Constraint {
+        final int[] vars;   // first size entries are the still-unknown cells
+        int size;
+        int count;          // mines among vars[0..size)
+        boolean queued;
+
+        Constraint(int[] vars, int count) {
+            this.vars = vars;
+            this.size = vars.length;
+            this.count = count;
+        }
+    }
+
+    private final class Run {
+        final Snapshot s;
+        final int n;
+        final Budget budget;
+
+        final BitSet mines = new BitSet();   // covered cells known to be mines
+        final BitSet safe = new BitSet();    // covered cells known to be safe
+        final List<Constraint> constraints = new ArrayList<>();
+        final Map<Integer, List<Constraint>> byCell = new HashMap<>();
+        final ArrayDeque<Constraint> queue = new ArrayDeque<>();
+        BitSet provenMines = new BitSet();   // what propagation alone found (always sound)
+        BitSet provenSafe = new BitSet();
+
+        boolean consistent = true;
+        boolean exact = true;
+        boolean outOfTime;
+        final boolean parallel = mode == SolverMode.PARALLEL;
+        long steps;
+        double fallback = Double.NaN;
+
+        Run(Snapshot s, Budget budget) {
+            this.s = s;
+            this.n = s.rows * s.cols;
+            this.budget = budget;
+        }
+
+        SolverResult solve(long start) {
+            for (int i = knownMines.nextSetBit(0); i >= 0 && i < n; i = knownMines.nextSetBit(i + 1)) {
+                if (s.state[i] == Snapshot.COVERED) mines.set(i);
+            }
+            for (int i = knownSafe.nextSetBit(0); i >= 0 && i < n; i = knownSafe.nextSetBit(i + 1)) {
+                if (s.state[i] == Snapshot.COVERED) safe.set(i);
+            }
+
+            buildConstraints();
+            propagate();
+            provenMines = (BitSet) mines.clone();
+            provenSafe = (BitSet) safe.clone();
+
+            List<Component> components = consistent ? components() : List.of();
+            if (parallel && components.size() > 1) {
+                ForkJoinTask.invokeAll(components.stream()
+                        .map(comp -> ForkJoinTask.adapt(() -> enumerate(comp)))
+                        .toList());
+            } else {
+                components.forEach(this::enumerate);
+            }
+            for (Component comp : components) {
+                if (!comp.exact) exact = false;
+                else if (!comp.hasSolutions()) consistent = false;
+            }
+
+            double[] probability = new double[n];
+            Arrays.fill(probability, Double.NaN);
+            int frontier = 0;
+            for (Component comp : components) frontier += comp.size();
+
+            if (consistent) {
+                combine(components, probability);
+            }
+            for (int i = 0; i < n; i++) {
+                if (s.state[i] != Snapshot.COVERED) continue;
+                if (mines.get(i)) probability[i] = 1.0;
+                else if (safe.get(i)) probability[i] = 0.0;
+                else if (!consistent || Double.isNaN(probability[i])) probability[i] = fallbackProbability();
+            }
+
+            return new SolverResult(s.cols, safe, mines, probability, exact && consistent && !outOfTime,
+                    consistent, frontier, components.size(), System.nanoTime() - start);
+        }
+
+        boolean isUnknown(int i) {
+            return s.state[i] == Snapshot.COVERED && !mines.get(i) && !safe.get(i);
+        }
+
+        boolean timeUp() {
+            if (!outOfTime && (++steps & BUDGET_CHECK_MASK) == 0 && budget.expired()) {
+                outOfTime = true;
+            }
+            return outOfTime;
+        }
+
+        // ---------------- stage 1 + 2: propagation ----------------
+
+        void buildConstraints() {
+            int[] around = new int[8];
+            for (int i = 0; i < n; i++) {
+                int shown = s.state[i];
+                if (shown < 0) continue;
+
+                int r = i / s.cols;
+                int c = i % s.cols;
+                int size = 0;
+                int count = shown;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if (dr == 0 && dc == 0) continue;
+                        int nr = r + dr;
+                        int nc = c + dc;
+                        if (nr < 0 || nr >= s.rows || nc < 0 || nc >= s.cols) continue;
+                        int j = nr * s.cols + nc;
+                        if (s.state[j] == Snapshot.MINE || mines.get(j)) count--;
+                        else if (isUnknown(j)) around[size++] = j;
+                    }
+                }
+                if (size == 0) {
+                    if (count != 0) consistent = false;
+                    continue;
+                }
+                Constraint con = new Constraint(Arrays.copyOf(around, size), count);
+                constraints.add(con);
+                for (int k = 0; k < size; k++) {
+                    byCell.computeIfAbsent(around[k], key -> new ArrayList<>(4)).add(con);
+                }
+                con.queued = true;
+                queue.add(con);
+            }
+        }
+
+        void propagate() {
+            while (consistent) {
+                while (!queue.isEmpty() && consistent) {
+                    if (timeUp()) return;
+                    Constraint con = queue.poll();
+                    con.queued = false;
+                    reduce(con);
+                    if (con.size == 0) continue;
+                    if (con.count == 0) markAll(con, 0, con.size, false);
+                    else if (con.count == con.size) markAll(con, 0, con.size, true);
+                }
+                if (!consistent || outOfTime || !pairPass()) return;
+            }
+        }
+
+        //Drops cells that became known since the constraint was last looked at.
+        void reduce(Constraint con) {
+            int kept = 0;
+            for (int k = 0; k < con.size; k++) {
+                int v = con.vars[k];
+                if (mines.get(v)) con.count--;
+                else if (!safe.get(v)) con.vars[kept++] = v;
+            }
+            con.size = kept;
+            if (con.count < 0 || con.count > con.size) consistent = false;
+        }
+
+        void mark(int cell, boolean mine) {
+            if (mines.get(cell) || safe.get(cell)) return;
+            (mine ? mines : safe).set(cell);
+            for (Constraint other : byCell.getOrDefault(cell, List.of())) {
+                if (!other.queued) {
+                    other.queued = true;
+                    queue.add(other);
+                }
+            }
+        }
+
+        void markAll(Constraint con, int from, int to, boolean mine) {
+            for (int k = from; k < to; k++) {
+                mark(con.vars[k], mine);
+            }
+        }
+
+        //For overlapping A and B: if B needs exactly |B \ A| more mines than A has, every cell of
+        //B \ A is a mine and every cell of A \ B is safe (A inside B is the subset rule).
+        //Returns true when something new was marked.
+        boolean pairPass() {
+            for (Constraint con : constraints) {
+                reduce(con);
+            }
+            if (!consistent) return false;
+
+            int before = mines.cardinality() + safe.cardinality();
+            int[] onlyA = new int[8];
+            int[] onlyB = new int[8];
+            for (Constraint a : constraints) {
+                if (a.size == 0) continue;
+                if (timeUp()) return false;
+                for (int k = 0; k < a.size; k++) {
+                    for (Constraint b : byCell.get(a.vars[k])) {
+                        if (b == a || b.size == 0) continue;
+                        int nA = difference(a, b, onlyA);
+                        int nB = difference(b, a, onlyB);
+                        if (b.count - a.count == nB && (nA > 0 || nB > 0)) {
+                            for (int x = 0; x < nB; x++) mark(onlyB[x], true);
+                            for (int x = 0; x < nA; x++) mark(onlyA[x], false);
+                        }
+                    }
+                }
+            }
+            return mines.cardinality() + safe.cardinality() > before;
+        }
+
+        //Cells of x that are not in y (both tiny, so a nested scan is fine).
+        int difference(Constraint x, Constraint y, int[] out) {
+            int size = 0;
+            outer:
+            for (int i = 0; i < x.size; i++) {
+                int v = x.vars[i];
+                for (int j = 0; j < y.size; j++) {
+                    if (y.vars[j] == v) continue outer;
+                }
+                out[size++] = v;
+            }
+            return size;
+        }
+
+        // ---------------- stage 3: components + enumeration ----------------
+
+        List<Component> components() {
+            Map<Integer, Integer> local = new HashMap<>();
+            List<Integer> cells = new ArrayList<>();
+            List<Constraint> live = new ArrayList<>();
+            for (Constraint con : constraints) {
+                reduce(con);
+                if (con.size == 0) continue;
+                live.add(con);
+                for (int k = 0; k < con.size; k++) {
+                    if (local.putIfAbsent(con.vars[k], cells.size()) == null) cells.add(con.vars[k]);
+                }
+            }
+
+            int[] parent = new int[cells.size()];
+            for (int i = 0; i < parent.length; i++) parent[i] = i;
+            for (Constraint con : live) {
+                int root = find(parent, local.get(con.vars[0]));
+                for (int k = 1; k < con.size; k++) {
+                    int other = find(parent, local.get(con.vars[k]));
+                    if (other != root) parent[other] = root;
+                }
+            }
+
+            // group constraints (as plain cell arrays) and cells by root, in first-seen order
+            Map<Integer, List<Constraint>> byRoot = new LinkedHashMap<>();
+            for (Constraint con : live) {
+                byRoot.computeIfAbsent(find(parent, local.get(con.vars[0])), key -> new ArrayList<>()).add(con);
+            }
+            List<Component> result = new ArrayList<>(byRoot.size());
+            for (List<Constraint> group : byRoot.values()) {
+                BitSet seen = new BitSet();
+                List<int[]> cellsOf = new ArrayList<>(group.size());
+                int[] needs = new int[group.size()];
+                for (int g = 0; g < group.size(); g++) {
+                    Constraint con = group.get(g);
+                    int[] vars = Arrays.copyOf(con.vars, con.size);
+                    cellsOf.add(vars);
+                    needs[g] = con.count;
+                    for (int v : vars) seen.set(v);
+                }
+                result.add(new Component(seen.stream().toArray(), cellsOf, needs, s.cols));
+            }
+            return result;
+        }
+
+        int find(int[] parent, int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        //Runs as its own task in PARALLEL mode, so it only touches the component.
+        void enumerate(Component comp) {
+            boolean done = false;
+            if (!budget.expired()) {   // reads the clock, so a spent budget skips straight to the estimate
+                int m = comp.size();
+                if (m <= SMALL_COMPONENT) {
+                    done = BitsetEnumerator.enumerate(comp, budget, parallel);
+                } else {
+                    done = MemoEnumerator.enumerate(comp, budget, parallel);
+                    if (!done && m <= BitsetEnumerator.MAX_CELLS && !budget.isExpired()) {
+                        done = BitsetEnumerator.enumerate(comp, budget, parallel);
+                    }
+                }
+            }
+            if (!done) comp.estimate();
+        }
+
+        // ---------------- stage 4: global weighting ----------------
+
+        //Weight of a frontier solution with s mines: C(outside, minesLeft - s), in log space so large
+        //boards do not overflow. Each component's marginals need the other components' joint
+        //distribution; prefix and suffix products give it without redoing the convolutions.
+        //When a component was only estimated (or time ran out) minesLeft is off by an unknown amount:
+        //the weights still shape the probabilities, but no cell is called safe or a mine from them.
+        void combine(List<Component> components, double[] probability) {
+            int outside = 0;
+            BitSet frontier = new BitSet();
+            for (Component comp : components) {
+                for (int v : comp.cells) frontier.set(v);
+            }
+            for (int i = 0; i < n; i++) {
+                if (isUnknown(i) && !frontier.get(i)) outside++;
+            }
+
+            int left = s.minesLeft - mines.cardinality();
+            List<Component> enumerated = new ArrayList<>();
+            for (Component comp : components) {
+                if (comp.exact) {
+                    enumerated.add(comp);
+                } else {
+                    left -= comp.estimatedMines;
+                    for (int k = 0; k < comp.size(); k++) probability[comp.cells[k]] = comp.estimate[k];
+                }
+            }
+
+            final int outsideCells = outside;
+            final int minesLeft = left;
+            final boolean countIsExact = enumerated.size() == components.size() && !outOfTime;
+            IntToDoubleFunction byCount = frontierMines -> LogBinomial.lnChoose(outsideCells, minesLeft - frontierMines);
+
+            int c = enumerated.size();
+            double[][] prefix = new double[c + 1][];
+            double[][] suffix = new double[c + 1][];
+            prefix[0] = new double[] { 1 };
+            suffix[c] = new double[] { 1 };
+            for (int k = 0; k < c; k++) prefix[k + 1] = convolve(prefix[k], enumerated.get(k).byMines);
+            for (int k = c - 1; k >= 0; k--) suffix[k] = convolve(enumerated.get(k).byMines, suffix[k + 1]);
+
+            double[] all = prefix[c];
+            double top = Double.NEGATIVE_INFINITY;
+            for (int t = 0; t < all.length; t++) top = Math.max(top, byCount.applyAsDouble(t));
+            if (top == Double.NEGATIVE_INFINITY && countIsExact) {
+                consistent = false;
+                return;
+            }
+            // an estimate can leave no room for the mines left: then every frontier count weighs the same
+            IntToDoubleFunction lnWeight = top == Double.NEGATIVE_INFINITY ? frontierMines -> 0 : byCount;
+            if (top == Double.NEGATIVE_INFINITY) top = 0;
+            double[] weight = new double[all.length];
+            for (int t = 0; t < all.length; t++) weight[t] = Math.exp(lnWeight.applyAsDouble(t) - top);
+
+            // per component: probabilities go straight into distinct cells, verdicts are applied after
+            byte[][] verdicts = new byte[c][];
+            IntStream indices = IntStream.range(0, c);
+            (parallel ? indices.parallel() : indices).forEach(k -> verdicts[k] = marginals(enumerated.get(k),
+                    convolve(prefix[k], suffix[k + 1]), weight, lnWeight, countIsExact, probability));
+            for (int k = 0; k < c; k++) {
+                Component comp = enumerated.get(k);
+                for (int v = 0; v < comp.size(); v++) {
+                    switch (verdicts[k][v]) {
+                        case SAFE_CELL -> safe.set(comp.cells[v]);
+                        case MINE_CELL -> mines.set(comp.cells[v]);
+                        case CONTRADICTION -> consistent = false;
+                        default -> { }
+                    }
+                }
+            }
+
+            if (outside > 0) {
+                double z = 0;
+                double expected = 0;
+                boolean canBeMine = false;
+                boolean canBeSafe = false;
+                for (int t = 0; t < all.length; t++) {
+                    if (all[t] <= 0 || lnWeight.applyAsDouble(t) == Double.NEGATIVE_INFINITY) continue;
+                    double w = all[t] * weight[t];
+                    z += w;
+                    expected += w * (minesLeft - t);
+                    canBeMine |= minesLeft - t > 0;
+                    canBeSafe |= minesLeft - t < outside;
+                }
+                double p = z > 0 ? Math.min(1.0, Math.max(0.0, expected / z / outside)) : fallbackProbability();
+                for (int i = 0; i < n; i++) {
+                    if (!isUnknown(i) || frontier.get(i)) continue;
+                    if (countIsExact && !canBeMine) safe.set(i);
+                    else if (countIsExact && !canBeSafe) mines.set(i);
+                    else probability[i] = p;
+                }
+            }
+        }
+
+        //Mine probability of each cell of one component given the other components' joint
+        //distribution (rest). Writes probabilities of uncertain cells; returns a verdict per cell.
+        //Without an exact global count a verdict may only use the component's own solutions: a cell
+        //is safe or a mine only if it is so in every one of them, whatever their mine count.
+        byte[] marginals(Component comp, double[] rest, double[] weight, IntToDoubleFunction lnWeight,
+                         boolean countIsExact, double[] probability) {
+            int m = comp.size();
+            double scale = 0;
+            for (double count : comp.byMines) scale = Math.max(scale, count);
+
+            // h[j]: weight of all completions when this component holds j mines
+            double[] h = new double[m + 1];
+            boolean[] feasible = new boolean[m + 1];
+            for (int j = 0; j <= m; j++) {
+                if (!countIsExact) feasible[j] = comp.byMines[j] > 0;
+                for (int t = 0; t < rest.length && j + t < weight.length; t++) {
+                    if (rest[t] > 0 && lnWeight.applyAsDouble(j + t) != Double.NEGATIVE_INFINITY) {
+                        if (countIsExact) feasible[j] = comp.byMines[j] > 0;
+                        h[j] += rest[t] * weight[j + t];
+                    }
+                }
+            }
+            double z = 0;
+            for (int j = 0; j <= m; j++) z += comp.byMines[j] / scale * h[j];
+
+            byte[] verdict = new byte[m];
+            for (int v = 0; v < m; v++) {
+                double num = 0;
+                boolean canBeMine = false;
+                boolean canBeSafe = false;
+                for (int j = 0; j <= m; j++) {
+                    num += comp.mineByMines[v][j] / scale * h[j];
+                    if (!feasible[j]) continue;
+                    canBeMine |= comp.mineByMines[v][j] > 0;
+                    canBeSafe |= comp.mineByMines[v][j] < comp.byMines[j];
+                }
+                if (!canBeMine && !canBeSafe) {
+                    verdict[v] = CONTRADICTION;
+                } else if (!canBeMine) {
+                    verdict[v] = SAFE_CELL;
+                } else if (!canBeSafe) {
+                    verdict[v] = MINE_CELL;
+                } else {
+                    probability[comp.cells[v]] = z > 0 ? Math.min(1.0, num / z) : 0.5;
+                }
+            }
+            return verdict;
+        }
+
+        //Product of two mine-count distributions, rescaled so the largest entry is 1.
+        double[] convolve(double[] a, double[] b) {
+            double[] out = new double[a.length + b.length - 1];
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] == 0) continue;
+                for (int j = 0; j < b.length; j++) out[i + j] += a[i] * b[j];
+            }
+            double max = 0;
+            for (double v : out) max = Math.max(max, v);
+            if (max > 0) {
+                for (int i = 0; i < out.length; i++) out[i] /= max;
+            }
+            return out;
+        }
+
+        //Plain density when nothing better is known (computed once per run).
+        double fallbackProbability() {
+            if (!Double.isNaN(fallback)) return fallback;
+            int covered = 0;
+            for (int i = 0; i < n; i++) {
+                if (isUnknown(i)) covered++;
+            }
+            int left = s.minesLeft - mines.cardinality();
+            fallback = covered == 0 ? 0.0 : Math.min(1.0, Math.max(0.0, (double) left / covered));
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package solver;
+
+//ln C(n, k) from a shared table of ln n!, so weights like C(250000, 40000) stay finite without BigInteger.
+//The table only grows; readers see either the old or the new array, both valid for what they index.
+final class LogBinomial {
+
+    private static volatile double[] lnFactorial = { 0.0 };
+
+    private LogBinomial() {}
+
+    //Negative infinity when k is outside 0..n (no way to choose).
+    static double lnChoose(int n, int k) {
+        if (k < 0 || n < 0 || k > n) return Double.NEGATIVE_INFINITY;
+        double[] table = table(n);
+        return table[n] - table[k] - table[n - k];
+    }
+
+    private static double[] table(int n) {
+        double[] table = lnFactorial;
+        if (n < table.length) return table;
+        synchronized (LogBinomial.class) {
+            table = lnFactorial;
+            if (n < table.length) return table;
+            double[] grown = new double[Math.max(n + 1, table.length * 2)];
+            System.arraycopy(table, 0, grown, 0, table.length);
+            for (int i = table.length; i < grown.length; i++) {
+                grown[i] = grown[i - 1] + Math.log(i);
+            }
+            lnFactorial = grown;
+            return grown;
+        }
+    }
+}
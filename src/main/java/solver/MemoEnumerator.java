@@ -0,0 +1,227 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+//Exact counting for long components (a frontier running along an opened region) without visiting
+//every solution. Cells are decided one position at a time; after position p the rest of the search
+//only depends on how many mines each still-open constraint is missing. That residual vector (4 bits
+//per open constraint, packed in a long) is the memo key, and the sub-result stored under it is the
+//suffix distribution: ways to finish from there, by number of mines placed in the suffix.
+//
+//Three passes over the layers 0..m:
+//  1. forward: which residual states are reachable at each layer
+//  2. backward: suffix distribution per reachable state (the memo), parallel across a wide layer
+//  3. forward again with prefix distributions, pairing each with the memo to get per-cell counts
+//Work grows with the number of states per layer instead of 2^m.
+final class MemoEnumerator {
+
+    static final int MAX_OPEN = 15;                 // residuals are 0..8, 4 bits each, sign bit left clear
+    static final int MAX_CELLS = 1000;              // keeps counts below 2^1000, inside a double
+    private static final long MEMO_LIMIT = 4_000_000L;   // doubles kept across all layers (32 MB)
+    private static final int MAX_STATES_PER_LAYER = 200_000;
+    private static final int PARALLEL_LAYER = 512;
+
+    private final Component comp;
+    private final Budget budget;
+    private final boolean parallel;
+    private final int m;
+
+    // per layer p (before deciding position p): open constraints, ascending
+    private final int[][] openAt;
+    // per step p (deciding position p), for each constraint open at p + 1:
+    private final int[][] fromSlot;     // its slot in openAt[p], or -1 if it opens at p
+    private final boolean[][] hits;     // whether it contains position p
+    private final int[][] maxAfter;     // cells it still has after p
+    // per step p, constraints closing at p (last cell is p): slot in openAt[p] or -1, and their constraint index
+    private final int[][] closingSlot;
+    private final int[][] closing;
+
+    private long steps;
+
+    private MemoEnumerator(Component comp, Budget budget, boolean parallel) {
+        this.comp = comp;
+        this.budget = budget;
+        this.parallel = parallel;
+        this.m = comp.size();
+
+        int constraints = comp.members.length;
+        int[] first = new int[constraints];
+        int[] last = new int[constraints];
+        for (int c = 0; c < constraints; c++) {
+            first[c] = comp.members[c][0];
+            last[c] = comp.members[c][comp.members[c].length - 1];
+        }
+
+        openAt = new int[m + 1][];
+        for (int p = 0; p <= m; p++) {
+            final int layer = p;
+            openAt[p] = IntStream.range(0, constraints)
+                    .filter(c -> first[c] < layer && last[c] >= layer).toArray();
+        }
+
+        fromSlot = new int[m][];
+        hits = new boolean[m][];
+        maxAfter = new int[m][];
+        closingSlot = new int[m][];
+        closing = new int[m][];
+        for (int p = 0; p < m; p++) {
+            int[] next = openAt[p + 1];
+            fromSlot[p] = new int[next.length];
+            hits[p] = new boolean[next.length];
+            maxAfter[p] = new int[next.length];
+            for (int j = 0; j < next.length; j++) {
+                int c = next[j];
+                fromSlot[p][j] = first[c] < p ? Arrays.binarySearch(openAt[p], c) : -1;
+                hits[p][j] = Arrays.binarySearch(comp.members[c], p) >= 0;
+                int after = 0;
+                for (int x : comp.members[c]) if (x > p) after++;
+                maxAfter[p][j] = after;
+            }
+            final int step = p;
+            closing[p] = IntStream.range(0, constraints).filter(c -> last[c] == step).toArray();
+            closingSlot[p] = new int[closing[p].length];
+            for (int j = 0; j < closing[p].length; j++) {
+                int c = closing[p][j];
+                closingSlot[p][j] = first[c] < p ? Arrays.binarySearch(openAt[p], c) : -1;
+            }
+        }
+    }
+
+    //Fills the component's counts; false if it is too wide for the memo or the budget ran out.
+    //Parallel mode spreads wide layers over the common ForkJoinPool.
+    static boolean enumerate(Component comp, Budget budget, boolean parallel) {
+        if (comp.size() > MAX_CELLS || comp.cutWidth() > MAX_OPEN) return false;
+        return new MemoEnumerator(comp, budget, parallel).run();
+    }
+
+    private boolean run() {
+        // 1. reachable states per layer
+        long[][] states = new long[m + 1][];
+        states[0] = new long[] { 0L };
+        for (int p = 0; p < m; p++) {
+            Set<Long> next = new HashSet<>();
+            for (long s : states[p]) {
+                if (tick()) return false;
+                for (int v = 0; v <= 1; v++) {
+                    long t = step(p, s, v);
+                    if (t >= 0) next.add(t);
+                }
+            }
+            if (next.size() > MAX_STATES_PER_LAYER) return false;
+            states[p + 1] = next.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        // 2. memoized suffix distributions; index k = mines among positions p..m-1
+        @SuppressWarnings("unchecked")
+        Map<Long, double[]>[] suffix = new Map[m + 1];
+        suffix[m] = new HashMap<>();
+        suffix[m].put(0L, new double[] { 1.0 });
+        long stored = 1;
+        for (int p = m - 1; p >= 0; p--) {
+            final int layer = p;
+            long[] layerStates = states[p];
+            double[][] dists = new double[layerStates.length][];
+            IntFunction<double[]> fill = i -> suffixOf(layer, layerStates[i], suffix[layer + 1]);
+            if (parallel && layerStates.length >= PARALLEL_LAYER) {
+                Arrays.parallelSetAll(dists, fill);
+            } else {
+                Arrays.setAll(dists, fill);
+            }
+            if (budget.expired()) return false;
+
+            suffix[p] = new HashMap<>();
+            for (int i = 0; i < layerStates.length; i++) {
+                if (dists[i] != null) suffix[p].put(layerStates[i], dists[i]);
+            }
+            stored += (long) suffix[p].size() * (m - p + 1);
+            if (stored > MEMO_LIMIT) return false;
+        }
+
+        double[] byMines = suffix[0].get(0L);
+        double[][] mineByMines = new double[m][m + 1];
+        if (byMines == null) {
+            comp.setCounts(new double[m + 1], mineByMines);   // no solution at all
+            return true;
+        }
+
+        // 3. prefix distributions (index k = mines among positions 0..p-1), paired with the memo
+        Map<Long, double[]> prefix = new HashMap<>();
+        prefix.put(0L, new double[] { 1.0 });
+        for (int p = 0; p < m; p++) {
+            final int length = p + 2;
+            Map<Long, double[]> next = new HashMap<>();
+            for (Map.Entry<Long, double[]> e : prefix.entrySet()) {
+                if (tick()) return false;
+                double[] f = e.getValue();
+                for (int v = 0; v <= 1; v++) {
+                    long t = step(p, e.getKey(), v);
+                    if (t < 0) continue;
+                    double[] rest = suffix[p + 1].get(t);
+                    if (rest == null) continue;
+
+                    if (v == 1) {
+                        double[] row = mineByMines[p];
+                        for (int a = 0; a < f.length; a++) {
+                            if (f[a] == 0) continue;
+                            for (int b = 0; b < rest.length; b++) row[a + 1 + b] += f[a] * rest[b];
+                        }
+                    }
+                    double[] g = next.computeIfAbsent(t, key -> new double[length]);
+                    for (int a = 0; a < f.length; a++) g[a + v] += f[a];
+                }
+            }
+            prefix = next;
+        }
+
+        comp.setCounts(Arrays.copyOf(byMines, m + 1), mineByMines);
+        return true;
+    }
+
+    //Suffix distribution from state s at layer p, or null when no completion exists.
+    private double[] suffixOf(int p, long s, Map<Long, double[]> after) {
+        double[] out = null;
+        for (int v = 0; v <= 1; v++) {
+            long t = step(p, s, v);
+            if (t < 0) continue;
+            double[] rest = after.get(t);
+            if (rest == null) continue;
+            if (out == null) out = new double[m - p + 1];
+            for (int k = 0; k < rest.length; k++) out[k + v] += rest[k];
+        }
+        return out;
+    }
+
+    //State after deciding position p as v (1 = mine), or -1 if that breaks a constraint.
+    private long step(int p, long s, int v) {
+        int[] closeSlots = closingSlot[p];
+        for (int j = 0; j < closeSlots.length; j++) {
+            int missing = closeSlots[j] >= 0 ? residual(s, closeSlots[j]) : comp.need[closing[p][j]];
+            if (missing != v) return -1;
+        }
+
+        int[] next = openAt[p + 1];
+        long out = 0;
+        for (int j = 0; j < next.length; j++) {
+            int missing = fromSlot[p][j] >= 0 ? residual(s, fromSlot[p][j]) : comp.need[next[j]];
+            if (hits[p][j]) missing -= v;
+            if (missing < 0 || missing > maxAfter[p][j]) return -1;
+            out |= (long) missing << (4 * j);
+        }
+        return out;
+    }
+
+    private static int residual(long s, int slot) {
+        return (int) (s >>> (4 * slot)) & 0xF;
+    }
+
+    //Budget poll for the sequential passes.
+    private boolean tick() {
+        return (++steps & 0x3FF) == 0 && budget.expired();
+    }
+}
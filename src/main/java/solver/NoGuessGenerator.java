@@ -0,0 +1,289 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import model.Board;
+import model.BoardFactory;
+import model.BoardMarks;
+import model.CascadeEngine;
+import model.CellType;
+import model.DifficultyProfile;
+import model.OpeningIndex;
+import model.RandomBoardGenerator;
+
+//Builds boards that can be cleared from their safe start by deduction alone, so neither player of
+//a two-board match is forced into a 50/50.
+//Each round draws one random candidate per core and plays them out in parallel: open the start
+//(the cell in the largest opening), then keep opening every cell FrontierSolver proves safe and
+//marking every proven mine, the way a perfect player would. A candidate that reaches the last safe
+//cell wins. If the time budget runs out first, the candidate that got furthest is used instead
+//(its start is still safe) and the fallback is counted in the statistics.
+//Candidates run on the generator's own bounded pool, not the common ForkJoinPool: a round can keep
+//every worker busy for the whole budget, and the board pool's miss path runs on the common pool.
+public final class NoGuessGenerator implements BoardFactory {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 1500;
+
+    private static final NoGuessGenerator INSTANCE = new NoGuessGenerator(DEFAULT_BUDGET_MILLIS);
+
+    private static final Logger LOG = Logger.getLogger(NoGuessGenerator.class.getName());
+
+    private final long budgetMillis;
+    private final int candidatesPerRound;
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicLong boards = new AtomicLong();
+    private final AtomicLong guaranteed = new AtomicLong();
+    private final AtomicLong candidates = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    public NoGuessGenerator(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    public NoGuessGenerator(long budgetMillis, int candidatesPerRound) {
+        if (budgetMillis <= 0 || candidatesPerRound <= 0) {
+            throw new IllegalArgumentException("budget and candidates per round must be positive");
+        }
+        this.budgetMillis = budgetMillis;
+        this.candidatesPerRound = candidatesPerRound;
+
+        // idle workers time out, so a generator nobody uses holds no threads
+        int threads = Math.min(candidatesPerRound, Runtime.getRuntime().availableProcessors());
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "no-guess-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    //Shared generator with the default budget; the one the board pool uses.
+    public static NoGuessGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Board create(DifficultyProfile profile) {
+        if (profile == null) {
+            throw new IllegalArgumentException("profile cannot be null");
+        }
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000L;
+
+        Candidate best = null;
+        do {
+            List<Candidate> round = playRound(profile, deadline);
+            candidates.addAndGet(round.size());
+            for (Candidate c : round) {
+                if (best == null || c.solvedShare > best.solvedShare) best = c;
+            }
+        } while (!best.isSolved() && System.nanoTime() < deadline);
+
+        boards.incrementAndGet();
+        totalNanos.addAndGet(System.nanoTime() - start);
+        if (best.isSolved()) {
+            guaranteed.incrementAndGet();
+        } else {
+            LOG.info(String.format("No-guess budget of %d ms ran out for %s; using a board %.0f%% solvable by deduction",
+                    budgetMillis, profile, best.solvedShare * 100));
+        }
+        return best.board;
+    }
+
+    //One candidate per slot of the round, played out on the workers.
+    private List<Candidate> playRound(DifficultyProfile profile, long deadline) {
+        List<Callable<Candidate>> tasks = new ArrayList<>(candidatesPerRound);
+        for (int k = 0; k < candidatesPerRound; k++) {
+            long seed = ThreadLocalRandom.current().nextLong();
+            tasks.add(() -> Candidate.evaluate(profile, seed, deadline));
+        }
+        try {
+            List<Candidate> round = new ArrayList<>(tasks.size());
+            for (Future<Candidate> f : workers.invokeAll(tasks)) {
+                round.add(f.get());
+            }
+            return round;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("No-guess generation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("No-guess candidate failed", e.getCause());
+        }
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public Stats getStats() {
+        return new Stats(boards.get(), guaranteed.get(), candidates.get(), totalNanos.get());
+    }
+
+    //Point-in-time counters since startup.
+    public static final class Stats {
+        private final long boards;
+        private final long guaranteed;
+        private final long candidates;
+        private final long totalNanos;
+
+        private Stats(long boards, long guaranteed, long candidates, long totalNanos) {
+            this.boards = boards;
+            this.guaranteed = guaranteed;
+            this.candidates = candidates;
+            this.totalNanos = totalNanos;
+        }
+
+        public long getBoards() {
+            return boards;
+        }
+
+        //Boards proven solvable without guessing.
+        public long getGuaranteed() {
+            return guaranteed;
+        }
+
+        //Boards handed out after the budget ran out (best effort).
+        public long getFallbacks() {
+            return boards - guaranteed;
+        }
+
+        public long getCandidates() {
+            return candidates;
+        }
+
+        public double getAverageMillis() {
+            return boards == 0 ? 0 : totalNanos / 1_000_000.0 / boards;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("NoGuessStats [boards=%d, guaranteed=%d, fallbacks=%d, candidates=%d, avgMs=%.1f]",
+                    boards, guaranteed, getFallbacks(), candidates, getAverageMillis());
+        }
+    }
+
+    // ---------------- candidates ----------------
+
+    private static final class Candidate {
+        final Board board;
+        final double solvedShare;   // share of safe cells opened by deduction alone; 1 = no guess needed
+
+        private Candidate(Board board, double solvedShare) {
+            this.board = board;
+            this.solvedShare = solvedShare;
+        }
+
+        boolean isSolved() {
+            return solvedShare >= 1.0;
+        }
+
+        static Candidate evaluate(DifficultyProfile profile, long seed, long deadline) {
+            Board board = new Board(profile, new RandomBoardGenerator(seed));
+            int start = pickStart(board);
+            board.setSafeStart(start);
+            return new Candidate(board, deducibleShare(board, start, deadline));
+        }
+    }
+
+    //An EMPTY cell of the largest opening, so the first click opens as much as possible. A dense
+    //board may have no opening at all; then the non-mine cell with the fewest adjacent mines, so
+    //every candidate (and so the fallback board) still gets a safe start.
+    static int pickStart(Board board) {
+        OpeningIndex openings = board.getOpenings();
+        int cols = board.getCols();
+        int best = -1;
+        int bestSize = 0;
+        int fewest = -1;
+        int fewestAdjacent = Integer.MAX_VALUE;
+        for (int i = 0, n = board.getRows() * cols; i < n; i++) {
+            int row = i / cols;
+            int col = i % cols;
+            CellType type = board.getType(row, col);
+            if (type == CellType.MINE) continue;
+            if (board.getAdjacentMines(row, col) < fewestAdjacent) {
+                fewestAdjacent = board.getAdjacentMines(row, col);
+                fewest = i;
+            }
+            if (type != CellType.EMPTY) continue;
+            int region = openings.regionOf(i);
+            if (region < 0) continue;
+            int size = openings.end(region) - openings.start(region);
+            if (size > bestSize) {
+                bestSize = size;
+                best = i;
+            }
+        }
+        return (best >= 0) ? best : fewest;
+    }
+
+    //Plays the board from start by deduction only; returns the share of safe cells it could open.
+    //Only exact solver results count, and every cell they call safe is checked against the layout:
+    //a "safe" mine would be a solver bug, so the candidate is dropped rather than trusted.
+    static double deducibleShare(Board board, int start, long deadlineNanos) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int totalSafe = board.getSafeCellCount();
+        BoardMarks marks = new BoardMarks(board);
+        FrontierSolver solver = new FrontierSolver(rows, cols);
+
+        int opened = open(board, marks, start);
+        while (opened < totalSafe) {
+            long leftMillis = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+            if (leftMillis <= 0) break;
+
+            SolverResult result = solver.solve(Snapshot.of(board, marks), leftMillis);
+            if (!result.isExact()) break;   // out of time: what is left is not proven
+            BitSet safe = result.getSafeCells();
+            if (safe.isEmpty()) break;   // a guess would be needed
+
+            for (int i = safe.nextSetBit(0); i >= 0; i = safe.nextSetBit(i + 1)) {
+                if (board.isMine(i / cols, i % cols)) {
+                    LOG.warning("Solver called a mine safe at " + i + "; candidate dropped");
+                    return 0;
+                }
+            }
+            for (int i = safe.nextSetBit(0); i >= 0; i = safe.nextSetBit(i + 1)) {
+                opened += open(board, marks, i);
+            }
+            BitSet mines = result.getMineCells();
+            for (int i = mines.nextSetBit(0); i >= 0; i = mines.nextSetBit(i + 1)) {
+                marks.reveal(i / cols, i % cols);   // a correct flag shows the mine as found
+            }
+        }
+        return (double) opened / totalSafe;
+    }
+
+    //Same reveal rule as GameEngine.reveal: zero-adjacent cells cascade. Returns newly opened cells.
+    private static int open(Board board, BoardMarks marks, int index) {
+        int cols = board.getCols();
+        int row = index / cols;
+        int col = index % cols;
+        if (!marks.reveal(row, col)) return 0;
+
+        int opened = 1;
+        if (board.getType(row, col) == CellType.EMPTY || board.getAdjacentMines(row, col) == 0) {
+            CascadeEngine fill = board.cascadeFrom(row, col, null);
+            for (int k = 0; k < fill.getOpenedCount(); k++) {
+                int i = fill.getOpened(k);
+                if (marks.reveal(i / cols, i % cols)) opened++;
+            }
+        }
+        return opened;
+    }
+}
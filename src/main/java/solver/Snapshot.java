@@ -0,0 +1,99 @@
+package solver;
+
+import model.Board;
+import model.BoardMarks;
+import model.CellType;
+
+//What a player can see of one board, copied into plain arrays so it can be solved on another thread.
+//Per cell: COVERED, a known MINE, SAFE without a number to read, or the number shown (0-8).
+//
+//Game-specific reading of the screen (see GameEngine):
+//  - a correct flag reveals the mine at once, so a flag still sitting on a covered cell marks a known safe cell
+//  - revealed questions and surprises are safe but show no number
+//  - an EMPTY cell shows 0
+public final class Snapshot {
+
+    public static final int COVERED = -1;
+    public static final int MINE = -2;
+    public static final int SAFE = -3;
+
+    final int rows;
+    final int cols;
+    final int[] state;
+    final int minesLeft;   // mines not revealed yet (all of them are under covered cells)
+
+    private Snapshot(int rows, int cols, int[] state, int minesLeft) {
+        this.rows = rows;
+        this.cols = cols;
+        this.state = state;
+        this.minesLeft = minesLeft;
+    }
+
+    //Reads the visible state; call it on the thread that owns the marks (the FX thread in the game).
+    public static Snapshot of(Board board, BoardMarks marks) {
+        if (board == null || marks == null) {
+            throw new IllegalArgumentException("board and marks cannot be null");
+        }
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int[] state = new int[rows * cols];
+        int revealedMines = 0;
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                if (!marks.isRevealed(r, c)) {
+                    state[i] = marks.isFlagged(r, c) ? SAFE : COVERED;
+                    continue;
+                }
+                CellType type = board.getType(r, c);
+                switch (type) {
+                    case MINE -> {
+                        state[i] = MINE;
+                        revealedMines++;
+                    }
+                    case NUMBER -> state[i] = board.getAdjacentMines(r, c);
+                    case EMPTY -> state[i] = 0;
+                    case QUESTION, SURPRISE -> state[i] = SAFE;
+                }
+            }
+        }
+        return new Snapshot(rows, cols, state, board.getMineCount() - revealedMines);
+    }
+
+    //For bots and tests: state uses the constants above or a number 0-8.
+    public static Snapshot of(int rows, int cols, int[] state, int minesLeft) {
+        if (rows <= 0 || cols <= 0 || state == null || state.length != rows * cols) {
+            throw new IllegalArgumentException("state must have rows * cols entries");
+        }
+        if (minesLeft < 0) {
+            throw new IllegalArgumentException("minesLeft cannot be negative");
+        }
+        for (int v : state) {
+            if (v < SAFE || v > 8) {
+                throw new IllegalArgumentException("Invalid cell state: " + v);
+            }
+        }
+        return new Snapshot(rows, cols, state.clone(), minesLeft);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMinesLeft() {
+        return minesLeft;
+    }
+
+    public int stateAt(int index) {
+        return state[index];
+    }
+
+    public boolean isCovered(int index) {
+        return state[index] == COVERED;
+    }
+}
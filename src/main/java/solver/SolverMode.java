@@ -0,0 +1,9 @@
+package solver;
+
+//How FrontierSolver spreads the enumeration of frontier components.
+public enum SolverMode {
+    //Everything on the calling thread.
+    SEQUENTIAL,
+    //Components, search-tree branches and wide memo layers as tasks on the common ForkJoinPool.
+    PARALLEL
+}
@@ -0,0 +1,96 @@
+package solver;
+
+import java.util.BitSet;
+
+//What FrontierSolver found for one Snapshot. Indices are flat (row * cols + col).
+//Only covered cells carry a probability; every other cell reports NaN.
+public final class SolverResult {
+
+    private final int cols;
+    private final BitSet safe;
+    private final BitSet mines;
+    private final double[] probability;
+    private final boolean exact;
+    private final boolean consistent;
+    private final int frontierSize;
+    private final int components;
+    private final long elapsedNanos;
+
+    SolverResult(int cols, BitSet safe, BitSet mines, double[] probability, boolean exact, boolean consistent,
+                 int frontierSize, int components, long elapsedNanos) {
+        this.cols = cols;
+        this.safe = safe;
+        this.mines = mines;
+        this.probability = probability;
+        this.exact = exact;
+        this.consistent = consistent;
+        this.frontierSize = frontierSize;
+        this.components = components;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    //Covered cells that cannot be mines.
+    public BitSet getSafeCells() {
+        return (BitSet) safe.clone();
+    }
+
+    //Covered cells that must be mines.
+    public BitSet getMineCells() {
+        return (BitSet) mines.clone();
+    }
+
+    public boolean isSafe(int index) {
+        return safe.get(index);
+    }
+
+    public boolean isMine(int index) {
+        return mines.get(index);
+    }
+
+    public double getProbability(int index) {
+        return probability[index];
+    }
+
+    public double getProbability(int row, int col) {
+        return probability[row * cols + col];
+    }
+
+    //A certainly safe cell if there is one, otherwise the covered cell least likely to be a mine; -1 if none.
+    public int bestMove() {
+        int safeCell = safe.nextSetBit(0);
+        if (safeCell >= 0) return safeCell;
+
+        int best = -1;
+        double bestP = 2;
+        for (int i = 0; i < probability.length; i++) {
+            double p = probability[i];
+            if (!Double.isNaN(p) && !mines.get(i) && p < bestP) {
+                bestP = p;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    //False when the time budget ran out and some probabilities are estimates.
+    public boolean isExact() {
+        return exact;
+    }
+
+    //False when the visible numbers contradict each other (should not happen on a real board).
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    public int getComponentCount() {
+        return components;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
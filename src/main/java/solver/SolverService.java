@@ -0,0 +1,35 @@
+package solver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Runs FrontierSolver off the FX thread. Take the Snapshot on the FX thread (it copies the visible
+//state), hand it over here, and apply the result back with Platform.runLater.
+//One daemon thread is enough: hints and bots ask for one board at a time and each call is bounded
+//by its time budget.
+public final class SolverService {
+
+    private static final SolverService INSTANCE = new SolverService();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "solver");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private SolverService() {
+    }
+
+    public static SolverService getInstance() {
+        return INSTANCE;
+    }
+
+    public CompletableFuture<SolverResult> solveAsync(FrontierSolver solver, Snapshot snapshot, long budgetMillis) {
+        if (solver == null || snapshot == null) {
+            throw new IllegalArgumentException("solver and snapshot cannot be null");
+        }
+        return CompletableFuture.supplyAsync(() -> solver.solve(snapshot, budgetMillis), executor);
+    }
+}
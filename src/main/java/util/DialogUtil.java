@@ -1,5 +1,6 @@
 package util;
 
+import java.util.Locale;
 import java.util.Optional;
 
 import javafx.geometry.Insets;
@@ -9,10 +10,12 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Region;
 import javafx.stage.Screen;
+import model.DifficultyProfile;
 
 
 
@@ -119,6 +122,92 @@ public final class DialogUtil {
     }
 
 
+    /**
+     * Asks for a custom board: rows, columns and mine/question/surprise percentages.
+     * OK stays disabled until the values form a valid {@link DifficultyProfile}.
+     */
+    public static Optional<DifficultyProfile> promptForCustomBoard(DifficultyProfile initial) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Custom Board");
+        dialog.setHeaderText("Choose the board size and densities");
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        int cells = (initial != null) ? initial.getRows() * initial.getCols() : 0;
+        TextField rows = customBoardField(initial != null ? String.valueOf(initial.getRows()) : "30");
+        TextField cols = customBoardField(initial != null ? String.valueOf(initial.getCols()) : "30");
+        TextField mines = customBoardField(initial != null ? percent(initial.getMines(), cells) : "15");
+        TextField questions = customBoardField(initial != null ? percent(initial.getQuestions(), cells) : "4");
+        TextField surprises = customBoardField(initial != null ? percent(initial.getSurprises(), cells) : "1.5");
+
+        Label error = new Label();
+        error.setWrapText(true);
+        error.setStyle("-fx-text-fill: #ff6b6b; -fx-font-weight: bold;");
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(10, 10, 10, 10));
+
+        grid.add(new Label("Rows (" + DifficultyProfile.MIN_SIZE + "-" + DifficultyProfile.MAX_SIZE + "):"), 0, 0);
+        grid.add(rows, 1, 0);
+        grid.add(new Label("Columns (" + DifficultyProfile.MIN_SIZE + "-" + DifficultyProfile.MAX_SIZE + "):"), 0, 1);
+        grid.add(cols, 1, 1);
+        grid.add(new Label("Mines (%):"), 0, 2);
+        grid.add(mines, 1, 2);
+        grid.add(new Label("Questions (%):"), 0, 3);
+        grid.add(questions, 1, 3);
+        grid.add(new Label("Surprises (%):"), 0, 4);
+        grid.add(surprises, 1, 4);
+        grid.add(error, 0, 5, 2, 1);
+
+        dialog.getDialogPane().setContent(grid);
+        applyDialogCss(dialog);
+
+        var okButton = dialog.getDialogPane().lookupButton(ButtonType.OK);
+        DifficultyProfile[] result = new DifficultyProfile[1];
+
+        Runnable validate = () -> {
+            String msg = null;
+            result[0] = null;
+            try {
+                result[0] = DifficultyProfile.fromDensities(
+                        Integer.parseInt(rows.getText().trim()),
+                        Integer.parseInt(cols.getText().trim()),
+                        Double.parseDouble(mines.getText().trim()) / 100.0,
+                        Double.parseDouble(questions.getText().trim()) / 100.0,
+                        Double.parseDouble(surprises.getText().trim()) / 100.0);
+            } catch (NumberFormatException e) {
+                msg = "Please enter numbers only.";
+            } catch (IllegalArgumentException e) {
+                msg = e.getMessage() + ".";
+            }
+            error.setText(msg == null ? "" : msg);
+            okButton.setDisable(msg != null);
+        };
+
+        for (TextField f : new TextField[] { rows, cols, mines, questions, surprises }) {
+            f.textProperty().addListener((o, a, b) -> validate.run());
+        }
+        validate.run();
+
+        Optional<ButtonType> res = dialog.showAndWait();
+        if (res.isEmpty() || res.get() != ButtonType.OK) return Optional.empty();
+
+        return Optional.ofNullable(result[0]);
+    }
+
+    private static TextField customBoardField(String value) {
+        TextField field = new TextField(value);
+        field.getStyleClass().add("glass-input");
+        field.setPrefColumnCount(6);
+        return field;
+    }
+
+    private static String percent(int count, int cells) {
+        if (cells <= 0) return "0";
+        return String.format(Locale.US, "%.2f", count * 100.0 / cells);
+    }
+
     
     public static Optional<ButtonType> showDialogWithResult(
             AlertType type, String header, String title, String message
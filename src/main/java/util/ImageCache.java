@@ -0,0 +1,135 @@
+package util;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import javafx.scene.image.Image;
+import model.Theme;
+
+/**
+ * Application-wide cache of decoded images, keyed by resource path and requested size.
+ * Icons that are shown over and over (cell icons, hearts, stats and toolbar buttons) are decoded
+ * once instead of on every reveal or redraw. The common game icons are preloaded on a background
+ * daemon thread at startup, so the first match does not decode them on the FX thread either.
+ * <p>
+ * {@link #themed} looks for a theme variant first ({@code red-flag.png} -> {@code red-flag-wolf.png}
+ * under the Wolf theme, see {@link Theme#getImageSuffix()}) and falls back to the plain image.
+ */
+public final class ImageCache {
+
+    private static final Logger LOG = Logger.getLogger(ImageCache.class.getName());
+
+    /** Icons used by the game screen, with the sizes they are drawn at (0 = natural size). */
+    private static final List<String> GAME_ICONS = List.of(
+            "/Images/red-flag.png", "/Images/question-mark.png", "/Images/giftbox.png", "/Images/bomb.png",
+            "/Images/heart.png", "/Images/favorite.png",
+            "/Images/pause.png", "/Images/play-button.png",
+            "/Images/music.png", "/Images/music_mute.png", "/Images/volume.png", "/Images/mute.png");
+    private static final double[] GAME_ICON_SIZES = { 0, 18, 20, 50 };
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    /** Resolved theme lookups ("path|suffix" -> path actually used). */
+    private static final Map<String, String> THEMED_PATHS = new ConcurrentHashMap<>();
+
+    /** Paths already reported missing, so the log is not flooded on every redraw. */
+    private static final Set<String> MISSING = ConcurrentHashMap.newKeySet();
+
+    private static final ExecutorService PRELOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "image-preload");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private ImageCache() {}
+
+    /** Image at its natural size, or null if the resource does not exist. */
+    public static Image get(String path) {
+        return get(path, 0);
+    }
+
+    /**
+     * Image decoded to fit a size x size box (aspect ratio kept), or null if the resource does not exist.
+     * A size of 0 or less means the natural size.
+     */
+    public static Image get(String path, double size) {
+        if (path == null) return null;
+        if (MISSING.contains(path)) return null;
+
+        String key = size > 0 ? path + "@" + size : path;
+        Image cached = IMAGES.get(key);
+        if (cached != null) return cached;
+
+        Image img = load(path, size);
+        if (img == null) return null;
+
+        Image previous = IMAGES.putIfAbsent(key, img);
+        return previous != null ? previous : img;
+    }
+
+    /** Same as {@link #get(String, double)} but prefers the current theme's variant of the image. */
+    public static Image themed(String path, double size) {
+        return get(themedPath(path), size);
+    }
+
+    public static Image themed(String path) {
+        return themed(path, 0);
+    }
+
+    /** Starts decoding the game icons (current theme first) in the background. Safe to call more than once. */
+    public static void preloadAsync() {
+        PRELOADER.execute(() -> {
+            for (String path : GAME_ICONS) {
+                for (double size : GAME_ICON_SIZES) {
+                    themed(path, size);
+                }
+            }
+            LOG.fine("Preloaded " + IMAGES.size() + " images");
+        });
+    }
+
+    /** Drops every decoded image (e.g. after resources were replaced). */
+    public static void clear() {
+        IMAGES.clear();
+        THEMED_PATHS.clear();
+        MISSING.clear();
+    }
+
+    private static String themedPath(String path) {
+        if (path == null) return null;
+        String suffix = ThemeManager.getTheme().getImageSuffix();
+        if (suffix.isEmpty()) return path;
+
+        return THEMED_PATHS.computeIfAbsent(path + "|" + suffix, k -> {
+            int dot = path.lastIndexOf('.');
+            if (dot < 0) return path;
+            String variant = path.substring(0, dot) + suffix + path.substring(dot);
+            return ImageCache.class.getResource(variant) != null ? variant : path;
+        });
+    }
+
+    private static Image load(String path, double size) {
+        try (InputStream stream = ImageCache.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                if (MISSING.add(path)) LOG.warning("Missing resource: " + path);
+                return null;
+            }
+            Image img = size > 0 ? new Image(stream, size, size, true, true) : new Image(stream);
+            if (img.isError()) {
+                LOG.warning("Cannot decode image: " + path);
+                return null;
+            }
+            return img;
+        } catch (Exception e) {
+            LOG.warning("Cannot load image " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
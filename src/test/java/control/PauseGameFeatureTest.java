@@ -308,7 +308,7 @@ public class PauseGameFeatureTest {
         // Pass an empty runnable () -> {} for the endgame callback
         GamePlayServiceController playService = new GamePlayServiceController(state, uiService, historyService, () -> {});
         
-        GameBonusServiceController bonusService = new GameBonusServiceController(state, uiService, playService);
+        GameBonusServiceController bonusService = new GameBonusServiceController(state);
 
         // 5. Connect the services together
         uiService.setPlayService(playService);
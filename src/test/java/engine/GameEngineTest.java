@@ -0,0 +1,312 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.BoardMarks;
+import model.CellType;
+import model.Difficulty;
+import model.DifficultyProfile;
+import model.RandomBoardGenerator;
+
+//This test class plays matches on the headless GameEngine, without any JavaFX.
+class GameEngineTest {
+
+	//TestID: JU-ENG-1
+    @Test
+    void simulatedMatches_allFinish() {
+        Random random = new Random(7);
+        for (int game = 0; game < 500; game++) {
+            GameEngine engine = newEngine(Difficulty.EASY, random.nextLong(), random.nextLong());
+            int moves = playRandomly(engine, random);
+
+            assertTrue(engine.isGameOver(), "game " + game + " did not finish");
+            assertTrue(moves <= 2 * 9 * 9, "more moves than cells in game " + game);
+            if (engine.isGameWon()) {
+                assertTrue(engine.getHearts() > 0);
+                assertTrue(engine.getSafeCellsRemaining(true) == 0 || engine.getSafeCellsRemaining(false) == 0
+                        || engine.getMinesLeft(true) == 0 || engine.getMinesLeft(false) == 0);
+            }
+        }
+    }
+
+	//TestID: JU-ENG-2
+    @Test
+    void flagOnMine_revealsItAndScores() {
+        GameEngine engine = newEngine(Difficulty.MEDIUM, 1L, 2L);
+        Recorder events = new Recorder();
+        engine.addListener(events);
+
+        Board board = engine.getBoard(true);
+        int mine = board.getMineMask().nextSetBit(0);
+        int row = mine / board.getCols();
+        int col = mine % board.getCols();
+        int minesBefore = engine.getMinesLeft(true);
+
+        engine.toggleFlag(true, row, col);
+
+        assertEquals(1, engine.getScore());
+        assertEquals(minesBefore - 1, engine.getMinesLeft(true));
+        assertTrue(engine.getMarks(true).isRevealed(row, col));
+        assertEquals(1, events.mineFlagged);
+        assertFalse(engine.isMistakeMade());
+    }
+
+	//TestID: JU-ENG-3
+    @Test
+    void wrongFlags_lockFlaggingUntilNextTurn() {
+        GameEngine engine = newEngine(Difficulty.HARD, 3L, 4L);
+        Recorder events = new Recorder();
+        engine.addListener(events);
+
+        Board board = engine.getBoard(true);
+        BitSet safe = engine.getMarks(true).hiddenSafeCells(board);
+        int cols = board.getCols();
+
+        int cell = safe.nextSetBit(0);
+        for (int i = 0; i < GameEngine.WRONG_FLAGS_LIMIT_PER_TURN; i++) {
+            engine.toggleFlag(true, cell / cols, cell % cols);
+            cell = safe.nextSetBit(cell + 1);
+        }
+        assertTrue(engine.isFlaggingLocked(true));
+        assertEquals(1, events.flaggingLocked);
+        assertEquals(-3 * GameEngine.WRONG_FLAGS_LIMIT_PER_TURN, engine.getScore());
+        assertTrue(engine.isMistakeMade());
+
+        engine.toggleFlag(true, cell / cols, cell % cols);
+        assertEquals(1, events.flaggingBlocked);
+        assertFalse(engine.getMarks(true).isFlagged(cell / cols, cell % cols));
+
+        engine.switchTurn();
+        engine.switchTurn();
+        assertFalse(engine.isFlaggingLocked(true));
+        assertEquals(0, engine.getWrongFlagsThisTurn(true));
+    }
+
+	//TestID: JU-ENG-4
+    @Test
+    void revealInOpening_opensWholeOpening() {
+        GameEngine engine = newEngine(Difficulty.EASY, 5L, 6L);
+        Recorder events = new Recorder();
+        engine.addListener(events);
+
+        Board board = engine.getBoard(true);
+        int cols = board.getCols();
+        int start = -1;
+        for (int i = 0; i < board.getRows() * cols && start < 0; i++) {
+            if (board.getOpenings().regionOf(i) >= 0) start = i;
+        }
+        assertTrue(start >= 0, "seeded board should have an opening");
+
+        int region = board.getOpenings().regionOf(start);
+        int size = board.getOpenings().end(region) - board.getOpenings().start(region);
+
+        engine.reveal(true, start / cols, start % cols);
+
+        assertEquals(size, engine.getMarks(true).getRevealedCount());
+        assertEquals(size, events.revealed);
+        assertEquals(0, events.revealedMines);
+        assertTrue(events.statsChanged >= 1);
+    }
+
+	//TestID: JU-ENG-5
+    @Test
+    void sameSeeds_sameMatch() {
+        GameEngine a = newEngine(Difficulty.MEDIUM, 11L, 12L, 13L);
+        GameEngine b = newEngine(Difficulty.MEDIUM, 11L, 12L, 13L);
+
+        playRandomly(a, new Random(99));
+        playRandomly(b, new Random(99));
+
+        assertEquals(a.getScore(), b.getScore());
+        assertEquals(a.getHearts(), b.getHearts());
+        assertEquals(a.isGameWon(), b.isGameWon());
+        assertEquals(a.getMarks(true).getRevealedCount(), b.getMarks(true).getRevealedCount());
+    }
+
+	//TestID: JU-ENG-6
+    @Test
+    void oneAction_deliversOneDeltaList() {
+        GameEngine engine = newEngine(Difficulty.EASY, 5L, 6L);
+        Recorder events = new Recorder();
+        engine.addListener(events);
+
+        Board board = engine.getBoard(true);
+        int cols = board.getCols();
+        int start = -1;
+        for (int i = 0; i < board.getRows() * cols && start < 0; i++) {
+            if (board.getOpenings().regionOf(i) >= 0) start = i;
+        }
+        assertTrue(start >= 0, "seeded board should have an opening");
+
+        engine.reveal(true, start / cols, start % cols);
+
+        assertEquals(1, events.deltaLists);
+        assertEquals(events.revealed, events.deltas.size());
+        for (CellDelta d : events.deltas) {
+            assertEquals(CellDelta.Kind.REVEALED, d.kind);
+            assertTrue(d.isPlayer1);
+            assertTrue(engine.getMarks(true).isRevealed(d.row, d.col));
+        }
+
+        engine.switchTurn();
+        assertEquals(1, events.deltaLists, "a turn switch changes no cells");
+    }
+
+	//TestID: JU-ENG-7
+    @Test
+    void firstReveal_onFirstClickSafeBoardNeverHitsAMine() {
+        DifficultyProfile profile = DifficultyProfile.of(Difficulty.HARD);
+        for (long seed = 1; seed <= 30; seed++) {
+            Board board1 = new Board(profile, new RandomBoardGenerator(seed), true);
+            Board board2 = new Board(profile, new RandomBoardGenerator(-seed), true);
+            GameEngine engine = new GameEngine(profile, board1, board2, new Random(seed));
+            int mine = board1.getMineMask().nextSetBit(0);
+            int row = mine / board1.getCols(), col = mine % board1.getCols();
+            int heartsBefore = engine.getHearts();
+
+            engine.reveal(true, row, col);
+
+            assertFalse(board1.isMine(row, col), "seed " + seed);
+            assertTrue(engine.getMarks(true).getRevealedCount() > 1, "the click should open an area");
+            assertEquals(heartsBefore, engine.getHearts());
+            assertEquals(profile.getMines(), engine.getMinesLeft(true));
+
+            // a flag as the first move fixes the other board as generated
+            int other = board2.getMineMask().nextSetBit(0);
+            engine.toggleFlag(false, other / board2.getCols(), other % board2.getCols());
+            assertFalse(board2.isAwaitingFirstReveal());
+            assertTrue(board2.getMineMask().get(other));
+        }
+    }
+
+	//TestID: JU-ENG-8
+    @Test
+    void clicks_countedPerBoard_metricsUnknownUntilWon() {
+        GameEngine engine = newEngine(Difficulty.EASY, 4L, 5L);
+        Board board = engine.getBoard(true);
+        BitSet safe = engine.getMarks(true).hiddenSafeCells(board);
+        int first = safe.nextSetBit(0);
+
+        engine.reveal(true, first / board.getCols(), first % board.getCols());
+        engine.switchTurn();
+        int mine = engine.getBoard(false).getMineMask().nextSetBit(0);
+        engine.toggleFlag(false, mine / board.getCols(), mine % board.getCols());
+
+        assertEquals(2, engine.getClicks());
+        assertEquals(1, engine.getClicks(true));
+        assertEquals(1, engine.getClicks(false));
+        assertFalse(engine.getMetrics().isKnown());
+        assertEquals(0, engine.getMetricClicks());
+    }
+
+	//TestID: JU-ENG-9
+    @Test
+    void matchWonOnOneBoard_recordsThatBoardsMetricsAndClicks() {
+        GameEngine engine = newEngine(Difficulty.EASY, 7L, 8L);
+        Board own = engine.getBoard(true);
+        Board other = engine.getBoard(false);
+        int cols = own.getCols();
+
+        BitSet otherSafe = engine.getMarks(false).hiddenSafeCells(other);
+        int cell = otherSafe.nextSetBit(0);
+        engine.reveal(false, cell / cols, cell % cols);
+
+        BitSet safe = engine.getMarks(true).hiddenSafeCells(own);
+        while (!engine.isGameOver() && !safe.isEmpty()) {
+            cell = safe.nextSetBit(0);
+            engine.reveal(true, cell / cols, cell % cols);
+            safe = engine.getMarks(true).hiddenSafeCells(own);
+        }
+
+        assertTrue(engine.isGameWon());
+        assertEquals(own.getMetrics(), engine.getMetrics());
+        assertEquals(engine.getClicks(true), engine.getMetricClicks());
+        assertTrue(engine.getClicks() > engine.getMetricClicks());
+    }
+
+    // ---------------- helpers ----------------
+
+    private static GameEngine newEngine(Difficulty d, long seed1, long seed2) {
+        return newEngine(d, seed1, seed2, seed1 ^ seed2);
+    }
+
+    private static GameEngine newEngine(Difficulty d, long seed1, long seed2, long rulesSeed) {
+        return new GameEngine(DifficultyProfile.of(d), new Board(d, seed1), new Board(d, seed2), new Random(rulesSeed));
+    }
+
+    //Both players click random covered cells (activating specials when they see them) until the match ends.
+    private static int playRandomly(GameEngine engine, Random random) {
+        int moves = 0;
+        while (!engine.isGameOver()) {
+            boolean p1 = engine.isPlayer1Turn();
+            Board board = engine.getBoard(p1);
+            BoardMarks marks = engine.getMarks(p1);
+            int cols = board.getCols();
+
+            BitSet covered = marks.unrevealedCells();
+            int index = BoardMarks.nthSetBit(covered, random.nextInt(covered.cardinality()));
+            int row = index / cols;
+            int col = index % cols;
+
+            engine.reveal(p1, row, col);
+            CellType type = board.getType(row, col);
+            if (type == CellType.QUESTION || type == CellType.SURPRISE) {
+                engine.activate(p1, row, col);
+            }
+            engine.switchTurn();
+            moves++;
+        }
+        return moves;
+    }
+
+    private static class Recorder implements GameListener {
+        int revealed;
+        int revealedMines;
+        int mineFlagged;
+        int flaggingLocked;
+        int flaggingBlocked;
+        int statsChanged;
+        int deltaLists;
+        final List<CellDelta> deltas = new ArrayList<>();
+
+        @Override
+        public void cellRevealed(boolean isPlayer1, int row, int col, CellType type, int adjacentMines) {
+            revealed++;
+            if (type == CellType.MINE) revealedMines++;
+        }
+
+        @Override
+        public void mineFlagged(boolean isPlayer1, int row, int col) {
+            mineFlagged++;
+        }
+
+        @Override
+        public void flaggingLocked(boolean isPlayer1) {
+            flaggingLocked++;
+        }
+
+        @Override
+        public void flaggingBlocked(boolean isPlayer1) {
+            flaggingBlocked++;
+        }
+
+        @Override
+        public void cellsChanged(List<CellDelta> batch) {
+            deltaLists++;
+            deltas.addAll(batch);
+        }
+
+        @Override
+        public void statsChanged() {
+            statsChanged++;
+        }
+    }
+}
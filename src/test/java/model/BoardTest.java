@@ -0,0 +1,354 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+//This test class checks the generated Board layout: special cell counts and neighbor numbers.
+class BoardTest {
+
+	//TestID: JU-BRD-1
+    @Test
+    void newBoard_countsMatchDifficulty() {
+        for (Difficulty d : Difficulty.values()) {
+            Board board = new Board(d);
+
+            assertEquals(d.getMines(), board.countCellsOfType(CellType.MINE));
+            assertEquals(d.getQuestions(), board.countCellsOfType(CellType.QUESTION));
+            assertEquals(d.getSurprises(), board.countCellsOfType(CellType.SURPRISE));
+        }
+    }
+
+	//TestID: JU-BRD-2
+    @Test
+    void newBoard_numbersMatchAdjacentMines() {
+        Board board = new Board(Difficulty.HARD);
+        assertNeighborNumbersConsistent(board);
+    }
+
+	//TestID: JU-BRD-3
+    @Test
+    void getCell_viewMatchesPackedState() {
+        Board board = new Board(Difficulty.MEDIUM);
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                assertEquals(board.getType(r, c), cell.getType());
+                assertEquals(board.getAdjacentMines(r, c), cell.getAdjacentMines());
+                assertEquals(r, cell.getRow());
+                assertEquals(c, cell.getCol());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> board.getCell(board.getRows(), 0));
+    }
+
+	//TestID: JU-BRD-4
+    @Test
+    void seededBoards_sameSeedSameLayout() {
+        Board a = new Board(Difficulty.HARD, 42L);
+        Board b = new Board(Difficulty.HARD, 42L);
+        Board c = new Board(Difficulty.HARD, 43L);
+
+        assertTrue(sameLayout(a, b));
+        assertFalse(sameLayout(a, c));
+    }
+
+	//TestID: JU-BRD-5
+    @Test
+    void customProfile_largeBoardAndRoundTrip() {
+        DifficultyProfile profile = DifficultyProfile.fromDensities(500, 400, 0.18, 0.02, 0.01);
+        Board board = new Board(profile, new RandomBoardGenerator(7L));
+
+        assertEquals(500, board.getRows());
+        assertEquals(400, board.getCols());
+        assertEquals(profile.getMines(), board.countCellsOfType(CellType.MINE));
+        assertEquals(Difficulty.HARD, board.getDifficulty());
+        assertNeighborNumbersConsistent(board);
+
+        assertEquals(profile, DifficultyProfile.decode(profile.encode()));
+        assertSame(DifficultyProfile.of(Difficulty.EASY), DifficultyProfile.decode("EASY"));
+        assertThrows(IllegalArgumentException.class, () -> DifficultyProfile.custom(501, 10, 10, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> DifficultyProfile.custom(10, 10, 90, 0, 0));
+    }
+
+	//TestID: JU-BRD-6
+    @Test
+    void cascade_stopsAtMinesAndFlags_andIsRepeatable() {
+        Board board = new Board(Difficulty.HARD, 11L);
+        int cols = board.getCols();
+
+        int start = -1;
+        for (int i = 0; i < board.getRows() * cols && start < 0; i++) {
+            if (board.getType(i / cols, i % cols) == CellType.EMPTY) start = i;
+        }
+        assertTrue(start >= 0);
+
+        CascadeEngine first = board.cascadeFrom(start / cols, start % cols, null);
+        int[] opened = first.openedIndices();
+        assertTrue(opened.length > 0);
+        for (int i : opened) {
+            assertFalse(board.isMine(i / cols, i % cols));
+        }
+
+        // Second run reuses the same buffers and must give the same answer
+        assertArrayEquals(opened, board.cascadeFrom(start / cols, start % cols, null).openedIndices());
+
+        // A flag on an opened cell (other than the start) is reported instead of opened
+        if (opened.length > 1) {
+            BitSet flags = new BitSet();
+            flags.set(opened[1]);
+            CascadeEngine flagged = board.cascadeFrom(start / cols, start % cols, flags);
+            assertEquals(1, flagged.getFlaggedCount());
+            assertEquals(opened[1], flagged.getFlagged(0));
+        }
+    }
+
+	//TestID: JU-BRD-7
+    @Test
+    void openingIndex_matchesPlainFloodFill() {
+        Board board = new Board(DifficultyProfile.fromDensities(60, 80, 0.10, 0.02, 0.01), new RandomBoardGenerator(5L));
+        int cols = board.getCols();
+        OpeningIndex openings = board.getOpenings();
+        assertTrue(openings.getOpeningCount() > 0);
+
+        for (int i = 0; i < board.getRows() * cols; i++) {
+            if (openings.regionOf(i) < 0) continue;
+            int[] expected = naiveFlood(board, i);
+            int[] actual = board.cascadeFrom(i / cols, i % cols, null).openedIndices();
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+	//TestID: JU-BRD-8
+    @Test
+    void boardMarks_layersAndQueries() {
+        Board board = new Board(Difficulty.EASY, 3L);
+        BoardMarks marks = new BoardMarks(board);
+        int cells = board.getRows() * board.getCols();
+
+        assertEquals(board.getSafeCellCount(), marks.hiddenSafeCells(board).cardinality());
+        assertEquals(board.getMineCount(), marks.hiddenMines(board).cardinality());
+
+        assertTrue(marks.reveal(0, 0));
+        assertFalse(marks.reveal(0, 0));
+        marks.setFlagged(1, 1, true);
+        assertEquals(1, marks.getRevealedCount());
+        assertEquals(cells - 1, marks.unrevealedCells().cardinality());
+
+        int safe = board.getSafeCellCount();
+        int expected = safe - (board.isMine(0, 0) ? 0 : 1) - (board.isMine(1, 1) ? 0 : 1);
+        assertEquals(expected, marks.hiddenSafeCells(board).cardinality());
+
+        BitSet bits = new BitSet();
+        bits.set(3);
+        bits.set(9);
+        assertEquals(9, BoardMarks.nthSetBit(bits, 1));
+        assertEquals(-1, BoardMarks.nthSetBit(bits, 2));
+    }
+
+	//TestID: JU-BRD-9
+    @Test
+    void firstClickSafe_settleMovesMinesOutOfTheClickedBlock() {
+        DifficultyProfile profile = DifficultyProfile.of(Difficulty.HARD);
+        Board board = new Board(profile, new RandomBoardGenerator(21L), true);
+        Board twin = new Board(profile, new RandomBoardGenerator(21L), true);
+        int cols = board.getCols();
+        BitSet questions = cellsOfType(board, CellType.QUESTION);
+        BitSet surprises = cellsOfType(board, CellType.SURPRISE);
+
+        int mine = board.getMineMask().nextSetBit(0);
+        int row = mine / cols, col = mine % cols;
+        assertTrue(board.isAwaitingFirstReveal());
+        assertTrue(board.settleFirstReveal(row, col));
+        assertFalse(board.isAwaitingFirstReveal());
+        assertFalse(board.settleFirstReveal(0, 0));
+
+        for (int r = Math.max(0, row - 1); r <= Math.min(board.getRows() - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                assertFalse(board.isMine(r, c), "mine left at " + r + "," + c);
+            }
+        }
+        assertEquals(CellType.EMPTY, board.getType(row, col));
+        assertEquals(profile.getMines(), board.countCellsOfType(CellType.MINE));
+        assertEquals(profile.getMines(), board.getMineMask().cardinality());
+        assertEquals(questions, cellsOfType(board, CellType.QUESTION));
+        assertEquals(surprises, cellsOfType(board, CellType.SURPRISE));
+        assertNeighborNumbersConsistent(board);
+
+        int[] opened = board.cascadeFrom(row, col, null).openedIndices();
+        Arrays.sort(opened);
+        assertArrayEquals(naiveFlood(board, mine), opened);
+
+        twin.settleFirstReveal(row, col);
+        assertEquals(board.getMineMask(), twin.getMineMask());
+
+        Board fixed = new Board(profile, new RandomBoardGenerator(21L));
+        assertFalse(fixed.isAwaitingFirstReveal());
+        assertFalse(fixed.settleFirstReveal(row, col));
+        assertTrue(fixed.isMine(row, col));
+    }
+
+	//TestID: JU-BRD-10
+    @Test
+    void firstClickSafe_crowdedBoardKeepsAtLeastTheClickedCellClear() {
+        // 5x5 with 20 mines: the 16 cells outside a centre block cannot take the block's mines
+        DifficultyProfile crowded = DifficultyProfile.custom(5, 5, 20, 0, 0);
+        for (long seed = 1; seed <= 20; seed++) {
+            Board board = new Board(crowded, new RandomBoardGenerator(seed), true);
+            board.settleFirstReveal(2, 2);
+
+            assertFalse(board.isMine(2, 2), "seed " + seed);
+            assertEquals(20, board.countCellsOfType(CellType.MINE));
+            assertNeighborNumbersConsistent(board);
+        }
+    }
+
+	//TestID: JU-BRD-11
+    @Test
+    void metrics_countOpeningsLooseCellsAndIslands() {
+        // one mine in the middle of 5x5: the outer ring is a single opening that also uncovers the 8 numbers
+        Board single = new Board(DifficultyProfile.custom(5, 5, 1, 0, 0), fixedCells(12));
+        assertEquals(BoardMetrics.of(1, 1, 0), single.getMetrics());
+
+        // a ring of 8 mines: no zero cell anywhere, 16 outer numbers form one island and the walled-in centre another
+        Board ring = new Board(DifficultyProfile.custom(5, 5, 8, 0, 0), fixedCells(6, 7, 8, 11, 13, 16, 17, 18));
+        assertEquals(BoardMetrics.of(17, 0, 2), ring.getMetrics());
+
+        Board random = new Board(Difficulty.HARD, 9L);
+        OpeningIndex openings = random.getOpenings();
+        int cols = random.getCols();
+        int loose = 0;
+        for (int i = 0; i < random.getRows() * cols; i++) {
+            if (random.isMine(i / cols, i % cols) || openings.regionOf(i) >= 0) continue;
+            boolean touched = false;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = i / cols + dr, c = i % cols + dc;
+                    if (r >= 0 && c >= 0 && r < random.getRows() && c < cols && openings.regionOf(r * cols + c) >= 0) {
+                        touched = true;
+                    }
+                }
+            }
+            if (!touched) loose++;
+        }
+        BoardMetrics metrics = random.getMetrics();
+        assertEquals(openings.getOpeningCount(), metrics.getOpenings());
+        assertEquals(openings.getOpeningCount() + loose, metrics.get3BV());
+        assertTrue(metrics.getIslands() <= loose);
+    }
+
+	//TestID: JU-BRD-12
+    @Test
+    void sparseDraws_areDistinctSeededAndSizedToTheDraw() {
+        int cellCount = 500 * 500;
+        for (int count : new int[] { 0, 1, 9, 64 }) {
+            int[] picks = new RandomBoardGenerator(5L).drawDistinct(cellCount, count);
+            assertEquals(count, picks.length);
+            assertEquals(count, Arrays.stream(picks).distinct().count());
+            assertTrue(Arrays.stream(picks).allMatch(i -> i >= 0 && i < cellCount));
+            assertArrayEquals(picks, new RandomBoardGenerator(5L).drawDistinct(cellCount, count));
+        }
+        // a dense draw still covers the whole range
+        int[] all = new RandomBoardGenerator(5L).drawDistinct(10, 10);
+        Arrays.sort(all);
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, all);
+    }
+
+    private static BoardGenerator fixedCells(int... cells) {
+        return (cellCount, count) -> Arrays.copyOf(cells, count);
+    }
+
+    private static BitSet cellsOfType(Board board, CellType type) {
+        BitSet out = new BitSet();
+        for (int i = 0; i < board.getRows() * board.getCols(); i++) {
+            if (board.getType(i / board.getCols(), i % board.getCols()) == type) out.set(i);
+        }
+        return out;
+    }
+
+    static int[] naiveFlood(Board board, int start) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        boolean[] seen = new boolean[rows * cols];
+        Deque<Integer> todo = new ArrayDeque<>();
+        List<Integer> out = new ArrayList<>();
+        todo.push(start);
+        while (!todo.isEmpty()) {
+            int i = todo.pop();
+            if (seen[i]) continue;
+            seen[i] = true;
+            CellType type = board.getType(i / cols, i % cols);
+            if (type == CellType.MINE) continue;
+            out.add(i);
+            if (type == CellType.NUMBER) continue;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = i / cols + dr;
+                    int c = i % cols + dc;
+                    if (r >= 0 && c >= 0 && r < rows && c < cols) todo.push(r * cols + c);
+                }
+            }
+        }
+        return out.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    static boolean sameLayout(Board a, Board b) {
+        for (int r = 0; r < a.getRows(); r++) {
+            for (int c = 0; c < a.getCols(); c++) {
+                if (a.getType(r, c) != b.getType(r, c)) return false;
+            }
+        }
+        return true;
+    }
+
+    static void assertNeighborNumbersConsistent(Board board) {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                CellType type = board.getType(r, c);
+                if (type != CellType.EMPTY && type != CellType.NUMBER) continue;
+
+                int expected = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int nr = r + dr, nc = c + dc;
+                        if ((dr != 0 || dc != 0) && nr >= 0 && nc >= 0
+                                && nr < board.getRows() && nc < board.getCols()
+                                && board.isMine(nr, nc)) {
+                            expected++;
+                        }
+                    }
+                }
+
+                assertEquals(expected, board.getAdjacentMines(r, c), "adjacent at " + r + "," + c);
+                assertEquals(expected == 0 ? CellType.EMPTY : CellType.NUMBER, type);
+            }
+        }
+    }
+
+	//TestID: JU-BRD-13
+    @Test
+    void boardPool_keepsOnlyTheLatestCustomQueue() throws InterruptedException {
+        BoardPool pool = BoardPool.getInstance();
+        DifficultyProfile first = DifficultyProfile.custom(6, 7, 5, 0, 0);
+        DifficultyProfile second = DifficultyProfile.custom(7, 6, 5, 0, 0);
+
+        pool.prefill(first, BoardPool.RANDOM);
+        for (int i = 0; i < 100 && pool.available(first) < 2; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, pool.available(first));
+
+        Board[] pair = pool.preparePair(second, BoardPool.RANDOM).join();
+        assertEquals(7, pair[0].getRows());
+        assertEquals(0, pool.available(first));
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//This test class checks the shared CSV tokenizer used by the history, players and questions loaders.
+class CsvTokenizerTest {
+
+    @TempDir
+    Path dir;
+
+	//TestID: JU-CSV-1
+    @Test
+    void quotedFields_keepDelimitersLineBreaksAndQuotes() {
+        CsvTokenizer csv = tokenizer("1, \"Say \"\"hi\"\", then go\" ,x\r\n\n2,\"two\nlines\",y\n");
+
+        assertTrue(csv.nextRow());
+        assertEquals(3, csv.fieldCount());
+        assertEquals(1, csv.getInt(0));
+        assertEquals("Say \"hi\", then go", csv.getString(1));
+        assertEquals("x", csv.getString(2));
+
+        // the blank line is skipped and the row keeps the line it starts on
+        assertTrue(csv.nextRow());
+        assertEquals(3, csv.getLineNumber());
+        assertEquals("two\nlines", csv.getString(1));
+        assertEquals("y", csv.getString(2));
+        assertFalse(csv.hasError());
+        assertFalse(csv.nextRow());
+    }
+
+	//TestID: JU-CSV-2
+    @Test
+    void badValues_markTheRowInsteadOfThrowing() {
+        CsvTokenizer csv = tokenizer("12x,WIN,-7,true\n2147483648,MAYBE,,TRUE\n");
+
+        assertTrue(csv.nextRow());
+        assertEquals(0, csv.getInt(0));
+        assertTrue(csv.hasError());
+        assertEquals(GameResult.WIN, csv.getEnum(1, GameResult.values()));
+        assertEquals(-7, csv.getInt(2));
+
+        // errors belong to one row only
+        assertTrue(csv.nextRow());
+        assertFalse(csv.hasError());
+        assertEquals(0, csv.getInt(0));
+        assertEquals("field 0 is out of range", csv.getError());
+        assertNull(csv.getEnum(1, GameResult.values()));
+        assertTrue(csv.isBlank(2));
+        assertTrue(csv.getBoolean(3));
+        assertNull(csv.getStringOrNull(9));
+    }
+
+	//TestID: JU-CSV-3
+    @Test
+    void mapRemaining_parallelChunksKeepOrderAndLineNumbers() throws Exception {
+        int rows = 120_000;
+        StringBuilder sb = new StringBuilder("\uFEFFid,text,line\n");
+        for (int i = 1; i <= rows; i++) {
+            // every tenth row has a quoted line break, so a chunk cut inside quotes would show up
+            sb.append(i).append(',').append(i % 10 == 0 ? "\"multi\nline\"" : "plain-text").append(",\n");
+        }
+        assertTrue(sb.length() > CsvTokenizer.PARALLEL_THRESHOLD);
+        Path file = dir.resolve("big.csv");
+        Files.writeString(file, sb);
+
+        CsvTokenizer csv = new CsvTokenizer(CsvTokenizer.read(file), ',');
+        assertTrue(csv.nextRow());
+        assertTrue(csv.matches(0, "id", false));
+        List<int[]> parsed = csv.mapRemaining(row -> new int[] { row.getInt(0), row.getLineNumber() });
+
+        assertEquals(rows, parsed.size());
+        int expectedLine = 2;
+        for (int i = 0; i < rows; i++) {
+            assertEquals(i + 1, parsed.get(i)[0]);
+            assertEquals(expectedLine, parsed.get(i)[1]);
+            expectedLine += ((i + 1) % 10 == 0) ? 2 : 1;
+        }
+        assertFalse(csv.nextRow());
+    }
+
+    private static CsvTokenizer tokenizer(String text) {
+        return new CsvTokenizer(CharBuffer.wrap(text), ',');
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+//This test class checks the exception-free date decoder used when loading the history CSV.
+class DateDecoderTest {
+
+	//TestID: JU-DAT-1
+    @Test
+    void decode_matchesLocalDateInEveryLayout() {
+        DateDecoder decoder = new DateDecoder();
+        for (LocalDate d = LocalDate.of(1899, 12, 25); d.isBefore(LocalDate.of(2101, 3, 5)); d = d.plusDays(13)) {
+            int expected = (int) d.toEpochDay();
+            assertEquals(expected, decoder.decode(d.toString()), d::toString);
+            assertEquals(expected, decoder.decode(d.getMonthValue() + "/" + d.getDayOfMonth() + "/" + d.getYear()), d::toString);
+            assertEquals(expected, decoder.decode(String.format("%02d-%02d-%d", d.getMonthValue(), d.getDayOfMonth(), d.getYear())), d::toString);
+        }
+        assertEquals(LocalDate.of(2024, 2, 29), decoder.toLocalDate(" 2024-02-29 "));
+    }
+
+	//TestID: JU-DAT-2
+    @Test
+    void decode_rejectsWhatTheOldFormattersRejected() {
+        DateDecoder decoder = new DateDecoder();
+        for (String bad : new String[] { "", "2025-13-01", "2025-02-29", "2025-1-5", "12/7-2025",
+                "2/32/2025", "1/2/12345", "20250101", "12/x/2025", "abc" }) {
+            assertEquals(DateDecoder.INVALID, decoder.decode(bad), bad);
+        }
+        assertEquals(DateDecoder.INVALID, decoder.decode(null));
+
+        // month-first days past the end of the month move to its last day, as before
+        assertEquals(LocalDate.of(2025, 2, 28), decoder.toLocalDate("2/30/2025"));
+        assertEquals(LocalDate.of(2025, 4, 30), decoder.toLocalDate("4/31/2025"));
+    }
+}
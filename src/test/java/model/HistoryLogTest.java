@@ -0,0 +1,103 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//This test class checks the append-only history file and the write-behind queue that performs its IO.
+class HistoryLogTest {
+
+    private static final String HEADER = "date,score";
+
+    @TempDir
+    Path dir;
+
+	//TestID: JU-HLG-1
+    @Test
+    void append_writesHeaderOnceThenOneLinePerGame() throws Exception {
+        Path file = dir.resolve("history.csv");
+        List<Game> memory = new ArrayList<>();
+        HistoryLog log = new HistoryLog(file, HEADER, () -> new ArrayList<>(memory), HistoryLogTest::line, Runnable::run);
+
+        log.append(() -> memory.add(game(10)), game(10));
+        log.append(() -> memory.add(game(20)), game(20));
+
+        assertEquals(List.of(HEADER, "2025-01-01,10", "2025-01-01,20"), Files.readAllLines(file));
+        assertEquals(2, memory.size());
+        assertEquals(2, log.getPendingAppends());
+
+        // a hand-edited file without a final line break still gets a clean new row
+        Files.writeString(file, HEADER + "\n2025-01-01,5");
+        log.append(() -> { }, game(7));
+        assertEquals(List.of(HEADER, "2025-01-01,5", "2025-01-01,7"), Files.readAllLines(file));
+        log.close();
+    }
+
+	//TestID: JU-HLG-2
+    @Test
+    void compact_rewritesFromSnapshotAndLeavesNoTempFile() throws Exception {
+        // a direct executor stands in for the persistence queue: writes happen in call order
+        Path file = dir.resolve("history.csv");
+        Files.writeString(file, "old header\nbroken row\n");
+        List<Game> memory = new ArrayList<>(List.of(game(1), game(2)));
+        HistoryLog log = new HistoryLog(file, HEADER, () -> new ArrayList<>(memory), HistoryLogTest::line, Runnable::run);
+        log.append(() -> memory.add(game(3)), game(3));
+
+        log.compact();
+
+        assertEquals(List.of(HEADER, "2025-01-01,1", "2025-01-01,2", "2025-01-01,3"), Files.readAllLines(file));
+        assertEquals(0, log.getPendingAppends());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+        log.close();
+    }
+
+	//TestID: JU-HLG-3
+    @Test
+    void persistenceQueue_coalescesBurstIntoOneWriteOfTheLatestContents() throws Exception {
+        PersistenceQueue queue = PersistenceQueue.getInstance();
+        Path file = dir.resolve("players.csv");
+        CountDownLatch gate = new CountDownLatch(1);
+        try {
+            queue.execute(() -> {
+                try {
+                    gate.await(); // hold the writer so the saves below pile up
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            for (int i = 1; i <= 5; i++) {
+                queue.saveFile(file, "v" + i);
+            }
+            assertEquals(2, queue.getPendingWrites());
+            gate.countDown();
+
+            assertTrue(queue.flush(5, TimeUnit.SECONDS));
+            assertEquals("v5", Files.readString(file));
+            assertFalse(queue.hasPendingWrites());
+            assertEquals(0, queue.getPendingWrites());
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    private static Game game(int score) {
+        return new Game(null, null, "a", "b", Difficulty.EASY, score, GameResult.WIN,
+                LocalDate.of(2025, 1, 1), 60, false, null, null);
+    }
+
+    private static String line(Game g) {
+        return g.getDate() + "," + g.getFinalScore();
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+//This test class checks the columnar history store and its segment file.
+class HistoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+	//TestID: JU-HST-1
+    @Test
+    void columns_rebuildTheSameGamesAndSnapshotsStayFrozen() {
+        HistoryStore store = new HistoryStore();
+        Game custom = new Game("Alice", "Bob", "ali", "bobby", DifficultyProfile.custom(10, 12, 20, 3, 2),
+                150, GameResult.WIN, LocalDate.of(2025, 3, 9), 95, true, "A1.png", null,
+                BoardMetrics.of(40, 6, 3), 52);
+        Game guest = new Game(null, null, "ali", "guest", Difficulty.HARD, -20, GameResult.GIVE_UP,
+                null, 0, false, null, null);
+        store.add(custom);
+        HistoryStore before = store.snapshot();
+        store.add(guest);
+        for (int i = 0; i < 100; i++) {   // forces the arrays to grow under the snapshot
+            store.add(guest);
+        }
+
+        assertEquals(1, before.size());
+        assertEquals(custom.toString(), before.game(0).toString());
+        assertEquals(guest.toString(), store.game(1).toString());
+        assertThrows(IllegalStateException.class, () -> before.add(guest));
+
+        // "ali" is stored once and shared by both rows
+        assertEquals(store.getPlayer1Nickname(0), store.getPlayer1Nickname(1));
+        assertEquals(HistoryStore.NONE, store.getPlayer1Official(1));
+        assertTrue(store.isCustomBoard(0));
+        assertEquals(DateDecoder.INVALID, store.getEpochDay(1));
+        assertEquals(custom.get3BVPerSecond(), store.get3BVPerSecond(0));
+        assertEquals(custom.getEfficiency(), store.getEfficiency(0));
+    }
+
+	//TestID: JU-HST-2
+    @Test
+    void segment_roundTripsColumnsAndRejectsDamagedFiles() throws Exception {
+        History history = new History();
+        history.addGame(new Game("Alice", "Bob", "ali", "bobby", Difficulty.EASY, 80, GameResult.WIN,
+                LocalDate.of(2024, 12, 31), 61, false, null, "B2.png"));
+        history.addGame(new Game("Bob", "Dana", "bobby", "dée", Difficulty.MEDIUM, 10, GameResult.LOSE,
+                LocalDate.of(2025, 1, 2), 300, false, null, null));
+        List<Game> games = history.snapshot();
+        Path file = dir.resolve("history.seg");
+
+        HistoryStore.of(games).writeSegment(file, 1234, 0xCAFEL);
+        HistoryStore.Segment segment = HistoryStore.readSegment(file);
+
+        assertNotNull(segment);
+        assertEquals(1234, segment.getCsvBytes());
+        assertEquals(0xCAFEL, segment.getCsvCrc());
+        HistoryStore loaded = segment.getStore();
+        assertEquals(2, loaded.size());
+        for (int row = 0; row < 2; row++) {
+            assertEquals(games.get(row).toString(), loaded.game(row).toString());
+        }
+        loaded.add(games.get(0));   // a loaded store keeps growing with new games
+        assertEquals(3, loaded.size());
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertNull(HistoryStore.readSegment(file));
+        Files.writeString(file, "date,duration\n");
+        assertNull(HistoryStore.readSegment(file));
+        assertNull(HistoryStore.readSegment(dir.resolve("missing.seg")));
+    }
+}
@@ -0,0 +1,328 @@
+package solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.BoardMarks;
+import model.CellType;
+import model.Difficulty;
+
+//This test class checks FrontierSolver deductions and probabilities against hand-made and generated positions.
+class FrontierSolverTest {
+
+    private static final int C = Snapshot.COVERED;
+
+	//TestID: JU-SLV-1
+    @Test
+    void singlePoint_zeroClearsNeighboursAndOneFindsMine() {
+        // covered row on top, numbers below: 1 1 0
+        Snapshot snap = Snapshot.of(2, 3, new int[] {
+                C, C, C,
+                1, 1, 0 }, 1);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 1000);
+
+        assertTrue(result.isConsistent());
+        assertTrue(result.isExact());
+        assertTrue(result.isMine(0));
+        assertTrue(result.isSafe(1));
+        assertTrue(result.isSafe(2));
+        assertEquals(1.0, result.getProbability(0), 1e-12);
+        assertEquals(0.0, result.getProbability(0, 2), 1e-12);
+        assertTrue(Double.isNaN(result.getProbability(1, 0)));
+    }
+
+	//TestID: JU-SLV-2
+    @Test
+    void oneTwoOne_patternSolvedBySubsetRule() {
+        // 1 2 1 against a covered wall: mines under the 1s, safe under the 2
+        Snapshot snap = Snapshot.of(2, 3, new int[] {
+                C, C, C,
+                1, 2, 1 }, 2);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 1000);
+
+        assertTrue(result.isMine(0));
+        assertTrue(result.isSafe(1));
+        assertTrue(result.isMine(2));
+        assertEquals(1, result.bestMove());
+    }
+
+	//TestID: JU-SLV-3
+    @Test
+    void fiftyFifty_reportsEqualProbabilitiesAndNoCertainCells() {
+        Snapshot snap = Snapshot.of(2, 2, new int[] {
+                C, C,
+                1, 1 }, 1);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 1000);
+
+        assertTrue(result.getSafeCells().isEmpty());
+        assertTrue(result.getMineCells().isEmpty());
+        assertEquals(0.5, result.getProbability(0), 1e-12);
+        assertEquals(0.5, result.getProbability(1), 1e-12);
+    }
+
+	//TestID: JU-SLV-4
+    @Test
+    void globalMineCount_weightsFrontierAgainstUnconstrainedCells() {
+        // the 1 touches cells 0 and 1; cells 3 and 4 touch no number; exactly one mine is left,
+        // so it must be next to the 1 and the far cells are safe
+        Snapshot snap = Snapshot.of(1, 5, new int[] { C, 1, C, C, C }, 1);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 1000);
+
+        assertTrue(result.isSafe(3));
+        assertTrue(result.isSafe(4));
+        assertEquals(0.5, result.getProbability(0), 1e-12);
+        assertEquals(0.5, result.getProbability(2), 1e-12);
+    }
+
+	//TestID: JU-SLV-5
+    @Test
+    void generatedBoards_deductionsMatchLayoutAndProbabilitiesAddUp() {
+        Random random = new Random(7);
+        for (long seed = 1; seed <= 20; seed++) {
+            Board board = new Board(Difficulty.MEDIUM, seed);
+            BoardMarks marks = revealRandomSafeCells(board, random, 0.4);
+
+            Snapshot snap = Snapshot.of(board, marks);
+            SolverResult result = FrontierSolver.solveOnce(snap, 2000);
+            assertTrue(result.isConsistent(), "seed " + seed);
+
+            BitSet safe = result.getSafeCells();
+            for (int i = safe.nextSetBit(0); i >= 0; i = safe.nextSetBit(i + 1)) {
+                assertNotEquals(CellType.MINE, typeAt(board, i), "seed " + seed + " cell " + i);
+            }
+            BitSet mines = result.getMineCells();
+            for (int i = mines.nextSetBit(0); i >= 0; i = mines.nextSetBit(i + 1)) {
+                assertEquals(CellType.MINE, typeAt(board, i), "seed " + seed + " cell " + i);
+            }
+
+            if (result.isExact()) {
+                double expected = 0;
+                for (int i = 0; i < board.getRows() * board.getCols(); i++) {
+                    if (snap.isCovered(i)) expected += result.getProbability(i);
+                }
+                assertEquals(snap.getMinesLeft(), expected, 1e-6, "seed " + seed);
+            }
+        }
+    }
+
+	//TestID: JU-SLV-6
+    @Test
+    void incrementalSolver_keepsEarlierDeductions() {
+        FrontierSolver solver = new FrontierSolver(2, 3);
+        solver.solve(Snapshot.of(2, 3, new int[] {
+                C, C, C,
+                1, 1, 0 }, 1), 1000);
+
+        // the safe cells were opened (no number info added); cell 0 is still known as a mine
+        SolverResult next = solver.solve(Snapshot.of(2, 3, new int[] {
+                C, Snapshot.SAFE, Snapshot.SAFE,
+                Snapshot.SAFE, Snapshot.SAFE, Snapshot.SAFE }, 1), 1000);
+
+        assertTrue(next.isMine(0));
+        assertEquals(-1, next.bestMove());
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(Snapshot.of(1, 1, new int[] { C }, 0), 10));
+    }
+
+	//TestID: JU-SLV-7
+    @Test
+    void contradictoryNumbers_reportedAsInconsistent() {
+        Snapshot snap = Snapshot.of(1, 3, new int[] { 0, C, 2 }, 1);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 1000);
+
+        assertFalse(result.isConsistent());
+        assertFalse(result.isExact());
+    }
+
+	//TestID: JU-SLV-8
+    @Test
+    void parallelMode_matchesSequentialOnHardBoards() {
+        Random random = new Random(11);
+        for (long seed = 1; seed <= 10; seed++) {
+            Board board = new Board(Difficulty.HARD, seed);
+            Snapshot snap = Snapshot.of(board, revealRandomSafeCells(board, random, 0.35));
+
+            SolverResult seq = FrontierSolver.solveOnce(snap, 5000, SolverMode.SEQUENTIAL);
+            SolverResult par = FrontierSolver.solveOnce(snap, 5000, SolverMode.PARALLEL);
+
+            assertEquals(seq.isExact(), par.isExact(), "seed " + seed);
+            assertEquals(seq.getSafeCells(), par.getSafeCells(), "seed " + seed);
+            assertEquals(seq.getMineCells(), par.getMineCells(), "seed " + seed);
+            for (int i = 0; i < board.getRows() * board.getCols(); i++) {
+                if (snap.isCovered(i)) {
+                    assertEquals(seq.getProbability(i), par.getProbability(i), 1e-9, "seed " + seed + " cell " + i);
+                }
+            }
+        }
+    }
+
+	//TestID: JU-SLV-9
+    @Test
+    void longFrontier_countedExactlyThroughMemo() {
+        // 300 covered cells over a row of numbers: one component far beyond 2^64 assignments
+        int cols = 300;
+        Random random = new Random(3);
+        boolean[] mine = new boolean[cols];
+        int mineCount = 0;
+        for (int c = 0; c < cols; c++) {
+            mine[c] = random.nextInt(4) == 0;
+            if (mine[c]) mineCount++;
+        }
+        int[] state = new int[2 * cols];
+        for (int c = 0; c < cols; c++) {
+            state[c] = C;
+            int shown = 0;
+            for (int d = -1; d <= 1; d++) {
+                if (c + d >= 0 && c + d < cols && mine[c + d]) shown++;
+            }
+            state[cols + c] = shown;
+        }
+        Snapshot snap = Snapshot.of(2, cols, state, mineCount);
+
+        SolverResult result = FrontierSolver.solveOnce(snap, 5000, SolverMode.PARALLEL);
+
+        assertTrue(result.isExact());
+        double expected = 0;
+        for (int c = 0; c < cols; c++) {
+            expected += result.getProbability(c);
+            if (result.isSafe(c)) assertFalse(mine[c], "cell " + c);
+            if (result.isMine(c)) assertTrue(mine[c], "cell " + c);
+        }
+        assertEquals(mineCount, expected, 1e-6);
+    }
+
+	//TestID: JU-SLV-10
+    @Test
+    void memoAndBitsetEnumerators_countTheSameSolutions() {
+        Random random = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            // a 3 x 10 strip: numbers on the middle row read from random mines on the outer rows
+            int cols = 10;
+            boolean[] mine = new boolean[3 * cols];
+            for (int c = 0; c < cols; c++) {
+                mine[c] = random.nextBoolean();
+                mine[2 * cols + c] = random.nextInt(3) == 0;
+            }
+            List<int[]> constraintCells = new ArrayList<>();
+            int[] needs = new int[cols];
+            for (int c = 0; c < cols; c++) {
+                List<Integer> around = new ArrayList<>();
+                for (int d = -1; d <= 1; d++) {
+                    if (c + d < 0 || c + d >= cols) continue;
+                    around.add(c + d);
+                    around.add(2 * cols + c + d);
+                }
+                int[] cellsOf = around.stream().mapToInt(Integer::intValue).toArray();
+                for (int cell : cellsOf) if (mine[cell]) needs[c]++;
+                constraintCells.add(cellsOf);
+            }
+            int[] cells = constraintCells.stream().flatMapToInt(Arrays::stream).distinct().toArray();
+
+            Component memo = new Component(cells, constraintCells, needs, cols);
+            Component bits = new Component(cells, constraintCells, needs, cols);
+            assertTrue(MemoEnumerator.enumerate(memo, new Budget(Long.MAX_VALUE), false));
+            assertTrue(BitsetEnumerator.enumerate(bits, new Budget(Long.MAX_VALUE), false));
+
+            assertArrayEquals(bits.byMines, memo.byMines, "round " + round);
+            for (int p = 0; p < cells.length; p++) {
+                assertArrayEquals(bits.mineByMines[p], memo.mineByMines[p], "round " + round + " pos " + p);
+            }
+        }
+    }
+
+	//TestID: JU-SLV-11
+    @Test
+    void logBinomial_matchesSmallValuesAndStaysFiniteForHugeOnes() {
+        assertEquals(Math.log(10), LogBinomial.lnChoose(5, 2), 1e-12);
+        assertEquals(0.0, LogBinomial.lnChoose(7, 0), 1e-12);
+        assertEquals(Double.NEGATIVE_INFINITY, LogBinomial.lnChoose(3, 4));
+        double huge = LogBinomial.lnChoose(250_000, 50_000);
+        assertTrue(Double.isFinite(huge) && huge > 1000);
+    }
+
+	//TestID: JU-SLV-12
+    @Test
+    void estimatedComponent_neverMakesCellsCertainThroughTheMineCount() {
+        // 1 _ 1 over cells 0, 2, 4: one mine on 2, or two on 0 and 4. The estimate rounds 1.5 up to
+        // 2 mines, which would leave none for the far cells 6 and 7 and call them safe.
+        Snapshot snap = Snapshot.of(1, 8, new int[] { C, 1, C, 1, C, Snapshot.SAFE, C, C }, 2);
+        FrontierSolver solver = new FrontierSolver(1, 8);
+
+        SolverResult estimated = solver.solve(snap, 0);
+
+        assertTrue(estimated.isConsistent());
+        assertFalse(estimated.isExact());
+        assertTrue(estimated.getSafeCells().isEmpty());
+        assertTrue(estimated.getMineCells().isEmpty());
+        for (int i : new int[] { 0, 2, 4, 6, 7 }) {
+            double p = estimated.getProbability(i);
+            assertTrue(p >= 0 && p <= 1, "cell " + i + ": " + p);
+        }
+
+        // nothing was remembered from the estimate; the exact solve agrees the far cells are open
+        SolverResult exact = solver.solve(snap, 1000);
+        assertTrue(exact.isExact());
+        assertFalse(exact.isSafe(6));
+        assertFalse(exact.isSafe(7));
+        assertTrue(exact.getProbability(6) > 0 && exact.getProbability(6) < 1);
+    }
+
+	//TestID: JU-SLV-13
+    @Test
+    void parallelMode_estimatedPathOnlyReportsTrueDeductions() {
+        Snapshot small = Snapshot.of(1, 8, new int[] { C, 1, C, 1, C, Snapshot.SAFE, C, C }, 2);
+        SolverResult estimated = FrontierSolver.solveOnce(small, 0, SolverMode.PARALLEL);
+        assertFalse(estimated.isExact());
+        assertTrue(estimated.getSafeCells().isEmpty());
+        assertTrue(estimated.getMineCells().isEmpty());
+
+        // short budgets leave some components estimated, others exact; every verdict must hold
+        Random random = new Random(13);
+        for (long seed = 1; seed <= 10; seed++) {
+            Board board = new Board(Difficulty.HARD, seed);
+            Snapshot snap = Snapshot.of(board, revealRandomSafeCells(board, random, 0.3));
+            for (long budget : new long[] { 0, 1, 2 }) {
+                SolverResult result = FrontierSolver.solveOnce(snap, budget, SolverMode.PARALLEL);
+                String at = "seed " + seed + " budget " + budget;
+                assertTrue(result.isConsistent(), at);
+
+                BitSet safe = result.getSafeCells();
+                for (int i = safe.nextSetBit(0); i >= 0; i = safe.nextSetBit(i + 1)) {
+                    assertNotEquals(CellType.MINE, typeAt(board, i), at + " cell " + i);
+                }
+                BitSet mines = result.getMineCells();
+                for (int i = mines.nextSetBit(0); i >= 0; i = mines.nextSetBit(i + 1)) {
+                    assertEquals(CellType.MINE, typeAt(board, i), at + " cell " + i);
+                }
+            }
+        }
+    }
+
+    private static BoardMarks revealRandomSafeCells(Board board, Random random, double share) {
+        BoardMarks marks = new BoardMarks(board);
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                if (board.getType(r, c) != CellType.MINE && random.nextDouble() < share) {
+                    marks.reveal(r, c);
+                }
+            }
+        }
+        return marks;
+    }
+
+    private static CellType typeAt(Board board, int index) {
+        return board.getType(index / board.getCols(), index % board.getCols());
+    }
+}
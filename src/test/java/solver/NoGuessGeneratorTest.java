@@ -0,0 +1,98 @@
+package solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.BoardPool;
+import model.CellType;
+import model.Difficulty;
+import model.DifficultyProfile;
+import model.RandomBoardGenerator;
+
+//This test class checks that no-guess boards really clear by deduction and reach the board pool.
+class NoGuessGeneratorTest {
+
+	//TestID: JU-NGG-1
+    @Test
+    void guaranteedBoards_clearFromSafeStartByDeduction() {
+        NoGuessGenerator generator = new NoGuessGenerator(5000);
+        DifficultyProfile profile = DifficultyProfile.of(Difficulty.EASY);
+
+        for (int k = 0; k < 3; k++) {
+            long before = generator.getStats().getGuaranteed();
+            Board board = generator.create(profile);
+
+            int start = board.getSafeStart();
+            assertTrue(start >= 0);
+            assertNotEquals(CellType.MINE, board.getType(start / board.getCols(), start % board.getCols()));
+            if (generator.getStats().getGuaranteed() > before) {
+                assertEquals(1.0, NoGuessGenerator.deducibleShare(board, start, Long.MAX_VALUE), 1e-12);
+            }
+        }
+    }
+
+	//TestID: JU-NGG-2
+    @Test
+    void stats_countEveryBoardAsGuaranteedOrFallback() {
+        NoGuessGenerator generator = new NoGuessGenerator(1, 2);
+        DifficultyProfile profile = DifficultyProfile.of(Difficulty.MEDIUM);
+
+        generator.create(profile);
+        generator.create(profile);
+
+        NoGuessGenerator.Stats stats = generator.getStats();
+        assertEquals(2, stats.getBoards());
+        assertEquals(stats.getBoards(), stats.getGuaranteed() + stats.getFallbacks());
+        assertTrue(stats.getCandidates() >= 4);
+        assertThrows(IllegalArgumentException.class, () -> new NoGuessGenerator(0));
+    }
+
+	//TestID: JU-NGG-3
+    @Test
+    void boardPool_servesBoardsFromTheRequestedFactory() {
+        NoGuessGenerator generator = new NoGuessGenerator(2000);
+        DifficultyProfile profile = DifficultyProfile.of(Difficulty.EASY);
+
+        Board[] pair = BoardPool.getInstance().preparePair(profile, generator).join();
+
+        assertEquals(2, pair.length);
+        assertTrue(pair[0].getSafeStart() >= 0);
+        assertTrue(pair[1].getSafeStart() >= 0);
+        assertNotSame(pair[0], pair[1]);
+    }
+
+	//TestID: JU-NGG-4
+    @Test
+    void denseBoards_stillGetASafeStart() {
+        DifficultyProfile dense = DifficultyProfile.custom(6, 6, 30, 0, 0);
+
+        Board noOpening = null;
+        for (long seed = 0; noOpening == null && seed < 1000; seed++) {
+            Board board = new Board(dense, new RandomBoardGenerator(seed));
+            boolean hasEmpty = false;
+            for (int i = 0; i < 36 && !hasEmpty; i++) {
+                hasEmpty = board.getType(i / 6, i % 6) == CellType.EMPTY;
+            }
+            if (!hasEmpty) noOpening = board;
+        }
+        assertNotNull(noOpening);
+        int start = NoGuessGenerator.pickStart(noOpening);
+        assertTrue(start >= 0);
+        assertFalse(noOpening.isMine(start / 6, start % 6));
+        for (int i = 0; i < 36; i++) {
+            if (!noOpening.isMine(i / 6, i % 6)) {
+                assertTrue(noOpening.getAdjacentMines(start / 6, start % 6) <= noOpening.getAdjacentMines(i / 6, i % 6));
+            }
+        }
+
+        NoGuessGenerator generator = new NoGuessGenerator(1, 2);
+        for (int k = 0; k < 5; k++) {
+            Board board = generator.create(dense);
+            int safe = board.getSafeStart();
+            assertTrue(safe >= 0);
+            assertFalse(board.isMine(safe / 6, safe % 6));
+        }
+    }
+}